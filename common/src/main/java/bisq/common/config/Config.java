@@ -93,10 +93,12 @@ public class Config {
     public static final String TOR_CONTROL_COOKIE_FILE = "torControlCookieFile";
     public static final String TOR_CONTROL_USE_SAFE_COOKIE_AUTH = "torControlUseSafeCookieAuth";
     public static final String TOR_STREAM_ISOLATION = "torStreamIsolation";
+    public static final String USE_NIO_TRANSPORT = "useNioTransport";
     public static final String MSG_THROTTLE_PER_SEC = "msgThrottlePerSec";
     public static final String MSG_THROTTLE_PER_10_SEC = "msgThrottlePer10Sec";
     public static final String SEND_MSG_THROTTLE_TRIGGER = "sendMsgThrottleTrigger";
     public static final String SEND_MSG_THROTTLE_SLEEP = "sendMsgThrottleSleep";
+    public static final String MSG_THROTTLE_LIMITS_BY_CLASS = "msgThrottleLimitsByClass";
     public static final String IGNORE_LOCAL_BTC_NODE = "ignoreLocalBtcNode";
     public static final String BITCOIN_REGTEST_HOST = "bitcoinRegtestHost";
     public static final String BTC_NODES = "btcNodes";
@@ -110,6 +112,7 @@ public class Config {
     public static final String RPC_PORT = "rpcPort";
     public static final String RPC_BLOCK_NOTIFICATION_PORT = "rpcBlockNotificationPort";
     public static final String RPC_BLOCK_NOTIFICATION_HOST = "rpcBlockNotificationHost";
+    public static final String RPC_BLOCK_PREFETCH_WINDOW = "rpcBlockPrefetchWindow";
     public static final String DUMP_BLOCKCHAIN_DATA = "dumpBlockchainData";
     public static final String FULL_DAO_NODE = "fullDaoNode";
     public static final String GENESIS_TX_ID = "genesisTxId";
@@ -119,6 +122,8 @@ public class Config {
     public static final String ALLOW_FAULTY_DELAYED_TXS = "allowFaultyDelayedTxs";
     public static final String API_PASSWORD = "apiPassword";
     public static final String API_PORT = "apiPort";
+    public static final String API_THREADS = "apiThreads";
+    public static final int MAX_API_THREADS = 64;
     public static final String PREVENT_PERIODIC_SHUTDOWN_AT_SEED_NODE = "preventPeriodicShutdownAtSeedNode";
     public static final String REPUBLISH_MAILBOX_ENTRIES = "republishMailboxEntries";
     public static final String LEGACY_FEE_DATAMAP = "dataMap";
@@ -192,10 +197,12 @@ public class Config {
     public final File torControlCookieFile;
     public final boolean useTorControlSafeCookieAuth;
     public final boolean torStreamIsolation;
+    public final boolean useNioTransport;
     public final int msgThrottlePerSec;
     public final int msgThrottlePer10Sec;
     public final int sendMsgThrottleTrigger;
     public final int sendMsgThrottleSleep;
+    public final List<String> msgThrottleLimitsByClass;
     public final String btcNodes;
     public final boolean useTorForBtc;
     public final boolean useTorForBtcOptionSetExplicitly;
@@ -209,6 +216,7 @@ public class Config {
     public final int rpcPort;
     public final int rpcBlockNotificationPort;
     public final String rpcBlockNotificationHost;
+    public final int rpcBlockPrefetchWindow;
     public final boolean dumpBlockchainData;
     public final boolean fullDaoNode;
     public final boolean fullDaoNodeOptionSetExplicitly;
@@ -219,6 +227,7 @@ public class Config {
     public final boolean allowFaultyDelayedTxs;
     public final String apiPassword;
     public final int apiPort;
+    public final int apiThreads;
     public final boolean preventPeriodicShutdownAtSeedNode;
     public final boolean republishMailboxEntries;
     public final boolean bypassMempoolValidation;
@@ -502,31 +511,58 @@ public class Config {
         OptionSpecBuilder torStreamIsolationOpt =
                 parser.accepts(TOR_STREAM_ISOLATION, "Use stream isolation for Tor [experimental!].");
 
+        OptionSpecBuilder useNioTransportOpt =
+                parser.accepts(USE_NIO_TRANSPORT, "Handle P2P connections with a few shared NIO event loops " +
+                        "instead of a thread per connection [experimental!].");
+
         ArgumentAcceptingOptionSpec<Integer> msgThrottlePerSecOpt =
-                parser.accepts(MSG_THROTTLE_PER_SEC, "Message throttle per sec for connection class")
+                parser.accepts(MSG_THROTTLE_PER_SEC, "Max. burst of received messages per connection. " +
+                                "The sustained rate is limited by msgThrottlePer10Sec")
                         .withRequiredArg()
                         .ofType(int.class)
                         // With PERMITTED_MESSAGE_SIZE of 200kb results in bandwidth of 40MB/sec or 5 mbit/sec
                         .defaultsTo(200);
 
         ArgumentAcceptingOptionSpec<Integer> msgThrottlePer10SecOpt =
-                parser.accepts(MSG_THROTTLE_PER_10_SEC, "Message throttle per 10 sec for connection class")
+                parser.accepts(MSG_THROTTLE_PER_10_SEC, "Max. received messages per 10 sec per connection, " +
+                                "applied as sustained rate of a 10th of the value per sec. Unlike the former sliding " +
+                                "10 sec window this does not permit receiving the whole amount within a few seconds")
                         .withRequiredArg()
                         .ofType(int.class)
                         // With PERMITTED_MESSAGE_SIZE of 200kb results in bandwidth of 20MB/sec or 2.5 mbit/sec
                         .defaultsTo(1000);
 
         ArgumentAcceptingOptionSpec<Integer> sendMsgThrottleTriggerOpt =
-                parser.accepts(SEND_MSG_THROTTLE_TRIGGER, "Time in ms when we trigger a sleep if 2 messages are sent")
+                parser.accepts(SEND_MSG_THROTTLE_TRIGGER, "Min. average time in ms between 2 sent messages per connection")
                         .withRequiredArg()
                         .ofType(int.class)
-                        .defaultsTo(20); // Time in ms when we trigger a sleep if 2 messages are sent
+                        .defaultsTo(20);
 
         ArgumentAcceptingOptionSpec<Integer> sendMsgThrottleSleepOpt =
-                parser.accepts(SEND_MSG_THROTTLE_SLEEP, "Pause in ms to sleep if we get too many messages to send")
+                parser.accepts(SEND_MSG_THROTTLE_SLEEP, "Time in ms we may send ahead of the pace set by " +
+                                "sendMsgThrottleTrigger. It is not a fixed sleep anymore, the sender only waits until it " +
+                                "is back to that pace")
                         .withRequiredArg()
                         .ofType(int.class)
-                        .defaultsTo(50); // Pause in ms to sleep if we get too many messages to send
+                        .defaultsTo(50);
+
+        ArgumentAcceptingOptionSpec<String> msgThrottleLimitsByClassOpt =
+                parser.accepts(MSG_THROTTLE_LIMITS_BY_CLASS, "Stricter limits of received messages per connection " +
+                                "for single message classes, as simple class name, max. messages per sec and max. burst")
+                        .withRequiredArg()
+                        .withValuesSeparatedBy(',')
+                        .withValuesConvertedBy(RegexMatcher.regex("^\\w+:\\d+(\\.\\d+)?:\\d+$"))
+                        .describedAs("class:perSec:burst[,...]")
+                        .defaultsTo("PreliminaryGetDataRequest:0.2:5",
+                                "GetUpdatedDataRequest:0.2:5",
+                                "GetPeersRequest:0.2:5",
+                                "Ping:1:10",
+                                "Pong:1:10",
+                                "AddDataMessage:20:100",
+                                "RemoveDataMessage:20:100",
+                                "RemoveMailboxDataMessage:20:100",
+                                "RefreshOfferMessage:20:100",
+                                "AddPersistableNetworkPayloadMessage:20:100");
 
         ArgumentAcceptingOptionSpec<String> btcNodesOpt =
                 parser.accepts(BTC_NODES, "Custom nodes used for BitcoinJ as comma separated IP addresses.")
@@ -599,6 +635,13 @@ public class Config {
                         .withRequiredArg()
                         .defaultsTo("");
 
+        ArgumentAcceptingOptionSpec<Integer> rpcBlockPrefetchWindowOpt =
+                parser.accepts(RPC_BLOCK_PREFETCH_WINDOW,
+                                "Max. number of blocks requested ahead from Bitcoind while parsing the blockchain")
+                        .withRequiredArg()
+                        .ofType(int.class)
+                        .defaultsTo(20);
+
         ArgumentAcceptingOptionSpec<Boolean> dumpBlockchainDataOpt =
                 parser.accepts(DUMP_BLOCKCHAIN_DATA, "If set to true the blockchain data " +
                                 "from RPC requests to Bitcoin Core are stored as json file in the data dir.")
@@ -656,6 +699,12 @@ public class Config {
                         .ofType(Integer.class)
                         .defaultsTo(9998);
 
+        ArgumentAcceptingOptionSpec<Integer> apiThreadsOpt =
+                parser.accepts(API_THREADS, format("Number of gRPC API worker threads (1-%d)", MAX_API_THREADS))
+                        .withRequiredArg()
+                        .ofType(Integer.class)
+                        .defaultsTo(4);
+
         ArgumentAcceptingOptionSpec<Boolean> preventPeriodicShutdownAtSeedNodeOpt =
                 parser.accepts(PREVENT_PERIODIC_SHUTDOWN_AT_SEED_NODE,
                                 "Prevents periodic shutdown at seed nodes")
@@ -784,6 +833,7 @@ public class Config {
                     options.valueOf(torControlCookieFileOpt).toFile() : null;
             this.useTorControlSafeCookieAuth = options.has(torControlUseSafeCookieAuthOpt);
             this.torStreamIsolation = options.has(torStreamIsolationOpt);
+            this.useNioTransport = options.has(useNioTransportOpt);
             this.referralId = options.valueOf(referralIdOpt);
             this.useDevMode = options.valueOf(useDevModeOpt);
             this.useDevModeHeader = options.valueOf(useDevModeHeaderOpt);
@@ -801,6 +851,7 @@ public class Config {
             this.msgThrottlePer10Sec = options.valueOf(msgThrottlePer10SecOpt);
             this.sendMsgThrottleTrigger = options.valueOf(sendMsgThrottleTriggerOpt);
             this.sendMsgThrottleSleep = options.valueOf(sendMsgThrottleSleepOpt);
+            this.msgThrottleLimitsByClass = options.valuesOf(msgThrottleLimitsByClassOpt);
             this.btcNodes = options.valueOf(btcNodesOpt);
             this.useTorForBtc = options.valueOf(useTorForBtcOpt);
             this.useTorForBtcOptionSetExplicitly = options.has(useTorForBtcOpt);
@@ -814,6 +865,7 @@ public class Config {
             this.rpcPort = options.valueOf(rpcPortOpt);
             this.rpcBlockNotificationPort = options.valueOf(rpcBlockNotificationPortOpt);
             this.rpcBlockNotificationHost = options.valueOf(rpcBlockNotificationHostOpt);
+            this.rpcBlockPrefetchWindow = options.valueOf(rpcBlockPrefetchWindowOpt);
             this.dumpBlockchainData = options.valueOf(dumpBlockchainDataOpt);
             this.fullDaoNode = options.valueOf(fullDaoNodeOpt);
             this.fullDaoNodeOptionSetExplicitly = options.has(fullDaoNodeOpt);
@@ -824,6 +876,10 @@ public class Config {
             this.allowFaultyDelayedTxs = options.valueOf(allowFaultyDelayedTxsOpt);
             this.apiPassword = options.valueOf(apiPasswordOpt);
             this.apiPort = options.valueOf(apiPortOpt);
+            this.apiThreads = options.valueOf(apiThreadsOpt);
+            if (apiThreads < 1 || apiThreads > MAX_API_THREADS)
+                throw new ConfigException("The '%s' option must be between 1 and %d, but was %d",
+                        API_THREADS, MAX_API_THREADS, apiThreads);
             this.preventPeriodicShutdownAtSeedNode = options.valueOf(preventPeriodicShutdownAtSeedNodeOpt);
             this.republishMailboxEntries = options.valueOf(republishMailboxEntriesOpt);
             this.bypassMempoolValidation = options.valueOf(bypassMempoolValidationOpt);
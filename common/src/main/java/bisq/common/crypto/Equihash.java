@@ -216,6 +216,23 @@ public class Equihash {
             }
         }
 
+        /**
+         * Searches the nonces {@code firstNonce, firstNonce + step, firstNonce + 2 * step, ...} until a solution is
+         * found. Calls with distinct {@code firstNonce} in {@code [0, step)} search disjoint nonce ranges, so they can
+         * run in parallel. Returns early with an {@link InterruptedException} once the calling thread is interrupted.
+         */
+        public Solution findSolution(long firstNonce, int step) throws InterruptedException {
+            Optional<int[]> inputs;
+            for (long nonce = firstNonce; ; nonce += step) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException("Interrupted at nonce " + nonce);
+                }
+                if ((inputs = withHashPrefix(seed, nonce).findInputs()).isPresent()) {
+                    return new Solution(nonce, inputs.get());
+                }
+            }
+        }
+
         @VisibleForTesting
         int countAllSolutionsForNonce(long nonce) {
             return (int) withHashPrefix(seed, nonce).streamInputsHits()
@@ -21,7 +21,11 @@ import com.google.common.primitives.Bytes;
 import com.google.common.primitives.Longs;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -35,14 +39,20 @@ public class EquihashProofOfWorkService extends ProofOfWorkService {
     }
 
     @Override
-    public CompletableFuture<ProofOfWork> mint(byte[] payload, byte[] challenge, double difficulty) {
+    public CompletableFuture<ProofOfWork> mint(byte[] payload, byte[] challenge, double difficulty, int parallelism) {
         double scaledDifficulty = scaledDifficulty(difficulty);
         log.info("Got scaled & adjusted difficulty: {}", scaledDifficulty);
 
         return CompletableFuture.supplyAsync(() -> {
             long ts = System.currentTimeMillis();
             byte[] seed = getSeed(payload, challenge);
-            byte[] solution = new Equihash(90, 5, scaledDifficulty).puzzle(seed).findSolution().serialize();
+            Equihash.Puzzle puzzle = new Equihash(90, 5, scaledDifficulty).puzzle(seed);
+            // Each nonce is an expensive attempt, so we use a lane for each expected attempt up to the parallelism.
+            int numLanes = numLanes(DIFFICULTY_SCALE_FACTOR * difficulty, 1, parallelism);
+            List<Callable<Equihash.Puzzle.Solution>> lanes = IntStream.range(0, numLanes)
+                    .mapToObj(lane -> (Callable<Equihash.Puzzle.Solution>) () -> puzzle.findSolution(lane, numLanes))
+                    .collect(Collectors.toList());
+            byte[] solution = findFirst(lanes).serialize();
             long counter = Longs.fromByteArray(Arrays.copyOf(solution, 8));
             var proofOfWork = new ProofOfWork(payload, counter, challenge, difficulty,
                     System.currentTimeMillis() - ts, solution, getVersion());
@@ -19,6 +19,9 @@ package bisq.common.crypto;
 
 import org.bitcoinj.core.Utils;
 
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+
 import com.google.common.base.Charsets;
 
 import org.bouncycastle.crypto.digests.RIPEMD160Digest;
@@ -28,6 +31,9 @@ import java.security.NoSuchAlgorithmException;
 
 import java.nio.ByteBuffer;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -71,6 +77,37 @@ public class Hash {
         return Utils.sha256hash160(data);
     }
 
+    /**
+     * Calculates RIPEMD160(SHA256(prefix + serialized message)). The message is serialized directly into the digest,
+     * so no byte array of the serialized message gets created. Results in the same hash as
+     * getSha256Ripemd160hash(ArrayUtils.addAll(prefix, message.toByteArray())).
+     */
+    public static byte[] getSha256Ripemd160hash(byte[] prefix, MessageLite message) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(prefix, 0, prefix.length);
+            OutputStream digestOutputStream = new OutputStream() {
+                @Override
+                public void write(int b) {
+                    digest.update((byte) b);
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) {
+                    digest.update(bytes, offset, length);
+                }
+            };
+            CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(digestOutputStream,
+                    CodedOutputStream.DEFAULT_BUFFER_SIZE);
+            message.writeTo(codedOutputStream);
+            codedOutputStream.flush();
+            return getRipemd160hash(digest.digest());
+        } catch (NoSuchAlgorithmException | IOException e) {
+            log.error("Could not create hash of message. ", e);
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * Calculates RIPEMD160(data).
      */
@@ -22,7 +22,16 @@ import com.google.common.primitives.Longs;
 
 import java.nio.charset.StandardCharsets;
 
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,6 +43,9 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class HashCashService extends ProofOfWorkService {
+    // A SHA-256 attempt takes well below a microsecond, so a lane needs many attempts to pay off the thread handover.
+    private static final double MIN_ATTEMPTS_PER_LANE = 1 << 16;
+
     HashCashService() {
         super(0);
     }
@@ -41,16 +53,18 @@ public class HashCashService extends ProofOfWorkService {
     @Override
     public CompletableFuture<ProofOfWork> mint(byte[] payload,
                                                byte[] challenge,
-                                               double difficulty) {
+                                               double difficulty,
+                                               int parallelism) {
         return CompletableFuture.supplyAsync(() -> {
             long ts = System.currentTimeMillis();
             int log2Difficulty = toNumLeadingZeros(difficulty);
-            byte[] hash;
-            long counter = 0;
-            do {
-                hash = toSha256Hash(payload, challenge, ++counter);
-            }
-            while (numberOfLeadingZeros(hash) <= log2Difficulty);
+            // We need more than log2Difficulty leading zeros, which takes 2^(log2Difficulty + 1) attempts on average.
+            int numLanes = numLanes(Math.scalb(1.0, log2Difficulty + 1), MIN_ATTEMPTS_PER_LANE, parallelism);
+            List<Callable<Long>> lanes = IntStream.range(0, numLanes)
+                    .mapToObj(lane -> (Callable<Long>) () ->
+                            findCounter(payload, challenge, log2Difficulty, lane + 1, numLanes))
+                    .collect(Collectors.toList());
+            long counter = findFirst(lanes);
             byte[] solution = Longs.toByteArray(counter);
             ProofOfWork proofOfWork = new ProofOfWork(payload, counter, challenge, difficulty,
                     System.currentTimeMillis() - ts, solution, 0);
@@ -93,6 +107,34 @@ public class HashCashService extends ProofOfWorkService {
         return numberOfLeadingZeros;
     }
 
+    // Searches the counters firstCounter, firstCounter + step, ... for a hash with more than log2Difficulty leading
+    // zeros. The preimage and hash buffers are reused, only the counter suffix gets overwritten at each attempt.
+    @VisibleForTesting
+    static long findCounter(byte[] payload,
+                            byte[] challenge,
+                            int log2Difficulty,
+                            long firstCounter,
+                            int step) throws InterruptedException, NoSuchAlgorithmException, DigestException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        int counterOffset = payload.length + challenge.length;
+        byte[] preImage = Arrays.copyOf(payload, counterOffset + Long.BYTES);
+        System.arraycopy(challenge, 0, preImage, payload.length, challenge.length);
+        byte[] hash = new byte[digest.getDigestLength()];
+        for (long counter = firstCounter; ; counter += step) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException("Interrupted at counter " + counter);
+            }
+            for (int i = Long.BYTES - 1, shift = 0; i >= 0; i--, shift += 8) {
+                preImage[counterOffset + i] = (byte) (counter >>> shift);
+            }
+            digest.update(preImage, 0, preImage.length);
+            digest.digest(hash, 0, hash.length);
+            if (numberOfLeadingZeros(hash) > log2Difficulty) {
+                return counter;
+            }
+        }
+    }
+
     private static byte[] toSha256Hash(byte[] payload, byte[] challenge, long counter) {
         byte[] preImage = org.bouncycastle.util.Arrays.concatenate(payload,
                 challenge,
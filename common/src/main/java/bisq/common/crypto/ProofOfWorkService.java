@@ -17,17 +17,26 @@
 
 package bisq.common.crypto;
 
+import bisq.common.util.Utilities;
+
 import com.google.common.base.Preconditions;
 
 import java.nio.charset.StandardCharsets;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
 import lombok.Getter;
 
 public abstract class ProofOfWorkService {
+    // We leave one core to the rest of the application.
+    static final int DEFAULT_PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
     private static class InstanceHolder {
         private static final ProofOfWorkService[] INSTANCES = {
                 new HashCashService(),
@@ -35,6 +44,11 @@ public abstract class ProofOfWorkService {
         };
     }
 
+    private static class ExecutorHolder {
+        private static final ExecutorService EXECUTOR = Utilities.getThreadPoolExecutor("ProofOfWorkService",
+                DEFAULT_PARALLELISM, DEFAULT_PARALLELISM, 1000, 60);
+    }
+
     public static Optional<ProofOfWorkService> forVersion(int version) {
         return version >= 0 && version < InstanceHolder.INSTANCES.length ?
                 Optional.of(InstanceHolder.INSTANCES[version]) : Optional.empty();
@@ -47,7 +61,18 @@ public abstract class ProofOfWorkService {
         this.version = version;
     }
 
-    public abstract CompletableFuture<ProofOfWork> mint(byte[] payload, byte[] challenge, double difficulty);
+    /**
+     * Mints a proof of work by searching up to {@code parallelism} disjoint ranges of nonces in parallel. The first
+     * found solution is used and the search in the other ranges gets cancelled.
+     */
+    public abstract CompletableFuture<ProofOfWork> mint(byte[] payload,
+                                                        byte[] challenge,
+                                                        double difficulty,
+                                                        int parallelism);
+
+    public CompletableFuture<ProofOfWork> mint(byte[] payload, byte[] challenge, double difficulty) {
+        return mint(payload, challenge, difficulty, DEFAULT_PARALLELISM);
+    }
 
     abstract boolean verify(ProofOfWork proofOfWork);
 
@@ -73,4 +98,21 @@ public abstract class ProofOfWorkService {
                 proofOfWork.getDifficulty() >= controlDifficulty &&
                 verify(proofOfWork);
     }
+
+    // Splitting the search is only worth it if each lane gets at least minAttemptsPerLane attempts on average.
+    static int numLanes(double expectedAttempts, double minAttemptsPerLane, int parallelism) {
+        return (int) Math.max(1, Math.min(parallelism, expectedAttempts / minAttemptsPerLane));
+    }
+
+    // Returns the result of the first lane which completes and cancels (interrupts) the others.
+    static <T> T findFirst(List<Callable<T>> lanes) {
+        try {
+            return lanes.size() == 1 ? lanes.get(0).call() : ExecutorHolder.EXECUTOR.invokeAny(lanes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
 }
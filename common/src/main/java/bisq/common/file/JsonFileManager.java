@@ -22,11 +22,13 @@ import bisq.common.util.Utilities;
 import java.nio.file.Paths;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -80,6 +82,13 @@ public class JsonFileManager {
     }
 
     public void writeToDisc(String json, String fileName) {
+        writeToDisc(printWriter -> printWriter.print(json), fileName);
+    }
+
+    /**
+     * Lets the jsonWriter write directly to the file, so large json data does not need to be built as a string first.
+     */
+    public void writeToDisc(Consumer<PrintWriter> jsonWriter, String fileName) {
         File jsonFile = new File(Paths.get(dir.getAbsolutePath(), fileName + ".json").toString());
         File tempFile = null;
         PrintWriter printWriter = null;
@@ -88,7 +97,11 @@ public class JsonFileManager {
             tempFile.deleteOnExit();
 
             printWriter = new PrintWriter(tempFile);
-            printWriter.println(json);
+            jsonWriter.accept(printWriter);
+            printWriter.println();
+            if (printWriter.checkError()) {
+                throw new IOException("Writing to temp file failed");
+            }
 
             // This close call and comment is borrowed from FileManager. Not 100% sure it that is really needed but
             // seems that had fixed in the past and we got reported issues on Windows so that fix might be still
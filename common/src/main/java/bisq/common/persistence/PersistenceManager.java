@@ -24,11 +24,15 @@ import bisq.common.config.Config;
 import bisq.common.file.CorruptedStorageFileHandler;
 import bisq.common.file.FileUtil;
 import bisq.common.handlers.ResultHandler;
+import bisq.common.proto.persistable.JournaledPersistableEnvelope;
 import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistablePayload;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.util.SingleThreadExecutorUtils;
 import bisq.common.util.GcUtil;
 
+import com.google.protobuf.Message;
+
 import com.google.inject.Inject;
 
 import javax.inject.Named;
@@ -71,6 +75,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * the write operations got triggered way too often specially for the very frequent changes at SequenceNumberMap and
  * the very large DaoState (at dao blockchain sync that slowed down sync).
  *
+ * For large append-only data stores (e.g. trade statistics) we support a journaled mode ({@link Source#isJournaled()}).
+ * Added payloads are appended to a journal file next to the snapshot file instead of rewriting the whole store. After
+ * {@link #MAX_JOURNAL_ENTRIES} entries we compact by writing a full snapshot and deleting the journal. At reading we
+ * apply the journal entries on top of the snapshot.
  *
  * @param <T>   The type of the {@link PersistableEnvelope} to be written or read from disk
  */
@@ -82,6 +90,8 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public static final Map<String, PersistenceManager<?>> ALL_PERSISTENCE_MANAGERS = new HashMap<>();
+    static final int MAX_JOURNAL_ENTRIES = 5000;
+    private static final String JOURNAL_FILE_POSTFIX = "_journal";
     private static boolean flushAtShutdownCalled;
     private static final AtomicBoolean allServicesInitialized = new AtomicBoolean(false);
 
@@ -151,6 +161,10 @@ public class PersistenceManager<T extends PersistableEnvelope> {
                     // We get our result handler called from the write thread so we map back to user thread.
                     persistenceManager.persistNow(() ->
                             UserThread.execute(() -> onWriteCompleted(completeHandler, openInstances, persistenceManager, doShutdown)));
+                } else if (persistenceManager.source.isJournaled()) {
+                    // Appended payloads might still be queued at the write thread, so we wait until they are written.
+                    persistenceManager.flushJournal(() ->
+                            onWriteCompleted(completeHandler, openInstances, persistenceManager, doShutdown));
                 } else {
                     onWriteCompleted(completeHandler, openInstances, persistenceManager, doShutdown);
                 }
@@ -182,6 +196,10 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         // For data stores we received from the network and which could be rebuilt. We store only for avoiding too much network traffic.
         NETWORK(1, TimeUnit.MINUTES.toMillis(5), false),
 
+        // For large append-only data stores received from the network. Added entries are appended to a journal file and
+        // the full store is only written at compaction.
+        NETWORK_JOURNALED(1, TimeUnit.MINUTES.toMillis(5), false, true),
+
         // For data stores which are created from private local data. This data could only be rebuilt from backup files.
         PRIVATE(10, 200, true),
 
@@ -195,11 +213,18 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         private final long delay;
         @Getter
         private final boolean flushAtShutDown;
+        @Getter
+        private final boolean journaled;
 
         Source(int numMaxBackupFiles, long delay, boolean flushAtShutDown) {
+            this(numMaxBackupFiles, delay, flushAtShutDown, false);
+        }
+
+        Source(int numMaxBackupFiles, long delay, boolean flushAtShutDown, boolean journaled) {
             this.numMaxBackupFiles = numMaxBackupFiles;
             this.delay = delay;
             this.flushAtShutDown = flushAtShutDown;
+            this.journaled = journaled;
         }
     }
 
@@ -217,6 +242,8 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     private Source source = Source.PRIVATE_LOW_PRIO;
     private Path usedTempFilePath;
     private volatile boolean persistenceRequested;
+    // Set from the read thread at applyJournal and updated from the user thread
+    private final AtomicInteger numJournalEntries = new AtomicInteger();
     @Nullable
     private Timer timer;
     private ExecutorService writeToDiskExecutor;
@@ -357,6 +384,9 @@ public class PersistenceManager<T extends PersistableEnvelope> {
             protobuf.PersistableEnvelope proto = protobuf.PersistableEnvelope.parseDelimitedFrom(fileInputStream);
             //noinspection unchecked
             T persistableEnvelope = (T) persistenceProtoResolver.fromProto(proto);
+            if (persistableEnvelope instanceof JournaledPersistableEnvelope) {
+                applyJournal((JournaledPersistableEnvelope) persistableEnvelope, fileName);
+            }
             log.info("Reading {} completed in {} ms", fileName, System.currentTimeMillis() - ts);
             return persistableEnvelope;
         } catch (Throwable t) {
@@ -377,6 +407,33 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         return null;
     }
 
+    private void applyJournal(JournaledPersistableEnvelope persistableEnvelope, String fileName) {
+        File journalFile = new File(dir, getJournalFileName(fileName));
+        if (!journalFile.exists()) {
+            return;
+        }
+
+        long ts = System.currentTimeMillis();
+        int numEntries = 0;
+        try (FileInputStream fileInputStream = new FileInputStream(journalFile)) {
+            protobuf.PersistableNetworkPayload proto;
+            while ((proto = protobuf.PersistableNetworkPayload.parseDelimitedFrom(fileInputStream)) != null) {
+                persistableEnvelope.applyJournaledPayload(persistenceProtoResolver.fromProto(proto));
+                numEntries++;
+            }
+            numJournalEntries.set(numEntries);
+        } catch (Throwable t) {
+            // The last entry might be incomplete if we got terminated while writing it. We keep the entries we have
+            // read and write a full snapshot as soon we are permitted, which replaces the corrupted journal.
+            log.warn("Reading journal of {} failed after {} entries with {}. We will write a full snapshot.",
+                    fileName, numEntries, t.getMessage());
+            numJournalEntries.set(MAX_JOURNAL_ENTRIES);
+            persistenceRequested = true;
+        }
+        log.info("Applying {} journal entries to {} completed in {} ms",
+                numEntries, fileName, System.currentTimeMillis() - ts);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Write file to disk
@@ -399,6 +456,53 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         maybeStartTimerForPersistence();
     }
 
+    /**
+     * Persists an added payload. If our source is journaled we append the payload to the journal file, otherwise
+     * (or if the journal is full) we fall back to {@link #requestPersistence()}.
+     *
+     * @param payload   The payload which got added to the persistable.
+     */
+    public void appendToJournal(PersistablePayload payload) {
+        if (flushAtShutdownCalled) {
+            log.warn("We have started the shut down routine already. We ignore that appendToJournal call.");
+            return;
+        }
+
+        // Before all services are initialized we are not permitted to write to disk, so we let the
+        // requestPersistence call trigger the snapshot write once we are initialized.
+        if (!source.isJournaled() ||
+                !(persistable instanceof JournaledPersistableEnvelope) ||
+                !allServicesInitialized.get() ||
+                numJournalEntries.get() >= MAX_JOURNAL_ENTRIES) {
+            requestPersistence();
+            return;
+        }
+
+        Message message = payload.toProtoMessage();
+        if (!(message instanceof protobuf.PersistableNetworkPayload)) {
+            requestPersistence();
+            return;
+        }
+
+        numJournalEntries.incrementAndGet();
+        protobuf.PersistableNetworkPayload serialized = (protobuf.PersistableNetworkPayload) message;
+        getWriteToDiskExecutor().execute(() -> writeToJournal(serialized));
+    }
+
+    /**
+     * Calls the completeHandler on the user thread once all journal appends queued so far have been written.
+     *
+     * @param completeHandler   The handler called after the queued appends.
+     */
+    void flushJournal(Runnable completeHandler) {
+        if (writeToDiskExecutor == null) {
+            UserThread.execute(completeHandler);
+            return;
+        }
+
+        writeToDiskExecutor.execute(() -> UserThread.execute(completeHandler));
+    }
+
     private void maybeStartTimerForPersistence() {
         // We write to disk with a delay to avoid frequent write operations. Depending on the priority those delays
         // can be rather long.
@@ -426,6 +530,10 @@ public class PersistenceManager<T extends PersistableEnvelope> {
             // persistable object. Keeping it on the user thread we are in a synchronize model.
             protobuf.PersistableEnvelope serialized = (protobuf.PersistableEnvelope) persistable.toPersistableMessage();
 
+            // All journal entries are contained in the snapshot. The journal gets deleted after the snapshot was
+            // written. As our write executor is single threaded appends after that point go to a new journal.
+            numJournalEntries.set(0);
+
             // For the write to disk task we use a thread. We do not have any issues anymore if the persistable objects
             // gets mutated while the thread is running as we have serialized it already and do not operate on the
             // reference to the persistable object.
@@ -451,9 +559,6 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         }
 
         long ts = System.currentTimeMillis();
-        File tempFile = null;
-        FileOutputStream fileOutputStream = null;
-
         try {
             // Before we write we backup existing file
             FileUtil.rollingBackup(dir, fileName, source.getNumMaxBackupFiles());
@@ -461,48 +566,17 @@ public class PersistenceManager<T extends PersistableEnvelope> {
             if (!dir.exists() && !dir.mkdir())
                 log.warn("make dir failed {}", fileName);
 
-            tempFile = usedTempFilePath != null
-                    ? FileUtil.createNewFile(usedTempFilePath)
-                    : File.createTempFile("temp_" + fileName, null, dir);
-            // Don't use a new temp file path each time, as that causes the delete-on-exit hook to leak memory:
-            tempFile.deleteOnExit();
+            // Don't use a new temp file path each time, as that causes the delete-on-exit hook to leak memory
+            usedTempFilePath = writeToDiskAtomically(serialized, dir, fileName, storageFile, usedTempFilePath).toPath();
 
-            fileOutputStream = new FileOutputStream(tempFile);
-
-            serialized.writeDelimitedTo(fileOutputStream);
-
-            // Attempt to force the bits to hit the disk. In reality the OS or hard disk itself may still decide
-            // to not write through to physical media for at least a few seconds, but this is the best we can do.
-            fileOutputStream.flush();
-            fileOutputStream.getFD().sync();
-
-            // Close resources before replacing file with temp file because otherwise it causes problems on windows
-            // when rename temp file
-            fileOutputStream.close();
-
-            FileUtil.renameFile(tempFile, storageFile);
-            usedTempFilePath = tempFile.toPath();
+            if (source.isJournaled()) {
+                FileUtil.deleteFileIfExists(new File(dir, getJournalFileName(fileName)));
+            }
         } catch (Throwable t) {
             // If an error occurred, don't attempt to reuse this path again, in case temp file cleanup fails.
             usedTempFilePath = null;
             log.error("Error at saveToFile, storageFile={}", fileName, t);
         } finally {
-            if (tempFile != null && tempFile.exists()) {
-                log.warn("Temp file still exists after failed save. We will delete it now. storageFile={}", fileName);
-                if (!tempFile.delete()) {
-                    log.error("Cannot delete temp file.");
-                }
-            }
-
-            try {
-                if (fileOutputStream != null) {
-                    fileOutputStream.close();
-                }
-            } catch (IOException e) {
-                // We swallow that
-                e.printStackTrace();
-                log.error("Cannot close resources." + e.getMessage());
-            }
             long duration = System.currentTimeMillis() - ts;
             if (duration > 100) {
                 log.info("Writing the serialized {} completed in {} msec", fileName, duration);
@@ -514,6 +588,60 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         }
     }
 
+    /**
+     * Writes the delimited message to a temp file in dir and replaces the storageFile with it once it has been synced
+     * to disk, so a crash while writing never leaves a partially written storageFile behind.
+     *
+     * @param tempFilePath The temp file path of a previous write to reuse, or null to create a new temp file.
+     * @return The used temp file. It does not exist anymore after the rename.
+     */
+    public static File writeToDiskAtomically(Message message,
+                                             File dir,
+                                             String fileName,
+                                             File storageFile,
+                                             @Nullable Path tempFilePath) throws IOException {
+        File tempFile = tempFilePath != null
+                ? FileUtil.createNewFile(tempFilePath)
+                : File.createTempFile("temp_" + fileName, null, dir);
+        tempFile.deleteOnExit();
+        try {
+            try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+                message.writeDelimitedTo(fileOutputStream);
+
+                // Attempt to force the bits to hit the disk. In reality the OS or hard disk itself may still decide
+                // to not write through to physical media for at least a few seconds, but this is the best we can do.
+                fileOutputStream.flush();
+                fileOutputStream.getFD().sync();
+            }
+
+            // Close resources before replacing file with temp file because otherwise it causes problems on windows
+            // when rename temp file
+            FileUtil.renameFile(tempFile, storageFile);
+            return tempFile;
+        } finally {
+            if (tempFile.exists()) {
+                log.warn("Temp file still exists after failed save. We will delete it now. storageFile={}", fileName);
+                if (!tempFile.delete()) {
+                    log.error("Cannot delete temp file.");
+                }
+            }
+        }
+    }
+
+    private void writeToJournal(protobuf.PersistableNetworkPayload serialized) {
+        try (FileOutputStream fileOutputStream = new FileOutputStream(new File(dir, getJournalFileName(fileName)), true)) {
+            serialized.writeDelimitedTo(fileOutputStream);
+        } catch (Throwable t) {
+            log.error("Error at appending to journal, storageFile={}", fileName, t);
+            // We fall back to a full write of the snapshot
+            UserThread.execute(this::requestPersistence);
+        }
+    }
+
+    private static String getJournalFileName(String fileName) {
+        return fileName + JOURNAL_FILE_POSTFIX;
+    }
+
     private ExecutorService getWriteToDiskExecutor() {
         if (writeToDiskExecutor == null) {
             String name = "Write-" + fileName + "_to-disk";
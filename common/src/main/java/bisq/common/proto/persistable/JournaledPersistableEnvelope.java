@@ -0,0 +1,28 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto.persistable;
+
+/**
+ * Envelope which supports being persisted as a snapshot plus an append-only journal of added payloads.
+ * The journal entries are serialized as protobuf.PersistableNetworkPayload and applied on top of the snapshot
+ * when reading the persisted data.
+ */
+public interface JournaledPersistableEnvelope extends PersistableEnvelope {
+
+    void applyJournaledPayload(PersistablePayload payload);
+}
@@ -126,6 +126,27 @@ public class ConfigTests {
         assertThat(config.appName, equalTo("BisqTest"));
     }
 
+    @Test
+    public void whenApiThreadsOptionIsOutOfRange_thenConfigExceptionIsThrown() {
+        Exception exception = assertThrows(ConfigException.class, () -> configWithOpts(opt(API_THREADS, "0")));
+        assertTrue(exception.getMessage().contains(format("The '%s' option must be between 1 and %d, but was 0",
+                API_THREADS, MAX_API_THREADS)));
+
+        assertThrows(ConfigException.class, () -> configWithOpts(opt(API_THREADS, String.valueOf(MAX_API_THREADS + 1))));
+    }
+
+    @Test
+    public void whenMsgThrottleLimitsByClassOptionIsSet_thenLimitsAreParsedAsList() {
+        Config config = configWithOpts(opt(MSG_THROTTLE_LIMITS_BY_CLASS, "Ping:1:10,AddDataMessage:0.5:20"));
+        assertThat(config.msgThrottleLimitsByClass, contains("Ping:1:10", "AddDataMessage:0.5:20"));
+    }
+
+    @Test
+    public void whenMsgThrottleLimitsByClassOptionIsMalformed_thenConfigExceptionIsThrown() {
+        assertThrows(ConfigException.class, () -> configWithOpts(opt(MSG_THROTTLE_LIMITS_BY_CLASS, "Ping:1")));
+        assertThrows(ConfigException.class, () -> configWithOpts(opt(MSG_THROTTLE_LIMITS_BY_CLASS, "Ping:x:10")));
+    }
+
     @Test
     public void whenOptionFileArgumentDoesNotExist_thenConfigExceptionIsThrown() {
         String filepath = getProperty("os.name").startsWith("Windows") ? "C:\\does\\not\\exist" : "/does/not/exist";
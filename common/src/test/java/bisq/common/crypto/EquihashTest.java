@@ -25,6 +25,7 @@ import com.google.common.base.Strings;
 import com.google.common.collect.ConcurrentHashMultiset;
 import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.Multiset;
+import com.google.common.primitives.Longs;
 
 import java.util.Arrays;
 import java.util.stream.Collectors;
@@ -82,6 +83,20 @@ public class EquihashTest {
         assertEquals(solution.toString(), roundTrippedSolution.toString());
     }
 
+    @Test
+    public void testFindSolutionInLane() throws InterruptedException {
+        Equihash equihash = new Equihash(90, 5, 2.0);
+        byte[] seed = new byte[32];
+        Solution solution = equihash.puzzle(seed).findSolution(1, 4);
+
+        byte[] solutionBytes = solution.serialize();
+        Solution roundTrippedSolution = equihash.puzzle(seed).deserializeSolution(solutionBytes);
+
+        assertTrue(roundTrippedSolution.verify());
+        // The nonce is serialized into the first 8 bytes and must be in the lane 1, 5, 9, ...
+        assertEquals(1, Longs.fromByteArray(Arrays.copyOf(solutionBytes, 8)) % 4);
+    }
+
     @Test
     @Disabled
     public void benchmarkFindSolution() {
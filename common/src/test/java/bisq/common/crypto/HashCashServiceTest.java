@@ -43,6 +43,27 @@ public class HashCashServiceTest {
         assertEquals(1024, HashCashService.toNumLeadingZeros(Double.POSITIVE_INFINITY));
     }
 
+    @Test
+    public void testParallelMint() throws ExecutionException, InterruptedException {
+        HashCashService service = new HashCashService();
+        byte[] payload = "payload".getBytes(StandardCharsets.UTF_8);
+        byte[] challenge = "challenge".getBytes(StandardCharsets.UTF_8);
+        double difficulty = Math.scalb(1.0, 18);
+        ProofOfWork proofOfWork = service.mint(payload, challenge, difficulty, 4).get();
+        assertTrue(service.verify(proofOfWork));
+    }
+
+    @Test
+    public void testFindCounterSearchesDisjointLanes() throws Exception {
+        byte[] payload = "payload".getBytes(StandardCharsets.UTF_8);
+        byte[] challenge = "challenge".getBytes(StandardCharsets.UTF_8);
+        long counter = HashCashService.findCounter(payload, challenge, 8, 1, 1);
+        // A lane starting at a found counter finds it at its first attempt
+        assertEquals(counter, HashCashService.findCounter(payload, challenge, 8, counter, 3));
+        long laneCounter = HashCashService.findCounter(payload, challenge, 8, 2, 3);
+        assertEquals(2, laneCounter % 3);
+    }
+
     // @Ignore
     @Test
     public void testDiffIncrease() throws ExecutionException, InterruptedException {
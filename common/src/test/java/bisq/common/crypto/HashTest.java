@@ -0,0 +1,47 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.crypto;
+
+import com.google.protobuf.ByteString;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class HashTest {
+
+    @Test
+    public void testStreamedSha256Ripemd160hashMatchesArrayVersion() {
+        Random random = new Random(1);
+        byte[] prefix = new byte[20];
+        random.nextBytes(prefix);
+        // Larger than the buffer of the CodedOutputStream
+        byte[] data = new byte[100_000];
+        random.nextBytes(data);
+        protobuf.ByteArray message = protobuf.ByteArray.newBuilder().setBytes(ByteString.copyFrom(data)).build();
+
+        assertArrayEquals(Hash.getSha256Ripemd160hash(ArrayUtils.addAll(prefix, message.toByteArray())),
+                Hash.getSha256Ripemd160hash(prefix, message));
+        assertArrayEquals(Hash.getSha256Ripemd160hash(message.toByteArray()),
+                Hash.getSha256Ripemd160hash(new byte[0], message));
+    }
+}
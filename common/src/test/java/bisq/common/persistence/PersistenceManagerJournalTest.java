@@ -0,0 +1,249 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.persistence;
+
+import bisq.common.Payload;
+import bisq.common.proto.persistable.JournaledPersistableEnvelope;
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistablePayload;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+
+import java.nio.file.Path;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PersistenceManagerJournalTest {
+    private static final String FILE_NAME = "TestStore";
+
+    @TempDir
+    Path tempDir;
+    private File dir;
+    private final List<PersistenceManager<?>> persistenceManagers = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        dir = tempDir.toFile();
+        PersistenceManager.onAllServicesInitialized();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        persistenceManagers.forEach(PersistenceManager::shutdown);
+    }
+
+    @Test
+    public void testAppendedPayloadsAreAppliedAtReading() throws Exception {
+        TestStore store = new TestStore(1, 2);
+        PersistenceManager<TestStore> persistenceManager = createPersistenceManager(store);
+        persistNow(persistenceManager);
+
+        append(persistenceManager, store, 3);
+        append(persistenceManager, store, 4);
+        flushJournal(persistenceManager);
+
+        assertEquals(2, numJournalEntries());
+        assertEquals(List.of(1L, 2L, 3L, 4L), readPersisted().dates);
+    }
+
+    @Test
+    public void testTornJournalTailIsDroppedAndCompacted() throws Exception {
+        TestStore store = new TestStore(1);
+        PersistenceManager<TestStore> persistenceManager = createPersistenceManager(store);
+        persistNow(persistenceManager);
+        append(persistenceManager, store, 2);
+        append(persistenceManager, store, 3);
+        flushJournal(persistenceManager);
+        persistenceManager.shutdown();
+
+        // Simulate a crash while the last entry was written
+        File journalFile = getJournalFile();
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(journalFile, "rw")) {
+            randomAccessFile.setLength(randomAccessFile.length() - 1);
+        }
+        long journalLength = journalFile.length();
+
+        TestStore recovered = readPersisted();
+        assertEquals(List.of(1L, 2L), recovered.dates);
+
+        // The corrupted journal must not be appended to, we write a full snapshot instead
+        PersistenceManager<TestStore> recoveredPersistenceManager = createPersistenceManager(recovered);
+        recoveredPersistenceManager.getPersisted();
+        append(recoveredPersistenceManager, recovered, 4);
+        flushJournal(recoveredPersistenceManager);
+        assertEquals(journalLength, journalFile.length());
+
+        persistNow(recoveredPersistenceManager);
+        assertFalse(journalFile.exists());
+        assertEquals(List.of(1L, 2L, 4L), readPersisted().dates);
+    }
+
+    @Test
+    public void testFullJournalIsCompacted() throws Exception {
+        TestStore store = new TestStore();
+        PersistenceManager<TestStore> persistenceManager = createPersistenceManager(store);
+        persistNow(persistenceManager);
+        for (long date = 0; date < PersistenceManager.MAX_JOURNAL_ENTRIES; date++) {
+            append(persistenceManager, store, date);
+        }
+        flushJournal(persistenceManager);
+        assertEquals(PersistenceManager.MAX_JOURNAL_ENTRIES, numJournalEntries());
+
+        // The journal is full, so the next payload is only contained in the next snapshot
+        append(persistenceManager, store, PersistenceManager.MAX_JOURNAL_ENTRIES);
+        flushJournal(persistenceManager);
+        assertEquals(PersistenceManager.MAX_JOURNAL_ENTRIES, numJournalEntries());
+
+        persistNow(persistenceManager);
+        assertFalse(getJournalFile().exists());
+
+        // After the compaction we start a new journal
+        append(persistenceManager, store, PersistenceManager.MAX_JOURNAL_ENTRIES + 1);
+        flushJournal(persistenceManager);
+        assertEquals(1, numJournalEntries());
+
+        List<Long> expected = LongStream.rangeClosed(0, PersistenceManager.MAX_JOURNAL_ENTRIES + 1).boxed()
+                .collect(Collectors.toList());
+        assertEquals(expected, readPersisted().dates);
+    }
+
+    private PersistenceManager<TestStore> createPersistenceManager(TestStore store) {
+        PersistenceManager<TestStore> persistenceManager = new PersistenceManager<>(dir, new TestProtoResolver(), null);
+        persistenceManager.initialize(store, PersistenceManager.Source.NETWORK_JOURNALED);
+        persistenceManagers.add(persistenceManager);
+        return persistenceManager;
+    }
+
+    private TestStore readPersisted() {
+        return new PersistenceManager<TestStore>(dir, new TestProtoResolver(), null).getPersisted(FILE_NAME);
+    }
+
+    private static void append(PersistenceManager<TestStore> persistenceManager, TestStore store, long date) {
+        TestPayload payload = new TestPayload(date);
+        store.applyJournaledPayload(payload);
+        persistenceManager.appendToJournal(payload);
+    }
+
+    private static void persistNow(PersistenceManager<TestStore> persistenceManager) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        persistenceManager.persistNow(latch::countDown);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    private static void flushJournal(PersistenceManager<TestStore> persistenceManager) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        persistenceManager.flushJournal(latch::countDown);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    private File getJournalFile() {
+        return new File(dir, FILE_NAME + "_journal");
+    }
+
+    private int numJournalEntries() throws IOException {
+        int numEntries = 0;
+        try (FileInputStream fileInputStream = new FileInputStream(getJournalFile())) {
+            while (protobuf.PersistableNetworkPayload.parseDelimitedFrom(fileInputStream) != null) {
+                numEntries++;
+            }
+        }
+        return numEntries;
+    }
+
+    private static class TestStore implements JournaledPersistableEnvelope {
+        private final List<Long> dates = new ArrayList<>();
+
+        TestStore(long... dates) {
+            LongStream.of(dates).forEach(this.dates::add);
+        }
+
+        @Override
+        public protobuf.PersistableEnvelope toProtoMessage() {
+            return protobuf.PersistableEnvelope.newBuilder()
+                    .setAccountAgeWitnessStore(protobuf.AccountAgeWitnessStore.newBuilder()
+                            .addAllItems(dates.stream().map(TestPayload::toWitness).collect(Collectors.toList())))
+                    .build();
+        }
+
+        @Override
+        public void applyJournaledPayload(PersistablePayload payload) {
+            dates.add(((TestPayload) payload).date);
+        }
+
+        @Override
+        public String getDefaultStorageFileName() {
+            return FILE_NAME;
+        }
+    }
+
+    private static class TestPayload implements PersistablePayload {
+        private final long date;
+
+        TestPayload(long date) {
+            this.date = date;
+        }
+
+        @Override
+        public protobuf.PersistableNetworkPayload toProtoMessage() {
+            return protobuf.PersistableNetworkPayload.newBuilder()
+                    .setAccountAgeWitness(toWitness(date))
+                    .build();
+        }
+
+        private static protobuf.AccountAgeWitness toWitness(long date) {
+            return protobuf.AccountAgeWitness.newBuilder().setDate(date).build();
+        }
+    }
+
+    private static class TestProtoResolver implements PersistenceProtoResolver {
+        @Override
+        public PersistableEnvelope fromProto(protobuf.PersistableEnvelope proto) {
+            TestStore store = new TestStore();
+            proto.getAccountAgeWitnessStore().getItemsList().forEach(witness -> store.dates.add(witness.getDate()));
+            return store;
+        }
+
+        @Override
+        public PersistablePayload fromProto(protobuf.PersistableNetworkPayload proto) {
+            return new TestPayload(proto.getAccountAgeWitness().getDate());
+        }
+
+        @Override
+        public Payload fromProto(protobuf.PaymentAccountPayload proto) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
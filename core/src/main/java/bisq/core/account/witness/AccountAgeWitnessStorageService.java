@@ -57,7 +57,7 @@ public class AccountAgeWitnessStorageService extends HistoricalDataStoreService<
 
     @Override
     protected void initializePersistenceManager() {
-        persistenceManager.initialize(store, PersistenceManager.Source.NETWORK);
+        persistenceManager.initialize(store, PersistenceManager.Source.NETWORK_JOURNALED);
     }
 
     @Override
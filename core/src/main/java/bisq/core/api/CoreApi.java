@@ -23,6 +23,7 @@ import bisq.core.api.model.TxFeeRateInfo;
 import bisq.core.btc.wallet.TxBroadcaster;
 import bisq.core.monetary.Price;
 import bisq.core.offer.Offer;
+import bisq.core.offer.OfferBookService;
 import bisq.core.offer.OpenOffer;
 import bisq.core.payment.PaymentAccount;
 import bisq.core.payment.payload.PaymentMethod;
@@ -168,6 +169,22 @@ public class CoreApi {
         return coreOffersService.getOffers(direction, currencyCode, all);
     }
 
+    public List<Offer> getOfferBookOffers(String direction, String currencyCode) {
+        return coreOffersService.getOfferBookOffers(direction, currencyCode);
+    }
+
+    public boolean isOfferBookOfferMatching(Offer offer, String direction, String currencyCode) {
+        return coreOffersService.isOfferBookOfferMatching(offer, direction, currencyCode);
+    }
+
+    public void addOfferBookChangedListener(OfferBookService.OfferBookChangedListener listener) {
+        coreOffersService.addOfferBookChangedListener(listener);
+    }
+
+    public void removeOfferBookChangedListener(OfferBookService.OfferBookChangedListener listener) {
+        coreOffersService.removeOfferBookChangedListener(listener);
+    }
+
     public List<OpenOffer> getMyOffers(String direction, String currencyCode) {
         return coreOffersService.getMyOffers(direction, currencyCode);
     }
@@ -342,6 +359,14 @@ public class CoreApi {
         return coreTradesService.getOpenTrades();
     }
 
+    public void addTradeChangeListener(Consumer<TradeModel> listener) {
+        coreTradesService.addTradeChangeListener(listener);
+    }
+
+    public void removeTradeChangeListener(Consumer<TradeModel> listener) {
+        coreTradesService.removeTradeChangeListener(listener);
+    }
+
     public List<TradeModel> getTradeHistory(GetTradesRequest.Category category) {
         return coreTradesService.getTradeHistory(category);
     }
@@ -378,6 +403,14 @@ public class CoreApi {
         return walletsService.getBalances(currencyCode);
     }
 
+    public void addBalancesChangedListener(Runnable listener) {
+        walletsService.addBalancesChangedListener(listener);
+    }
+
+    public void removeBalancesChangedListener(Runnable listener) {
+        walletsService.removeBalancesChangedListener(listener);
+    }
+
     public long getAddressBalance(String addressString) {
         return walletsService.getAddressBalance(addressString);
     }
@@ -46,6 +46,8 @@ import javax.inject.Singleton;
 
 import java.math.BigDecimal;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
@@ -151,8 +153,7 @@ class CoreOffersService {
     }
 
     Optional<Offer> findAvailableOffer(String id) {
-        return offerBookService.getOffers().stream()
-                .filter(o -> o.getId().equals(id))
+        return offerBookService.findOffer(id)
                 .filter(o -> !o.isMyOffer(keyRing))
                 .filter(o -> offerFilterService.canTakeOffer(o, coreContext.isApiUser()).isValid())
                 .findAny();
@@ -176,12 +177,10 @@ class CoreOffersService {
     }
 
     Optional<Offer> findAvailableBsqSwapOffer(String id) {
-        return offerBookService.getOffers().stream()
-                .filter(o -> o.getId().equals(id))
+        return offerBookService.findOffer(id)
                 .filter(o -> !o.isMyOffer(keyRing))
                 .filter(o -> offerFilterService.canTakeOffer(o, coreContext.isApiUser()).isValid())
-                .filter(Offer::isBsqSwapOffer)
-                .findAny();
+                .filter(Offer::isBsqSwapOffer);
     }
 
     Offer getMyBsqSwapOffer(String id) {
@@ -190,11 +189,9 @@ class CoreOffersService {
     }
 
     Optional<Offer> findMyBsqSwapOffer(String id) {
-        return offerBookService.getOffers().stream()
-                .filter(o -> o.getId().equals(id))
+        return offerBookService.findOffer(id)
                 .filter(o -> o.isMyOffer(keyRing))
-                .filter(Offer::isBsqSwapOffer)
-                .findAny();
+                .filter(Offer::isBsqSwapOffer);
     }
 
     List<Offer> getBsqSwapOffers(String direction) {
@@ -210,7 +207,7 @@ class CoreOffersService {
         var upperCaseCurrencyCode = currencyCode.toUpperCase();
         var isFiat = isFiatCurrency(upperCaseCurrencyCode);
         if (isFiat) {
-            return offerBookService.getOffers().stream()
+            return getOffersOfMarket(direction, upperCaseCurrencyCode).stream()
                     .filter(o -> !o.isMyOffer(keyRing))
                     .filter(o -> offerMatchesDirectionAndCurrency(o, direction, upperCaseCurrencyCode))
                     .filter(o -> all || offerFilterService.canTakeOffer(o, coreContext.isApiUser()).isValid())
@@ -222,7 +219,7 @@ class CoreOffersService {
             // This forces an extra filtering step below:  get all BTC offers,
             // then filter on the currencyCode param (the altcoin code).
             if (apiSupportsCryptoCurrency(upperCaseCurrencyCode))
-                return offerBookService.getOffers().stream()
+                return getOffersOfMarket(direction, upperCaseCurrencyCode).stream()
                         .filter(o -> !o.isMyOffer(keyRing))
                         .filter(o -> offerMatchesDirectionAndCurrency(o, direction, "BTC"))
                         .filter(o -> o.getBaseCurrencyCode().equalsIgnoreCase(upperCaseCurrencyCode))
@@ -235,6 +232,30 @@ class CoreOffersService {
         }
     }
 
+    // Returns the available offers of the offer book matching the (optional) direction and currency code, without the
+    // filtering on the user's payment accounts applied by getOffers.
+    List<Offer> getOfferBookOffers(String direction, String currencyCode) {
+        return offerBookService.getOffers().stream()
+                .filter(o -> isOfferBookOfferMatching(o, direction, currencyCode))
+                .collect(Collectors.toList());
+    }
+
+    // Empty direction or currencyCode parameters match all offers.  The currencyCode is the fiat code for fiat offers
+    // and the altcoin code for altcoin offers (see Offer.getCurrencyCode).
+    boolean isOfferBookOfferMatching(Offer offer, String direction, String currencyCode) {
+        return !offer.isMyOffer(keyRing)
+                && (direction.isEmpty() || offer.getDirection().name().equalsIgnoreCase(direction))
+                && (currencyCode.isEmpty() || offer.getCurrencyCode().equalsIgnoreCase(currencyCode));
+    }
+
+    void addOfferBookChangedListener(OfferBookService.OfferBookChangedListener listener) {
+        offerBookService.addOfferBookChangedListener(listener);
+    }
+
+    void removeOfferBookChangedListener(OfferBookService.OfferBookChangedListener listener) {
+        offerBookService.removeOfferBookChangedListener(listener);
+    }
+
     List<OpenOffer> getMyOffers(String direction, String currencyCode) {
         var upperCaseCurrencyCode = currencyCode.toUpperCase();
         var isFiat = isFiatCurrency(upperCaseCurrencyCode);
@@ -522,6 +543,16 @@ class CoreOffersService {
         }
     }
 
+    // Uses the market index of the offer book. The currencyCode is the fiat code for fiat offers and the altcoin code
+    // for altcoin offers (see Offer.getCurrencyCode).
+    private List<Offer> getOffersOfMarket(String direction, String currencyCode) {
+        return Arrays.stream(OfferDirection.values())
+                .filter(d -> d.name().equalsIgnoreCase(direction))
+                .findAny()
+                .map(d -> offerBookService.getOffers(currencyCode, d))
+                .orElse(new ArrayList<>());
+    }
+
     private boolean offerMatchesDirectionAndCurrency(Offer offer,
                                                      String direction,
                                                      String currencyCode) {
@@ -52,9 +52,17 @@ import org.bitcoinj.core.Coin;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import javafx.beans.value.ChangeListener;
+
+import javafx.collections.ListChangeListener;
+
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -85,6 +93,13 @@ class CoreTradesService {
     private final TradeUtil tradeUtil;
     private final User user;
 
+    // Listeners of the trade subscriptions, and the state listeners installed on the open trades.  The trade lists are
+    // observed only while there is at least one subscription.
+    private final Set<Consumer<TradeModel>> tradeChangeListeners = new CopyOnWriteArraySet<>();
+    private final Map<String, ChangeListener<Object>> tradeStateListeners = new HashMap<>();
+    private final ListChangeListener<Trade> tradeListChangeListener = this::onTradeListChanged;
+    private final ListChangeListener<BsqSwapTrade> bsqSwapTradeListChangeListener = this::onBsqSwapTradeListChanged;
+
     @Inject
     public CoreTradesService(CoreContext coreContext,
                              CoreWalletsService coreWalletsService,
@@ -336,6 +351,22 @@ class CoreTradesService {
         return new ArrayList<>(tradeManager.getTrades());
     }
 
+    // The listener is called on the UserThread with the open trade which was added, removed (closed or failed), or
+    // whose state or dispute state changed.
+    void addTradeChangeListener(Consumer<TradeModel> listener) {
+        coreWalletsService.verifyWalletsAreAvailable();
+        coreWalletsService.verifyEncryptedWalletIsUnlocked();
+        if (tradeChangeListeners.isEmpty())
+            observeTrades();
+
+        tradeChangeListeners.add(listener);
+    }
+
+    void removeTradeChangeListener(Consumer<TradeModel> listener) {
+        if (tradeChangeListeners.remove(listener) && tradeChangeListeners.isEmpty())
+            stopObservingTrades();
+    }
+
     List<TradeModel> getTradeHistory(GetTradesRequest.Category category) {
         coreWalletsService.verifyWalletsAreAvailable();
         coreWalletsService.verifyEncryptedWalletIsUnlocked();
@@ -386,6 +417,58 @@ class CoreTradesService {
         return closedTradableFormatter.getStateAsString(tradable);
     }
 
+    private void observeTrades() {
+        tradeManager.getObservableList().forEach(this::addTradeStateListener);
+        tradeManager.getObservableList().addListener(tradeListChangeListener);
+        bsqSwapTradeManager.getObservableList().addListener(bsqSwapTradeListChangeListener);
+    }
+
+    private void stopObservingTrades() {
+        tradeManager.getObservableList().removeListener(tradeListChangeListener);
+        bsqSwapTradeManager.getObservableList().removeListener(bsqSwapTradeListChangeListener);
+        tradeManager.getObservableList().forEach(this::removeTradeStateListener);
+        tradeStateListeners.clear();
+    }
+
+    private void onTradeListChanged(ListChangeListener.Change<? extends Trade> change) {
+        while (change.next()) {
+            change.getAddedSubList().forEach(trade -> {
+                addTradeStateListener(trade);
+                notifyTradeChangeListeners(trade);
+            });
+            change.getRemoved().forEach(trade -> {
+                removeTradeStateListener(trade);
+                notifyTradeChangeListeners(trade);
+            });
+        }
+    }
+
+    // BSQ swap trades are completed when they are added to the list.
+    private void onBsqSwapTradeListChanged(ListChangeListener.Change<? extends BsqSwapTrade> change) {
+        while (change.next()) {
+            change.getAddedSubList().forEach(this::notifyTradeChangeListeners);
+        }
+    }
+
+    private void addTradeStateListener(Trade trade) {
+        ChangeListener<Object> listener = (observable, oldValue, newValue) -> notifyTradeChangeListeners(trade);
+        trade.stateProperty().addListener(listener);
+        trade.disputeStateProperty().addListener(listener);
+        tradeStateListeners.put(trade.getId(), listener);
+    }
+
+    private void removeTradeStateListener(Trade trade) {
+        ChangeListener<Object> listener = tradeStateListeners.remove(trade.getId());
+        if (listener != null) {
+            trade.stateProperty().removeListener(listener);
+            trade.disputeStateProperty().removeListener(listener);
+        }
+    }
+
+    private void notifyTradeChangeListeners(TradeModel trade) {
+        tradeChangeListeners.forEach(listener -> listener.accept(trade));
+    }
+
     private Optional<Trade> getOpenTrade(String tradeId) {
         return tradeManager.getTradeById(tradeId);
     }
@@ -29,6 +29,7 @@ import bisq.core.api.model.TxFeeRateInfo;
 import bisq.core.app.AppStartupState;
 import bisq.core.btc.Balances;
 import bisq.core.btc.exceptions.AddressEntryException;
+import bisq.core.btc.listeners.BsqBalanceListener;
 import bisq.core.btc.exceptions.BsqChangeBelowDustException;
 import bisq.core.btc.exceptions.InsufficientFundsException;
 import bisq.core.btc.exceptions.TransactionVerificationException;
@@ -50,6 +51,7 @@ import bisq.common.Timer;
 import bisq.common.UserThread;
 import bisq.common.handlers.ResultHandler;
 import bisq.common.util.SingleThreadExecutorUtils;
+import bisq.common.util.Tuple2;
 
 import org.bitcoinj.core.Address;
 import org.bitcoinj.core.Coin;
@@ -73,9 +75,13 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 
+import javafx.beans.value.ChangeListener;
+
 import org.bouncycastle.crypto.params.KeyParameter;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
@@ -117,6 +123,9 @@ class CoreWalletsService {
     @Nullable
     private KeyParameter tempAesKey;
 
+    // The BTC and BSQ balance listeners registered for each balance subscription listener.
+    private final Map<Runnable, Tuple2<ChangeListener<Coin>, BsqBalanceListener>> balancesChangedListeners = new HashMap<>();
+
     private final ListeningExecutorService executor = SingleThreadExecutorUtils.getSingleThreadListeningExecutor("CoreWalletsService");
 
     @Inject
@@ -183,6 +192,33 @@ class CoreWalletsService {
         }
     }
 
+    // The listener is called on the UserThread when any of the BTC or BSQ wallet balances changed.
+    void addBalancesChangedListener(Runnable listener) {
+        ChangeListener<Coin> btcBalanceListener = (observable, oldValue, newValue) -> listener.run();
+        BsqBalanceListener bsqBalanceListener = (availableBalance,
+                                                 availableNonBsqBalance,
+                                                 unverifiedBalance,
+                                                 unconfirmedChangeBalance,
+                                                 lockedForVotingBalance,
+                                                 lockedInBondsBalance,
+                                                 unlockingBondsBalance) -> listener.run();
+        balances.getAvailableBalance().addListener(btcBalanceListener);
+        balances.getReservedBalance().addListener(btcBalanceListener);
+        balances.getLockedBalance().addListener(btcBalanceListener);
+        bsqWalletService.addBsqBalanceListener(bsqBalanceListener);
+        balancesChangedListeners.put(listener, new Tuple2<>(btcBalanceListener, bsqBalanceListener));
+    }
+
+    void removeBalancesChangedListener(Runnable listener) {
+        Tuple2<ChangeListener<Coin>, BsqBalanceListener> tuple = balancesChangedListeners.remove(listener);
+        if (tuple != null) {
+            balances.getAvailableBalance().removeListener(tuple.first);
+            balances.getReservedBalance().removeListener(tuple.first);
+            balances.getLockedBalance().removeListener(tuple.first);
+            bsqWalletService.removeBsqBalanceListener(tuple.second);
+        }
+    }
+
     long getAddressBalance(String addressString) {
         Address address = getAddressEntry(addressString).getAddress();
         return btcWalletService.getBalanceForAddress(address).value;
@@ -0,0 +1,196 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Sha256Hash;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionInput;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.wallet.Wallet;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.SetMultimap;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+/**
+ * Index of the non-dead wallet transactions, their output addresses and the spend candidates by address.
+ * <p>
+ * Wallet changes only increment a version (that is called from the wallet thread while holding the wallet lock).
+ * A query which finds the index outdated builds a new index from the wallet and publishes it. We do not hold any lock
+ * of our own while doing that, so the wallet lock is the only lock involved. Transactions whose connected inputs did
+ * not change since they got indexed are taken over from the previous index, so only new transactions and
+ * transactions with newly connected inputs get their addresses extracted again. The spend candidates are recomputed
+ * in one pass over the wallet and grouped by address, so a query for a single address does not need to scan all
+ * outputs.
+ */
+class WalletAddressIndex {
+    private static class IndexedTx {
+        private final Transaction tx;
+        private final List<TransactionOutput> connectedOutputs;
+        private final Set<Address> addresses;
+        private final List<Address> outputAddresses;
+
+        private IndexedTx(Transaction tx) {
+            this.tx = tx;
+            connectedOutputs = getConnectedOutputs(tx);
+            addresses = WalletService.getOutputsWithConnectedOutputs(tx).stream()
+                    .map(WalletService::getAddressFromOutput)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            outputAddresses = tx.getOutputs().stream()
+                    .map(WalletService::getAddressFromOutput)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+
+        // Inputs can get connected at any time, e.g. if the spent transaction arrives after the spending one
+        // got confirmed, so we compare the connected outputs by identity.
+        private boolean isUpToDate(Transaction tx) {
+            if (this.tx != tx) {
+                return false;
+            }
+            List<TransactionOutput> currentConnectedOutputs = getConnectedOutputs(tx);
+            if (currentConnectedOutputs.size() != connectedOutputs.size()) {
+                return false;
+            }
+            for (int i = 0; i < connectedOutputs.size(); i++) {
+                if (currentConnectedOutputs.get(i) != connectedOutputs.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static List<TransactionOutput> getConnectedOutputs(Transaction tx) {
+            return tx.getInputs().stream()
+                    .map(TransactionInput::getConnectedOutput)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // Immutable after it got published
+    private static class TxIndex {
+        private final long walletVersion;
+        private final Map<Sha256Hash, IndexedTx> indexedTxById;
+        private final SetMultimap<Address, Transaction> txsByAddress = HashMultimap.create();
+        private final Multiset<Address> txOutputAddresses = HashMultiset.create();
+
+        private TxIndex(long walletVersion, Set<Transaction> transactions, @Nullable TxIndex previous) {
+            this.walletVersion = walletVersion;
+            indexedTxById = new HashMap<>(transactions.size());
+            transactions.forEach(tx -> {
+                IndexedTx indexedTx = previous != null ? previous.indexedTxById.get(tx.getTxId()) : null;
+                if (indexedTx == null || !indexedTx.isUpToDate(tx)) {
+                    indexedTx = new IndexedTx(tx);
+                }
+                indexedTxById.put(tx.getTxId(), indexedTx);
+                indexedTx.addresses.forEach(address -> txsByAddress.put(address, tx));
+                txOutputAddresses.addAll(indexedTx.outputAddresses);
+            });
+        }
+    }
+
+    // Immutable after it got published
+    private static class SpendCandidateIndex {
+        private final long walletVersion;
+        private final ListMultimap<Address, TransactionOutput> spendCandidatesByAddress = ArrayListMultimap.create();
+
+        private SpendCandidateIndex(long walletVersion, List<TransactionOutput> spendCandidates) {
+            this.walletVersion = walletVersion;
+            spendCandidates.forEach(output -> {
+                Address outputAddress = WalletService.isOutputScriptConvertibleToAddress(output) ?
+                        WalletService.getAddressFromOutput(output) : null;
+                if (outputAddress != null) {
+                    spendCandidatesByAddress.put(outputAddress, output);
+                }
+            });
+        }
+    }
+
+    private final AtomicLong walletVersion = new AtomicLong();
+    @Nullable
+    private volatile TxIndex txIndex;
+    @Nullable
+    private volatile SpendCandidateIndex spendCandidateIndex;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void onWalletChanged() {
+        walletVersion.incrementAndGet();
+    }
+
+    Set<Transaction> getTransactions(Wallet wallet, Address address) {
+        return ImmutableSet.copyOf(getTxIndex(wallet).txsByAddress.get(address));
+    }
+
+    @Nullable
+    Transaction getTransaction(Wallet wallet, Sha256Hash txId) {
+        IndexedTx indexedTx = getTxIndex(wallet).indexedTxById.get(txId);
+        return indexedTx != null ? indexedTx.tx : null;
+    }
+
+    int getNumTxOutputs(Wallet wallet, Address address) {
+        return getTxIndex(wallet).txOutputAddresses.count(address);
+    }
+
+    List<TransactionOutput> getSpendCandidates(Wallet wallet, Address address) {
+        SpendCandidateIndex index = spendCandidateIndex;
+        // We read the version before the wallet, so a change while we read marks our result as outdated
+        long version = walletVersion.get();
+        if (index == null || index.walletVersion != version) {
+            index = new SpendCandidateIndex(version, wallet.calculateAllSpendCandidates());
+            spendCandidateIndex = index;
+        }
+        return ImmutableList.copyOf(index.spendCandidatesByAddress.get(address));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private TxIndex getTxIndex(Wallet wallet) {
+        TxIndex index = txIndex;
+        // We read the version before the wallet, so a change while we read marks our result as outdated
+        long version = walletVersion.get();
+        if (index == null || index.walletVersion != version) {
+            index = new TxIndex(version, wallet.getTransactions(false), index);
+            txIndex = index;
+        }
+        return index;
+    }
+}
@@ -72,11 +72,6 @@ import org.bitcoinj.wallet.listeners.WalletReorganizeEventListener;
 
 import javax.inject.Inject;
 
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMultiset;
-import com.google.common.collect.ImmutableSetMultimap;
-import com.google.common.collect.Multiset;
-import com.google.common.collect.SetMultimap;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.MoreExecutors;
@@ -88,12 +83,9 @@ import org.bouncycastle.crypto.params.KeyParameter;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -122,9 +114,7 @@ public abstract class WalletService {
     private final CopyOnWriteArraySet<TxConfidenceListener> txConfidenceListeners = new CopyOnWriteArraySet<>();
     private final CopyOnWriteArraySet<BalanceListener> balanceListeners = new CopyOnWriteArraySet<>();
     private final WalletChangeEventListener cacheInvalidationListener;
-    private final AtomicReference<Multiset<Address>> txOutputAddressCache = new AtomicReference<>();
-    private final AtomicReference<SetMultimap<Address, Transaction>> addressToMatchingTxSetCache = new AtomicReference<>();
-    private final AtomicReference<Map<Sha256Hash, Transaction>> txByIdCache = new AtomicReference<>();
+    private final WalletAddressIndex addressIndex = new WalletAddressIndex();
     @Getter
     protected Wallet wallet;
     @Getter
@@ -147,11 +137,7 @@ public abstract class WalletService {
 
         params = walletsSetup.getParams();
 
-        cacheInvalidationListener = wallet -> {
-            txOutputAddressCache.set(null);
-            addressToMatchingTxSetCache.set(null);
-            txByIdCache.set(null);
-        };
+        cacheInvalidationListener = wallet -> addressIndex.onWalletChanged();
     }
 
 
@@ -444,7 +430,7 @@ public abstract class WalletService {
     public TransactionConfidence getConfidenceForAddress(Address address) {
         List<TransactionConfidence> transactionConfidenceList = new ArrayList<>();
         if (wallet != null) {
-            Set<Transaction> transactions = getAddressToMatchingTxSetMultimap().get(address);
+            Set<Transaction> transactions = addressIndex.getTransactions(wallet, address);
             transactionConfidenceList.addAll(transactions.stream().map(tx ->
                     getTransactionConfidence(tx, address)).collect(Collectors.toList()));
         }
@@ -455,7 +441,7 @@ public abstract class WalletService {
     public TransactionConfidence getConfidenceForAddressFromBlockHeight(Address address, long targetHeight) {
         List<TransactionConfidence> transactionConfidenceList = new ArrayList<>();
         if (wallet != null) {
-            Set<Transaction> transactions = getAddressToMatchingTxSetMultimap().get(address);
+            Set<Transaction> transactions = addressIndex.getTransactions(wallet, address);
             // "acceptable confidence" is either a new (pending) Tx, or a Tx confirmed after target block height
             transactionConfidenceList.addAll(transactions.stream()
                     .map(tx -> getTransactionConfidence(tx, address))
@@ -468,25 +454,10 @@ public abstract class WalletService {
         return getMostRecentConfidence(transactionConfidenceList);
     }
 
-    private SetMultimap<Address, Transaction> getAddressToMatchingTxSetMultimap() {
-        return addressToMatchingTxSetCache.updateAndGet(map -> map != null ? map : computeAddressToMatchingTxSetMultimap());
-    }
-
-    private SetMultimap<Address, Transaction> computeAddressToMatchingTxSetMultimap() {
-        return wallet.getTransactions(false).stream()
-                .collect(ImmutableSetMultimap.flatteningToImmutableSetMultimap(
-                        Function.identity(),
-                        (Function<Transaction, Stream<Address>>) (
-                                t -> getOutputsWithConnectedOutputs(t).stream()
-                                        .map(WalletService::getAddressFromOutput)
-                                        .filter(Objects::nonNull))))
-                .inverse();
-    }
-
     @Nullable
     public TransactionConfidence getConfidenceForTxId(@Nullable String txId) {
         if (wallet != null && txId != null && !txId.isEmpty()) {
-            Transaction tx = getTxByIdMap().get(Sha256Hash.wrap(txId));
+            Transaction tx = addressIndex.getTransaction(wallet, Sha256Hash.wrap(txId));
             if (tx != null) {
                 return tx.getConfidence();
             }
@@ -494,15 +465,6 @@ public abstract class WalletService {
         return null;
     }
 
-    private Map<Sha256Hash, Transaction> getTxByIdMap() {
-        return txByIdCache.updateAndGet(map -> map != null ? map : computeTxByIdMap());
-    }
-
-    private Map<Sha256Hash, Transaction> computeTxByIdMap() {
-        return wallet.getTransactions(false).stream()
-                .collect(ImmutableMap.toImmutableMap(Transaction::getTxId, tx -> tx));
-    }
-
     @Nullable
     private TransactionConfidence getTransactionConfidence(Transaction tx, Address address) {
         List<TransactionConfidence> transactionConfidenceList = getOutputsWithConnectedOutputs(tx).stream()
@@ -514,7 +476,7 @@ public abstract class WalletService {
     }
 
 
-    private List<TransactionOutput> getOutputsWithConnectedOutputs(Transaction tx) {
+    static List<TransactionOutput> getOutputsWithConnectedOutputs(Transaction tx) {
         List<TransactionOutput> transactionOutputs = tx.getOutputs();
         List<TransactionOutput> connectedOutputs = new ArrayList<>();
 
@@ -565,7 +527,7 @@ public abstract class WalletService {
     }
 
     public Coin getBalanceForAddress(Address address) {
-        return wallet != null ? getBalance(wallet.calculateAllSpendCandidates(), address) : Coin.ZERO;
+        return wallet != null ? getBalance(addressIndex.getSpendCandidates(wallet, address), address) : Coin.ZERO;
     }
 
     protected Coin getBalance(List<TransactionOutput> transactionOutputs, Address address) {
@@ -601,19 +563,7 @@ public abstract class WalletService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public int getNumTxOutputsForAddress(Address address) {
-        return getTxOutputAddressMultiset().count(address);
-    }
-
-    private Multiset<Address> getTxOutputAddressMultiset() {
-        return txOutputAddressCache.updateAndGet(set -> set != null ? set : computeTxOutputAddressMultiset());
-    }
-
-    private Multiset<Address> computeTxOutputAddressMultiset() {
-        return wallet.getTransactions(false).stream()
-                .flatMap(t -> t.getOutputs().stream())
-                .map(WalletService::getAddressFromOutput)
-                .filter(Objects::nonNull)
-                .collect(ImmutableMultiset.toImmutableMultiset());
+        return addressIndex.getNumTxOutputs(wallet, address);
     }
 
     public boolean isAddressUnused(Address address) {
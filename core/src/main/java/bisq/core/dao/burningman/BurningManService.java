@@ -29,9 +29,11 @@ import bisq.core.dao.state.DaoStateService;
 import bisq.core.dao.state.model.blockchain.BaseTx;
 import bisq.core.dao.state.model.blockchain.Tx;
 import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
 import bisq.core.dao.state.model.governance.CompensationProposal;
 import bisq.core.dao.state.model.governance.Issuance;
 import bisq.core.dao.state.model.governance.IssuanceType;
+import bisq.core.dao.state.model.governance.Proposal;
 
 import bisq.network.p2p.storage.P2PDataStorage;
 
@@ -42,9 +44,13 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableList;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -91,11 +97,35 @@ public class BurningManService {
     // that deposit plus the trade amount the limiting factor here is 11% (0.15 / 1.3).
     public static final double MAX_BURN_SHARE = 0.11;
 
+    // Number of selection heights for which we keep the candidates. Traders use the same selection height for about
+    // 10 blocks, the presentation services use the chain height.
+    private static final int MAX_CACHED_SELECTION_HEIGHTS = 10;
+
 
     private final DaoStateService daoStateService;
     private final CyclesInDaoStateService cyclesInDaoStateService;
     private final ProposalService proposalService;
 
+    // Indexes and caches are derived from the DAO state and the proposals and are updated when those change, so results
+    // are the same as if calculated from scratch. They are only accessed from the user thread.
+    private final Map<String, List<CompensationProposal>> compensationProposalsByTxId = new HashMap<>();
+    private int numIndexedProposalPayloads;
+    private final Map<P2PDataStorage.ByteArray, Set<TxOutput>> proofOfBurnOpReturnTxOutputsByHash = new HashMap<>();
+    private int proofOfBurnIndexHeight;
+    private String proofOfBurnIndexBlockHash = "";
+    private final Map<String, P2PDataStorage.ByteArray> proofOfBurnHashByName = new HashMap<>();
+    private final Map<Integer, Map<String, BurningManCandidate>> burningManCandidatesByNameBySelectionHeight =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Map<String, BurningManCandidate>> eldest) {
+                    return size() > MAX_CACHED_SELECTION_HEIGHTS;
+                }
+            };
+    private String cachedLastBlockHash = "";
+    private int cachedNumTxsOfLastBlock;
+    private int cachedNumIssuances;
+    private int cachedNumProposalPayloads;
+
     @Inject
     public BurningManService(DaoStateService daoStateService,
                              CyclesInDaoStateService cyclesInDaoStateService,
@@ -111,8 +141,34 @@ public class BurningManService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     Map<String, BurningManCandidate> getBurningManCandidatesByName(int chainHeight) {
+        maybeClearCachedBurningManCandidates();
+        return burningManCandidatesByNameBySelectionHeight.computeIfAbsent(chainHeight,
+                height -> Collections.unmodifiableMap(createBurningManCandidatesByName(height)));
+    }
+
+    String getLegacyBurningManAddress(int chainHeight) {
+        return daoStateService.getParamValue(Param.RECIPIENT_BTC_ADDRESS, chainHeight);
+    }
+
+    Set<BurningManCandidate> getActiveBurningManCandidates(int chainHeight) {
+        return getBurningManCandidatesByName(chainHeight).values().stream()
+                .filter(burningManCandidate -> burningManCandidate.getCappedBurnAmountShare() > 0)
+                .filter(candidate -> candidate.getReceiverAddress().isPresent())
+                .collect(Collectors.toSet());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Map<String, BurningManCandidate> createBurningManCandidatesByName(int chainHeight) {
         Map<String, BurningManCandidate> burningManCandidatesByName = new HashMap<>();
-        Map<P2PDataStorage.ByteArray, Set<TxOutput>> proofOfBurnOpReturnTxOutputByHash = getProofOfBurnOpReturnTxOutputByHash(chainHeight);
+        updateProofOfBurnIndex();
+        updateCompensationProposalIndex();
+        // The past cycle heights depend only on the chainHeight, so we look them up once for all decay calculations.
+        int compensationChainHeightOfPastCycle = cyclesInDaoStateService.getChainHeightOfPastCycle(chainHeight, NUM_CYCLES_COMP_REQUEST_DECAY);
+        int burnChainHeightOfPastCycle = cyclesInDaoStateService.getChainHeightOfPastCycle(chainHeight, NUM_CYCLES_BURN_AMOUNT_DECAY);
 
         // Add contributors who made a compensation request
         daoStateService.getIssuanceSetForType(IssuanceType.COMPENSATION).stream()
@@ -139,7 +195,7 @@ public class BurningManService {
                                     long issuanceAmount = getIssuanceAmountForCompensationRequest(issuance);
                                     int cycleIndex = cyclesInDaoStateService.getCycleIndexAtChainHeight(issuanceHeight);
                                     if (isValidCompensationRequest(name, cycleIndex, issuanceAmount)) {
-                                        long decayedIssuanceAmount = getDecayedCompensationAmount(issuanceAmount, issuanceHeight, chainHeight);
+                                        long decayedIssuanceAmount = getDecayedAmount(issuanceAmount, issuanceHeight, chainHeight, compensationChainHeightOfPastCycle);
                                         long issuanceDate = daoStateService.getBlockTime(issuanceHeight);
                                         candidate.addCompensationModel(CompensationModel.fromCompensationRequest(receiverAddress.get(),
                                                 isCustomAddress,
@@ -151,7 +207,7 @@ public class BurningManService {
                                                 cycleIndex));
                                     }
                                 }
-                                addBurnOutputModel(chainHeight, proofOfBurnOpReturnTxOutputByHash, name, candidate);
+                                addBurnOutputModel(chainHeight, burnChainHeightOfPastCycle, name, candidate);
                             });
                         }
                 );
@@ -175,7 +231,7 @@ public class BurningManService {
                             txOutput.getTxId(),
                             txOutput.getIndex(),
                             issuanceDate));
-                    addBurnOutputModel(chainHeight, proofOfBurnOpReturnTxOutputByHash, name, candidate);
+                    addBurnOutputModel(chainHeight, burnChainHeightOfPastCycle, name, candidate);
                 }));
 
         Collection<BurningManCandidate> burningManCandidates = burningManCandidatesByName.values();
@@ -200,40 +256,84 @@ public class BurningManService {
         return burningManCandidatesByName;
     }
 
-    String getLegacyBurningManAddress(int chainHeight) {
-        return daoStateService.getParamValue(Param.RECIPIENT_BTC_ADDRESS, chainHeight);
+    Map<P2PDataStorage.ByteArray, Set<TxOutput>> getProofOfBurnOpReturnTxOutputByHash(int chainHeight) {
+        updateProofOfBurnIndex();
+        Map<P2PDataStorage.ByteArray, Set<TxOutput>> map = new HashMap<>();
+        proofOfBurnOpReturnTxOutputsByHash.forEach((key, txOutputs) -> {
+            Set<TxOutput> txOutputsUpToChainHeight = getTxOutputsUpToChainHeight(txOutputs, chainHeight);
+            if (!txOutputsUpToChainHeight.isEmpty()) {
+                map.put(key, txOutputsUpToChainHeight);
+            }
+        });
+        return map;
     }
 
-    Set<BurningManCandidate> getActiveBurningManCandidates(int chainHeight) {
-        return getBurningManCandidatesByName(chainHeight).values().stream()
-                .filter(burningManCandidate -> burningManCandidate.getCappedBurnAmountShare() > 0)
-                .filter(candidate -> candidate.getReceiverAddress().isPresent())
-                .collect(Collectors.toSet());
+    // The candidates at a given height depend on the DAO state and the proposals. New blocks, txs and issuances change
+    // the DAO state, a reorg replaces the last block. Proposals are only added.
+    private void maybeClearCachedBurningManCandidates() {
+        String lastBlockHash = daoStateService.getBlockHashOfLastBlock();
+        int numTxsOfLastBlock = daoStateService.getLastBlock().map(block -> block.getTxs().size()).orElse(0);
+        int numIssuances = daoStateService.getIssuanceItems().size();
+        int numProposalPayloads = proposalService.getProposalPayloads().size();
+        if (!lastBlockHash.equals(cachedLastBlockHash) ||
+                numTxsOfLastBlock != cachedNumTxsOfLastBlock ||
+                numIssuances != cachedNumIssuances ||
+                numProposalPayloads != cachedNumProposalPayloads) {
+            burningManCandidatesByNameBySelectionHeight.clear();
+            cachedLastBlockHash = lastBlockHash;
+            cachedNumTxsOfLastBlock = numTxsOfLastBlock;
+            cachedNumIssuances = numIssuances;
+            cachedNumProposalPayloads = numProposalPayloads;
+        }
     }
 
+    // Proposal payloads are only appended, so we only index the new ones.
+    private void updateCompensationProposalIndex() {
+        List<ProposalPayload> proposalPayloads = proposalService.getProposalPayloads();
+        if (proposalPayloads.size() < numIndexedProposalPayloads) {
+            compensationProposalsByTxId.clear();
+            numIndexedProposalPayloads = 0;
+        }
+        for (int i = numIndexedProposalPayloads; i < proposalPayloads.size(); i++) {
+            Proposal proposal = proposalPayloads.get(i).getProposal();
+            if (proposal instanceof CompensationProposal) {
+                compensationProposalsByTxId.computeIfAbsent(proposal.getTxId(), txId -> new ArrayList<>())
+                        .add((CompensationProposal) proposal);
+            }
+        }
+        numIndexedProposalPayloads = proposalPayloads.size();
+    }
 
-    ///////////////////////////////////////////////////////////////////////////////////////////
-    // Private
-    ///////////////////////////////////////////////////////////////////////////////////////////
+    // We add the proof of burn outputs of new blocks. The last indexed block is scanned again as it might have got more
+    // txs while being parsed (adding is idempotent). If it is not in the chain anymore (reorg or snapshot applied) we
+    // rebuild the index.
+    private void updateProofOfBurnIndex() {
+        int lastBlockHeight = daoStateService.getBlockHeightOfLastBlock();
+        boolean isIndexedBlockInChain = daoStateService.getBlockAtHeight(proofOfBurnIndexHeight)
+                .map(block -> block.getHash().equals(proofOfBurnIndexBlockHash))
+                .orElse(false);
+        if (isIndexedBlockInChain) {
+            for (int height = proofOfBurnIndexHeight; height <= lastBlockHeight; height++) {
+                daoStateService.getBlockAtHeight(height).ifPresent(block -> block.getTxs().stream()
+                        .flatMap(tx -> tx.getTxOutputs().stream())
+                        .filter(txOutput -> txOutput.getTxOutputType() == TxOutputType.PROOF_OF_BURN_OP_RETURN_OUTPUT)
+                        .forEach(this::addToProofOfBurnIndex));
+            }
+        } else {
+            proofOfBurnOpReturnTxOutputsByHash.clear();
+            daoStateService.getProofOfBurnOpReturnTxOutputs().forEach(this::addToProofOfBurnIndex);
+        }
+        proofOfBurnIndexHeight = lastBlockHeight;
+        proofOfBurnIndexBlockHash = daoStateService.getBlockHashOfLastBlock();
+    }
 
-    Map<P2PDataStorage.ByteArray, Set<TxOutput>> getProofOfBurnOpReturnTxOutputByHash(int chainHeight) {
-        Map<P2PDataStorage.ByteArray, Set<TxOutput>> map = new HashMap<>();
-        daoStateService.getProofOfBurnOpReturnTxOutputs().stream()
-                .filter(txOutput -> txOutput.getBlockHeight() <= chainHeight)
-                .forEach(txOutput -> {
-                    P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(ProofOfBurnConsensus.getHashFromOpReturnData(txOutput.getOpReturnData()));
-                    map.putIfAbsent(key, new HashSet<>());
-                    map.get(key).add(txOutput);
-                });
-        return map;
+    private void addToProofOfBurnIndex(TxOutput txOutput) {
+        P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(ProofOfBurnConsensus.getHashFromOpReturnData(txOutput.getOpReturnData()));
+        proofOfBurnOpReturnTxOutputsByHash.computeIfAbsent(key, k -> new HashSet<>()).add(txOutput);
     }
 
     private Stream<CompensationProposal> getCompensationProposalsForIssuance(Issuance issuance) {
-        return proposalService.getProposalPayloads().stream()
-                .map(ProposalPayload::getProposal)
-                .filter(proposal -> issuance.getTxId().equals(proposal.getTxId()))
-                .filter(proposal -> proposal instanceof CompensationProposal)
-                .map(proposal -> (CompensationProposal) proposal);
+        return compensationProposalsByTxId.getOrDefault(issuance.getTxId(), List.of()).stream();
     }
 
 
@@ -267,11 +367,6 @@ public class BurningManService {
         return !isReimbursementOfRefundAgent;
     }
 
-    private long getDecayedCompensationAmount(long amount, int issuanceHeight, int chainHeight) {
-        int chainHeightOfPastCycle = cyclesInDaoStateService.getChainHeightOfPastCycle(chainHeight, NUM_CYCLES_COMP_REQUEST_DECAY);
-        return getDecayedAmount(amount, issuanceHeight, chainHeight, chainHeightOfPastCycle);
-    }
-
     // Linear decay between currentBlockHeight (100% of amount) and issuanceHeight
     // chainHeightOfPastCycle is currentBlockHeight - numCycles*cycleDuration. It changes with each block and
     // distance to currentBlockHeight is the same if cycle durations have not changed (possible via DAo voting but never done).
@@ -299,15 +394,15 @@ public class BurningManService {
     }
 
     private void addBurnOutputModel(int chainHeight,
-                                    Map<P2PDataStorage.ByteArray, Set<TxOutput>> proofOfBurnOpReturnTxOutputByHash,
+                                    int burnChainHeightOfPastCycle,
                                     String name,
                                     BurningManCandidate candidate) {
-        getProofOfBurnOpReturnTxOutputSetForName(proofOfBurnOpReturnTxOutputByHash, name)
+        getProofOfBurnOpReturnTxOutputSetForName(name, chainHeight)
                 .forEach(burnOutput -> {
                     int burnOutputHeight = burnOutput.getBlockHeight();
                     Optional<Tx> optionalTx = daoStateService.getTx(burnOutput.getTxId());
                     long burnOutputAmount = optionalTx.map(Tx::getBurntBsq).orElse(0L);
-                    long decayedBurnOutputAmount = getDecayedBurnedAmount(burnOutputAmount, burnOutputHeight, chainHeight);
+                    long decayedBurnOutputAmount = getDecayedAmount(burnOutputAmount, burnOutputHeight, chainHeight, burnChainHeightOfPastCycle);
                     long date = optionalTx.map(BaseTx::getTime).orElse(0L);
                     int cycleIndex = cyclesInDaoStateService.getCycleIndexAtChainHeight(burnOutputHeight);
                     candidate.addBurnOutputModel(new BurnOutputModel(burnOutputAmount,
@@ -319,24 +414,22 @@ public class BurningManService {
                 });
     }
 
-    private static Set<TxOutput> getProofOfBurnOpReturnTxOutputSetForName(Map<P2PDataStorage.ByteArray, Set<TxOutput>> proofOfBurnOpReturnTxOutputByHash,
-                                                                          String name) {
-        byte[] preImage = name.getBytes(Charsets.UTF_8);
-        byte[] hash = ProofOfBurnConsensus.getHash(preImage);
-        P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(hash);
-        if (proofOfBurnOpReturnTxOutputByHash.containsKey(key)) {
-            return proofOfBurnOpReturnTxOutputByHash.get(key);
+    private Set<TxOutput> getProofOfBurnOpReturnTxOutputSetForName(String name, int chainHeight) {
+        P2PDataStorage.ByteArray key = proofOfBurnHashByName.computeIfAbsent(name, n -> {
+            byte[] preImage = n.getBytes(Charsets.UTF_8);
+            return new P2PDataStorage.ByteArray(ProofOfBurnConsensus.getHash(preImage));
+        });
+        if (proofOfBurnOpReturnTxOutputsByHash.containsKey(key)) {
+            return getTxOutputsUpToChainHeight(proofOfBurnOpReturnTxOutputsByHash.get(key), chainHeight);
         } else {
             return new HashSet<>();
         }
     }
 
-    private long getDecayedBurnedAmount(long amount, int issuanceHeight, int chainHeight) {
-        int chainHeightOfPastCycle = cyclesInDaoStateService.getChainHeightOfPastCycle(chainHeight, NUM_CYCLES_BURN_AMOUNT_DECAY);
-        return getDecayedAmount(amount,
-                issuanceHeight,
-                chainHeight,
-                chainHeightOfPastCycle);
+    private static Set<TxOutput> getTxOutputsUpToChainHeight(Set<TxOutput> txOutputs, int chainHeight) {
+        return txOutputs.stream()
+                .filter(txOutput -> txOutput.getBlockHeight() <= chainHeight)
+                .collect(Collectors.toCollection(HashSet::new));
     }
 
     private long getDecayedGenesisOutputAmount(long amount) {
@@ -47,8 +47,6 @@ import bisq.common.util.Utilities;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.apache.commons.lang3.ArrayUtils;
-
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
@@ -342,11 +340,10 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
             }
         }
 
-        byte[] stateAsBytes = daoStateService.getSerializedStateForHashChain();
         // We include the prev. hash in our new hash so we can be sure that if one hash is matching all the past would
-        // match as well.
-        byte[] combined = ArrayUtils.addAll(prevHash, stateAsBytes);
-        byte[] hash = Hash.getSha256Ripemd160hash(combined);
+        // match as well. The state gets serialized directly into the hash function to avoid copies of the large
+        // serialized state.
+        byte[] hash = Hash.getSha256Ripemd160hash(prevHash, daoStateService.getStateForHashChain());
 
         DaoStateHash myDaoStateHash = new DaoStateHash(height, hash, true);
         DaoStateBlock daoStateBlock = new DaoStateBlock(myDaoStateHash);
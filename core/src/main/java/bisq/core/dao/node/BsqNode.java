@@ -197,6 +197,7 @@ public abstract class BsqNode implements DaoSetupService {
 
     @SuppressWarnings("WeakerAccess")
     protected void startReOrgFromLastSnapshot() {
+        exportJsonFilesService.requestFullExport();
         daoStateSnapshotService.applySnapshot(true);
     }
 
@@ -19,7 +19,6 @@ package bisq.core.dao.node.explorer;
 
 import bisq.core.dao.DaoSetupService;
 import bisq.core.dao.state.DaoStateService;
-import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.PubKeyScript;
 import bisq.core.dao.state.model.blockchain.Tx;
@@ -39,6 +38,7 @@ import com.google.inject.Inject;
 
 import javax.inject.Named;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
@@ -50,10 +50,14 @@ import java.io.File;
 import java.io.IOException;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.TreeMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -67,16 +71,31 @@ public class ExportJsonFilesService implements DaoSetupService {
     private final ListeningExecutorService executor;
     private JsonFileManager txFileManager, txOutputFileManager, bsqStateFileManager;
 
+    // Exported state, only accessed from the user thread. Used to export only the changes of new blocks.
+    private final TreeMap<Integer, JsonBlock> jsonBlockByHeight = new TreeMap<>();
+    private int lastExportedBlockHeight;
+    private String lastExportedBlockHash = "";
+    private boolean fullExportRequired = true;
+
     @Inject
     public ExportJsonFilesService(DaoStateService daoStateService,
                                   @Named(Config.STORAGE_DIR) File storageDir,
                                   @Named(Config.DUMP_BLOCKCHAIN_DATA) boolean dumpBlockchainData) {
+        this(daoStateService,
+                storageDir,
+                dumpBlockchainData,
+                MoreExecutors.listeningDecorator(Utilities.getThreadPoolExecutor("JsonExporter", 1, 1, 20, 60)));
+    }
+
+    @VisibleForTesting
+    ExportJsonFilesService(DaoStateService daoStateService,
+                           File storageDir,
+                           boolean dumpBlockchainData,
+                           ListeningExecutorService executor) {
         this.daoStateService = daoStateService;
         this.storageDir = storageDir;
         this.dumpBlockchainData = dumpBlockchainData;
-
-        ThreadPoolExecutor threadPoolExecutor = Utilities.getThreadPoolExecutor("JsonExporter", 1, 1, 20, 60);
-        executor = MoreExecutors.listeningDecorator(threadPoolExecutor);
+        this.executor = executor;
     }
 
 
@@ -139,29 +158,124 @@ public class ExportJsonFilesService implements DaoSetupService {
     public void maybeExportToJson() {
         if (dumpBlockchainData &&
                 daoStateService.isParseBlockChainComplete()) {
-            // We store the data we need once we write the data to disk (in the thread) locally.
-            // Access to daoStateService is single threaded, we must not access daoStateService from the thread.
-            List<JsonTxOutput> allJsonTxOutputs = new ArrayList<>();
-
-            List<JsonTx> jsonTxs = daoStateService.getUnorderedTxStream()
-                    .map(tx -> {
-                        JsonTx jsonTx = getJsonTx(tx);
-                        allJsonTxOutputs.addAll(jsonTx.getOutputs());
-                        return jsonTx;
-                    }).collect(Collectors.toList());
-
-            GcUtil.maybeReleaseMemory();
-
-            DaoState daoState = daoStateService.getClone();
-            List<JsonBlock> jsonBlockList = daoState.getBlocks().stream()
-                    .map(this::getJsonBlock)
+            Optional<Block> lastBlock = daoStateService.getLastBlock();
+            if (lastBlock.isEmpty()) {
+                return;
+            }
+
+            if (fullExportRequired || !isLastExportedBlockInChain()) {
+                exportAll();
+            } else if (lastBlock.get().getHeight() > lastExportedBlockHeight) {
+                exportNewBlocks(lastBlock.get().getHeight());
+            }
+        }
+    }
+
+    /**
+     * Lets the next export rewrite all json files from the DAO state instead of only the ones affected by new blocks.
+     * Used when the DAO state gets reset to a snapshot, as the state is rebuilt while the blocks get parsed again.
+     */
+    public void requestFullExport() {
+        fullExportRequired = true;
+    }
+
+    @VisibleForTesting
+    List<JsonBlock> getJsonBlocks() {
+        return new ArrayList<>(jsonBlockByHeight.values());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // If the block we exported last is not in the chain anymore (reorg or snapshot applied) we need a full export.
+    private boolean isLastExportedBlockInChain() {
+        return daoStateService.getBlockAtHeight(lastExportedBlockHeight)
+                .map(block -> block.getHash().equals(lastExportedBlockHash))
+                .orElse(false);
+    }
+
+    private void exportAll() {
+        // We store the data we need once we write the data to disk (in the thread) locally.
+        // Access to daoStateService is single threaded, we must not access daoStateService from the thread.
+        jsonBlockByHeight.clear();
+        List<JsonTx> jsonTxs = new ArrayList<>();
+        daoStateService.getBlocks().forEach(block -> {
+            List<JsonTx> jsonTxsOfBlock = block.getTxs().stream()
+                    .map(this::getJsonTx)
                     .collect(Collectors.toList());
-            JsonBlocks jsonBlocks = new JsonBlocks(daoState.getChainHeight(), jsonBlockList);
+            jsonTxs.addAll(jsonTxsOfBlock);
+            jsonBlockByHeight.put(block.getHeight(), getJsonBlock(block, jsonTxsOfBlock));
+        });
+        log.info("Exporting all {} blocks and {} txs to json", jsonBlockByHeight.size(), jsonTxs.size());
+
+        GcUtil.maybeReleaseMemory();
 
+        fullExportRequired = false;
+        writeToDisk(jsonTxs);
+    }
+
+    // Only the txs of the new blocks and the txs whose outputs got spent or issued with those blocks have changed.
+    // An issuance turns the issuance candidate output into a BSQ output, so a tx which has spent it already before the
+    // issuance has a changed input as well.
+    private void exportNewBlocks(int lastBlockHeight) {
+        Map<String, Tx> changedTxById = new LinkedHashMap<>();
+        for (int height = lastExportedBlockHeight + 1; height <= lastBlockHeight; height++) {
+            daoStateService.getBlockAtHeight(height).ifPresent(block -> block.getTxs().forEach(tx -> {
+                changedTxById.put(tx.getId(), tx);
+                tx.getTxInputs().forEach(txInput -> daoStateService.getTx(txInput.getConnectedTxOutputTxId())
+                        .ifPresent(connectedTx -> changedTxById.put(connectedTx.getId(), connectedTx)));
+            }));
+        }
+        daoStateService.getIssuanceItems().stream()
+                .filter(issuance -> issuance.getChainHeight() > lastExportedBlockHeight)
+                .forEach(issuance -> daoStateService.getTx(issuance.getTxId()).ifPresent(tx -> {
+                    changedTxById.put(tx.getId(), tx);
+                    tx.getTxOutputs().forEach(txOutput -> daoStateService.getSpentInfo(txOutput)
+                            .flatMap(spentInfo -> daoStateService.getTx(spentInfo.getTxId()))
+                            .ifPresent(spendingTx -> changedTxById.put(spendingTx.getId(), spendingTx)));
+                }));
+
+        Map<String, JsonTx> jsonTxById = new LinkedHashMap<>();
+        changedTxById.values().forEach(tx -> jsonTxById.put(tx.getId(), getJsonTx(tx)));
+
+        // Replace the blocks containing changed txs, reusing the unchanged txs of the existing blocks
+        jsonTxById.values().stream()
+                .map(JsonTx::getBlockHeight)
+                .distinct()
+                .forEach(height -> daoStateService.getBlockAtHeight(height).ifPresent(block -> {
+                    JsonBlock existingJsonBlock = jsonBlockByHeight.get(height);
+                    Map<String, JsonTx> existingJsonTxById = existingJsonBlock != null ?
+                            existingJsonBlock.getTxs().stream()
+                                    .collect(Collectors.toMap(JsonTx::getId, Function.identity(), (a, b) -> a)) :
+                            Map.of();
+                    List<JsonTx> jsonTxsOfBlock = block.getTxs().stream()
+                            .map(tx -> Optional.ofNullable(jsonTxById.get(tx.getId()))
+                                    .or(() -> Optional.ofNullable(existingJsonTxById.get(tx.getId())))
+                                    .orElseGet(() -> getJsonTx(tx)))
+                            .collect(Collectors.toList());
+                    jsonBlockByHeight.put(height, getJsonBlock(block, jsonTxsOfBlock));
+                }));
+
+        writeToDisk(new ArrayList<>(jsonTxById.values()));
+    }
+
+    private void writeToDisk(List<JsonTx> jsonTxs) {
+        Block lastBlock = daoStateService.getLastBlock().orElseThrow();
+        lastExportedBlockHeight = lastBlock.getHeight();
+        lastExportedBlockHash = lastBlock.getHash();
+        // JsonBlocks are immutable, so the writer thread can use a copy of the list
+        JsonBlocks jsonBlocks = new JsonBlocks(daoStateService.getChainHeight(), new ArrayList<>(jsonBlockByHeight.values()));
+
+        try {
             ListenableFuture<Void> future = executor.submit(() -> {
-                bsqStateFileManager.writeToDisc(JsonUtil.objectToJson(jsonBlocks), "blocks");
-                allJsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(JsonUtil.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
-                jsonTxs.forEach(jsonTx -> txFileManager.writeToDisc(JsonUtil.objectToJson(jsonTx), jsonTx.getId()));
+                bsqStateFileManager.writeToDisc(writer -> JsonUtil.objectToJson(jsonBlocks, writer), "blocks");
+                jsonTxs.forEach(jsonTx -> {
+                    jsonTx.getOutputs().forEach(jsonTxOutput ->
+                            txOutputFileManager.writeToDisc(writer -> JsonUtil.objectToJson(jsonTxOutput, writer), jsonTxOutput.getId()));
+                    txFileManager.writeToDisc(writer -> JsonUtil.objectToJson(jsonTx, writer), jsonTx.getId());
+                });
 
                 GcUtil.maybeReleaseMemory();
 
@@ -172,13 +286,14 @@ public class ExportJsonFilesService implements DaoSetupService {
                 log.error(throwable.toString());
                 throwable.printStackTrace();
             }), MoreExecutors.directExecutor());
+        } catch (RejectedExecutionException e) {
+            // If we cannot write the changes we need to write all files at the next export
+            log.warn("Json export got rejected. We will do a full export at the next block. {}", e.toString());
+            fullExportRequired = true;
         }
     }
 
-    private JsonBlock getJsonBlock(Block block) {
-        List<JsonTx> jsonTxs = block.getTxs().stream()
-                .map(this::getJsonTx)
-                .collect(Collectors.toList());
+    private JsonBlock getJsonBlock(Block block, List<JsonTx> jsonTxs) {
         return new JsonBlock(block.getHeight(),
                 block.getTime(),
                 block.getHash(),
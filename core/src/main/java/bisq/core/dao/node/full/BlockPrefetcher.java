@@ -0,0 +1,216 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.full;
+
+import bisq.common.UserThread;
+import bisq.common.handlers.ResultHandler;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.jetbrains.annotations.NotNull;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Delivers the blocks from startBlockHeight to chainHeight in height order to the rawBlockHandler while the following
+ * blocks are already requested in batches on the RPC executor, so that the RPC round trips overlap with parsing.
+ * At most prefetchWindow blocks are requested ahead of the block which gets parsed.
+ * <p>
+ * If the rawBlockHandler returns false (e.g. at a reorg or at shutdown) all prefetched blocks get discarded and no
+ * further blocks are requested or delivered.
+ * <p>
+ * All state is only accessed from the user thread. As the RPC executor is single threaded, batches complete in the
+ * order they have been requested.
+ */
+@Slf4j
+class BlockPrefetcher {
+    interface BatchRequest {
+        List<RawBlock> request(int fromBlockHeight, int numBlocks) throws Exception;
+    }
+
+    private final ListeningExecutorService executor;
+    private final BatchRequest batchRequest;
+    private final int prefetchWindow;
+    private final int batchSize;
+    private final int chainHeight;
+    private final Predicate<RawBlock> rawBlockHandler;
+    private final ResultHandler resultHandler;
+    private final Consumer<Throwable> errorHandler;
+
+    private final Deque<RawBlock> prefetchedBlocks = new ArrayDeque<>();
+    private int nextBlockHeightToRequest;
+    private int numRequestedBlocks;
+    private boolean deliveryScheduled;
+    private boolean cancelled;
+
+    BlockPrefetcher(ListeningExecutorService executor,
+                    BatchRequest batchRequest,
+                    int prefetchWindow,
+                    int startBlockHeight,
+                    int chainHeight,
+                    Predicate<RawBlock> rawBlockHandler,
+                    ResultHandler resultHandler,
+                    Consumer<Throwable> errorHandler) {
+        checkArgument(startBlockHeight <= chainHeight, "startBlockHeight must not be above chainHeight");
+        this.executor = executor;
+        this.batchRequest = batchRequest;
+        this.prefetchWindow = Math.max(1, prefetchWindow);
+        // We split the window into 2 batches so that one batch can be fetched while the other one gets parsed.
+        this.batchSize = Math.max(1, (this.prefetchWindow + 1) / 2);
+        this.nextBlockHeightToRequest = startBlockHeight;
+        this.chainHeight = chainHeight;
+        this.rawBlockHandler = rawBlockHandler;
+        this.resultHandler = resultHandler;
+        this.errorHandler = errorHandler;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void start() {
+        deliveryScheduled = true;
+        requestBatches();
+        deliveryScheduled = false;
+        maybeScheduleDelivery();
+    }
+
+    void cancel() {
+        cancelled = true;
+        prefetchedBlocks.clear();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void requestBatches() {
+        while (!cancelled && nextBlockHeightToRequest <= chainHeight) {
+            int numBlocks = Math.min(batchSize, chainHeight - nextBlockHeightToRequest + 1);
+            if (prefetchedBlocks.size() + numRequestedBlocks + numBlocks > prefetchWindow) {
+                return;
+            }
+            int fromBlockHeight = nextBlockHeightToRequest;
+            nextBlockHeightToRequest += numBlocks;
+            numRequestedBlocks += numBlocks;
+            requestBatch(fromBlockHeight, numBlocks);
+        }
+    }
+
+    private void requestBatch(int fromBlockHeight, int numBlocks) {
+        ListenableFuture<List<RawBlock>> future;
+        try {
+            future = executor.submit(() -> batchRequest.request(fromBlockHeight, numBlocks));
+        } catch (RejectedExecutionException e) {
+            if (!executor.isShutdown()) {
+                log.error("Exception at requestBatch", e);
+                onFailure(e);
+            } else {
+                cancel();
+            }
+            return;
+        }
+
+        Futures.addCallback(future, new FutureCallback<>() {
+            @Override
+            public void onSuccess(List<RawBlock> rawBlocks) {
+                UserThread.execute(() -> onBatchReceived(fromBlockHeight, numBlocks, rawBlocks));
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                log.error("Error at requestBatch: fromBlockHeight={}, numBlocks={}, error={}",
+                        fromBlockHeight, numBlocks, throwable.toString());
+                UserThread.execute(() -> BlockPrefetcher.this.onFailure(throwable));
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void onBatchReceived(int fromBlockHeight, int numBlocks, List<RawBlock> rawBlocks) {
+        if (cancelled) {
+            return;
+        }
+        numRequestedBlocks -= numBlocks;
+        if (rawBlocks.size() != numBlocks || rawBlocks.get(0).getHeight() != fromBlockHeight) {
+            onFailure(new RpcException("Received unexpected blocks for batch request of " + numBlocks +
+                    " blocks from height " + fromBlockHeight, null));
+            return;
+        }
+        prefetchedBlocks.addAll(rawBlocks);
+        maybeScheduleDelivery();
+    }
+
+    private void onFailure(Throwable throwable) {
+        if (cancelled) {
+            return;
+        }
+        cancel();
+        errorHandler.accept(throwable);
+    }
+
+    private void maybeScheduleDelivery() {
+        if (!deliveryScheduled && !prefetchedBlocks.isEmpty()) {
+            deliveryScheduled = true;
+            UserThread.execute(this::deliverNextBlock);
+        }
+    }
+
+    // We deliver one block per user thread task to not block the user thread for a whole batch.
+    private void deliverNextBlock() {
+        RawBlock rawBlock = prefetchedBlocks.poll();
+        if (cancelled || rawBlock == null) {
+            deliveryScheduled = false;
+            return;
+        }
+
+        // We request the next batch before parsing so that fetching overlaps with parsing. As deliveryScheduled is
+        // still set, a batch received synchronously does not schedule a second delivery.
+        requestBatches();
+        if (cancelled) {
+            return;
+        }
+
+        if (!rawBlockHandler.test(rawBlock)) {
+            cancel();
+            return;
+        }
+
+        if (rawBlock.getHeight() >= chainHeight) {
+            cancel();
+            resultHandler.handleResult();
+            return;
+        }
+
+        UserThread.execute(this::deliverNextBlock);
+    }
+}
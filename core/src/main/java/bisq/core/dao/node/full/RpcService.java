@@ -17,6 +17,7 @@
 
 package bisq.core.dao.node.full;
 
+import bisq.core.dao.node.full.rpc.BitcoindBatchClient;
 import bisq.core.dao.node.full.rpc.BitcoindClient;
 import bisq.core.dao.node.full.rpc.BitcoindDaemon;
 import bisq.core.dao.node.full.rpc.dto.DtoPubKeyScript;
@@ -61,7 +62,9 @@ import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -85,8 +88,10 @@ public class RpcService {
     private final int rpcPort;
     private final int rpcBlockPort;
     private final String rpcBlockHost;
+    private final int blockPrefetchWindow;
 
     private BitcoindClient client;
+    private BitcoindBatchClient batchClient;
     private BitcoindDaemon daemon;
 
     // We could use multiple threads, but then we need to support ordering of results in a queue
@@ -112,7 +117,8 @@ public class RpcService {
                        @Named(Config.RPC_HOST) String rpcHost,
                        @Named(Config.RPC_PORT) int rpcPort,
                        @Named(Config.RPC_BLOCK_NOTIFICATION_PORT) int rpcBlockPort,
-                       @Named(Config.RPC_BLOCK_NOTIFICATION_HOST) String rpcBlockHost) {
+                       @Named(Config.RPC_BLOCK_NOTIFICATION_HOST) String rpcBlockHost,
+                       @Named(Config.RPC_BLOCK_PREFETCH_WINDOW) int blockPrefetchWindow) {
         this.rpcUser = preferences.getRpcUser();
         this.rpcPassword = preferences.getRpcPw();
 
@@ -131,6 +137,7 @@ public class RpcService {
         boolean isBlockHostSet = !rpcBlockHost.isEmpty();
         this.rpcBlockPort = isBlockPortSet ? rpcBlockPort : 5125;
         this.rpcBlockHost = isBlockHostSet ? rpcBlockHost : "127.0.0.1";
+        this.blockPrefetchWindow = blockPrefetchWindow;
     }
 
 
@@ -174,12 +181,13 @@ public class RpcService {
 
                     long startTs = System.currentTimeMillis();
 
-                    client = BitcoindClient.builder()
+                    var clientBuilder = BitcoindClient.builder()
                             .rpcHost(rpcHost)
                             .rpcPort(rpcPort)
                             .rpcUser(rpcUser)
-                            .rpcPassword(rpcPassword)
-                            .build();
+                            .rpcPassword(rpcPassword);
+                    client = clientBuilder.build();
+                    batchClient = clientBuilder.buildBatchClient();
                     checkNodeVersionAndHealth();
 
                     daemon = new BitcoindDaemon(rpcBlockHost, rpcBlockPort, throwable -> {
@@ -327,41 +335,20 @@ public class RpcService {
         }
     }
 
-    void requestDtoBlock(int blockHeight,
-                         Consumer<RawBlock> resultHandler,
-                         Consumer<Throwable> errorHandler) {
-        try {
-            ListenableFuture<RawBlock> future = executor.submit(() -> {
-                long startTs = System.currentTimeMillis();
-                String blockHash = client.getBlockHash(blockHeight);
-                var rawDtoBlock = client.getBlock(blockHash, 2);
-                var block = getRawBlockFromRawDtoBlock(rawDtoBlock);
-                log.info("requestDtoBlock from bitcoind at blockHeight {} with {} txs took {} ms",
-                        blockHeight, block.getRawTxs().size(), System.currentTimeMillis() - startTs);
-                return block;
-            });
-
-            Futures.addCallback(future, new FutureCallback<>() {
-                @Override
-                public void onSuccess(RawBlock block) {
-                    UserThread.execute(() -> resultHandler.accept(block));
-                }
-
-                @Override
-                public void onFailure(@NotNull Throwable throwable) {
-                    log.error("Error at requestDtoBlock: blockHeight={}, error={}", blockHeight, throwable);
-                    UserThread.execute(() -> errorHandler.accept(throwable));
-                }
-            }, MoreExecutors.directExecutor());
-        } catch (RejectedExecutionException e) {
-            if (!shutdownInProgress) {
-                log.error("Exception at requestDtoBlock", e);
-                throw e;
-            }
-        } catch (Exception e) {
-            log.error("Exception at requestDtoBlock", e);
-            throw e;
-        }
+    void requestDtoBlocks(int startBlockHeight,
+                          int chainHeight,
+                          Predicate<RawBlock> rawBlockHandler,
+                          ResultHandler resultHandler,
+                          Consumer<Throwable> errorHandler) {
+        new BlockPrefetcher(executor,
+                this::requestRawBlocks,
+                blockPrefetchWindow,
+                startBlockHeight,
+                chainHeight,
+                rawBlockHandler,
+                resultHandler,
+                errorHandler)
+                .start();
     }
 
     public void requestRawDtoBlock(int blockHeight,
@@ -407,6 +394,23 @@ public class RpcService {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Called on the executor thread
+    private List<RawBlock> requestRawBlocks(int fromBlockHeight, int numBlocks) throws IOException {
+        long startTs = System.currentTimeMillis();
+        List<Integer> blockHeights = IntStream.range(fromBlockHeight, fromBlockHeight + numBlocks)
+                .boxed()
+                .collect(Collectors.toList());
+        List<String> blockHashes = batchClient.getBlockHashes(blockHeights);
+        List<RawBlock> rawBlocks = batchClient.getBlocks(blockHashes, 2).stream()
+                .map(RpcService::getRawBlockFromRawDtoBlock)
+                .collect(Collectors.toList());
+        log.info("requestRawBlocks from bitcoind at blockHeight {} - {} with {} txs took {} ms",
+                fromBlockHeight, fromBlockHeight + numBlocks - 1,
+                rawBlocks.stream().mapToInt(rawBlock -> rawBlock.getRawTxs().size()).sum(),
+                System.currentTimeMillis() - startTs);
+        return rawBlocks;
+    }
+
     private static RawBlock getRawBlockFromRawDtoBlock(RawDtoBlock rawDtoBlock) {
         List<RawTx> txList = rawDtoBlock.getTx().stream()
                 .map(e -> getTxFromRawTransaction(e, rawDtoBlock))
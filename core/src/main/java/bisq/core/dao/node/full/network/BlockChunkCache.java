@@ -0,0 +1,145 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.full.network;
+
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Block;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caches the RawBlocks and their proto messages for chunks of CHUNK_SIZE blocks aligned to the block height, so that
+ * repeated GetBlocksRequests from lite nodes do not convert and encode the same blocks again.
+ * Only complete chunks are cached. The open chunk at the chain tip is built on each request.
+ * A cached chunk is only used if its last block hash matches the block at that height in the DAO state. As each block
+ * commits to its predecessor, that covers the whole chunk, so chunks get replaced after a reorg or a resync from a
+ * snapshot.
+ * Must only be used from the user thread.
+ */
+@Slf4j
+class BlockChunkCache {
+    static final int CHUNK_SIZE = 100;
+    // A GetBlocksRequest is limited to 3000 blocks, so we keep a few more chunks than needed for the max. request.
+    private static final int MAX_CACHED_CHUNKS = 40;
+
+    @Value
+    static class Blocks {
+        List<RawBlock> rawBlocks;
+        List<protobuf.BaseBlock> encodedBlocks;
+    }
+
+    @Value
+    private static class Chunk {
+        int firstHeight;
+        String lastBlockHash;
+        ImmutableList<RawBlock> rawBlocks;
+        ImmutableList<protobuf.BaseBlock> encodedBlocks;
+    }
+
+    private final DaoStateService daoStateService;
+    // Key is chunk index (height / CHUNK_SIZE). Access ordered so the least recently requested chunk gets evicted.
+    private final Map<Integer, Chunk> chunkByIndex = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Chunk> eldest) {
+            return size() > MAX_CACHED_CHUNKS;
+        }
+    };
+
+    BlockChunkCache(DaoStateService daoStateService) {
+        this.daoStateService = daoStateService;
+    }
+
+    Blocks getBlocksFromBlockHeight(int fromBlockHeight, int numMaxBlocks) {
+        List<RawBlock> rawBlocks = new ArrayList<>();
+        List<protobuf.BaseBlock> encodedBlocks = new ArrayList<>();
+        if (daoStateService.getBlocks().isEmpty() || numMaxBlocks <= 0) {
+            return new Blocks(rawBlocks, encodedBlocks);
+        }
+
+        int lastHeight = daoStateService.getBlockHeightOfLastBlock();
+        int startHeight = Math.max(fromBlockHeight, daoStateService.getBlocks().get(0).getHeight());
+        int endHeight = (int) Math.min(lastHeight, (long) startHeight + numMaxBlocks - 1);
+        int height = startHeight;
+        while (height <= endHeight) {
+            int chunkIndex = height / CHUNK_SIZE;
+            int chunkEndHeight = chunkIndex * CHUNK_SIZE + CHUNK_SIZE - 1;
+            int toHeight = Math.min(endHeight, chunkEndHeight);
+            Optional<Chunk> chunk = chunkEndHeight <= lastHeight ? getOrCreateChunk(chunkIndex) : Optional.empty();
+            if (chunk.isPresent()) {
+                int fromIndex = height - chunk.get().getFirstHeight();
+                int toIndex = toHeight - chunk.get().getFirstHeight() + 1;
+                rawBlocks.addAll(chunk.get().getRawBlocks().subList(fromIndex, toIndex));
+                encodedBlocks.addAll(chunk.get().getEncodedBlocks().subList(fromIndex, toIndex));
+            } else {
+                daoStateService.getBlocksFromBlockHeight(height, toHeight - height + 1).forEach(block -> {
+                    RawBlock rawBlock = RawBlock.fromBlock(block);
+                    rawBlocks.add(rawBlock);
+                    encodedBlocks.add(rawBlock.toProtoMessage());
+                });
+            }
+            height = toHeight + 1;
+        }
+        return new Blocks(rawBlocks, encodedBlocks);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Optional<Chunk> getOrCreateChunk(int chunkIndex) {
+        int chunkEndHeight = chunkIndex * CHUNK_SIZE + CHUNK_SIZE - 1;
+        Optional<String> lastBlockHash = daoStateService.getBlockAtHeight(chunkEndHeight).map(Block::getHash);
+        if (lastBlockHash.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Chunk chunk = chunkByIndex.get(chunkIndex);
+        if (chunk != null && chunk.getLastBlockHash().equals(lastBlockHash.get())) {
+            return Optional.of(chunk);
+        }
+
+        int firstHeight = Math.max(chunkIndex * CHUNK_SIZE, daoStateService.getBlocks().get(0).getHeight());
+        List<Block> blocks = daoStateService.getBlocksFromBlockHeight(firstHeight, chunkEndHeight - firstHeight + 1);
+        if (blocks.size() != chunkEndHeight - firstHeight + 1) {
+            log.warn("Blocks from height {} to {} are not complete. We do not cache them.", firstHeight, chunkEndHeight);
+            chunkByIndex.remove(chunkIndex);
+            return Optional.empty();
+        }
+
+        ImmutableList<RawBlock> rawBlocks = blocks.stream()
+                .map(RawBlock::fromBlock)
+                .collect(ImmutableList.toImmutableList());
+        ImmutableList<protobuf.BaseBlock> encodedBlocks = rawBlocks.stream()
+                .map(RawBlock::toProtoMessage)
+                .collect(ImmutableList.toImmutableList());
+        chunk = new Chunk(firstHeight, lastBlockHash.get(), rawBlocks, encodedBlocks);
+        chunkByIndex.put(chunkIndex, chunk);
+        return Optional.of(chunk);
+    }
+}
@@ -68,7 +68,7 @@ public class FullNodeNetworkService implements MessageListener, PeerManager.List
     private final PeerManager peerManager;
     private final Broadcaster broadcaster;
     private final MissingDataRequestService missingDataRequestService;
-    private final DaoStateService daoStateService;
+    private final BlockChunkCache blockChunkCache;
 
     // Key is connection UID
     private final Map<String, GetBlocksRequestHandler> getBlocksRequestHandlers = new HashMap<>();
@@ -90,7 +90,7 @@ public class FullNodeNetworkService implements MessageListener, PeerManager.List
         this.peerManager = peerManager;
         this.broadcaster = broadcaster;
         this.missingDataRequestService = missingDataRequestService;
-        this.daoStateService = daoStateService;
+        this.blockChunkCache = new BlockChunkCache(daoStateService);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -176,7 +176,7 @@ public class FullNodeNetworkService implements MessageListener, PeerManager.List
         }
 
         GetBlocksRequestHandler requestHandler = new GetBlocksRequestHandler(networkNode,
-                daoStateService,
+                blockChunkCache,
                 new GetBlocksRequestHandler.Listener() {
                     @Override
                     public void onComplete(int serializedSize) {
@@ -0,0 +1,207 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.full.rpc;
+
+import bisq.core.dao.node.full.rpc.dto.RawDtoBlock;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+
+
+import com.googlecode.jsonrpc4j.HttpException;
+import com.googlecode.jsonrpc4j.JsonRpcClientException;
+
+/**
+ * Sends JSON-RPC batch requests to Bitcoin Core, so that a whole range of blocks can be requested with a single HTTP
+ * round trip instead of two round trips per block as with {@link BitcoindClient}.
+ * Results are returned in the order of the requested params. If any call of the batch fails the whole batch fails.
+ */
+public class BitcoindBatchClient {
+    // Same timeouts as the JsonRpcHttpClient used by BitcoindClient
+    private static final int CONNECT_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(60);
+    private static final int READ_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(120);
+
+    private final ObjectMapper mapper;
+    private final URL url;
+    private final Map<String, String> headers;
+    private final AtomicLong nextRequestId = new AtomicLong();
+
+    BitcoindBatchClient(ObjectMapper mapper, URL url, Map<String, String> headers) {
+        this.mapper = mapper;
+        this.url = url;
+        this.headers = headers;
+    }
+
+    public List<String> getBlockHashes(List<Integer> blockHeights) throws IOException {
+        return invoke("getblockhash", blockHeights.stream()
+                .map(List::<Object>of)
+                .collect(Collectors.toList()), String.class);
+    }
+
+    public List<RawDtoBlock> getBlocks(List<String> headerHashes, int verbosity) throws IOException {
+        return invoke("getblock", headerHashes.stream()
+                .map(headerHash -> List.<Object>of(headerHash, verbosity))
+                .collect(Collectors.toList()), RawDtoBlock.class);
+    }
+
+    private <T> List<T> invoke(String method, List<List<Object>> paramsList, Class<T> resultType) throws IOException {
+        if (paramsList.isEmpty()) {
+            return List.of();
+        }
+
+        long firstRequestId = nextRequestId.getAndAdd(paramsList.size());
+        ArrayNode request = mapper.createArrayNode();
+        for (int i = 0; i < paramsList.size(); i++) {
+            ObjectNode call = request.addObject();
+            call.put("id", firstRequestId + i);
+            call.put("jsonrpc", "2.0");
+            call.put("method", method);
+            call.set("params", mapper.valueToTree(paramsList.get(i)));
+        }
+
+        // Bitcoin Core returns the responses in request order, but the JSON-RPC spec does not require that.
+        Map<Long, T> resultsById = new HashMap<>();
+        Map<Long, JsonNode> errorsById = new HashMap<>();
+        post(request, inputStream -> readResponses(inputStream, resultType, resultsById, errorsById));
+
+        List<T> results = new ArrayList<>(paramsList.size());
+        for (int i = 0; i < paramsList.size(); i++) {
+            long requestId = firstRequestId + i;
+            if (errorsById.containsKey(requestId)) {
+                throw toClientException(errorsById.get(requestId));
+            }
+            if (!resultsById.containsKey(requestId)) {
+                throw new JsonRpcClientException(0, "Missing response for " + method + " " + paramsList.get(i), null);
+            }
+            results.add(resultsById.get(requestId));
+        }
+        return results;
+    }
+
+    // A getblock batch with verbosity 2 can be tens of MB, so we deserialize each result directly from the stream
+    // instead of reading the whole response into a tree first.
+    private <T> void readResponses(InputStream inputStream,
+                                   Class<T> resultType,
+                                   Map<Long, T> resultsById,
+                                   Map<Long, JsonNode> errorsById) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                // If the whole batch got rejected we get a single response object
+                JsonNode response = parser.currentToken() != null ? mapper.readTree(parser) : null;
+                throw toClientException(response != null ? response.path("error") : mapper.missingNode());
+            }
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                long id = -1;
+                T result = null;
+                JsonNode error = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.getCurrentName();
+                    parser.nextToken();
+                    switch (fieldName) {
+                        case "id":
+                            id = parser.getValueAsLong(-1);
+                            break;
+                        case "result":
+                            result = mapper.readValue(parser, resultType);
+                            break;
+                        case "error":
+                            error = mapper.readTree(parser);
+                            break;
+                        default:
+                            parser.skipChildren();
+                    }
+                }
+                if (error != null && !error.isNull()) {
+                    errorsById.put(id, error);
+                } else {
+                    resultsById.put(id, result);
+                }
+            }
+        }
+    }
+
+    private void post(ArrayNode request, ResponseReader responseReader) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection(Proxy.NO_PROXY);
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        headers.forEach(connection::setRequestProperty);
+        connection.connect();
+
+        try (OutputStream outputStream = connection.getOutputStream()) {
+            mapper.writeValue(outputStream, request);
+        }
+
+        InputStream inputStream;
+        try {
+            inputStream = connection.getInputStream();
+        } catch (IOException e) {
+            // Bitcoin Core answers a batch with HTTP 200 even if single calls fail, so an error status means the whole
+            // request was rejected (e.g. wrong credentials or work queue depth exceeded).
+            InputStream errorStream = connection.getErrorStream();
+            if (errorStream != null) {
+                try (errorStream) {
+                    JsonNode errorResponse = mapper.readTree(errorStream);
+                    if (errorResponse != null && errorResponse.hasNonNull("error")) {
+                        throw toClientException(errorResponse.get("error"));
+                    }
+                } catch (IOException ignore) {
+                }
+            }
+            throw new HttpException("Batch request failed: " + e, e);
+        }
+
+        try (inputStream) {
+            responseReader.read(inputStream);
+        }
+    }
+
+    private static JsonRpcClientException toClientException(JsonNode error) {
+        return new JsonRpcClientException(error.path("code").asInt(),
+                error.path("message").asText("Invalid batch response"),
+                error.get("data"));
+    }
+
+    private interface ResponseReader {
+        void read(InputStream inputStream) throws IOException;
+    }
+}
@@ -33,6 +33,7 @@ import java.io.IOException;
 
 import java.util.Base64;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -103,20 +104,31 @@ public interface BitcoindClient {
         }
 
         public BitcoindClient build() throws MalformedURLException {
+            var httpClient = new JsonRpcHttpClient(createObjectMapper(), createUrl(), createHeaders());
+            Optional.ofNullable(requestIDGenerator).ifPresent(httpClient::setRequestIDGenerator);
+            return ProxyUtil.createClientProxy(getClass().getClassLoader(), BitcoindClient.class, httpClient);
+        }
+
+        public BitcoindBatchClient buildBatchClient() throws MalformedURLException {
+            return new BitcoindBatchClient(createObjectMapper(), createUrl(), createHeaders());
+        }
+
+        private Map<String, String> createHeaders() {
             var userPass = checkNotNull(rpcUser, "rpcUser not set") +
                     ":" + checkNotNull(rpcPassword, "rpcPassword not set");
 
-            var headers = Collections.singletonMap("Authorization", "Basic " +
+            return Collections.singletonMap("Authorization", "Basic " +
                     Base64.getEncoder().encodeToString(userPass.getBytes(StandardCharsets.US_ASCII)));
+        }
 
-            var httpClient = new JsonRpcHttpClient(
-                    new ObjectMapper()
-                            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-                            .configure(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_USING_DEFAULT_VALUE, true),
-                    new URL("http", rpcHost, rpcPort, "", urlStreamHandler),
-                    headers);
-            Optional.ofNullable(requestIDGenerator).ifPresent(httpClient::setRequestIDGenerator);
-            return ProxyUtil.createClientProxy(getClass().getClassLoader(), BitcoindClient.class, httpClient);
+        private URL createUrl() throws MalformedURLException {
+            return new URL("http", rpcHost, rpcPort, "", urlStreamHandler);
+        }
+
+        private static ObjectMapper createObjectMapper() {
+            return new ObjectMapper()
+                    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                    .configure(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_USING_DEFAULT_VALUE, true);
         }
     }
 }
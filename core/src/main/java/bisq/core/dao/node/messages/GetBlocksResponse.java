@@ -31,10 +31,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @EqualsAndHashCode(callSuper = true)
 @Getter
 @Slf4j
@@ -43,8 +46,23 @@ public final class GetBlocksResponse extends NetworkEnvelope implements DirectMe
     private final List<RawBlock> blocks;
     private final int requestNonce;
 
+    // Proto messages of the blocks, if already available from the block cache of the full node. Only used at the sender.
+    @Nullable
+    @EqualsAndHashCode.Exclude
+    @Getter(AccessLevel.NONE)
+    private final List<protobuf.BaseBlock> encodedBlocks;
+    @Nullable
+    @EqualsAndHashCode.Exclude
+    @Getter(AccessLevel.NONE)
+    private protobuf.NetworkEnvelope networkEnvelope;
+
     public GetBlocksResponse(List<RawBlock> blocks, int requestNonce) {
-        this(blocks, requestNonce, Version.getP2PMessageVersion());
+        this(blocks, null, requestNonce, Version.getP2PMessageVersion());
+    }
+
+    // encodedBlocks must be the proto messages of blocks in the same order
+    public GetBlocksResponse(List<RawBlock> blocks, List<protobuf.BaseBlock> encodedBlocks, int requestNonce) {
+        this(blocks, encodedBlocks, requestNonce, Version.getP2PMessageVersion());
     }
 
 
@@ -52,23 +70,33 @@ public final class GetBlocksResponse extends NetworkEnvelope implements DirectMe
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private GetBlocksResponse(List<RawBlock> blocks, int requestNonce, int messageVersion) {
+    private GetBlocksResponse(List<RawBlock> blocks,
+                              @Nullable List<protobuf.BaseBlock> encodedBlocks,
+                              int requestNonce,
+                              int messageVersion) {
         super(messageVersion);
         this.blocks = blocks;
+        this.encodedBlocks = encodedBlocks;
         this.requestNonce = requestNonce;
     }
 
     @Override
     public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
-        protobuf.NetworkEnvelope proto = getNetworkEnvelopeBuilder()
-                .setGetBlocksResponse(protobuf.GetBlocksResponse.newBuilder()
-                        .addAllRawBlocks(blocks.stream()
-                                .map(RawBlock::toProtoMessage)
-                                .collect(Collectors.toList()))
-                        .setRequestNonce(requestNonce))
-                .build();
-        log.info("Sending a GetBlocksResponse with {} kB", proto.getSerializedSize() / 1000d);
-        return proto;
+        // The response can hold up to 3000 blocks and is immutable, so we build the proto only once.
+        if (networkEnvelope == null) {
+            List<protobuf.BaseBlock> rawBlocks = encodedBlocks != null ?
+                    encodedBlocks :
+                    blocks.stream()
+                            .map(RawBlock::toProtoMessage)
+                            .collect(Collectors.toList());
+            networkEnvelope = getNetworkEnvelopeBuilder()
+                    .setGetBlocksResponse(protobuf.GetBlocksResponse.newBuilder()
+                            .addAllRawBlocks(rawBlocks)
+                            .setRequestNonce(requestNonce))
+                    .build();
+            log.info("Sending a GetBlocksResponse with {} kB", networkEnvelope.getSerializedSize() / 1000d);
+        }
+        return networkEnvelope;
     }
 
     public static NetworkEnvelope fromProto(protobuf.GetBlocksResponse proto, int messageVersion) {
@@ -79,6 +107,7 @@ public final class GetBlocksResponse extends NetworkEnvelope implements DirectMe
         return new GetBlocksResponse(proto.getRawBlocksList().isEmpty() ?
                 new ArrayList<>() :
                 list,
+                null,
                 proto.getRequestNonce(),
                 messageVersion);
     }
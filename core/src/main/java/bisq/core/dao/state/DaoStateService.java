@@ -75,6 +75,7 @@ public class DaoStateService implements DaoSetupService {
     @Getter
     private boolean parseBlockChainComplete;
     private boolean allowDaoStateChange;
+    private volatile ParamValueIndex paramValueIndex;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -86,6 +87,7 @@ public class DaoStateService implements DaoSetupService {
         this.daoState = daoState;
         this.genesisTxInfo = genesisTxInfo;
         this.bsqFormatter = bsqFormatter;
+        paramValueIndex = new ParamValueIndex(daoState.getParamChangeList());
     }
 
 
@@ -138,12 +140,15 @@ public class DaoStateService implements DaoSetupService {
 
         daoState.getParamChangeList().clear();
         daoState.getParamChangeList().addAll(snapshot.getParamChangeList());
+        paramValueIndex = new ParamValueIndex(daoState.getParamChangeList());
 
         daoState.getEvaluatedProposalList().clear();
         daoState.getEvaluatedProposalList().addAll(snapshot.getEvaluatedProposalList());
 
         daoState.getDecryptedBallotsWithMeritsList().clear();
         daoState.getDecryptedBallotsWithMeritsList().addAll(snapshot.getDecryptedBallotsWithMeritsList());
+
+        daoState.clearChanges();
     }
 
     public DaoState getClone() {
@@ -154,8 +159,16 @@ public class DaoStateService implements DaoSetupService {
         return DaoState.getBsqStateCloneExcludingBlocks(daoState);
     }
 
-    public byte[] getSerializedStateForHashChain() {
-        return daoState.getSerializedStateForHashChain();
+    public protobuf.DaoStateDelta.Builder getDaoStateDeltaBuilder(int baseHeight) {
+        return daoState.getDeltaBuilder(baseHeight);
+    }
+
+    public void clearDaoStateChanges() {
+        daoState.clearChanges();
+    }
+
+    public protobuf.DaoState getStateForHashChain() {
+        return daoState.getStateForHashChain();
     }
 
 
@@ -355,10 +368,19 @@ public class DaoStateService implements DaoSetupService {
     public List<Block> getBlocksFromBlockHeight(int fromBlockHeight, int numMaxBlocks) {
         // We limit requests to numMaxBlocks blocks, to avoid performance issues and too
         // large network data in case a node requests too far back in history.
-        return getBlocks().stream()
-                .filter(block -> block.getHeight() >= fromBlockHeight)
-                .limit(numMaxBlocks)
-                .collect(Collectors.toList());
+        List<Block> blocks = getBlocks();
+        if (blocks.isEmpty() || numMaxBlocks <= 0) {
+            return new ArrayList<>();
+        }
+
+        // Blocks are added without gaps, so we look them up by height instead of iterating from genesis.
+        int startHeight = Math.max(fromBlockHeight, blocks.get(0).getHeight());
+        int endHeight = (int) Math.min(getBlockHeightOfLastBlock(), (long) startHeight + numMaxBlocks - 1);
+        List<Block> result = new ArrayList<>(Math.max(0, endHeight - startHeight + 1));
+        for (int height = startHeight; height <= endHeight; height++) {
+            getBlockAtHeight(height).ifPresent(result::add);
+        }
+        return result;
     }
 
 
@@ -493,11 +515,13 @@ public class DaoStateService implements DaoSetupService {
     public void addUnspentTxOutput(TxOutput txOutput) {
         assertDaoStateChange();
         getUnspentTxOutputMap().put(txOutput.getKey(), txOutput);
+        daoState.addChangedUnspentTxOutputKey(txOutput.getKey());
     }
 
     public void removeUnspentTxOutput(TxOutput txOutput) {
         assertDaoStateChange();
         getUnspentTxOutputMap().remove(txOutput.getKey());
+        daoState.addChangedUnspentTxOutputKey(txOutput.getKey());
     }
 
     public boolean isUnspent(TxOutputKey key) {
@@ -641,6 +665,7 @@ public class DaoStateService implements DaoSetupService {
     public void addIssuance(Issuance issuance) {
         assertDaoStateChange();
         daoState.getIssuanceMap().put(issuance.getTxId(), issuance);
+        daoState.addChangedIssuanceKey(issuance.getTxId());
     }
 
     public Collection<Issuance> getIssuanceItems() {
@@ -955,24 +980,13 @@ public class DaoStateService implements DaoSetupService {
                     paramChangeList.add(paramChange);
                     // Addition with older height should not be possible but to ensure correct sorting lets run a sort.
                     paramChangeList.sort(Comparator.comparingInt(ParamChange::getActivationHeight));
+                    paramValueIndex = new ParamValueIndex(paramChangeList);
                 });
     }
 
     public String getParamValue(Param param, int blockHeight) {
-        List<ParamChange> paramChangeList = new ArrayList<>(daoState.getParamChangeList());
-        if (!paramChangeList.isEmpty()) {
-            // List is sorted by height, we start from latest entries to find most recent entry.
-            for (int i = paramChangeList.size() - 1; i >= 0; i--) {
-                ParamChange paramChange = paramChangeList.get(i);
-                if (paramChange.getParamName().equals(param.name()) &&
-                        blockHeight >= paramChange.getActivationHeight()) {
-                    return paramChange.getValue();
-                }
-            }
-        }
-
-        // If no value found we use default values
-        return param.getDefaultValue();
+        // If no param change is found we get the default value
+        return paramValueIndex.get(param, blockHeight).getValue();
     }
 
     public List<Coin> getParamChangeList(Param param) {
@@ -998,15 +1012,33 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public Coin getParamValueAsCoin(Param param, int blockHeight) {
-        return getParamValueAsCoin(param, getParamValue(param, blockHeight));
+        ParamValueIndex.Entry entry = paramValueIndex.get(param, blockHeight);
+        Coin coinValue = entry.getCoinValue();
+        if (coinValue == null) {
+            coinValue = getParamValueAsCoin(param, entry.getValue());
+            entry.setCoinValue(coinValue);
+        }
+        return coinValue;
     }
 
     public double getParamValueAsPercentDouble(Param param, int blockHeight) {
-        return getParamValueAsPercentDouble(getParamValue(param, blockHeight));
+        ParamValueIndex.Entry entry = paramValueIndex.get(param, blockHeight);
+        Double percentValue = entry.getPercentValue();
+        if (percentValue == null) {
+            percentValue = getParamValueAsPercentDouble(entry.getValue());
+            entry.setPercentValue(percentValue);
+        }
+        return percentValue;
     }
 
     public int getParamValueAsBlock(Param param, int blockHeight) {
-        return getParamValueAsBlock(getParamValue(param, blockHeight));
+        ParamValueIndex.Entry entry = paramValueIndex.get(param, blockHeight);
+        Integer blockValue = entry.getBlockValue();
+        if (blockValue == null) {
+            blockValue = getParamValueAsBlock(entry.getValue());
+            entry.setBlockValue(blockValue);
+        }
+        return blockValue;
     }
 
 
@@ -1017,6 +1049,7 @@ public class DaoStateService implements DaoSetupService {
     public void setSpentInfo(TxOutputKey txOutputKey, SpentInfo spentInfo) {
         assertDaoStateChange();
         daoState.getSpentInfoMap().put(txOutputKey, spentInfo);
+        daoState.addChangedSpentInfoKey(txOutputKey);
     }
 
     public Optional<SpentInfo> getSpentInfo(TxOutput txOutput) {
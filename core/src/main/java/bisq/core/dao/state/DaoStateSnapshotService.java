@@ -41,6 +41,7 @@ import com.google.common.annotations.VisibleForTesting;
 import java.io.File;
 import java.io.IOException;
 
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -55,10 +56,14 @@ import javax.annotation.Nullable;
  * At each trigger height we persist the latest snapshot candidate and set the current daoState as new candidate.
  * The trigger height is determined by the SNAPSHOT_GRID. The latest persisted snapshot is min. the height of
  * SNAPSHOT_GRID old not less than 2 times the SNAPSHOT_GRID old.
+ * If the persisted daoState is at the height of our last candidate, the candidate only contains the changes since
+ * then (a delta), otherwise a full clone. After MAX_DELTAS_BETWEEN_FULL_SNAPSHOTS deltas we persist a full clone
+ * again to limit the number of deltas to apply at startup.
  */
 @Slf4j
 public class DaoStateSnapshotService implements DaoSetupService, DaoStateListener {
     private static final int SNAPSHOT_GRID = 20;
+    private static final int MAX_DELTAS_BETWEEN_FULL_SNAPSHOTS = 10;
 
     private final DaoStateService daoStateService;
     private final GenesisTxInfo genesisTxInfo;
@@ -70,11 +75,17 @@ public class DaoStateSnapshotService implements DaoSetupService, DaoStateListene
     private final Config config;
     private final File storageDir;
 
+    @Nullable
     private protobuf.DaoState daoStateCandidate;
+    @Nullable
+    private protobuf.DaoStateDelta daoStateDeltaCandidate;
     private LinkedList<DaoStateHash> hashChainCandidate = new LinkedList<>();
     private List<Block> blocksCandidate;
     private int snapshotHeight;
     private int chainHeightOfLastApplySnapshot;
+    // Chain height at which the change tracking of the daoState has been reset. A delta created now starts at that
+    // height. -1 if the tracked changes do not start at a known state.
+    private int chainHeightOfTrackedChanges = -1;
     @Setter
     @Nullable
     private Runnable daoRequiresRestartHandler;
@@ -185,6 +196,8 @@ public class DaoStateSnapshotService implements DaoSetupService, DaoStateListene
                 // We do not keep the data in our fields to enable gc as soon its released in the store
 
                 protobuf.DaoState daoStateForSnapshot = getDaoStateForSnapshot();
+                daoStateService.clearDaoStateChanges();
+                chainHeightOfTrackedChanges = chainHeight;
                 List<Block> blocksForSnapshot = getBlocksForSnapshot();
                 LinkedList<DaoStateHash> hashChainForSnapshot = getHashChainForSnapshot();
                 daoStateStorageService.requestPersistence(daoStateForSnapshot,
@@ -211,7 +224,7 @@ public class DaoStateSnapshotService implements DaoSetupService, DaoStateListene
 
         // Either we don't have a snapshot candidate yet, or if we have one the height at that snapshot candidate must be
         // different to our current height.
-        boolean noSnapshotCandidateOrDifferentHeight = daoStateCandidate == null ||
+        boolean noSnapshotCandidateOrDifferentHeight = !hasSnapshotCandidate() ||
                 snapshotHeight != chainHeight;
         if (isSnapshotHeight(chainHeight) &&
                 !daoStateService.getBlocks().isEmpty() &&
@@ -235,7 +248,7 @@ public class DaoStateSnapshotService implements DaoSetupService, DaoStateListene
                 return;
             }
 
-            if (daoStateCandidate != null) {
+            if (hasSnapshotCandidate()) {
                 persist();
             } else {
                 createSnapshot();
@@ -246,16 +259,21 @@ public class DaoStateSnapshotService implements DaoSetupService, DaoStateListene
     private void persist() {
         long ts = System.currentTimeMillis();
         readyForPersisting = false;
-        daoStateStorageService.requestPersistence(daoStateCandidate,
-                blocksCandidate,
-                hashChainCandidate,
-                () -> {
-                    log.info("Serializing daoStateCandidate for writing to Disc at chainHeight {} took {} ms.",
-                            snapshotHeight, System.currentTimeMillis() - ts);
-
-                    createSnapshot();
-                    readyForPersisting = true;
-                });
+        Runnable completeHandler = () -> {
+            log.info("Serializing daoStateCandidate for writing to Disc at chainHeight {} took {} ms.",
+                    snapshotHeight, System.currentTimeMillis() - ts);
+
+            createSnapshot();
+            readyForPersisting = true;
+        };
+        if (daoStateDeltaCandidate != null) {
+            daoStateStorageService.requestPersistence(daoStateDeltaCandidate, blocksCandidate, completeHandler);
+        } else {
+            daoStateStorageService.requestPersistence(daoStateCandidate,
+                    blocksCandidate,
+                    hashChainCandidate,
+                    completeHandler);
+        }
     }
 
     private void createSnapshot() {
@@ -265,13 +283,24 @@ public class DaoStateSnapshotService implements DaoSetupService, DaoStateListene
         // done from the write thread (mapped back to user thread).
         // As we want to prevent to maintain 2 clones we prefer that strategy. If we would do the clone
         // after the persist call we would keep an additional copy in memory.
-        daoStateCandidate = getDaoStateForSnapshot();
-        blocksCandidate = getBlocksForSnapshot();
-        hashChainCandidate = getHashChainForSnapshot();
+        // If the persisted daoState is at the height where our change tracking starts we only need to keep the delta.
         snapshotHeight = daoStateService.getChainHeight();
-        GcUtil.maybeReleaseMemory();
-
-        log.info("Cloned new daoStateCandidate at height {} took {} ms.", snapshotHeight, System.currentTimeMillis() - ts);
+        blocksCandidate = getBlocksForSnapshot();
+        if (isDeltaSnapshotPossible()) {
+            daoStateCandidate = null;
+            hashChainCandidate = new LinkedList<>();
+            daoStateDeltaCandidate = getDaoStateDeltaForSnapshot();
+            log.info("Created new daoStateDeltaCandidate from height {} to {} took {} ms.",
+                    chainHeightOfTrackedChanges, snapshotHeight, System.currentTimeMillis() - ts);
+        } else {
+            daoStateDeltaCandidate = null;
+            daoStateCandidate = getDaoStateForSnapshot();
+            hashChainCandidate = getHashChainForSnapshot();
+            daoStateService.clearDaoStateChanges();
+            GcUtil.maybeReleaseMemory();
+            log.info("Cloned new daoStateCandidate at height {} took {} ms.", snapshotHeight, System.currentTimeMillis() - ts);
+        }
+        chainHeightOfTrackedChanges = snapshotHeight;
     }
 
     public void applySnapshot(boolean fromReorg) {
@@ -292,6 +321,11 @@ public class DaoStateSnapshotService implements DaoSetupService, DaoStateListene
                         daoStateService.applySnapshot(persistedBsqState);
                         daoStateMonitoringService.applySnapshot(persistedDaoStateHashChain);
                         daoStateStorageService.releaseMemory();
+                        // A candidate created from the state before a reorg must not be persisted on top of the
+                        // applied snapshot.
+                        daoStateCandidate = null;
+                        daoStateDeltaCandidate = null;
+                        chainHeightOfTrackedChanges = chainHeightOfPersisted;
                     } else {
                         // The reorg might have been caused by the previous parsing which might contains a range of
                         // blocks.
@@ -360,6 +394,31 @@ public class DaoStateSnapshotService implements DaoSetupService, DaoStateListene
         return isSnapshotHeight(genesisTxInfo.getGenesisBlockHeight(), height, SNAPSHOT_GRID);
     }
 
+    private boolean hasSnapshotCandidate() {
+        return daoStateCandidate != null || daoStateDeltaCandidate != null;
+    }
+
+    private boolean isDeltaSnapshotPossible() {
+        return chainHeightOfTrackedChanges > 0 &&
+                chainHeightOfTrackedChanges == daoStateStorageService.getChainHeightOfPersistedDaoState() &&
+                daoStateStorageService.getNumPersistedDeltas() < MAX_DELTAS_BETWEEN_FULL_SNAPSHOTS;
+    }
+
+    private protobuf.DaoStateDelta getDaoStateDeltaForSnapshot() {
+        protobuf.DaoStateDelta.Builder builder = daoStateService.getDaoStateDeltaBuilder(chainHeightOfTrackedChanges);
+        // The hash chain is append only, so we iterate from the end until we reach the base height.
+        LinkedList<protobuf.DaoStateHash> newHashes = new LinkedList<>();
+        Iterator<DaoStateHash> iterator = daoStateMonitoringService.getDaoStateHashChain().descendingIterator();
+        while (iterator.hasNext()) {
+            DaoStateHash daoStateHash = iterator.next();
+            if (daoStateHash.getHeight() <= chainHeightOfTrackedChanges) {
+                break;
+            }
+            newHashes.addFirst(daoStateHash.toProtoMessage());
+        }
+        return builder.addAllDaoStateHash(newHashes).build();
+    }
+
     private protobuf.DaoState getDaoStateForSnapshot() {
         return daoStateService.getBsqStateCloneExcludingBlocks();
     }
@@ -0,0 +1,131 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.governance.param.Param;
+import bisq.core.dao.state.model.governance.ParamChange;
+
+import org.bitcoinj.core.Coin;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Index of the param values by param and activation height, so that the value valid at a block height is found by a
+ * binary search without allocations instead of iterating over all param changes.
+ * The index is immutable and gets replaced when the param changes change, so it can be read from any thread.
+ */
+@Slf4j
+class ParamValueIndex {
+    /**
+     * A param value together with its parsed forms, which are cached at first use. As the parsed values are immutable
+     * a racy initialisation only costs a repeated parsing.
+     */
+    static final class Entry {
+        @Getter
+        private final String value;
+        @Nullable
+        @Getter
+        @Setter
+        private Coin coinValue;
+        @Nullable
+        @Getter
+        @Setter
+        private Double percentValue;
+        @Nullable
+        @Getter
+        @Setter
+        private Integer blockValue;
+
+        private Entry(String value) {
+            this.value = value;
+        }
+    }
+
+    private static final class ParamValues {
+        // Sorted ascending. The first entry is the default value valid from Integer.MIN_VALUE.
+        private final int[] activationHeights;
+        private final Entry[] entries;
+
+        private ParamValues(int[] activationHeights, Entry[] entries) {
+            this.activationHeights = activationHeights;
+            this.entries = entries;
+        }
+
+        private Entry get(int blockHeight) {
+            int low = 0;
+            int high = activationHeights.length - 1;
+            // Find the last entry with activationHeight <= blockHeight. Entry 0 always matches.
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (activationHeights[mid] <= blockHeight) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return entries[low];
+        }
+    }
+
+    private final Map<Param, ParamValues> paramValuesByParam;
+
+    ParamValueIndex(List<ParamChange> paramChangeList) {
+        Map<Param, TreeMap<Integer, String>> changesByParam = new EnumMap<>(Param.class);
+        for (ParamChange paramChange : paramChangeList) {
+            Param param;
+            try {
+                param = Param.valueOf(paramChange.getParamName());
+            } catch (IllegalArgumentException e) {
+                log.warn("Unknown param in paramChange {}", paramChange);
+                continue;
+            }
+            // The list is sorted by height. If there are several changes at the same height, the last one wins.
+            changesByParam.computeIfAbsent(param, k -> new TreeMap<>())
+                    .put(paramChange.getActivationHeight(), paramChange.getValue());
+        }
+
+        paramValuesByParam = new EnumMap<>(Param.class);
+        for (Param param : Param.values()) {
+            TreeMap<Integer, String> changes = changesByParam.getOrDefault(param, new TreeMap<>());
+            int[] activationHeights = new int[changes.size() + 1];
+            Entry[] entries = new Entry[changes.size() + 1];
+            activationHeights[0] = Integer.MIN_VALUE;
+            entries[0] = new Entry(param.getDefaultValue());
+            int i = 1;
+            for (Map.Entry<Integer, String> change : changes.entrySet()) {
+                activationHeights[i] = change.getKey();
+                entries[i] = new Entry(change.getValue());
+                i++;
+            }
+            paramValuesByParam.put(param, new ParamValues(activationHeights, entries));
+        }
+    }
+
+    Entry get(Param param, int blockHeight) {
+        return paramValuesByParam.get(param).get(blockHeight);
+    }
+}
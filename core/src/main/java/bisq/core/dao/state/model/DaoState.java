@@ -121,6 +121,15 @@ public class DaoState implements PersistablePayload {
     @JsonExclude
     private transient final Map<TxOutputType, Set<TxOutput>> txOutputsByTxOutputType = new HashMap<>();
 
+    // Transient tracking of the map entries which got changed since the last delta was created. Used for persisting
+    // only the changes at a snapshot instead of a full clone of the maps.
+    @JsonExclude
+    private transient final Set<TxOutputKey> changedUnspentTxOutputKeys = new HashSet<>();
+    @JsonExclude
+    private transient final Set<TxOutputKey> changedSpentInfoKeys = new HashSet<>();
+    @JsonExclude
+    private transient final Set<String> changedIssuanceKeys = new HashSet<>();
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -250,13 +259,71 @@ public class DaoState implements PersistablePayload {
         this.chainHeight = chainHeight;
     }
 
-    public byte[] getSerializedStateForHashChain() {
+    public protobuf.DaoState getStateForHashChain() {
         // We only add last block as for the hash chain we include the prev. hash in the new hash so the state of the
         // earlier blocks is included in the hash. The past blocks cannot be changed anyway when a new block arrives.
         // Reorgs are handled by rebuilding the hash chain from last snapshot.
         // Using the full blocks list becomes quite heavy. 7000 blocks are
         // about 1.4 MB and creating the hash takes 30 sec. By using just the last block we reduce the time to 7 sec.
-        return getBsqStateBuilderExcludingBlocks().addBlocks(getLastBlock().toProtoMessage()).build().toByteArray();
+        // We do not serialize it to a byte array but stream it into the hash function (see Hash.getSha256Ripemd160hash).
+        return getBsqStateBuilderExcludingBlocks().addBlocks(getLastBlock().toProtoMessage()).build();
+    }
+
+    public void addChangedUnspentTxOutputKey(TxOutputKey key) {
+        changedUnspentTxOutputKeys.add(key);
+    }
+
+    public void addChangedSpentInfoKey(TxOutputKey key) {
+        changedSpentInfoKeys.add(key);
+    }
+
+    public void addChangedIssuanceKey(String txId) {
+        changedIssuanceKeys.add(txId);
+    }
+
+    public void clearChanges() {
+        changedUnspentTxOutputKeys.clear();
+        changedSpentInfoKeys.clear();
+        changedIssuanceKeys.clear();
+    }
+
+    /**
+     * Creates a delta with the map entries changed since the last call and the full lists. The change tracking gets
+     * reset so the next delta starts at the current chainHeight.
+     *
+     * @param baseHeight The chainHeight of the state the delta gets applied to.
+     */
+    public protobuf.DaoStateDelta.Builder getDeltaBuilder(int baseHeight) {
+        protobuf.DaoStateDelta.Builder builder = protobuf.DaoStateDelta.newBuilder()
+                .setBaseHeight(baseHeight)
+                .setChainHeight(chainHeight)
+                .addAllCycles(cycles.stream().map(Cycle::toProtoMessage).collect(Collectors.toList()))
+                .addAllConfiscatedLockupTxList(confiscatedLockupTxList)
+                .addAllParamChangeList(paramChangeList.stream().map(ParamChange::toProtoMessage).collect(Collectors.toList()))
+                .addAllEvaluatedProposalList(evaluatedProposalList.stream().map(EvaluatedProposal::toProtoMessage).collect(Collectors.toList()))
+                .addAllDecryptedBallotsWithMeritsList(decryptedBallotsWithMeritsList.stream().map(DecryptedBallotsWithMerits::toProtoMessage).collect(Collectors.toList()));
+        changedUnspentTxOutputKeys.forEach(key -> {
+            TxOutput txOutput = unspentTxOutputMap.get(key);
+            if (txOutput != null) {
+                builder.putUnspentTxOutputMap(key.toString(), txOutput.toProtoMessage());
+            } else {
+                builder.addRemovedUnspentTxOutputKeys(key.toString());
+            }
+        });
+        changedSpentInfoKeys.forEach(key -> {
+            SpentInfo spentInfo = spentInfoMap.get(key);
+            if (spentInfo != null) {
+                builder.putSpentInfoMap(key.toString(), spentInfo.toProtoMessage());
+            }
+        });
+        changedIssuanceKeys.forEach(key -> {
+            Issuance issuance = issuanceMap.get(key);
+            if (issuance != null) {
+                builder.putIssuanceMap(key, issuance.toProtoMessage());
+            }
+        });
+        clearChanges();
+        return builder;
     }
 
     public void addToTxCache(Tx tx) {
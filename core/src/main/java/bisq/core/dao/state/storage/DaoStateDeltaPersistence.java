@@ -0,0 +1,141 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state.storage;
+
+import bisq.common.file.FileUtil;
+import bisq.common.persistence.PersistenceManager;
+
+import java.nio.file.Path;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Writes each DaoStateDelta to its own file named by its chain height. The deltas are applied at startup on top of
+ * the last full DaoStateStore and get removed once a new full DaoStateStore has been written.
+ */
+@Slf4j
+public class DaoStateDeltaPersistence {
+    private final File storageDir;
+    private final String fileName;
+    // We reuse the temp file path as the delete-on-exit hook of each new temp file leaks memory.
+    @Nullable
+    private Path usedTempFilePath;
+
+    public DaoStateDeltaPersistence(File storageDir, String fileName) {
+        this.storageDir = storageDir;
+        this.fileName = fileName;
+    }
+
+    public static void applyDelta(protobuf.DaoState.Builder builder, protobuf.DaoStateDelta delta) {
+        builder.setChainHeight(delta.getChainHeight())
+                .clearCycles()
+                .addAllCycles(delta.getCyclesList())
+                .putAllUnspentTxOutputMap(delta.getUnspentTxOutputMapMap())
+                .putAllSpentInfoMap(delta.getSpentInfoMapMap())
+                .putAllIssuanceMap(delta.getIssuanceMapMap())
+                .clearConfiscatedLockupTxList()
+                .addAllConfiscatedLockupTxList(delta.getConfiscatedLockupTxListList())
+                .clearParamChangeList()
+                .addAllParamChangeList(delta.getParamChangeListList())
+                .clearEvaluatedProposalList()
+                .addAllEvaluatedProposalList(delta.getEvaluatedProposalListList())
+                .clearDecryptedBallotsWithMeritsList()
+                .addAllDecryptedBallotsWithMeritsList(delta.getDecryptedBallotsWithMeritsListList());
+        delta.getRemovedUnspentTxOutputKeysList().forEach(builder::removeUnspentTxOutputMap);
+    }
+
+    public boolean writeDelta(protobuf.DaoStateDelta delta) {
+        if (!storageDir.exists()) {
+            storageDir.mkdir();
+        }
+        File storageFile = new File(storageDir, fileName + "_" + delta.getChainHeight());
+        try {
+            usedTempFilePath = PersistenceManager.writeToDiskAtomically(delta, storageDir, fileName, storageFile,
+                    usedTempFilePath).toPath();
+            return true;
+        } catch (Throwable t) {
+            usedTempFilePath = null;
+            log.error("Error at writeDelta, storageFile={}", storageFile, t);
+            return false;
+        }
+    }
+
+    // Returns the deltas sorted by chain height. Files which cannot be parsed are ignored.
+    public List<protobuf.DaoStateDelta> readDeltas() {
+        List<protobuf.DaoStateDelta> deltas = new ArrayList<>();
+        File[] files = storageDir.listFiles((dir, name) -> name.startsWith(fileName + "_"));
+        if (files == null) {
+            return deltas;
+        }
+        for (File file : files) {
+            try (FileInputStream fileInputStream = new FileInputStream(file)) {
+                protobuf.DaoStateDelta delta = protobuf.DaoStateDelta.parseDelimitedFrom(fileInputStream);
+                if (delta != null) {
+                    deltas.add(delta);
+                }
+            } catch (Throwable t) {
+                log.warn("Reading {} failed with {}.", file.getName(), t.getMessage());
+            }
+        }
+        deltas.sort(Comparator.comparingInt(protobuf.DaoStateDelta::getChainHeight));
+        return deltas;
+    }
+
+    /**
+     * Returns the persisted deltas which continue the given chain height of the full daoState in order. Deltas which
+     * are older than the full daoState are left-overs from an interrupted cleanup and get ignored. At a gap we cannot
+     * apply any later delta, so we remove them all.
+     */
+    public List<protobuf.DaoStateDelta> readDeltasContinuing(int chainHeight) {
+        List<protobuf.DaoStateDelta> deltas = new ArrayList<>();
+        for (protobuf.DaoStateDelta delta : readDeltas()) {
+            if (delta.getChainHeight() <= chainHeight) {
+                continue;
+            }
+            if (delta.getBaseHeight() != chainHeight) {
+                log.warn("DaoStateDelta with base height {} does not match chain height {}. We remove all deltas.",
+                        delta.getBaseHeight(), chainHeight);
+                removeDeltasDirectory();
+                break;
+            }
+            deltas.add(delta);
+            chainHeight = delta.getChainHeight();
+        }
+        return deltas;
+    }
+
+    public void removeDeltasDirectory() {
+        if (storageDir.exists()) {
+            try {
+                FileUtil.deleteDirectory(storageDir);
+            } catch (IOException e) {
+                log.error("Could not delete {}: {}", storageDir, e.toString());
+            }
+        }
+    }
+}
@@ -43,6 +43,7 @@ import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -51,12 +52,21 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class DaoStateStorageService extends StoreService<DaoStateStore> {
     private static final String FILE_NAME = "DaoStateStore";
+    private static final String DELTAS_NAME = "DaoStateDeltas";
+    private static final String DELTA_FILE_NAME = "DaoStateDelta";
 
     private final BsqBlocksStorageService bsqBlocksStorageService;
     private final File storageDir;
+    private final DaoStateDeltaPersistence daoStateDeltaPersistence;
     private final LinkedList<Block> blocks = new LinkedList<>();
     private final ExecutorService executorService = SingleThreadExecutorUtils.getNonDaemonSingleThreadExecutor(this.getClass());
     private Optional<Future<?>> future = Optional.empty();
+    // Chain height of the persisted daoState including the applied deltas
+    @Getter
+    private volatile int chainHeightOfPersistedDaoState;
+    // Number of deltas persisted since the last full DaoStateStore has been written
+    @Getter
+    private volatile int numPersistedDeltas;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -71,6 +81,7 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
         super(storageDir, persistenceManager);
         this.bsqBlocksStorageService = bsqBlocksStorageService;
         this.storageDir = storageDir;
+        daoStateDeltaPersistence = new DaoStateDeltaPersistence(new File(storageDir, DELTAS_NAME), DELTA_FILE_NAME);
 
         resourceDataStoreService.addService(this);
     }
@@ -114,6 +125,10 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
                    // After we have written to disk we remove the daoStateAsProto in the store to avoid that it stays in
                    // memory there until the next persist call.
                    log.info("Persist daoState took {} ms", System.currentTimeMillis() - ts);
+                   // The deltas are included in the full daoState now.
+                   daoStateDeltaPersistence.removeDeltasDirectory();
+                   chainHeightOfPersistedDaoState = daoStateAsProto.getChainHeight();
+                   numPersistedDeltas = 0;
                    store.releaseMemory();
                    GcUtil.maybeReleaseMemory();
                    UserThread.execute(completeHandler);
@@ -124,6 +139,45 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
         }));
     }
 
+    /**
+     * Persists the blocks and the changes of the daoState since the last persisted daoState. If the delta does not
+     * start at the chain height of the persisted daoState (e.g. a full daoState has been written in the meantime) we
+     * skip it, as it could not be applied at startup.
+     */
+    public void requestPersistence(protobuf.DaoStateDelta daoStateDelta,
+                                   List<Block> blocks,
+                                   Runnable completeHandler) {
+        if (future.isPresent() && !future.get().isDone()) {
+            UserThread.runAfter(() -> requestPersistence(daoStateDelta, blocks, completeHandler), 2);
+            return;
+        }
+
+        future = Optional.of(executorService.submit(() -> {
+            try {
+                Thread.currentThread().setName("Write-blocks-and-DaoStateDelta");
+                if (daoStateDelta.getBaseHeight() != chainHeightOfPersistedDaoState) {
+                    log.warn("Base height of daoStateDelta {} does not match chain height of persisted daoState {}. " +
+                                    "We skip persisting the delta.",
+                            daoStateDelta.getBaseHeight(), chainHeightOfPersistedDaoState);
+                } else {
+                    bsqBlocksStorageService.persistBlocks(blocks);
+                    long ts = System.currentTimeMillis();
+                    if (daoStateDeltaPersistence.writeDelta(daoStateDelta)) {
+                        chainHeightOfPersistedDaoState = daoStateDelta.getChainHeight();
+                        numPersistedDeltas++;
+                        log.info("Persist daoStateDelta at chain height {} with {} changed unspent txOutputs took {} ms",
+                                daoStateDelta.getChainHeight(),
+                                daoStateDelta.getUnspentTxOutputMapCount() + daoStateDelta.getRemovedUnspentTxOutputKeysCount(),
+                                System.currentTimeMillis() - ts);
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Exception at persisting BSQ blocks and DaoStateDelta", e);
+            }
+            UserThread.execute(completeHandler);
+        }));
+    }
+
     public void shutDown() {
         executorService.shutdown();
     }
@@ -141,6 +195,7 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
                     Thread.currentThread().setName("Read-BsqBlocksStore");
                     protobuf.DaoState daoStateAsProto = store.getDaoStateAsProto();
                     if (daoStateAsProto != null) {
+                        daoStateAsProto = applyPersistedDeltas(daoStateAsProto);
                         LinkedList<Block> list;
                         if (daoStateAsProto.getBlocksList().isEmpty()) {
                             int chainHeight = daoStateAsProto.getChainHeight();
@@ -198,6 +253,9 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
         store.setDaoStateHashChain(new LinkedList<>());
         persistenceManager.persistNow(resultHandler);
         bsqBlocksStorageService.removeBlocksInDirectory();
+        daoStateDeltaPersistence.removeDeltasDirectory();
+        chainHeightOfPersistedDaoState = 0;
+        numPersistedDeltas = 0;
     }
 
     public void resyncDaoStateFromResources(File storageDir) throws IOException {
@@ -210,6 +268,40 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
         FileUtil.removeAndBackupFile(storageDir, new File(storageDir, "DaoStateStore"), newFileName, backupDirName);
 
         bsqBlocksStorageService.removeBlocksDirectory();
+        daoStateDeltaPersistence.removeDeltasDirectory();
+    }
+
+    // Applies the persisted deltas which continue the chain height of the full daoState.
+    private protobuf.DaoState applyPersistedDeltas(protobuf.DaoState daoStateAsProto) {
+        long ts = System.currentTimeMillis();
+        int chainHeight = daoStateAsProto.getChainHeight();
+        LinkedList<DaoStateHash> daoStateHashChain = store.getDaoStateHashChain();
+        protobuf.DaoState.Builder builder = null;
+        int numDeltas = 0;
+        for (protobuf.DaoStateDelta delta : daoStateDeltaPersistence.readDeltasContinuing(chainHeight)) {
+            if (builder == null) {
+                builder = daoStateAsProto.toBuilder();
+            }
+            DaoStateDeltaPersistence.applyDelta(builder, delta);
+            delta.getDaoStateHashList().stream()
+                    .map(DaoStateHash::fromProto)
+                    .filter(daoStateHash -> daoStateHashChain.isEmpty() ||
+                            daoStateHash.getHeight() > daoStateHashChain.getLast().getHeight())
+                    .forEach(daoStateHashChain::add);
+            chainHeight = delta.getChainHeight();
+            numDeltas++;
+        }
+        chainHeightOfPersistedDaoState = chainHeight;
+        numPersistedDeltas = numDeltas;
+        if (builder == null) {
+            return daoStateAsProto;
+        }
+
+        protobuf.DaoState result = builder.build();
+        store.setDaoStateAsProto(result);
+        log.info("Applying {} daoStateDeltas up to chain height {} took {} ms",
+                numDeltas, chainHeight, System.currentTimeMillis() - ts);
+        return result;
     }
 
     private void removeAndBackupDaoConsensusFiles(File storageDir, String backupDirName) throws IOException {
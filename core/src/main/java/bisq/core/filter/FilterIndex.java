@@ -0,0 +1,227 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.filter;
+
+import bisq.core.payment.payload.PaymentAccountPayload;
+
+import bisq.network.p2p.NodeAddress;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Immutable lookup structures compiled once from a Filter, so that the ban checks in FilterManager, some of them
+ * called for each received network message, are hash lookups instead of scans over the filter lists.
+ */
+@Slf4j
+final class FilterIndex {
+    static final FilterIndex EMPTY = new FilterIndex(null);
+
+    private final Set<String> bannedCurrencies;
+    private final Set<String> bannedPaymentMethods;
+    private final Set<String> bannedOfferIds;
+    private final Set<String> bannedAutoConfExplorers;
+    private final Set<String> bannedAccountWitnessSignerPubKeys;
+    private final NodeAddressSet nodeAddressesBannedFromTrading;
+    private final NodeAddressSet nodeAddressesBannedFromNetwork;
+    private final Map<String, List<PaymentAccountRule>> paymentAccountRulesByPaymentMethodId;
+
+    static FilterIndex from(@Nullable Filter filter) {
+        return filter != null ? new FilterIndex(filter) : EMPTY;
+    }
+
+    private FilterIndex(@Nullable Filter filter) {
+        bannedCurrencies = toSet(filter != null ? filter.getBannedCurrencies() : null);
+        bannedPaymentMethods = toSet(filter != null ? filter.getBannedPaymentMethods() : null);
+        bannedOfferIds = toSet(filter != null ? filter.getBannedOfferIds() : null);
+        bannedAutoConfExplorers = toSet(filter != null ? filter.getBannedAutoConfExplorers() : null);
+        bannedAccountWitnessSignerPubKeys = toSet(filter != null ? filter.getBannedAccountWitnessSignerPubKeys() : null);
+        nodeAddressesBannedFromTrading = new NodeAddressSet(filter != null ? filter.getNodeAddressesBannedFromTrading() : null);
+        nodeAddressesBannedFromNetwork = new NodeAddressSet(filter != null ? filter.getNodeAddressesBannedFromNetwork() : null);
+        paymentAccountRulesByPaymentMethodId = toPaymentAccountRules(filter != null ? filter.getBannedPaymentAccounts() : null);
+    }
+
+    boolean isCurrencyBanned(String currencyCode) {
+        return bannedCurrencies.contains(currencyCode);
+    }
+
+    boolean isPaymentMethodBanned(String paymentMethodId) {
+        return bannedPaymentMethods.contains(paymentMethodId);
+    }
+
+    boolean isOfferIdBanned(String offerId) {
+        return bannedOfferIds.contains(offerId);
+    }
+
+    boolean isAutoConfExplorerBanned(String address) {
+        return bannedAutoConfExplorers.contains(address);
+    }
+
+    boolean isWitnessSignerPubKeyBanned(String witnessSignerPubKeyAsHex) {
+        return bannedAccountWitnessSignerPubKeys.contains(witnessSignerPubKeyAsHex);
+    }
+
+    boolean isNodeAddressBannedFromTrading(NodeAddress nodeAddress) {
+        return nodeAddressesBannedFromTrading.contains(nodeAddress);
+    }
+
+    boolean isNodeAddressBannedFromNetwork(NodeAddress nodeAddress) {
+        return nodeAddressesBannedFromNetwork.contains(nodeAddress);
+    }
+
+    boolean isPaymentAccountDataBanned(PaymentAccountPayload paymentAccountPayload) {
+        List<PaymentAccountRule> rules = paymentAccountRulesByPaymentMethodId.get(paymentAccountPayload.getPaymentMethodId());
+        if (rules == null) {
+            return false;
+        }
+        for (PaymentAccountRule rule : rules) {
+            if (rule.matches(paymentAccountPayload)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static Set<String> toSet(@Nullable Collection<String> values) {
+        return values == null || values.isEmpty() ? Collections.emptySet() : Set.copyOf(values);
+    }
+
+    private static Map<String, List<PaymentAccountRule>> toPaymentAccountRules(@Nullable List<PaymentAccountFilter> filters) {
+        if (filters == null || filters.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        // All values of the same paymentMethodId and getter end up in one rule
+        Map<String, Map<String, Set<String>>> valuesByGetterByPaymentMethodId = new HashMap<>();
+        filters.forEach(filter -> valuesByGetterByPaymentMethodId
+                .computeIfAbsent(filter.getPaymentMethodId(), key -> new HashMap<>())
+                .computeIfAbsent(filter.getGetMethodName(), key -> new TreeSet<>(String.CASE_INSENSITIVE_ORDER))
+                .add(filter.getValue()));
+
+        Map<String, List<PaymentAccountRule>> rulesByPaymentMethodId = new HashMap<>();
+        valuesByGetterByPaymentMethodId.forEach((paymentMethodId, valuesByGetter) -> {
+            List<PaymentAccountRule> rules = valuesByGetter.entrySet().stream()
+                    .map(entry -> new PaymentAccountRule(entry.getKey(), entry.getValue()))
+                    .collect(Collectors.toUnmodifiableList());
+            rulesByPaymentMethodId.put(paymentMethodId, rules);
+        });
+        return Map.copyOf(rulesByPaymentMethodId);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PaymentAccountRule
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Matches the value of a getter (no args), e.g. getHolderName, case-insensitively against the banned values.
+    // The getter is resolved once per PaymentAccountPayload class.
+    private static final class PaymentAccountRule {
+        private final String getMethodName;
+        private final Set<String> values;
+        private final ClassValue<Optional<MethodHandle>> getterByClass = new ClassValue<>() {
+            @Override
+            protected Optional<MethodHandle> computeValue(Class<?> type) {
+                try {
+                    return Optional.of(MethodHandles.publicLookup().findVirtual(type, getMethodName,
+                            MethodType.methodType(String.class)));
+                } catch (NoSuchMethodException | IllegalAccessException e) {
+                    log.error("Getter {} not found at {}", getMethodName, type.getSimpleName());
+                    return Optional.empty();
+                }
+            }
+        };
+
+        private PaymentAccountRule(String getMethodName, Set<String> values) {
+            this.getMethodName = getMethodName;
+            this.values = Collections.unmodifiableSet(values);
+        }
+
+        private boolean matches(PaymentAccountPayload paymentAccountPayload) {
+            Optional<MethodHandle> getter = getterByClass.get(paymentAccountPayload.getClass());
+            if (getter.isEmpty()) {
+                return false;
+            }
+            try {
+                String value = (String) getter.get().invoke(paymentAccountPayload);
+                return value != null && values.contains(value);
+            } catch (Throwable e) {
+                log.error(e.getMessage());
+                return false;
+            }
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // NodeAddressSet
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Banned ports by host name, so that a NodeAddress can be looked up without building its full address string.
+    private static final class NodeAddressSet {
+        private final Map<String, BitSet> portsByHostName;
+
+        private NodeAddressSet(@Nullable Collection<String> fullAddresses) {
+            if (fullAddresses == null || fullAddresses.isEmpty()) {
+                portsByHostName = Collections.emptyMap();
+                return;
+            }
+
+            Map<String, BitSet> map = new HashMap<>();
+            fullAddresses.forEach(fullAddress -> {
+                int separatorIndex = fullAddress.lastIndexOf(':');
+                try {
+                    String hostName = fullAddress.substring(0, separatorIndex);
+                    int port = Integer.parseInt(fullAddress.substring(separatorIndex + 1));
+                    if (separatorIndex > 0 && port >= 0) {
+                        map.computeIfAbsent(hostName, key -> new BitSet()).set(port);
+                        return;
+                    }
+                } catch (IndexOutOfBoundsException | NumberFormatException ignore) {
+                }
+                log.warn("Ignoring invalid node address in filter: {}", fullAddress);
+            });
+            portsByHostName = Map.copyOf(map);
+        }
+
+        private boolean contains(NodeAddress nodeAddress) {
+            BitSet ports = portsByHostName.get(nodeAddress.getHostName());
+            return ports != null && nodeAddress.getPort() >= 0 && ports.get(nodeAddress.getPort());
+        }
+    }
+}
@@ -68,8 +68,6 @@ import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 
-import java.lang.reflect.Method;
-
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
@@ -103,6 +101,8 @@ public class FilterManager {
     private final ProvidersRepository providersRepository;
     private final boolean ignoreDevMsg;
     private final ObjectProperty<Filter> filterProperty = new SimpleObjectProperty<>();
+    // Rebuilt whenever the filter changes. Read from network threads by the ban checks.
+    private volatile FilterIndex filterIndex = FilterIndex.EMPTY;
     private final List<Listener> listeners = new CopyOnWriteArrayList<>();
     private final List<String> publicKeys;
     private ECKey filterSigningKey;
@@ -138,6 +138,7 @@ public class FilterManager {
                         "029340c3e7d4bb0f9e651b5f590b434fecb6175aeaa57145c7804ff05d210e534f",
                         "034dc7530bf66ffd9580aa98031ea9a18ac2d269f7c56c0e71eca06105b9ed69f9");
 
+        filterProperty.addListener((observable, oldValue, newValue) -> filterIndex = FilterIndex.from(newValue));
         banFilter.setBannedNodePredicate(this::isNodeAddressBannedFromNetwork);
     }
 
@@ -394,41 +395,27 @@ public class FilterManager {
     }
 
     public boolean isCurrencyBanned(String currencyCode) {
-        return getFilter() != null &&
-                getFilter().getBannedCurrencies() != null &&
-                getFilter().getBannedCurrencies().stream()
-                        .anyMatch(e -> e.equals(currencyCode));
+        return filterIndex.isCurrencyBanned(currencyCode);
     }
 
     public boolean isPaymentMethodBanned(PaymentMethod paymentMethod) {
-        return getFilter() != null &&
-                getFilter().getBannedPaymentMethods() != null &&
-                getFilter().getBannedPaymentMethods().stream()
-                        .anyMatch(e -> e.equals(paymentMethod.getId()));
+        return filterIndex.isPaymentMethodBanned(paymentMethod.getId());
     }
 
     public boolean isOfferIdBanned(String offerId) {
-        return getFilter() != null &&
-                getFilter().getBannedOfferIds().stream()
-                        .anyMatch(e -> e.equals(offerId));
+        return filterIndex.isOfferIdBanned(offerId);
     }
 
     public boolean isNodeAddressBanned(NodeAddress nodeAddress) {
-        return getFilter() != null &&
-                getFilter().getNodeAddressesBannedFromTrading().stream()
-                        .anyMatch(e -> e.equals(nodeAddress.getFullAddress()));
+        return filterIndex.isNodeAddressBannedFromTrading(nodeAddress);
     }
 
     public boolean isNodeAddressBannedFromNetwork(NodeAddress nodeAddress) {
-        return getFilter() != null &&
-                getFilter().getNodeAddressesBannedFromNetwork().stream()
-                        .anyMatch(e -> e.equals(nodeAddress.getFullAddress()));
+        return filterIndex.isNodeAddressBannedFromNetwork(nodeAddress);
     }
 
     public boolean isAutoConfExplorerBanned(String address) {
-        return getFilter() != null &&
-                getFilter().getBannedAutoConfExplorers().stream()
-                        .anyMatch(e -> e.equals(address));
+        return filterIndex.isAutoConfExplorerBanned(address);
     }
 
     public boolean requireUpdateToNewVersionForTrading() {
@@ -460,29 +447,12 @@ public class FilterManager {
     }
 
     public boolean arePeersPaymentAccountDataBanned(PaymentAccountPayload paymentAccountPayload) {
-        return getFilter() != null &&
-                paymentAccountPayload != null &&
-                getFilter().getBannedPaymentAccounts().stream()
-                        .filter(paymentAccountFilter -> paymentAccountFilter.getPaymentMethodId().equals(
-                                paymentAccountPayload.getPaymentMethodId()))
-                        .anyMatch(paymentAccountFilter -> {
-                            try {
-                                Method method = paymentAccountPayload.getClass().getMethod(paymentAccountFilter.getGetMethodName());
-                                // We invoke getter methods (no args), e.g. getHolderName
-                                String valueFromInvoke = (String) method.invoke(paymentAccountPayload);
-                                return valueFromInvoke.equalsIgnoreCase(paymentAccountFilter.getValue());
-                            } catch (Throwable e) {
-                                log.error(e.getMessage());
-                                return false;
-                            }
-                        });
+        return paymentAccountPayload != null &&
+                filterIndex.isPaymentAccountDataBanned(paymentAccountPayload);
     }
 
     public boolean isWitnessSignerPubKeyBanned(String witnessSignerPubKeyAsHex) {
-        return getFilter() != null &&
-                getFilter().getBannedAccountWitnessSignerPubKeys() != null &&
-                getFilter().getBannedAccountWitnessSignerPubKeys().stream()
-                        .anyMatch(e -> e.equals(witnessSignerPubKeyAsHex));
+        return filterIndex.isWitnessSignerPubKeyBanned(witnessSignerPubKeyAsHex);
     }
 
     public boolean isProofOfWorkValid(Offer offer) {
@@ -38,19 +38,26 @@ import javax.inject.Named;
 
 import java.io.File;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
 
 /**
  * Handles storage and retrieval of offers.
- * Uses an invalidation flag to only request the full offer map in case there was a change (anyone has added or removed an offer).
+ * We maintain an index of the offers by offer id and by market (currency code, direction and payment method), which
+ * gets updated from the HashMapChangedListener callbacks. The Offer instances are created once per offer payload,
+ * so clients get stable Offer instances.
  */
 @Slf4j
 public class OfferBookService {
@@ -61,11 +68,26 @@ public class OfferBookService {
         void onRemoved(Offer offer);
     }
 
+    @Value
+    private static class MarketKey {
+        String currencyCode;
+        OfferDirection direction;
+        String paymentMethodId;
+
+        MarketKey(Offer offer) {
+            currencyCode = offer.getCurrencyCode();
+            direction = offer.getDirection();
+            paymentMethodId = offer.getPaymentMethodId();
+        }
+    }
+
     private final P2PService p2PService;
     private final PriceFeedService priceFeedService;
     private final List<OfferBookChangedListener> offerBookChangedListeners = new LinkedList<>();
     private final FilterManager filterManager;
     private final JsonFileManager jsonFileManager;
+    private final Map<String, Offer> offersById = new ConcurrentHashMap<>();
+    private final Map<MarketKey, Map<String, Offer>> offersByMarket = new ConcurrentHashMap<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -83,29 +105,31 @@ public class OfferBookService {
         this.filterManager = filterManager;
         jsonFileManager = new JsonFileManager(storageDir);
 
+        p2PService.getDataMap().values().stream()
+                .filter(data -> data.getProtectedStoragePayload() instanceof OfferPayloadBase)
+                .forEach(data -> addToIndex((OfferPayloadBase) data.getProtectedStoragePayload()));
+
         p2PService.addHashSetChangedListener(new HashMapChangedListener() {
             @Override
             public void onAdded(Collection<ProtectedStorageEntry> protectedStorageEntries) {
-                protectedStorageEntries.forEach(protectedStorageEntry -> offerBookChangedListeners.forEach(listener -> {
+                protectedStorageEntries.forEach(protectedStorageEntry -> {
                     if (protectedStorageEntry.getProtectedStoragePayload() instanceof OfferPayloadBase) {
                         OfferPayloadBase offerPayloadBase = (OfferPayloadBase) protectedStorageEntry.getProtectedStoragePayload();
-                        Offer offer = new Offer(offerPayloadBase);
-                        offer.setPriceFeedService(priceFeedService);
-                        listener.onAdded(offer);
+                        Offer offer = addToIndex(offerPayloadBase);
+                        offerBookChangedListeners.forEach(listener -> listener.onAdded(offer));
                     }
-                }));
+                });
             }
 
             @Override
             public void onRemoved(Collection<ProtectedStorageEntry> protectedStorageEntries) {
-                protectedStorageEntries.forEach(protectedStorageEntry -> offerBookChangedListeners.forEach(listener -> {
+                protectedStorageEntries.forEach(protectedStorageEntry -> {
                     if (protectedStorageEntry.getProtectedStoragePayload() instanceof OfferPayloadBase) {
                         OfferPayloadBase offerPayloadBase = (OfferPayloadBase) protectedStorageEntry.getProtectedStoragePayload();
-                        Offer offer = new Offer(offerPayloadBase);
-                        offer.setPriceFeedService(priceFeedService);
-                        listener.onRemoved(offer);
+                        Offer offer = removeFromIndex(offerPayloadBase);
+                        offerBookChangedListeners.forEach(listener -> listener.onRemoved(offer));
                     }
-                }));
+                });
             }
         });
 
@@ -190,14 +214,22 @@ public class OfferBookService {
     }
 
     public List<Offer> getOffers() {
-        return p2PService.getDataMap().values().stream()
-                .filter(data -> data.getProtectedStoragePayload() instanceof OfferPayloadBase)
-                .map(data -> {
-                    OfferPayloadBase offerPayloadBase = (OfferPayloadBase) data.getProtectedStoragePayload();
-                    Offer offer = new Offer(offerPayloadBase);
-                    offer.setPriceFeedService(priceFeedService);
-                    return offer;
-                })
+        return new ArrayList<>(offersById.values());
+    }
+
+    public Optional<Offer> findOffer(String offerId) {
+        return Optional.ofNullable(offersById.get(offerId));
+    }
+
+    /**
+     * @param currencyCode  The currency code as used in Offer.getCurrencyCode (the altcoin code for altcoin offers).
+     * @param direction     The offer direction.
+     * @return All offers of that market, with any payment method.
+     */
+    public List<Offer> getOffers(String currencyCode, OfferDirection direction) {
+        return offersByMarket.entrySet().stream()
+                .filter(e -> e.getKey().getCurrencyCode().equals(currencyCode) && e.getKey().getDirection() == direction)
+                .flatMap(e -> e.getValue().values().stream())
                 .collect(Collectors.toList());
     }
 
@@ -213,11 +245,54 @@ public class OfferBookService {
         offerBookChangedListeners.add(offerBookChangedListener);
     }
 
+    public void removeOfferBookChangedListener(OfferBookChangedListener offerBookChangedListener) {
+        offerBookChangedListeners.remove(offerBookChangedListener);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private Offer addToIndex(OfferPayloadBase offerPayloadBase) {
+        Offer existing = offersById.get(offerPayloadBase.getId());
+        if (existing != null && existing.getOfferPayloadBase().equals(offerPayloadBase)) {
+            return existing;
+        }
+
+        Offer offer = new Offer(offerPayloadBase);
+        offer.setPriceFeedService(priceFeedService);
+        if (existing != null) {
+            // An edited offer replaces the previous payload with the same offer id
+            removeFromMarketIndex(existing);
+        }
+        offersById.put(offer.getId(), offer);
+        offersByMarket.computeIfAbsent(new MarketKey(offer), key -> new ConcurrentHashMap<>()).put(offer.getId(), offer);
+        return offer;
+    }
+
+    private Offer removeFromIndex(OfferPayloadBase offerPayloadBase) {
+        Offer existing = offersById.get(offerPayloadBase.getId());
+        if (existing == null || !existing.getOfferPayloadBase().equals(offerPayloadBase)) {
+            // We do not know that payload (or a newer payload with the same offer id got added already), so we
+            // leave the index unchanged.
+            Offer offer = new Offer(offerPayloadBase);
+            offer.setPriceFeedService(priceFeedService);
+            return offer;
+        }
+
+        offersById.remove(existing.getId());
+        removeFromMarketIndex(existing);
+        return existing;
+    }
+
+    private void removeFromMarketIndex(Offer offer) {
+        offersByMarket.computeIfPresent(new MarketKey(offer), (key, offers) -> {
+            offers.remove(offer.getId());
+            return offers.isEmpty() ? null : offers;
+        });
+    }
+
     private void doDumpStatistics() {
         // We filter the case that it is a MarketBasedPrice but the price is not available
         // That should only be possible if the price feed provider is not available
@@ -59,7 +59,7 @@ public class TradeStatistics3StorageService extends HistoricalDataStoreService<T
 
     @Override
     protected void initializePersistenceManager() {
-        persistenceManager.initialize(store, PersistenceManager.Source.NETWORK);
+        persistenceManager.initialize(store, PersistenceManager.Source.NETWORK_JOURNALED);
     }
 
     @Override
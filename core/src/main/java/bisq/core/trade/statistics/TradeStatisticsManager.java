@@ -72,6 +72,8 @@ public class TradeStatisticsManager {
     private final boolean dumpStatistics;
     private final NavigableSet<TradeStatistics3> navigableTradeStatisticsSet = new TreeSet<>();
     private final ObservableSet<TradeStatistics3> observableTradeStatisticsSet = FXCollections.observableSet(navigableTradeStatisticsSet);
+    // The trade statistics grouped by currency code, each set sorted by date like navigableTradeStatisticsSet.
+    private final Map<String, NavigableSet<TradeStatistics3>> tradeStatisticsByCurrency = new HashMap<>();
     private JsonFileManager jsonFileManager;
 
     @Inject
@@ -107,7 +109,7 @@ public class TradeStatisticsManager {
                 if (!tradeStatistics.isValid()) {
                     return;
                 }
-                observableTradeStatisticsSet.add(tradeStatistics);
+                addTradeStatistics(tradeStatistics);
                 priceFeedService.setBisqMarketPrice(tradeStatistics.getCurrency(), tradeStatistics.getTradePrice());
                 maybeDumpStatistics();
             }
@@ -117,12 +119,13 @@ public class TradeStatisticsManager {
                 .filter(e -> e instanceof TradeStatistics3)
                 .map(e -> (TradeStatistics3) e)
                 .filter(TradeStatistics3::isValid)
-                .forEach(observableTradeStatisticsSet::add);
+                .forEach(this::addTradeStatistics);
 
         // get the most recent price for each ccy and notify priceFeedService
-        // (this relies on the trade statistics set being sorted by date)
+        // (this relies on the trade statistics sets being sorted by date)
         Map<String, Price> newestPriceByCurrencyCode = new HashMap<>();
-        observableTradeStatisticsSet.forEach(e -> newestPriceByCurrencyCode.put(e.getCurrency(), e.getTradePrice()));
+        tradeStatisticsByCurrency.forEach((currencyCode, set) ->
+                newestPriceByCurrencyCode.put(currencyCode, set.last().getTradePrice()));
         priceFeedService.applyInitialBisqMarketPrice(newestPriceByCurrencyCode);
         maybeDumpStatistics();
     }
@@ -131,10 +134,22 @@ public class TradeStatisticsManager {
         return Collections.unmodifiableNavigableSet(navigableTradeStatisticsSet);
     }
 
+    public NavigableSet<TradeStatistics3> getNavigableTradeStatisticsSet(String currencyCode) {
+        NavigableSet<TradeStatistics3> set = tradeStatisticsByCurrency.get(currencyCode);
+        return set != null ? Collections.unmodifiableNavigableSet(set) : Collections.emptyNavigableSet();
+    }
+
     public ObservableSet<TradeStatistics3> getObservableTradeStatisticsSet() {
         return observableTradeStatisticsSet;
     }
 
+    private void addTradeStatistics(TradeStatistics3 tradeStatistics) {
+        // We update the currency index first, so that listeners of the observable set see a consistent index.
+        tradeStatisticsByCurrency.computeIfAbsent(tradeStatistics.getCurrency(), currencyCode -> new TreeSet<>())
+                .add(tradeStatistics);
+        observableTradeStatisticsSet.add(tradeStatistics);
+    }
+
     private void maybeDumpStatistics() {
         if (!dumpStatistics) {
             return;
@@ -37,8 +37,6 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 public class AveragePriceUtil {
@@ -63,27 +61,31 @@ public class AveragePriceUtil {
                                                             Date pastXDays,
                                                             Date date) {
         double percentToTrim = Math.max(0, Math.min(49, preferences.getBsqAverageTrimThreshold() * 100));
-        Set<TradeStatistics3> allTradePastXDays = RangeUtils.subSet(tradeStatisticsManager.getNavigableTradeStatisticsSet())
-                .withKey(TradeStatistics3::getDate)
-                .overRange(Range.open(pastXDays, date));
-
-        Map<Boolean, List<TradeStatistics3>> bsqUsdAllTradePastXDays = allTradePastXDays.stream()
-                .filter(e -> e.getCurrency().equals("USD") || e.getCurrency().equals("BSQ"))
-                .collect(Collectors.partitioningBy(e -> e.getCurrency().equals("USD")));
+        List<TradeStatistics3> bsqAllTradePastXDays = getTradesOfCurrency(tradeStatisticsManager, "BSQ", pastXDays, date);
+        List<TradeStatistics3> usdAllTradePastXDays = getTradesOfCurrency(tradeStatisticsManager, "USD", pastXDays, date);
 
         List<TradeStatistics3> bsqTradePastXDays = percentToTrim > 0 ?
-                removeOutliers(bsqUsdAllTradePastXDays.get(false), percentToTrim) :
-                bsqUsdAllTradePastXDays.get(false);
+                removeOutliers(bsqAllTradePastXDays, percentToTrim) :
+                bsqAllTradePastXDays;
 
         List<TradeStatistics3> usdTradePastXDays = percentToTrim > 0 ?
-                removeOutliers(bsqUsdAllTradePastXDays.get(true), percentToTrim) :
-                bsqUsdAllTradePastXDays.get(true);
+                removeOutliers(usdAllTradePastXDays, percentToTrim) :
+                usdAllTradePastXDays;
 
         Price usdPrice = Price.valueOf("USD", getUSDAverage(bsqTradePastXDays, usdTradePastXDays));
         Price bsqPrice = Price.valueOf("BSQ", getBTCAverage(bsqTradePastXDays));
         return new Tuple2<>(usdPrice, bsqPrice);
     }
 
+    private static List<TradeStatistics3> getTradesOfCurrency(TradeStatisticsManager tradeStatisticsManager,
+                                                              String currencyCode,
+                                                              Date pastXDays,
+                                                              Date date) {
+        return new ArrayList<>(RangeUtils.subSet(tradeStatisticsManager.getNavigableTradeStatisticsSet(currencyCode))
+                .withKey(TradeStatistics3::getDate)
+                .overRange(Range.open(pastXDays, date)));
+    }
+
     private static List<TradeStatistics3> removeOutliers(List<TradeStatistics3> list, double percentToTrim) {
         List<Double> yValues = Doubles.asList(list.stream()
                 .filter(TradeStatistics3::isValid)
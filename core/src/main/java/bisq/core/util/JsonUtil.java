@@ -24,11 +24,21 @@ import bisq.common.util.JsonExclude;
 
 import com.google.gson.ExclusionStrategy;
 import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
 
 public class JsonUtil {
     public static String objectToJson(Object object) {
+        return getGson(object).toJson(object);
+    }
+
+    // Writes the json directly to the writer instead of building a string first
+    public static void objectToJson(Object object, Appendable writer) {
+        getGson(object).toJson(object, writer);
+    }
+
+    private static Gson getGson(Object object) {
         GsonBuilder gsonBuilder = new GsonBuilder()
                 .setExclusionStrategies(new AnnotationExclusionStrategy())
                 .setPrettyPrinting();
@@ -36,7 +46,7 @@ public class JsonUtil {
             gsonBuilder.registerTypeAdapter(OfferPayload.class,
                     new OfferPayload.JsonSerializer());
         }
-        return gsonBuilder.create().toJson(object);
+        return gsonBuilder.create();
     }
 
     private static class AnnotationExclusionStrategy implements ExclusionStrategy {
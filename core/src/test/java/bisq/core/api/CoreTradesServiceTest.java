@@ -0,0 +1,145 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.api;
+
+import bisq.core.btc.wallet.BtcWalletService;
+import bisq.core.offer.OfferUtil;
+import bisq.core.offer.bisq_v1.TakeOfferModel;
+import bisq.core.offer.bsq_swap.BsqSwapTakeOfferModel;
+import bisq.core.trade.ClosedTradableFormatter;
+import bisq.core.trade.ClosedTradableManager;
+import bisq.core.trade.TradeManager;
+import bisq.core.trade.bisq_v1.FailedTradesManager;
+import bisq.core.trade.bisq_v1.TradeUtil;
+import bisq.core.trade.bsq_swap.BsqSwapTradeManager;
+import bisq.core.trade.model.TradeModel;
+import bisq.core.trade.model.bisq_v1.Trade;
+import bisq.core.trade.model.bsq_swap.BsqSwapTrade;
+import bisq.core.user.User;
+
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ChangeListener;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CoreTradesServiceTest {
+    private ObservableList<Trade> trades;
+    private ObservableList<BsqSwapTrade> bsqSwapTrades;
+    private CoreTradesService coreTradesService;
+
+    @BeforeEach
+    public void setup() {
+        trades = spy(FXCollections.observableArrayList());
+        bsqSwapTrades = spy(FXCollections.observableArrayList());
+        TradeManager tradeManager = mock(TradeManager.class);
+        when(tradeManager.getObservableList()).thenReturn(trades);
+        BsqSwapTradeManager bsqSwapTradeManager = mock(BsqSwapTradeManager.class);
+        when(bsqSwapTradeManager.getObservableList()).thenReturn(bsqSwapTrades);
+
+        coreTradesService = new CoreTradesService(mock(CoreContext.class),
+                mock(CoreWalletsService.class),
+                mock(BtcWalletService.class),
+                mock(OfferUtil.class),
+                bsqSwapTradeManager,
+                mock(ClosedTradableManager.class),
+                mock(ClosedTradableFormatter.class),
+                mock(FailedTradesManager.class),
+                mock(TakeOfferModel.class),
+                mock(BsqSwapTakeOfferModel.class),
+                tradeManager,
+                mock(TradeUtil.class),
+                mock(User.class));
+    }
+
+    @Test
+    public void testTradeChangesAreNotified() {
+        Trade existingTrade = getTrade("existing");
+        trades.add(existingTrade);
+        List<TradeModel> changedTrades = new ArrayList<>();
+        coreTradesService.addTradeChangeListener(changedTrades::add);
+
+        ((SimpleObjectProperty<Trade.State>) existingTrade.stateProperty()).set(Trade.State.SELLER_PUBLISHED_DEPOSIT_TX);
+        Trade newTrade = getTrade("new");
+        trades.add(newTrade);
+        ((SimpleObjectProperty<Trade.DisputeState>) newTrade.disputeStateProperty()).set(Trade.DisputeState.MEDIATION_REQUESTED);
+        trades.remove(existingTrade);
+        BsqSwapTrade bsqSwapTrade = mock(BsqSwapTrade.class);
+        bsqSwapTrades.add(bsqSwapTrade);
+
+        // The removed trade is not observed anymore
+        ((SimpleObjectProperty<Trade.State>) existingTrade.stateProperty()).set(Trade.State.WITHDRAW_COMPLETED);
+
+        assertEquals(List.of(existingTrade, newTrade, newTrade, existingTrade, bsqSwapTrade), changedTrades);
+    }
+
+    @Test
+    public void testTradesAreNotObservedWithoutListeners() {
+        Trade trade = getTrade("trade");
+        trades.add(trade);
+        List<TradeModel> firstChangedTrades = new ArrayList<>();
+        Consumer<TradeModel> firstListener = firstChangedTrades::add;
+        List<TradeModel> secondChangedTrades = new ArrayList<>();
+        Consumer<TradeModel> secondListener = secondChangedTrades::add;
+
+        coreTradesService.addTradeChangeListener(firstListener);
+        coreTradesService.addTradeChangeListener(secondListener);
+        coreTradesService.removeTradeChangeListener(firstListener);
+        verify(trades, never()).removeListener(any(ListChangeListener.class));
+
+        coreTradesService.removeTradeChangeListener(secondListener);
+        verify(trades).removeListener(any(ListChangeListener.class));
+        verify(bsqSwapTrades).removeListener(any(ListChangeListener.class));
+        verify(trade.stateProperty()).removeListener(any(ChangeListener.class));
+        verify(trade.disputeStateProperty()).removeListener(any(ChangeListener.class));
+
+        // A new subscription observes the trades again, with a single state listener per trade
+        coreTradesService.addTradeChangeListener(firstListener);
+        ((SimpleObjectProperty<Trade.State>) trade.stateProperty()).set(Trade.State.SELLER_PUBLISHED_DEPOSIT_TX);
+        verify(trades, times(2)).addListener(any(ListChangeListener.class));
+        assertEquals(List.of(trade), firstChangedTrades);
+        assertEquals(List.of(), secondChangedTrades);
+    }
+
+    private static Trade getTrade(String id) {
+        Trade trade = mock(Trade.class);
+        when(trade.getId()).thenReturn(id);
+        SimpleObjectProperty<Trade.State> stateProperty = spy(new SimpleObjectProperty<>(Trade.State.PREPARATION));
+        when(trade.stateProperty()).thenReturn(stateProperty);
+        SimpleObjectProperty<Trade.DisputeState> disputeStateProperty =
+                spy(new SimpleObjectProperty<>(Trade.DisputeState.NO_DISPUTE));
+        when(trade.disputeStateProperty()).thenReturn(disputeStateProperty);
+        return trade;
+    }
+}
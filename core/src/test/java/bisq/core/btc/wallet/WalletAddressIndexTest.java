@@ -0,0 +1,186 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.common.config.Config;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.LegacyAddress;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.core.Sha256Hash;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.script.ScriptBuilder;
+import org.bitcoinj.wallet.Wallet;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WalletAddressIndexTest {
+    private NetworkParameters params;
+    private Wallet wallet;
+    private final Set<Transaction> transactions = new HashSet<>();
+    private final List<TransactionOutput> spendCandidates = new ArrayList<>();
+    private final List<Address> addresses = new ArrayList<>();
+    private WalletAddressIndex addressIndex;
+
+    @BeforeEach
+    public void setUp() {
+        params = Config.baseCurrencyNetworkParameters();
+        wallet = mock(Wallet.class);
+        when(wallet.getTransactions(false)).thenAnswer(invocation -> new HashSet<>(transactions));
+        when(wallet.calculateAllSpendCandidates()).thenAnswer(invocation -> new ArrayList<>(spendCandidates));
+        for (int i = 0; i < 3; i++) {
+            addresses.add(LegacyAddress.fromKey(params, new ECKey()));
+        }
+        addressIndex = new WalletAddressIndex();
+    }
+
+    @Test
+    public void testIndexMatchesScan() {
+        Transaction funding = createUnconnectedTx(addresses.get(0), addresses.get(0), addresses.get(1));
+        Transaction spending = createSpendingTx(funding.getOutput(1), addresses.get(2));
+        transactions.add(funding);
+        transactions.add(spending);
+
+        assertMatchesScan();
+        assertSame(spending, addressIndex.getTransaction(wallet, spending.getTxId()));
+        assertNull(addressIndex.getTransaction(wallet, Sha256Hash.ZERO_HASH));
+    }
+
+    @Test
+    public void testIndexIsKeptUntilWalletChanged() {
+        transactions.add(createUnconnectedTx(addresses.get(0)));
+        assertMatchesScan();
+
+        transactions.add(createUnconnectedTx(addresses.get(1)));
+        assertEquals(0, addressIndex.getNumTxOutputs(wallet, addresses.get(1)));
+        verify(wallet, times(1)).getTransactions(false);
+
+        addressIndex.onWalletChanged();
+        assertMatchesScan();
+        verify(wallet, times(2)).getTransactions(false);
+    }
+
+    @Test
+    public void testInputConnectedAfterIndexing() {
+        // The spending tx is known (e.g. confirmed) before the funding tx, so its input is not connected yet
+        Transaction funding = createUnconnectedTx(addresses.get(0));
+        Transaction spending = createUnconnectedTx(addresses.get(1));
+        spending.addInput(funding.getTxId(), 0, ScriptBuilder.createEmpty());
+        transactions.add(spending);
+        assertMatchesScan();
+        assertTrue(addressIndex.getTransactions(wallet, addresses.get(0)).isEmpty());
+
+        transactions.add(funding);
+        spending.getInput(1).connect(funding.getOutput(0));
+        addressIndex.onWalletChanged();
+
+        assertMatchesScan();
+        assertEquals(Set.of(funding, spending), addressIndex.getTransactions(wallet, addresses.get(0)));
+    }
+
+    @Test
+    public void testRemovedTxIsNotIndexed() {
+        Transaction tx = createUnconnectedTx(addresses.get(0), addresses.get(0));
+        transactions.add(tx);
+        assertMatchesScan();
+
+        transactions.remove(tx);
+        addressIndex.onWalletChanged();
+
+        assertMatchesScan();
+        assertNull(addressIndex.getTransaction(wallet, tx.getTxId()));
+    }
+
+    @Test
+    public void testSpendCandidatesMatchScan() {
+        Transaction tx = createUnconnectedTx(addresses.get(0), addresses.get(1), addresses.get(0));
+        spendCandidates.addAll(tx.getOutputs());
+        assertSpendCandidatesMatchScan();
+
+        spendCandidates.remove(tx.getOutput(0));
+        addressIndex.onWalletChanged();
+        assertSpendCandidatesMatchScan();
+        verify(wallet, times(2)).calculateAllSpendCandidates();
+    }
+
+    private Transaction createUnconnectedTx(Address... outputAddresses) {
+        Transaction tx = new Transaction(params);
+        tx.addInput(Sha256Hash.of(new ECKey().getPubKey()), 0, ScriptBuilder.createEmpty());
+        for (Address address : outputAddresses) {
+            tx.addOutput(Coin.COIN, address);
+        }
+        return tx;
+    }
+
+    private Transaction createSpendingTx(TransactionOutput spentOutput, Address address) {
+        Transaction tx = new Transaction(params);
+        tx.addInput(spentOutput);
+        tx.addOutput(Coin.CENT, address);
+        return tx;
+    }
+
+    // Compares with the scans over all wallet transactions which got used before we had the index
+    private void assertMatchesScan() {
+        for (Address address : addresses) {
+            Set<Transaction> expectedTxs = transactions.stream()
+                    .filter(tx -> WalletService.getOutputsWithConnectedOutputs(tx).stream()
+                            .map(WalletService::getAddressFromOutput)
+                            .anyMatch(address::equals))
+                    .collect(Collectors.toSet());
+            assertEquals(expectedTxs, addressIndex.getTransactions(wallet, address));
+
+            long expectedNumTxOutputs = transactions.stream()
+                    .flatMap(tx -> tx.getOutputs().stream())
+                    .map(WalletService::getAddressFromOutput)
+                    .filter(Objects::nonNull)
+                    .filter(address::equals)
+                    .count();
+            assertEquals(expectedNumTxOutputs, addressIndex.getNumTxOutputs(wallet, address));
+        }
+        transactions.forEach(tx -> assertSame(tx, addressIndex.getTransaction(wallet, tx.getTxId())));
+    }
+
+    private void assertSpendCandidatesMatchScan() {
+        for (Address address : addresses) {
+            List<TransactionOutput> expected = spendCandidates.stream()
+                    .filter(output -> address.equals(WalletService.getAddressFromOutput(output)))
+                    .collect(Collectors.toList());
+            assertEquals(expected, addressIndex.getSpendCandidates(wallet, address));
+        }
+    }
+}
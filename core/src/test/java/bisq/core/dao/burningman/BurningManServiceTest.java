@@ -17,10 +17,50 @@
 
 package bisq.core.dao.burningman;
 
+import bisq.core.dao.CyclesInDaoStateService;
+import bisq.core.dao.burningman.model.BurningManCandidate;
+import bisq.core.dao.governance.proofofburn.ProofOfBurnConsensus;
+import bisq.core.dao.governance.proposal.ProposalService;
+import bisq.core.dao.governance.proposal.storage.appendonly.ProposalPayload;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+import bisq.core.dao.state.model.governance.CompensationProposal;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
+
+import org.bitcoinj.core.Coin;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class BurningManServiceTest {
     @Test
@@ -45,4 +85,145 @@ public class BurningManServiceTest {
         assertEquals(40, BurningManService.getDecayedAmount(amount, 220, 400, 100));
 
     }
+
+    @Test
+    public void testGetBurningManCandidatesByNameIsMemoizedUntilDaoStateChanges() {
+        DaoStateService daoStateService = mock(DaoStateService.class);
+        CyclesInDaoStateService cyclesInDaoStateService = mock(CyclesInDaoStateService.class);
+        ProposalService proposalService = mock(ProposalService.class);
+        when(proposalService.getProposalPayloads()).thenReturn(FXCollections.observableArrayList());
+        when(daoStateService.getBlockHashOfLastBlock()).thenReturn("hash1");
+        BurningManService burningManService = new BurningManService(daoStateService, cyclesInDaoStateService, proposalService);
+
+        Map<String, BurningManCandidate> candidates = burningManService.getBurningManCandidatesByName(1000);
+        assertSame(candidates, burningManService.getBurningManCandidatesByName(1000));
+        assertNotSame(candidates, burningManService.getBurningManCandidatesByName(1001));
+        verify(cyclesInDaoStateService, times(4)).getChainHeightOfPastCycle(anyInt(), anyInt());
+
+        when(daoStateService.getBlockHashOfLastBlock()).thenReturn("hash2");
+        assertNotSame(candidates, burningManService.getBurningManCandidatesByName(1000));
+        verify(cyclesInDaoStateService, times(6)).getChainHeightOfPastCycle(anyInt(), anyInt());
+    }
+
+    @Test
+    public void testMemoizedCandidatesMatchFreshCalculationAcrossReorg() {
+        TestDaoState state = new TestDaoState();
+        for (int height = 1; height <= 100; height++) {
+            state.addBlock(height, "hash" + height);
+        }
+        state.addCompensation("alice", "aliceCompTx", 60, 200000);
+        state.addCompensation("bob", "bobCompTx", 70, 100000);
+        state.addProofOfBurn("bob", "bobBurnTx1", 80, 5000);
+        state.addProofOfBurn("alice", "aliceBurnTx", 99, 3000);
+        state.addProofOfBurn("bob", "bobBurnTx2", 100, 8000);
+
+        BurningManService burningManService = state.createBurningManService();
+        Map<String, BurningManCandidate> beforeReorg = burningManService.getBurningManCandidatesByName(100);
+        assertEquals(state.createBurningManService().getBurningManCandidatesByName(100), beforeReorg);
+        assertEquals(state.createBurningManService().getBurningManCandidatesByName(90),
+                burningManService.getBurningManCandidatesByName(90));
+        assertEquals(2, beforeReorg.get("bob").getBurnOutputModels().size());
+
+        // A new block adds burn outputs to the index incrementally
+        state.addBlock(101, "hash101");
+        state.addProofOfBurn("alice", "aliceBurnTx2", 101, 4000);
+        assertEquals(state.createBurningManService().getBurningManCandidatesByName(101),
+                burningManService.getBurningManCandidatesByName(101));
+
+        // Reorg replaces blocks 99 to 101 at the same chain height. The burns in those blocks are gone and a new one
+        // from bob is in the new block 101.
+        state.removeBlocksFrom(99);
+        state.addBlock(99, "hash99b");
+        state.addBlock(100, "hash100b");
+        state.addBlock(101, "hash101b");
+        state.addProofOfBurn("bob", "bobBurnTx3", 101, 1000);
+
+        Map<String, BurningManCandidate> afterReorg = burningManService.getBurningManCandidatesByName(101);
+        assertEquals(state.createBurningManService().getBurningManCandidatesByName(101), afterReorg);
+        assertEquals(state.createBurningManService().getBurningManCandidatesByName(100),
+                burningManService.getBurningManCandidatesByName(100));
+        assertNotEquals(beforeReorg, burningManService.getBurningManCandidatesByName(100));
+        assertTrue(afterReorg.get("alice").getBurnOutputModels().isEmpty());
+        assertFalse(burningManService.getProofOfBurnOpReturnTxOutputByHash(101).values().stream()
+                .flatMap(Set::stream)
+                .anyMatch(txOutput -> txOutput.getTxId().equals("bobBurnTx2")));
+    }
+
+    // Keeps blocks, issuances and proposals and serves them through a mocked DaoStateService so that several
+    // BurningManService instances can be created on the same state.
+    private static class TestDaoState {
+        private final TreeMap<Integer, Block> blocksByHeight = new TreeMap<>();
+        private final Set<Issuance> compensationIssuances = new HashSet<>();
+        private final Map<String, Tx> txsById = new HashMap<>();
+        private final ObservableList<ProposalPayload> proposalPayloads = FXCollections.observableArrayList();
+        private final DaoStateService daoStateService = mock(DaoStateService.class);
+        private final CyclesInDaoStateService cyclesInDaoStateService = mock(CyclesInDaoStateService.class);
+        private final ProposalService proposalService = mock(ProposalService.class);
+
+        TestDaoState() {
+            when(daoStateService.getLastBlock()).thenAnswer(invocation -> blocksByHeight.isEmpty() ?
+                    Optional.empty() :
+                    Optional.of(blocksByHeight.lastEntry().getValue()));
+            when(daoStateService.getBlockHeightOfLastBlock()).thenAnswer(invocation ->
+                    blocksByHeight.isEmpty() ? 0 : blocksByHeight.lastKey());
+            when(daoStateService.getBlockHashOfLastBlock()).thenAnswer(invocation ->
+                    blocksByHeight.isEmpty() ? "" : blocksByHeight.lastEntry().getValue().getHash());
+            when(daoStateService.getBlockAtHeight(anyInt())).thenAnswer(invocation ->
+                    Optional.ofNullable(blocksByHeight.get(invocation.<Integer>getArgument(0))));
+            when(daoStateService.getIssuanceSetForType(IssuanceType.COMPENSATION)).thenAnswer(invocation ->
+                    new HashSet<>(compensationIssuances));
+            when(daoStateService.getIssuanceItems()).thenAnswer(invocation -> new HashSet<>(compensationIssuances));
+            when(daoStateService.getTx(anyString())).thenAnswer(invocation ->
+                    Optional.ofNullable(txsById.get(invocation.<String>getArgument(0))));
+            when(daoStateService.getGenesisTx()).thenReturn(Optional.empty());
+            when(daoStateService.getProofOfBurnOpReturnTxOutputs()).thenAnswer(invocation ->
+                    blocksByHeight.values().stream()
+                            .flatMap(block -> block.getTxs().stream())
+                            .flatMap(tx -> tx.getTxOutputs().stream())
+                            .filter(txOutput -> txOutput.getTxOutputType() == TxOutputType.PROOF_OF_BURN_OP_RETURN_OUTPUT)
+                            .collect(Collectors.toSet()));
+            // Cycles of 10 blocks
+            when(cyclesInDaoStateService.getChainHeightOfPastCycle(anyInt(), anyInt())).thenAnswer(invocation ->
+                    Math.max(0, invocation.<Integer>getArgument(0) - invocation.<Integer>getArgument(1) * 10));
+            when(cyclesInDaoStateService.getCycleIndexAtChainHeight(anyInt())).thenAnswer(invocation ->
+                    invocation.<Integer>getArgument(0) / 10);
+            when(proposalService.getProposalPayloads()).thenReturn(proposalPayloads);
+        }
+
+        BurningManService createBurningManService() {
+            return new BurningManService(daoStateService, cyclesInDaoStateService, proposalService);
+        }
+
+        void addBlock(int height, String hash) {
+            blocksByHeight.put(height, new Block(height, height * 600L, hash, "previousHash"));
+        }
+
+        void removeBlocksFrom(int height) {
+            blocksByHeight.tailMap(height, true).clear();
+        }
+
+        void addCompensation(String name, String txId, int height, long amount) {
+            Map<String, String> extraDataMap = Map.of(CompensationProposal.BURNING_MAN_RECEIVER_ADDRESS, name + "Address");
+            CompensationProposal proposal = new CompensationProposal(name, "link", Coin.valueOf(amount), "bsqAddress",
+                    extraDataMap);
+            proposalPayloads.add(new ProposalPayload(proposal.cloneProposalAndAddTxId(txId)));
+            compensationIssuances.add(new Issuance(txId, height, amount, null, IssuanceType.COMPENSATION));
+        }
+
+        void addProofOfBurn(String name, String txId, int height, long burntBsq) {
+            byte[] hash = ProofOfBurnConsensus.getHash(name.getBytes(Charsets.UTF_8));
+            TxOutput txOutput = mock(TxOutput.class);
+            when(txOutput.getTxId()).thenReturn(txId);
+            when(txOutput.getBlockHeight()).thenReturn(height);
+            when(txOutput.getTxOutputType()).thenReturn(TxOutputType.PROOF_OF_BURN_OP_RETURN_OUTPUT);
+            when(txOutput.getOpReturnData()).thenReturn(ProofOfBurnConsensus.getOpReturnData(hash));
+            Tx tx = mock(Tx.class);
+            when(tx.getId()).thenReturn(txId);
+            when(tx.getBurntBsq()).thenReturn(burntBsq);
+            when(tx.getTime()).thenReturn(height * 600L);
+            when(tx.getTxOutputs()).thenReturn(ImmutableList.of(txOutput));
+            blocksByHeight.get(height).addTx(tx);
+            txsById.put(txId, tx);
+        }
+    }
 }
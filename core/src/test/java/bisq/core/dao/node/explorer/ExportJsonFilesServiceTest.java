@@ -0,0 +1,213 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.dao.node.explorer;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.SpentInfo;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxInput;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
+import bisq.core.util.coin.BsqFormatter;
+
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Exports the json files after each new block and checks that the result is equal to a full export of the final
+ * DAO state.
+ */
+public class ExportJsonFilesServiceTest {
+
+    @TempDir
+    File incrementalStorageDir;
+    @TempDir
+    File fullStorageDir;
+
+    private DaoStateService daoStateService;
+    private ExportJsonFilesService incrementalExportService;
+    private ExportJsonFilesService fullExportService;
+
+    @BeforeEach
+    public void setup() {
+        daoStateService = new DaoStateService(new DaoState(), mock(GenesisTxInfo.class), mock(BsqFormatter.class));
+        incrementalExportService = new ExportJsonFilesService(daoStateService,
+                incrementalStorageDir,
+                true,
+                MoreExecutors.newDirectExecutorService());
+        incrementalExportService.start();
+        fullExportService = new ExportJsonFilesService(daoStateService,
+                fullStorageDir,
+                true,
+                MoreExecutors.newDirectExecutorService());
+        fullExportService.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        incrementalExportService.shutDown();
+        fullExportService.shutDown();
+    }
+
+    @Test
+    public void testIncrementalExportEqualsFullExport() throws IOException {
+        daoStateService.onParseBlockChainComplete();
+
+        parseBlock(0, List.of(),
+                List.of(getTxOutput("genesis", 0, 0, 2000, protobuf.TxOutputType.GENESIS_OUTPUT),
+                        getTxOutput("genesis", 1, 0, 3000, protobuf.TxOutputType.GENESIS_OUTPUT)),
+                protobuf.TxType.GENESIS);
+        incrementalExportService.maybeExportToJson();
+
+        // Compensation request with its issuance candidate output at index 1
+        parseBlock(1, List.of(new TxInput("genesis", 0, null)),
+                List.of(getTxOutput("tx-1", 0, 1, 1900, protobuf.TxOutputType.BSQ_OUTPUT),
+                        getTxOutput("tx-1", 1, 1, 5000, protobuf.TxOutputType.ISSUANCE_CANDIDATE_OUTPUT),
+                        getTxOutput("tx-1", 2, 1, 0, protobuf.TxOutputType.COMP_REQ_OP_RETURN_OUTPUT)),
+                protobuf.TxType.COMPENSATION_REQUEST);
+        incrementalExportService.maybeExportToJson();
+
+        // The issuance candidate output gets spent before the issuance
+        parseBlock(2, List.of(new TxInput("tx-1", 1, null)),
+                List.of(getTxOutput("tx-2", 0, 2, 4900, protobuf.TxOutputType.BTC_OUTPUT)),
+                protobuf.TxType.TRANSFER_BSQ);
+        incrementalExportService.maybeExportToJson();
+
+        // The issuance turns the already spent candidate output into a BSQ output
+        parseBlock(3, List.of(new TxInput("genesis", 1, null)),
+                List.of(getTxOutput("tx-3", 0, 3, 3000, protobuf.TxOutputType.BSQ_OUTPUT)),
+                protobuf.TxType.TRANSFER_BSQ);
+        daoStateService.addIssuance(new Issuance("tx-1", 3, 5000, null, IssuanceType.COMPENSATION));
+        incrementalExportService.maybeExportToJson();
+
+        // Two blocks exported at once
+        parseBlock(4, List.of(new TxInput("tx-1", 0, null)),
+                List.of(getTxOutput("tx-4", 0, 4, 1900, protobuf.TxOutputType.BSQ_OUTPUT)),
+                protobuf.TxType.TRANSFER_BSQ);
+        parseBlock(5, List.of(new TxInput("tx-3", 0, null), new TxInput("tx-4", 0, null)),
+                List.of(getTxOutput("tx-5", 0, 5, 4900, protobuf.TxOutputType.BSQ_OUTPUT)),
+                protobuf.TxType.TRANSFER_BSQ);
+        incrementalExportService.maybeExportToJson();
+
+        fullExportService.maybeExportToJson();
+
+        assertEquals(fullExportService.getJsonBlocks(), incrementalExportService.getJsonBlocks());
+        Map<String, String> fullExportFiles = readJsonFiles(fullStorageDir);
+        assertFalse(fullExportFiles.isEmpty());
+        assertEquals(fullExportFiles, readJsonFiles(incrementalStorageDir));
+    }
+
+    @Test
+    public void testRequestFullExport() {
+        daoStateService.onParseBlockChainComplete();
+        parseBlock(0, List.of(),
+                List.of(getTxOutput("genesis", 0, 0, 2000, protobuf.TxOutputType.ISSUANCE_CANDIDATE_OUTPUT)),
+                protobuf.TxType.GENESIS);
+        incrementalExportService.maybeExportToJson();
+
+        // The state of an exported tx changes without a new block, as it happens when the DAO state gets reset to
+        // a snapshot. Only a full export picks that up.
+        daoStateService.addIssuance(new Issuance("genesis", 0, 2000, null, IssuanceType.COMPENSATION));
+        fullExportService.maybeExportToJson();
+        incrementalExportService.maybeExportToJson();
+        assertNotEquals(fullExportService.getJsonBlocks(), incrementalExportService.getJsonBlocks());
+
+        incrementalExportService.requestFullExport();
+        incrementalExportService.maybeExportToJson();
+        assertEquals(fullExportService.getJsonBlocks(), incrementalExportService.getJsonBlocks());
+    }
+
+    private void parseBlock(int height, List<TxInput> txInputs, List<TxOutput> txOutputs, protobuf.TxType txType) {
+        daoStateService.onNewBlockHeight(height);
+        String previousBlockHash = height == 0 ? "" : "block-" + (height - 1);
+        Block block = new Block(height, height * 600L, "block-" + height, previousBlockHash);
+        daoStateService.onNewBlockWithEmptyTxs(block);
+
+        String txId = height == 0 ? "genesis" : "tx-" + height;
+        for (int i = 0; i < txInputs.size(); i++) {
+            TxInput txInput = txInputs.get(i);
+            TxOutput connectedTxOutput = daoStateService.getConnectedTxOutput(txInput).orElseThrow();
+            daoStateService.removeUnspentTxOutput(connectedTxOutput);
+            daoStateService.setSpentInfo(connectedTxOutput.getKey(), new SpentInfo(height, txId, i));
+        }
+        txOutputs.forEach(daoStateService::addUnspentTxOutput);
+        daoStateService.onNewTxForLastBlock(block, getTx(txId, block, txInputs, txOutputs, txType));
+    }
+
+    private static Tx getTx(String txId,
+                            Block block,
+                            List<TxInput> txInputs,
+                            List<TxOutput> txOutputs,
+                            protobuf.TxType txType) {
+        return Tx.fromProto(protobuf.BaseTx.newBuilder()
+                .setId(txId)
+                .setBlockHeight(block.getHeight())
+                .setBlockHash(block.getHash())
+                .setTime(block.getTime())
+                .addAllTxInputs(txInputs.stream().map(TxInput::toProtoMessage).collect(Collectors.toList()))
+                .setTx(protobuf.Tx.newBuilder()
+                        .addAllTxOutputs(txOutputs.stream().map(TxOutput::toProtoMessage).collect(Collectors.toList()))
+                        .setTxType(txType))
+                .build());
+    }
+
+    private static TxOutput getTxOutput(String txId, int index, int height, long value, protobuf.TxOutputType type) {
+        return TxOutput.fromProto(protobuf.BaseTxOutput.newBuilder()
+                .setIndex(index)
+                .setValue(value)
+                .setTxId(txId)
+                .setBlockHeight(height)
+                .setTxOutput(protobuf.TxOutput.newBuilder().setTxOutputType(type))
+                .build());
+    }
+
+    private static Map<String, String> readJsonFiles(File storageDir) throws IOException {
+        Map<String, String> contentByPath = new TreeMap<>();
+        Path jsonDir = storageDir.toPath().resolve("json");
+        try (Stream<Path> paths = Files.walk(jsonDir)) {
+            for (Path path : paths.filter(path -> path.toString().endsWith(".json")).collect(Collectors.toList())) {
+                contentByPath.put(jsonDir.relativize(path).toString(), Files.readString(path));
+            }
+        }
+        return contentByPath;
+    }
+}
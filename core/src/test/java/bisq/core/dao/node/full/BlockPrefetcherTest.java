@@ -0,0 +1,136 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.full;
+
+import bisq.common.UserThread;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BlockPrefetcherTest {
+    private final List<Integer> deliveredHeights = new ArrayList<>();
+    private final List<Integer> requestedHeights = new ArrayList<>();
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    @BeforeEach
+    public void setUp() {
+        UserThread.setExecutor(MoreExecutors.directExecutor());
+    }
+
+    @Test
+    public void testDeliversAllBlocksInHeightOrder() {
+        int prefetchWindow = 4;
+        startPrefetcher(prefetchWindow, 100, 110, (from, num) -> {
+            // We never request more than prefetchWindow blocks ahead of the block which gets parsed next
+            int parsedHeight = deliveredHeights.isEmpty() ? 100 : deliveredHeights.get(deliveredHeights.size() - 1) + 1;
+            assertTrue(from + num - 1 - parsedHeight <= prefetchWindow);
+            return createBlocks(from, num);
+        }, rawBlock -> true);
+
+        assertEquals(IntStream.rangeClosed(100, 110).boxed().collect(Collectors.toList()), deliveredHeights);
+        assertEquals(deliveredHeights, requestedHeights);
+        assertTrue(completed.get());
+        assertNull(error.get());
+    }
+
+    @Test
+    public void testSingleBlock() {
+        startPrefetcher(10, 100, 100, this::createBlocks, rawBlock -> true);
+
+        assertEquals(List.of(100), deliveredHeights);
+        assertTrue(completed.get());
+    }
+
+    @Test
+    public void testCancelStopsDelivery() {
+        startPrefetcher(4, 100, 110, this::createBlocks, rawBlock -> rawBlock.getHeight() < 103);
+
+        assertEquals(List.of(100, 101, 102, 103), deliveredHeights);
+        assertTrue(requestedHeights.size() < 11);
+        assertFalse(completed.get());
+        assertNull(error.get());
+    }
+
+    @Test
+    public void testErrorCancelsDelivery() {
+        startPrefetcher(4, 100, 110, (from, num) -> {
+            if (from > 103) {
+                throw new IOException("test");
+            }
+            return createBlocks(from, num);
+        }, rawBlock -> true);
+
+        assertTrue(error.get() instanceof IOException);
+        assertFalse(completed.get());
+        assertTrue(deliveredHeights.stream().allMatch(height -> height <= 103));
+    }
+
+    @Test
+    public void testUnexpectedBatchIsRejected() {
+        startPrefetcher(4, 100, 110, (from, num) -> createBlocks(from + 1, num), rawBlock -> true);
+
+        assertTrue(error.get() instanceof RpcException);
+        assertTrue(deliveredHeights.isEmpty());
+        assertFalse(completed.get());
+    }
+
+    private void startPrefetcher(int prefetchWindow,
+                                 int startBlockHeight,
+                                 int chainHeight,
+                                 BlockPrefetcher.BatchRequest batchRequest,
+                                 Predicate<RawBlock> rawBlockHandler) {
+        new BlockPrefetcher(MoreExecutors.newDirectExecutorService(),
+                batchRequest,
+                prefetchWindow,
+                startBlockHeight,
+                chainHeight,
+                rawBlock -> {
+                    deliveredHeights.add(rawBlock.getHeight());
+                    return rawBlockHandler.test(rawBlock);
+                },
+                () -> completed.set(true),
+                error::set)
+                .start();
+    }
+
+    private List<RawBlock> createBlocks(int fromBlockHeight, int numBlocks) {
+        return IntStream.range(fromBlockHeight, fromBlockHeight + numBlocks)
+                .peek(requestedHeights::add)
+                .mapToObj(height -> new RawBlock(height, 0, "hash" + height, "hash" + (height - 1), ImmutableList.of()))
+                .collect(Collectors.toList());
+    }
+}
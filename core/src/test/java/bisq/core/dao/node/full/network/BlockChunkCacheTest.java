@@ -0,0 +1,118 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.full.network;
+
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Block;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BlockChunkCacheTest {
+    private static final int GENESIS_HEIGHT = 150;
+
+    private final List<Block> blocks = new ArrayList<>();
+    private BlockChunkCache blockChunkCache;
+
+    @BeforeEach
+    public void setUp() {
+        IntStream.rangeClosed(GENESIS_HEIGHT, 420).forEach(height -> blocks.add(newBlock(height, "hash" + height)));
+
+        DaoStateService daoStateService = mock(DaoStateService.class);
+        when(daoStateService.getBlocks()).thenReturn(blocks);
+        when(daoStateService.getBlockHeightOfLastBlock()).thenAnswer(inv -> blocks.get(blocks.size() - 1).getHeight());
+        when(daoStateService.getBlockAtHeight(anyInt())).thenAnswer(inv -> getBlockAtHeight(inv.getArgument(0)));
+        when(daoStateService.getBlocksFromBlockHeight(anyInt(), anyInt())).thenAnswer(inv -> {
+            int from = inv.getArgument(0);
+            int numMaxBlocks = inv.getArgument(1);
+            return blocks.stream()
+                    .filter(block -> block.getHeight() >= from)
+                    .limit(numMaxBlocks)
+                    .collect(Collectors.toList());
+        });
+        blockChunkCache = new BlockChunkCache(daoStateService);
+    }
+
+    @Test
+    public void testBlocksAcrossChunks() {
+        BlockChunkCache.Blocks result = blockChunkCache.getBlocksFromBlockHeight(0, 3000);
+
+        List<Integer> expectedHeights = IntStream.rangeClosed(GENESIS_HEIGHT, 420).boxed().collect(Collectors.toList());
+        assertEquals(expectedHeights, getHeights(result.getRawBlocks()));
+        assertEquals(expectedHeights, result.getEncodedBlocks().stream()
+                .map(protobuf.BaseBlock::getHeight)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testMaxBlocks() {
+        BlockChunkCache.Blocks result = blockChunkCache.getBlocksFromBlockHeight(180, 150);
+
+        assertEquals(IntStream.rangeClosed(180, 329).boxed().collect(Collectors.toList()), getHeights(result.getRawBlocks()));
+        assertTrue(blockChunkCache.getBlocksFromBlockHeight(421, 3000).getRawBlocks().isEmpty());
+    }
+
+    @Test
+    public void testCompleteChunkIsCached() {
+        RawBlock rawBlock = blockChunkCache.getBlocksFromBlockHeight(250, 10).getRawBlocks().get(0);
+        assertSame(rawBlock, blockChunkCache.getBlocksFromBlockHeight(200, 100).getRawBlocks().get(50));
+
+        // Blocks at the chain tip are not in a complete chunk and not cached
+        RawBlock tipBlock = blockChunkCache.getBlocksFromBlockHeight(420, 1).getRawBlocks().get(0);
+        assertNotSame(tipBlock, blockChunkCache.getBlocksFromBlockHeight(420, 1).getRawBlocks().get(0));
+    }
+
+    @Test
+    public void testChunkIsReplacedAfterReorg() {
+        blockChunkCache.getBlocksFromBlockHeight(200, 100);
+
+        blocks.removeIf(block -> block.getHeight() >= 290);
+        IntStream.rangeClosed(290, 420).forEach(height -> blocks.add(newBlock(height, "reorgHash" + height)));
+
+        List<RawBlock> rawBlocks = blockChunkCache.getBlocksFromBlockHeight(200, 100).getRawBlocks();
+        assertEquals("hash289", rawBlocks.get(89).getHash());
+        assertEquals("reorgHash290", rawBlocks.get(90).getHash());
+    }
+
+    private Optional<Block> getBlockAtHeight(int height) {
+        return blocks.stream().filter(block -> block.getHeight() == height).findAny();
+    }
+
+    private static Block newBlock(int height, String hash) {
+        return new Block(height, 0, hash, "previous" + hash);
+    }
+
+    private static List<Integer> getHeights(List<RawBlock> rawBlocks) {
+        return rawBlocks.stream().map(RawBlock::getHeight).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.full.rpc;
+
+import java.net.ConnectException;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+
+import com.googlecode.jsonrpc4j.HttpException;
+import com.googlecode.jsonrpc4j.JsonRpcClientException;
+
+public class BitcoindBatchClientTest {
+    private static final String TEST_BLOCK_HASH_1 = "015f37a20d517645a11a6cdd316049f41bc77b4a4057b2dd092114b78147f42c";
+    private static final String TEST_BLOCK_HASH_2 = "0c6f5b6bb1a4ad3a9a5e8b4b0e9f1bb8a0d4c1f1d6b6e0a2c29b18b2cd3e9b4a";
+    private static final String TEST_BLOCK_VERBOSITY_2 = readFromResourcesUnPrettified("getblock-result-verbosity-2.json");
+
+    private BitcoindBatchClient client;
+    private boolean canConnect = true;
+    private int mockResponseCode = 200;
+    private ByteArrayInputStream mockResponse;
+    private ByteArrayInputStream mockErrorResponse;
+    private final ByteArrayOutputStream mockOutputStream = new ByteArrayOutputStream();
+    private HttpURLConnection mockConnection;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        var mockURLStreamHandler = mock(MyURLStreamHandler.class);
+
+        client = BitcoindClient.builder()
+                .rpcHost("127.0.0.1")
+                .rpcPort(18443)
+                .rpcUser("bisqdao")
+                .rpcPassword("bsq")
+                .urlStreamHandler(mockURLStreamHandler)
+                .buildBatchClient();
+
+        when(mockURLStreamHandler.openConnection(any(), any())).then(inv -> {
+            var connection = mock(HttpURLConnection.class);
+            mockConnection = connection;
+            if (canConnect) {
+                when(connection.getOutputStream()).thenReturn(mockOutputStream);
+                if (mockResponseCode < 400) {
+                    when(connection.getInputStream()).thenReturn(mockResponse);
+                } else {
+                    when(connection.getInputStream()).thenThrow(IOException.class);
+                    when(connection.getErrorStream()).thenReturn(mockErrorResponse);
+                }
+            } else {
+                doThrow(ConnectException.class).when(connection).connect();
+            }
+            return connection;
+        });
+    }
+
+    @Test
+    public void testGetBlockHashes() throws Exception {
+        var expectedRequest = toJson("[{'id':0,'jsonrpc':'2.0','method':'getblockhash','params':[139]}," +
+                "{'id':1,'jsonrpc':'2.0','method':'getblockhash','params':[140]}]");
+        // Responses are matched by id, not by their position in the batch
+        mockResponse = toJsonIS("[{'result':'" + TEST_BLOCK_HASH_2 + "','error':null,'id':1}," +
+                "{'result':'" + TEST_BLOCK_HASH_1 + "','error':null,'id':0}]");
+
+        assertEquals(List.of(TEST_BLOCK_HASH_1, TEST_BLOCK_HASH_2), client.getBlockHashes(List.of(139, 140)));
+        assertEquals(expectedRequest, mockOutputStream.toString(UTF_8));
+    }
+
+    @Test
+    public void testGetBlockHashes_emptyBatch() throws Exception {
+        assertTrue(client.getBlockHashes(List.of()).isEmpty());
+        assertEquals(0, mockOutputStream.size());
+    }
+
+    @Test
+    public void testGetBlocks() throws Exception {
+        var expectedRequest = toJson("[{'id':0,'jsonrpc':'2.0','method':'getblock','params':['" + TEST_BLOCK_HASH_1 + "',2]}," +
+                "{'id':1,'jsonrpc':'2.0','method':'getblock','params':['" + TEST_BLOCK_HASH_1 + "',2]}]");
+        mockResponse = toJsonIS("[{'result':" + TEST_BLOCK_VERBOSITY_2 + ",'error':null,'id':0}," +
+                "{'result':" + TEST_BLOCK_VERBOSITY_2 + ",'error':null,'id':1}]");
+
+        var blocks = client.getBlocks(List.of(TEST_BLOCK_HASH_1, TEST_BLOCK_HASH_1), 2);
+
+        assertEquals(2, blocks.size());
+        assertEquals(blocks.get(0).getHash(), blocks.get(1).getHash());
+        assertEquals(expectedRequest, mockOutputStream.toString(UTF_8));
+    }
+
+    @Test
+    public void testGetBlocks_blockNotFound() {
+        mockResponse = toJsonIS("[{'result':" + TEST_BLOCK_VERBOSITY_2 + ",'error':null,'id':0}," +
+                "{'result':null,'error':{'code':-5,'message':'Block not found'},'id':1}]");
+
+        var exception = assertThrows(JsonRpcClientException.class,
+                () -> client.getBlocks(List.of(TEST_BLOCK_HASH_1, TEST_BLOCK_HASH_2), 2));
+        assertEquals(-5, exception.getCode());
+    }
+
+    @Test
+    public void testGetBlocks_missingResponse() {
+        mockResponse = toJsonIS("[{'result':" + TEST_BLOCK_VERBOSITY_2 + ",'error':null,'id':0}]");
+
+        assertThrows(JsonRpcClientException.class,
+                () -> client.getBlocks(List.of(TEST_BLOCK_HASH_1, TEST_BLOCK_HASH_2), 2));
+    }
+
+    @Test
+    public void testGetBlocks_batchRejected() {
+        mockResponse = toJsonIS("{'result':null,'error':{'code':-32700,'message':'Parse error'},'id':null}");
+
+        var exception = assertThrows(JsonRpcClientException.class,
+                () -> client.getBlocks(List.of(TEST_BLOCK_HASH_1), 2));
+        assertEquals(-32700, exception.getCode());
+    }
+
+    @Test
+    public void testGetBlockHashes_timeoutsAreSet() throws Exception {
+        mockResponse = toJsonIS("[{'result':'" + TEST_BLOCK_HASH_1 + "','error':null,'id':0}]");
+
+        client.getBlockHashes(List.of(139));
+        verify(mockConnection).setConnectTimeout(60_000);
+        verify(mockConnection).setReadTimeout(120_000);
+    }
+
+    @Test
+    public void testGetBlockHashes_noConnection() {
+        canConnect = false;
+        assertThrows(ConnectException.class, () -> client.getBlockHashes(List.of(139)));
+    }
+
+    @Test
+    public void testGetBlockHashes_wrongCredentials() {
+        mockResponseCode = 401;
+        assertThrows(HttpException.class, () -> client.getBlockHashes(List.of(139)));
+    }
+
+    private static String toJson(String json) {
+        return json.replace("'", "\"").replace("\\\"", "'");
+    }
+
+    private static ByteArrayInputStream toJsonIS(String json) {
+        return new ByteArrayInputStream(toJson(json).getBytes(UTF_8));
+    }
+
+    private static String readFromResourcesUnPrettified(String resourceName) {
+        try {
+            var path = Paths.get(BitcoindBatchClientTest.class.getResource(resourceName).toURI());
+            return new String(Files.readAllBytes(path), UTF_8).replaceAll("(\\s+\\B|\\B\\s+|\\v)", "");
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    private static abstract class MyURLStreamHandler extends URLStreamHandler {
+        @Override
+        public abstract URLConnection openConnection(URL u, Proxy p);
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.governance.param.Param;
+import bisq.core.dao.monitoring.DaoStateMonitoringService;
+import bisq.core.dao.monitoring.model.DaoStateHash;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.SpentInfo;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
+import bisq.core.dao.state.model.governance.ParamChange;
+import bisq.core.dao.state.storage.DaoStateDeltaPersistence;
+import bisq.core.dao.state.storage.DaoStateStorageService;
+import bisq.core.util.coin.BsqFormatter;
+
+import java.io.File;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Persists the snapshots created by DaoStateSnapshotService as a full DaoState plus deltas on disk and checks that
+ * the state read back at startup is equal to a full clone of the DaoState at the persisted height, also after a reorg.
+ */
+public class DaoStateDeltaRoundTripTest {
+
+    @TempDir
+    File storageDir;
+
+    private DaoState daoState;
+    private DaoStateService daoStateService;
+    private DaoStateSnapshotService daoStateSnapshotService;
+    private DaoStateDeltaPersistence daoStateDeltaPersistence;
+    private LinkedList<DaoStateHash> daoStateHashChain = new LinkedList<>();
+    private final Map<Integer, Block> blockByHeight = new HashMap<>();
+    private final Map<Integer, TxOutput> txOutputByHeight = new HashMap<>();
+    private final Map<Integer, protobuf.DaoState> expectedDaoStateByHeight = new HashMap<>();
+
+    // The state of the simulated DaoStateStorageService
+    private protobuf.DaoState persistedFullDaoState;
+    private LinkedList<DaoStateHash> persistedFullDaoStateHashChain;
+    private int chainHeightOfPersistedDaoState;
+    private int numPersistedDeltas;
+    private int numPersistedFullSnapshots;
+
+    @BeforeEach
+    public void setup() {
+        daoState = new DaoState();
+        daoStateService = new DaoStateService(daoState, mock(GenesisTxInfo.class), mock(BsqFormatter.class));
+        daoStateDeltaPersistence = new DaoStateDeltaPersistence(new File(storageDir, "DaoStateDeltas"), "DaoStateDelta");
+
+        DaoStateStorageService daoStateStorageService = mock(DaoStateStorageService.class);
+        when(daoStateStorageService.getChainHeightOfPersistedDaoState()).thenAnswer(i -> chainHeightOfPersistedDaoState);
+        when(daoStateStorageService.getNumPersistedDeltas()).thenAnswer(i -> numPersistedDeltas);
+        doAnswer(invocation -> {
+            persistFullDaoState(invocation.getArgument(0), invocation.getArgument(2));
+            invocation.<Runnable>getArgument(3).run();
+            return null;
+        }).when(daoStateStorageService).requestPersistence(any(protobuf.DaoState.class), anyList(), any(), any());
+        doAnswer(invocation -> {
+            persistDelta(invocation.getArgument(0));
+            invocation.<Runnable>getArgument(2).run();
+            return null;
+        }).when(daoStateStorageService).requestPersistence(any(protobuf.DaoStateDelta.class), anyList(), any());
+        when(daoStateStorageService.getPersistedBsqState()).thenAnswer(i -> {
+            protobuf.DaoState persisted = readPersistedDaoState();
+            LinkedList<Block> blocks = IntStream.rangeClosed(0, persisted.getChainHeight())
+                    .mapToObj(blockByHeight::get)
+                    .collect(Collectors.toCollection(LinkedList::new));
+            return DaoState.fromProto(persisted, blocks);
+        });
+        when(daoStateStorageService.getPersistedDaoStateHashChain()).thenAnswer(i -> readPersistedDaoStateHashChain());
+
+        DaoStateMonitoringService daoStateMonitoringService = mock(DaoStateMonitoringService.class);
+        when(daoStateMonitoringService.getDaoStateHashChain()).thenAnswer(i -> daoStateHashChain);
+        doAnswer(invocation -> {
+            daoStateHashChain = new LinkedList<>(invocation.<LinkedList<DaoStateHash>>getArgument(0));
+            return null;
+        }).when(daoStateMonitoringService).applySnapshot(any());
+
+        daoStateSnapshotService = new DaoStateSnapshotService(daoStateService,
+                mock(GenesisTxInfo.class),
+                daoStateStorageService,
+                daoStateMonitoringService,
+                null,
+                null,
+                null,
+                null,
+                null);
+    }
+
+    @Test
+    public void testPersistedDeltasMatchFullCloneAcrossReorg() {
+        // Full snapshot at 40, deltas at 60, 80 and 100. The delta candidate from 100 to 120 is not persisted yet.
+        parseBlocks(0, 131, "a");
+        assertEquals(1, numPersistedFullSnapshots);
+        assertEquals(100, chainHeightOfPersistedDaoState);
+        assertEquals(3, numPersistedDeltas);
+
+        // Blocks 101 to 131 get replaced. The persisted snapshot is applied and the chain continues from there.
+        daoStateSnapshotService.applySnapshot(true);
+        assertEquals(100, daoStateService.getChainHeight());
+        assertEquals(expectedDaoStateByHeight.get(100), daoStateService.getBsqStateCloneExcludingBlocks());
+
+        // Deltas at 120 to 240. After 10 deltas a full snapshot is created at 260 and persisted at 280, followed by
+        // deltas at 280 and 300.
+        parseBlocks(101, 320, "b");
+        assertEquals(2, numPersistedFullSnapshots);
+        assertEquals(300, chainHeightOfPersistedDaoState);
+        assertEquals(2, numPersistedDeltas);
+
+        // The outputs of the orphaned blocks of fork a are not part of the persisted state.
+        assertTrue(readPersistedDaoState().getUnspentTxOutputMapMap().keySet().stream()
+                .noneMatch(key -> key.startsWith("a-tx-") &&
+                        Integer.parseInt(key.substring("a-tx-".length(), key.indexOf(':'))) > 100));
+    }
+
+    private void parseBlocks(int fromHeight, int toHeight, String fork) {
+        for (int height = fromHeight; height <= toHeight; height++) {
+            parseBlock(height, fork);
+        }
+    }
+
+    private void parseBlock(int height, String fork) {
+        daoStateService.onNewBlockHeight(height);
+        String previousBlockHash = height == 0 ? "" : blockByHeight.get(height - 1).getHash();
+        Block block = new Block(height, height * 600L, fork + "-block-" + height, previousBlockHash);
+        daoStateService.onNewBlockWithEmptyTxs(block);
+        blockByHeight.put(height, block);
+
+        String txId = fork + "-tx-" + height;
+        TxOutput txOutput = getTxOutput(txId, height);
+        txOutputByHeight.put(height, txOutput);
+        daoStateService.addUnspentTxOutput(txOutput);
+        if (height >= 3 && height % 3 == 0) {
+            TxOutput spentTxOutput = txOutputByHeight.get(height - 3);
+            daoStateService.removeUnspentTxOutput(spentTxOutput);
+            daoStateService.setSpentInfo(spentTxOutput.getKey(), new SpentInfo(height, txId, 0));
+        }
+        if (height % 7 == 0) {
+            daoStateService.addIssuance(new Issuance(txId, height, 1000 + height, null, IssuanceType.COMPENSATION));
+        }
+        if (height % 25 == 0) {
+            daoState.getParamChangeList().add(new ParamChange(Param.DEFAULT_MAKER_FEE_BSQ.name(), "0." + height, height + 10));
+        }
+        if (height % 40 == 0) {
+            daoState.getConfiscatedLockupTxList().add(txId);
+        }
+        daoStateHashChain.add(new DaoStateHash(height, (fork + height).getBytes(UTF_8), true));
+        expectedDaoStateByHeight.put(height, daoStateService.getBsqStateCloneExcludingBlocks());
+
+        daoStateSnapshotService.maybeCreateSnapshot(block);
+    }
+
+    private void persistFullDaoState(protobuf.DaoState daoStateAsProto, LinkedList<DaoStateHash> hashChain) {
+        persistedFullDaoState = daoStateAsProto;
+        persistedFullDaoStateHashChain = new LinkedList<>(hashChain);
+        daoStateDeltaPersistence.removeDeltasDirectory();
+        chainHeightOfPersistedDaoState = daoStateAsProto.getChainHeight();
+        numPersistedDeltas = 0;
+        numPersistedFullSnapshots++;
+        assertPersistedStateMatchesFullClone();
+    }
+
+    private void persistDelta(protobuf.DaoStateDelta delta) {
+        assertEquals(chainHeightOfPersistedDaoState, delta.getBaseHeight());
+        assertTrue(daoStateDeltaPersistence.writeDelta(delta));
+        chainHeightOfPersistedDaoState = delta.getChainHeight();
+        numPersistedDeltas++;
+        assertPersistedStateMatchesFullClone();
+    }
+
+    // Reads the state from disk as it would be done at startup and compares it with the state at that height.
+    private void assertPersistedStateMatchesFullClone() {
+        protobuf.DaoState persisted = readPersistedDaoState();
+        assertEquals(chainHeightOfPersistedDaoState, persisted.getChainHeight());
+        assertEquals(expectedDaoStateByHeight.get(chainHeightOfPersistedDaoState), persisted);
+
+        List<protobuf.DaoStateHash> expectedHashChain = daoStateHashChain.stream()
+                .filter(daoStateHash -> daoStateHash.getHeight() <= chainHeightOfPersistedDaoState)
+                .map(DaoStateHash::toProtoMessage)
+                .collect(Collectors.toList());
+        assertEquals(expectedHashChain, readPersistedDaoStateHashChain().stream()
+                .map(DaoStateHash::toProtoMessage)
+                .collect(Collectors.toList()));
+    }
+
+    private protobuf.DaoState readPersistedDaoState() {
+        protobuf.DaoState.Builder builder = persistedFullDaoState.toBuilder();
+        daoStateDeltaPersistence.readDeltasContinuing(persistedFullDaoState.getChainHeight())
+                .forEach(delta -> DaoStateDeltaPersistence.applyDelta(builder, delta));
+        return builder.build();
+    }
+
+    private LinkedList<DaoStateHash> readPersistedDaoStateHashChain() {
+        LinkedList<DaoStateHash> hashChain = new LinkedList<>(persistedFullDaoStateHashChain);
+        daoStateDeltaPersistence.readDeltasContinuing(persistedFullDaoState.getChainHeight())
+                .forEach(delta -> delta.getDaoStateHashList().stream()
+                        .map(DaoStateHash::fromProto)
+                        .forEach(hashChain::add));
+        return hashChain;
+    }
+
+    private static TxOutput getTxOutput(String txId, int height) {
+        return TxOutput.fromProto(protobuf.BaseTxOutput.newBuilder()
+                .setIndex(0)
+                .setValue(1000 + height)
+                .setTxId(txId)
+                .setBlockHeight(height)
+                .setTxOutput(protobuf.TxOutput.newBuilder().setTxOutputType(protobuf.TxOutputType.BSQ_OUTPUT))
+                .build());
+    }
+}
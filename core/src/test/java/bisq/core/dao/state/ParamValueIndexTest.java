@@ -0,0 +1,82 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.governance.param.Param;
+import bisq.core.dao.state.model.governance.ParamChange;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ParamValueIndexTest {
+    private static final Param PARAM = Param.DEFAULT_MAKER_FEE_BSQ;
+
+    @Test
+    public void testDefaultValueWithoutChanges() {
+        ParamValueIndex index = new ParamValueIndex(List.of());
+
+        assertEquals(PARAM.getDefaultValue(), index.get(PARAM, 0).getValue());
+        assertEquals(PARAM.getDefaultValue(), index.get(PARAM, Integer.MAX_VALUE).getValue());
+    }
+
+    @Test
+    public void testValueAtBlockHeight() {
+        ParamValueIndex index = new ParamValueIndex(List.of(
+                new ParamChange(PARAM.name(), "1.00", 100),
+                new ParamChange(Param.DEFAULT_TAKER_FEE_BSQ.name(), "9.00", 150),
+                new ParamChange(PARAM.name(), "2.00", 200),
+                new ParamChange(PARAM.name(), "3.00", 300)));
+
+        assertEquals(PARAM.getDefaultValue(), index.get(PARAM, 99).getValue());
+        assertEquals("1.00", index.get(PARAM, 100).getValue());
+        assertEquals("1.00", index.get(PARAM, 199).getValue());
+        assertEquals("2.00", index.get(PARAM, 200).getValue());
+        assertEquals("3.00", index.get(PARAM, 1000).getValue());
+        assertEquals("9.00", index.get(Param.DEFAULT_TAKER_FEE_BSQ, 1000).getValue());
+        assertEquals(Param.MIN_MAKER_FEE_BSQ.getDefaultValue(), index.get(Param.MIN_MAKER_FEE_BSQ, 1000).getValue());
+    }
+
+    @Test
+    public void testLastChangeAtSameHeightWins() {
+        ParamValueIndex index = new ParamValueIndex(List.of(
+                new ParamChange(PARAM.name(), "1.00", 100),
+                new ParamChange(PARAM.name(), "2.00", 100)));
+
+        assertEquals("2.00", index.get(PARAM, 100).getValue());
+    }
+
+    @Test
+    public void testUnknownParamIsIgnored() {
+        ParamValueIndex index = new ParamValueIndex(List.of(
+                new ParamChange("NOT_A_PARAM", "1.00", 100),
+                new ParamChange(PARAM.name(), "2.00", 200)));
+
+        assertEquals("2.00", index.get(PARAM, 200).getValue());
+    }
+
+    @Test
+    public void testSameEntryForSameChange() {
+        ParamValueIndex index = new ParamValueIndex(List.of(new ParamChange(PARAM.name(), "1.00", 100)));
+
+        assertSame(index.get(PARAM, 100), index.get(PARAM, 500));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.filter;
+
+import bisq.core.payment.payload.SepaAccountPayload;
+
+import bisq.network.p2p.NodeAddress;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FilterIndexTest {
+    @Test
+    public void testNodeAddressBannedFromNetwork() {
+        Filter filter = mock(Filter.class);
+        when(filter.getNodeAddressesBannedFromNetwork()).thenReturn(Set.of("abc.onion:9999", "invalid"));
+        FilterIndex filterIndex = FilterIndex.from(filter);
+
+        assertTrue(filterIndex.isNodeAddressBannedFromNetwork(new NodeAddress("abc.onion", 9999)));
+        assertFalse(filterIndex.isNodeAddressBannedFromNetwork(new NodeAddress("abc.onion", 8888)));
+        assertFalse(filterIndex.isNodeAddressBannedFromNetwork(new NodeAddress("def.onion", 9999)));
+        assertFalse(FilterIndex.from(null).isNodeAddressBannedFromNetwork(new NodeAddress("abc.onion", 9999)));
+    }
+
+    @Test
+    public void testPaymentAccountDataBanned() {
+        Filter filter = mock(Filter.class);
+        when(filter.getBannedPaymentAccounts()).thenReturn(List.of(
+                new PaymentAccountFilter("SEPA", "getHolderName", "Bad Holder"),
+                new PaymentAccountFilter("SEPA", "getNotExistingMethod", "Bad Holder")));
+        FilterIndex filterIndex = FilterIndex.from(filter);
+
+        SepaAccountPayload payload = new SepaAccountPayload("SEPA", "id", List.of());
+        payload.setHolderName("bad holder");
+        assertTrue(filterIndex.isPaymentAccountDataBanned(payload));
+
+        payload.setHolderName("Good Holder");
+        assertFalse(filterIndex.isPaymentAccountDataBanned(payload));
+
+        SepaAccountPayload otherMethodPayload = new SepaAccountPayload("SEPA_INSTANT", "id", List.of());
+        otherMethodPayload.setHolderName("Bad Holder");
+        assertFalse(filterIndex.isPaymentAccountDataBanned(otherMethodPayload));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.grpc;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Sends the events of a server-streaming subscription.  The changes are keyed, so that only the latest change of a key
+ * is sent, and they are sent in batches at most every FLUSH_INTERVAL_MS.  While the client does not keep up and the
+ * call is not ready, the changes are coalesced in memory (bounded by the number of keys) until the transport asks for
+ * more data.  Once the call is cancelled, the close handler is called to remove the core listeners.
+ *
+ * The gRPC listener callbacks are executed on the UserThread (see UserThreadHandoffInterceptor), as are the core
+ * listeners, so no synchronization is needed.
+ */
+@Slf4j
+class GrpcEventStream<K, V, R> {
+    private static final long FLUSH_INTERVAL_MS = 100;
+
+    private final ServerCallStreamObserver<R> responseObserver;
+    private final GrpcExceptionHandler exceptionHandler;
+    // Builds the event from the pending changes.  Must not keep a reference to the map.
+    private final Function<Map<K, V>, R> eventFactory;
+    private Runnable closeHandler = () -> {
+    };
+    private final Map<K, V> pendingChanges = new LinkedHashMap<>();
+    @Nullable
+    private Timer flushTimer;
+    private boolean isClosed;
+
+    GrpcEventStream(StreamObserver<R> responseObserver,
+                    GrpcExceptionHandler exceptionHandler,
+                    Function<Map<K, V>, R> eventFactory) {
+        this.responseObserver = (ServerCallStreamObserver<R>) responseObserver;
+        this.exceptionHandler = exceptionHandler;
+        this.eventFactory = eventFactory;
+
+        this.responseObserver.setOnReadyHandler(this::flush);
+        this.responseObserver.setOnCancelHandler(this::close);
+    }
+
+    // Called when the call was cancelled or failed.
+    void setCloseHandler(Runnable closeHandler) {
+        this.closeHandler = closeHandler;
+    }
+
+    void put(K key, V change) {
+        if (isClosed)
+            return;
+
+        pendingChanges.put(key, change);
+        if (flushTimer == null)
+            flushTimer = UserThread.runAfter(this::onFlushTimer, FLUSH_INTERVAL_MS, MILLISECONDS);
+    }
+
+    private void onFlushTimer() {
+        flushTimer = null;
+        flush();
+    }
+
+    private void flush() {
+        // If the call is not ready we get called again from the onReady handler.
+        if (isClosed || pendingChanges.isEmpty() || !responseObserver.isReady())
+            return;
+
+        try {
+            R event = eventFactory.apply(pendingChanges);
+            pendingChanges.clear();
+            responseObserver.onNext(event);
+        } catch (Throwable cause) {
+            close();
+            try {
+                exceptionHandler.handleException(log, cause, responseObserver);
+            } catch (StatusRuntimeException ignore) {
+                // The exception is rethrown after it was sent to the client, but we are not called from a service
+                // method, so there is nobody to catch it.
+            }
+        }
+    }
+
+    private void close() {
+        if (isClosed)
+            return;
+
+        isClosed = true;
+        if (flushTimer != null) {
+            flushTimer.stop();
+            flushTimer = null;
+        }
+        pendingChanges.clear();
+        closeHandler.run();
+    }
+}
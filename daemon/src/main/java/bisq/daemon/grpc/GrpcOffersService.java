@@ -20,6 +20,7 @@ package bisq.daemon.grpc;
 import bisq.core.api.CoreApi;
 import bisq.core.api.model.OfferInfo;
 import bisq.core.offer.Offer;
+import bisq.core.offer.OfferBookService;
 import bisq.core.offer.OpenOffer;
 
 import bisq.proto.grpc.CancelOfferReply;
@@ -45,6 +46,8 @@ import bisq.proto.grpc.GetOfferReply;
 import bisq.proto.grpc.GetOfferRequest;
 import bisq.proto.grpc.GetOffersReply;
 import bisq.proto.grpc.GetOffersRequest;
+import bisq.proto.grpc.OffersChangedEvent;
+import bisq.proto.grpc.SubscribeOffersRequest;
 
 import io.grpc.ServerInterceptor;
 import io.grpc.stub.StreamObserver;
@@ -53,6 +56,7 @@ import javax.inject.Inject;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -195,10 +199,12 @@ class GrpcOffersService extends OffersImplBase {
     public void getOffers(GetOffersRequest req,
                           StreamObserver<GetOffersReply> responseObserver) {
         try {
-            List<OfferInfo> result = coreApi.getOffers(req.getDirection(), req.getCurrencyCode(), req.getAll())
-                    .stream()
-                    .map(OfferInfo::toOfferInfo)
-                    .collect(Collectors.toList());
+            // Executed on a gRPC worker thread, the OfferInfo snapshot is taken on the UserThread.
+            List<OfferInfo> result = UserThreadSnapshot.take(() ->
+                    coreApi.getOffers(req.getDirection(), req.getCurrencyCode(), req.getAll())
+                            .stream()
+                            .map(OfferInfo::toOfferInfo)
+                            .collect(Collectors.toList()));
             var reply = GetOffersReply.newBuilder()
                     .addAllOffers(result.stream()
                             .map(OfferInfo::toProtoMessage)
@@ -337,6 +343,46 @@ class GrpcOffersService extends OffersImplBase {
         }
     }
 
+    @Override
+    public void subscribeOffers(SubscribeOffersRequest req,
+                                StreamObserver<OffersChangedEvent> responseObserver) {
+        try {
+            String direction = req.getDirection();
+            String currencyCode = req.getCurrencyCode();
+            // Maps the id of each changed offer to the added offer, or to empty if the offer was removed.
+            GrpcEventStream<String, Optional<Offer>, OffersChangedEvent> stream = new GrpcEventStream<>(responseObserver,
+                    exceptionHandler,
+                    this::buildOffersChangedEvent);
+            var listener = new OfferBookService.OfferBookChangedListener() {
+                @Override
+                public void onAdded(Offer offer) {
+                    if (coreApi.isOfferBookOfferMatching(offer, direction, currencyCode))
+                        stream.put(offer.getId(), Optional.of(offer));
+                }
+
+                @Override
+                public void onRemoved(Offer offer) {
+                    if (coreApi.isOfferBookOfferMatching(offer, direction, currencyCode))
+                        stream.put(offer.getId(), Optional.empty());
+                }
+            };
+            stream.setCloseHandler(() -> coreApi.removeOfferBookChangedListener(listener));
+            coreApi.addOfferBookChangedListener(listener);
+            coreApi.getOfferBookOffers(direction, currencyCode)
+                    .forEach(offer -> stream.put(offer.getId(), Optional.of(offer)));
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
+    private OffersChangedEvent buildOffersChangedEvent(Map<String, Optional<Offer>> changes) {
+        var builder = OffersChangedEvent.newBuilder();
+        changes.forEach((offerId, offer) -> offer.ifPresentOrElse(
+                o -> builder.addOffers(toOfferInfo(o).toProtoMessage()),
+                () -> builder.addRemovedOfferIds(offerId)));
+        return builder.build();
+    }
+
     final ServerInterceptor[] interceptors() {
         Optional<ServerInterceptor> rateMeteringInterceptor = rateMeteringInterceptor();
         return rateMeteringInterceptor.map(serverInterceptor ->
@@ -355,6 +401,7 @@ class GrpcOffersService extends OffersImplBase {
                             put(getCreateOfferMethod().getFullMethodName(), new GrpcCallRateMeter(1, MINUTES));
                             put(getEditOfferMethod().getFullMethodName(), new GrpcCallRateMeter(1, MINUTES));
                             put(getCancelOfferMethod().getFullMethodName(), new GrpcCallRateMeter(1, MINUTES));
+                            put(getSubscribeOffersMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                         }}
                 )));
     }
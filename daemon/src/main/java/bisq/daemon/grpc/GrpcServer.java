@@ -19,11 +19,16 @@ package bisq.daemon.grpc;
 
 import bisq.core.api.CoreContext;
 
+import bisq.common.Timer;
 import bisq.common.UserThread;
 import bisq.common.config.Config;
+import bisq.common.util.Utilities;
 
+import io.grpc.BindableService;
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerServiceDefinition;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -31,19 +36,43 @@ import javax.inject.Singleton;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
+
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 import static io.grpc.ServerInterceptors.interceptForward;
+import static java.util.concurrent.TimeUnit.MINUTES;
 
 
 
+import bisq.daemon.grpc.interceptor.CallRateMeteringInterceptor;
+import bisq.daemon.grpc.interceptor.GrpcCallLatencyHistogram;
+import bisq.daemon.grpc.interceptor.MaxConcurrentCallsInterceptor;
 import bisq.daemon.grpc.interceptor.PasswordAuthInterceptor;
+import bisq.daemon.grpc.interceptor.UserThreadHandoffInterceptor;
 
 @Singleton
 @Slf4j
 public class GrpcServer {
 
+    // Bounds the unary calls in progress, the calls above the limit are rejected with RESOURCE_EXHAUSTED.
+    private static final int MAX_CONCURRENT_CALLS = 1000;
+    private static final long LOG_LATENCY_HISTOGRAMS_INTERVAL_MIN = 10;
+
     private final Server server;
+    private final ExecutorService executor;
+    private final List<CallRateMeteringInterceptor> callRateMeteringInterceptors = new ArrayList<>();
+    @Nullable
+    private Timer logLatencyHistogramsTimer;
 
     @Inject
     public GrpcServer(CoreContext coreContext,
@@ -58,18 +87,29 @@ public class GrpcServer {
                       GrpcVersionService versionService,
                       GrpcTradesService tradesService,
                       GrpcWalletsService walletsService) {
+        // The gRPC calls are handled on a worker pool. The UserThreadHandoffInterceptor marshals the service
+        // method invocations which access core state to the UserThread. The queue is unbounded, so the executor
+        // never rejects a task, the load is bounded by the MaxConcurrentCallsInterceptor instead.
+        this.executor = Utilities.getListeningExecutorService("GrpcServer",
+                config.apiThreads,
+                config.apiThreads,
+                60,
+                new LinkedBlockingQueue<>());
         this.server = ServerBuilder.forPort(config.apiPort)
-                .executor(UserThread.getExecutor())
-                .addService(interceptForward(disputeAgentsService, disputeAgentsService.interceptors()))
-                .addService(interceptForward(helpService, helpService.interceptors()))
-                .addService(interceptForward(offersService, offersService.interceptors()))
-                .addService(interceptForward(paymentAccountsService, paymentAccountsService.interceptors()))
-                .addService(interceptForward(priceService, priceService.interceptors()))
+                .executor(executor)
+                .addService(intercept(disputeAgentsService, disputeAgentsService.interceptors()))
+                .addService(intercept(helpService, helpService.interceptors()))
+                .addService(intercept(offersService, offersService.interceptors()))
+                .addService(intercept(paymentAccountsService, paymentAccountsService.interceptors()))
+                .addService(intercept(priceService, priceService.interceptors()))
                 .addService(shutdownService)
-                .addService(interceptForward(tradesService, tradesService.interceptors()))
-                .addService(interceptForward(versionService, versionService.interceptors()))
-                .addService(interceptForward(walletsService, walletsService.interceptors()))
+                .addService(intercept(tradesService, tradesService.interceptors()))
+                .addService(intercept(versionService, versionService.interceptors()))
+                .addService(intercept(walletsService, walletsService.interceptors()))
                 .intercept(passwordAuthInterceptor)
+                .intercept(new UserThreadHandoffInterceptor())
+                // The last added interceptor is called first.
+                .intercept(new MaxConcurrentCallsInterceptor(MAX_CONCURRENT_CALLS))
                 .build();
         coreContext.setApiUser(true);
     }
@@ -78,6 +118,8 @@ public class GrpcServer {
         try {
             server.start();
             log.info("listening on port {}", server.getPort());
+            logLatencyHistogramsTimer = UserThread.runPeriodically(this::logLatencyHistograms,
+                    LOG_LATENCY_HISTOGRAMS_INTERVAL_MIN, MINUTES);
         } catch (IOException ex) {
             throw new UncheckedIOException(ex);
         }
@@ -85,7 +127,39 @@ public class GrpcServer {
 
     public void shutdown() {
         log.info("Server shutdown started");
+        if (logLatencyHistogramsTimer != null) {
+            logLatencyHistogramsTimer.stop();
+        }
+        logLatencyHistograms();
         server.shutdown();
+        executor.shutdown();
         log.info("Server shutdown complete");
     }
+
+    /**
+     * Returns the latency histograms of the completed unary calls, keyed by the full gRPC method name.
+     */
+    public Map<String, GrpcCallLatencyHistogram> getLatencyHistograms() {
+        Map<String, GrpcCallLatencyHistogram> latencyHistograms = new TreeMap<>();
+        callRateMeteringInterceptors.forEach(interceptor ->
+                latencyHistograms.putAll(interceptor.getLatencyHistograms()));
+        return latencyHistograms;
+    }
+
+    private void logLatencyHistograms() {
+        Map<String, GrpcCallLatencyHistogram> latencyHistograms = getLatencyHistograms();
+        if (!latencyHistograms.isEmpty()) {
+            log.info("gRPC call latency histograms:\n\t{}", latencyHistograms.entrySet().stream()
+                    .map(Object::toString)
+                    .collect(Collectors.joining("\n\t")));
+        }
+    }
+
+    private ServerServiceDefinition intercept(BindableService service, ServerInterceptor[] interceptors) {
+        Arrays.stream(interceptors)
+                .filter(interceptor -> interceptor instanceof CallRateMeteringInterceptor)
+                .map(interceptor -> (CallRateMeteringInterceptor) interceptor)
+                .forEach(callRateMeteringInterceptors::add);
+        return interceptForward(service, interceptors);
+    }
 }
@@ -38,8 +38,10 @@ import bisq.proto.grpc.GetTradeReply;
 import bisq.proto.grpc.GetTradeRequest;
 import bisq.proto.grpc.GetTradesReply;
 import bisq.proto.grpc.GetTradesRequest;
+import bisq.proto.grpc.SubscribeTradeEventsRequest;
 import bisq.proto.grpc.TakeOfferReply;
 import bisq.proto.grpc.TakeOfferRequest;
+import bisq.proto.grpc.TradeEvent;
 import bisq.proto.grpc.UnFailTradeReply;
 import bisq.proto.grpc.UnFailTradeRequest;
 import bisq.proto.grpc.WithdrawFundsReply;
@@ -53,7 +55,9 @@ import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -157,10 +161,14 @@ class GrpcTradesService extends TradesImplBase {
                           StreamObserver<GetTradesReply> responseObserver) {
         try {
             var category = req.getCategory();
-            var trades = category.equals(OPEN)
-                    ? coreApi.getOpenTrades()
-                    : coreApi.getTradeHistory(category);
-            var reply = buildGetTradesReply(trades, category);
+            // Executed on a gRPC worker thread, the TradeInfo snapshot is taken on the UserThread.
+            List<TradeInfo> unsortedTrades = UserThreadSnapshot.take(() -> {
+                var trades = category.equals(OPEN)
+                        ? coreApi.getOpenTrades()
+                        : coreApi.getTradeHistory(category);
+                return toUnsortedTradeInfos(trades, category);
+            });
+            var reply = buildGetTradesReply(unsortedTrades);
             responseObserver.onNext(reply);
             responseObserver.onCompleted();
         } catch (IllegalArgumentException cause) {
@@ -248,6 +256,23 @@ class GrpcTradesService extends TradesImplBase {
         }
     }
 
+    @Override
+    public void subscribeTradeEvents(SubscribeTradeEventsRequest req,
+                                     StreamObserver<TradeEvent> responseObserver) {
+        try {
+            GrpcEventStream<String, TradeModel, TradeEvent> stream = new GrpcEventStream<>(responseObserver,
+                    exceptionHandler,
+                    this::buildTradeEvent);
+            Consumer<TradeModel> listener = tradeModel -> stream.put(tradeModel.getId(), tradeModel);
+            stream.setCloseHandler(() -> coreApi.removeTradeChangeListener(listener));
+            coreApi.addTradeChangeListener(listener);
+            // The first event contains all open trades.
+            coreApi.getOpenTrades().forEach(listener);
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
     final ServerInterceptor[] interceptors() {
         Optional<ServerInterceptor> rateMeteringInterceptor = rateMeteringInterceptor();
         return rateMeteringInterceptor.map(serverInterceptor ->
@@ -265,10 +290,22 @@ class GrpcTradesService extends TradesImplBase {
                             put(getConfirmPaymentReceivedMethod().getFullMethodName(), new GrpcCallRateMeter(1, MINUTES));
                             put(getCloseTradeMethod().getFullMethodName(), new GrpcCallRateMeter(1, MINUTES));
                             put(getWithdrawFundsMethod().getFullMethodName(), new GrpcCallRateMeter(1, MINUTES));
+                            put(getSubscribeTradeEventsMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                         }}
                 )));
     }
 
+    private TradeEvent buildTradeEvent(Map<String, TradeModel> changedTrades) {
+        var builder = TradeEvent.newBuilder();
+        changedTrades.values().forEach(tradeModel -> {
+            var reply = tradeModel.getOffer().isBsqSwapOffer()
+                    ? buildGetTradeReply((BsqSwapTrade) tradeModel)
+                    : buildGetTradeReply((Trade) tradeModel);
+            builder.addTrades(reply.getTrade());
+        });
+        return builder.build();
+    }
+
     private TakeOfferReply buildTakeOfferReply(TradeModel tradeModel) {
         TradeInfo tradeInfo;
         if (tradeModel.getOffer().isBsqSwapOffer()) {
@@ -315,7 +352,7 @@ class GrpcTradesService extends TradesImplBase {
     }
 
 
-    private GetTradesReply buildGetTradesReply(List<TradeModel> trades, GetTradesRequest.Category category) {
+    private List<TradeInfo> toUnsortedTradeInfos(List<TradeModel> trades, GetTradesRequest.Category category) {
         // Build an unsorted List<TradeInfo>, starting with
         // all pending, or all completed BsqSwap and v1 trades.
         List<TradeInfo> unsortedTrades = trades.stream()
@@ -347,7 +384,10 @@ class GrpcTradesService extends TradesImplBase {
                         .collect(Collectors.toList())
         ));
         unsortedTrades.addAll(canceledTrades);
+        return unsortedTrades;
+    }
 
+    private GetTradesReply buildGetTradesReply(List<TradeInfo> unsortedTrades) {
         // Sort the cumulative List<TradeInfo> by date before sending it to the client.
         List<TradeInfo> sortedTrades = unsortedTrades.stream()
                 .sorted(comparing(TradeInfo::getDate))
@@ -20,9 +20,11 @@ package bisq.daemon.grpc;
 import bisq.core.api.CoreApi;
 import bisq.core.api.model.AddressBalanceInfo;
 import bisq.core.api.model.TxFeeRateInfo;
+import bisq.core.api.model.TxInfo;
 import bisq.core.btc.exceptions.TxBroadcastException;
 import bisq.core.btc.wallet.TxBroadcaster;
 
+import bisq.proto.grpc.BalancesChangedEvent;
 import bisq.proto.grpc.GetAddressBalanceReply;
 import bisq.proto.grpc.GetAddressBalanceRequest;
 import bisq.proto.grpc.GetBalancesReply;
@@ -51,6 +53,7 @@ import bisq.proto.grpc.SetTxFeeRatePreferenceReply;
 import bisq.proto.grpc.SetTxFeeRatePreferenceRequest;
 import bisq.proto.grpc.SetWalletPasswordReply;
 import bisq.proto.grpc.SetWalletPasswordRequest;
+import bisq.proto.grpc.SubscribeBalancesRequest;
 import bisq.proto.grpc.UnlockWalletReply;
 import bisq.proto.grpc.UnlockWalletRequest;
 import bisq.proto.grpc.UnsetTxFeeRatePreferenceReply;
@@ -117,7 +120,8 @@ class GrpcWalletsService extends WalletsImplBase {
     @Override
     public void getBalances(GetBalancesRequest req, StreamObserver<GetBalancesReply> responseObserver) {
         try {
-            var balances = coreApi.getBalances(req.getCurrencyCode());
+            // Executed on a gRPC worker thread, the BalancesInfo snapshot is taken on the UserThread.
+            var balances = UserThreadSnapshot.take(() -> coreApi.getBalances(req.getCurrencyCode()));
             var reply = GetBalancesReply.newBuilder()
                     .setBalances(balances.toProtoMessage())
                     .build();
@@ -128,6 +132,29 @@ class GrpcWalletsService extends WalletsImplBase {
         }
     }
 
+    @Override
+    public void subscribeBalances(SubscribeBalancesRequest req,
+                                  StreamObserver<BalancesChangedEvent> responseObserver) {
+        try {
+            String currencyCode = req.getCurrencyCode();
+            // Fails early if the wallet is not available or locked.
+            coreApi.getBalances(currencyCode);
+            // Balance changes are coalesced into a single pending change, and the event is built from the balances
+            // at the time it is sent.
+            GrpcEventStream<String, Boolean, BalancesChangedEvent> stream = new GrpcEventStream<>(responseObserver,
+                    exceptionHandler,
+                    changes -> BalancesChangedEvent.newBuilder()
+                            .setBalances(coreApi.getBalances(currencyCode).toProtoMessage())
+                            .build());
+            Runnable listener = () -> stream.put(currencyCode, true);
+            stream.setCloseHandler(() -> coreApi.removeBalancesChangedListener(listener));
+            coreApi.addBalancesChangedListener(listener);
+            listener.run();
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
     @Override
     public void getAddressBalance(GetAddressBalanceRequest req,
                                   StreamObserver<GetAddressBalanceReply> responseObserver) {
@@ -315,11 +342,17 @@ class GrpcWalletsService extends WalletsImplBase {
     public void getTransactions(GetTransactionsRequest req,
                                 StreamObserver<GetTransactionsReply> responseObserver) {
         try {
-            Set<Transaction> transactions = coreApi.getTransactions();
-            log.info("Transactions count: " + transactions.size());
+            // Executed on a gRPC worker thread, the TxInfo snapshot is taken on the UserThread.
+            List<TxInfo> txInfos = UserThreadSnapshot.take(() -> {
+                Set<Transaction> transactions = coreApi.getTransactions();
+                return transactions.stream()
+                        .map(TxInfo::toTxInfo)
+                        .collect(Collectors.toList());
+            });
+            log.info("Transactions count: " + txInfos.size());
             var reply = GetTransactionsReply.newBuilder()
-                    .addAllTxInfo(transactions.stream()
-                            .map(tx -> toTxInfo(tx).toProtoMessage())
+                    .addAllTxInfo(txInfos.stream()
+                            .map(TxInfo::toProtoMessage)
                             .collect(Collectors.toList()))
                     .build();
             responseObserver.onNext(reply);
@@ -408,6 +441,7 @@ class GrpcWalletsService extends WalletsImplBase {
                         new HashMap<>() {{
                             put(getGetNetworkMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                             put(getGetBalancesMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
+                            put(getSubscribeBalancesMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                             put(getGetAddressBalanceMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                             put(getGetFundingAddressesMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                             put(getGetUnusedBsqAddressMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
@@ -0,0 +1,70 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.grpc;
+
+import bisq.common.UserThread;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Takes a snapshot of core state on the UserThread for the read only service methods which are executed on the
+ * gRPC worker threads (see UserThreadHandoffInterceptor). The snapshot must be an immutable value object, so
+ * the expensive proto serialization of the reply can be done on the calling worker thread.
+ * Must not be called from the UserThread.
+ */
+final class UserThreadSnapshot {
+
+    static final long TIMEOUT_SEC = 30;
+
+    private UserThreadSnapshot() {
+    }
+
+    static <T> T take(Supplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        UserThread.execute(() -> {
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        try {
+            return future.get(TIMEOUT_SEC, SECONDS);
+        } catch (ExecutionException e) {
+            // Rethrow the original exception, so the service methods can map it to the matching gRPC status.
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the user thread", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for the user thread", e);
+        }
+    }
+}
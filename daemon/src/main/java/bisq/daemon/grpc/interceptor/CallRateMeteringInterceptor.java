@@ -17,17 +17,22 @@
 
 package bisq.daemon.grpc.interceptor;
 
+import io.grpc.ForwardingServerCall;
 import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
 import io.grpc.ServerCall;
 import io.grpc.ServerCallHandler;
 import io.grpc.ServerInterceptor;
+import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -42,10 +47,17 @@ public final class CallRateMeteringInterceptor implements ServerInterceptor {
     // instance to handle rate metering for any or all the methods in a Grpc*Service.
     protected final Map<String, GrpcCallRateMeter> serviceCallRateMeters;
 
+    // Maps the gRPC server method names to the latency histograms of the completed unary calls.
+    private final Map<String, GrpcCallLatencyHistogram> latencyHistograms = new ConcurrentHashMap<>();
+
     public CallRateMeteringInterceptor(Map<String, GrpcCallRateMeter> serviceCallRateMeters) {
         this.serviceCallRateMeters = serviceCallRateMeters;
     }
 
+    public Map<String, GrpcCallLatencyHistogram> getLatencyHistograms() {
+        return Collections.unmodifiableMap(latencyHistograms);
+    }
+
     @Override
     public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> serverCall,
                                                                  Metadata headers,
@@ -58,7 +70,27 @@ public final class CallRateMeteringInterceptor implements ServerInterceptor {
         // We leave it to the gRPC framework to clean up if the server call was closed
         // above.  But we still have to invoke startCall here because the method must
         // return a ServerCall.Listener<RequestT>.
-        return serverCallHandler.startCall(serverCall, headers);
+        // The duration of a streaming call is the lifetime of the subscription, so only unary calls are recorded.
+        if (serverCall.getMethodDescriptor().getType() != MethodDescriptor.MethodType.UNARY) {
+            return serverCallHandler.startCall(serverCall, headers);
+        }
+        return serverCallHandler.startCall(getLatencyRecordingServerCall(serverCall), headers);
+    }
+
+    private <ReqT, RespT> ServerCall<ReqT, RespT> getLatencyRecordingServerCall(ServerCall<ReqT, RespT> serverCall) {
+        String methodName = getRateMeterKey(serverCall);
+        long startTime = System.nanoTime();
+        return new ForwardingServerCall.SimpleForwardingServerCall<>(serverCall) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                long durationMs = (System.nanoTime() - startTime) / 1_000_000;
+                GrpcCallLatencyHistogram histogram = latencyHistograms.computeIfAbsent(methodName,
+                        k -> new GrpcCallLatencyHistogram());
+                histogram.record(durationMs);
+                log.debug("{} completed in {} ms. Latency histogram: {}", methodName, durationMs, histogram);
+                super.close(status, trailers);
+            }
+        };
     }
 
     private void checkRateMeterAndMaybeCloseCall(Map.Entry<String, GrpcCallRateMeter> rateMeterKV,
@@ -122,9 +154,16 @@ public final class CallRateMeteringInterceptor implements ServerInterceptor {
                         .stream()
                         .map(Object::toString)
                         .collect(joining("\n\t\t"));
+        String latencyHistogramsString =
+                latencyHistograms.entrySet()
+                        .stream()
+                        .map(Object::toString)
+                        .collect(joining("\n\t\t"));
         return "CallRateMeteringInterceptor {" + "\n\t" +
                 "serviceCallRateMeters {" + "\n\t\t" +
-                rateMetersString + "\n\t" + "}" + "\n"
+                rateMetersString + "\n\t" + "}" + "\n\t" +
+                "latencyHistograms {" + "\n\t\t" +
+                latencyHistogramsString + "\n\t" + "}" + "\n"
                 + "}";
     }
 
@@ -0,0 +1,94 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.grpc.interceptor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.String.format;
+
+/**
+ * Lock free latency histogram with fixed buckets for the gRPC service calls.
+ */
+public final class GrpcCallLatencyHistogram {
+
+    private static final long[] BUCKET_UPPER_BOUNDS_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    // The last bucket holds all durations above the largest upper bound.
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_UPPER_BOUNDS_MS.length + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalDuration = new LongAdder();
+    private final AtomicLong maxDuration = new AtomicLong();
+
+    public void record(long durationMs) {
+        int bucket = 0;
+        while (bucket < BUCKET_UPPER_BOUNDS_MS.length && durationMs > BUCKET_UPPER_BOUNDS_MS[bucket]) {
+            bucket++;
+        }
+        bucketCounts.incrementAndGet(bucket);
+        count.increment();
+        totalDuration.add(durationMs);
+        maxDuration.accumulateAndGet(durationMs, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMeanDuration() {
+        long numCalls = count.sum();
+        return numCalls == 0 ? 0 : totalDuration.sum() / numCalls;
+    }
+
+    public long getMaxDuration() {
+        return maxDuration.get();
+    }
+
+    /**
+     * Returns the upper bound of the bucket containing the given percentile, or the max duration if the percentile
+     * is in the overflow bucket.
+     */
+    public long getPercentileUpperBound(double percentile) {
+        long numCalls = count.sum();
+        if (numCalls == 0) {
+            return 0;
+        }
+
+        long threshold = (long) Math.ceil(numCalls * percentile / 100);
+        long accumulated = 0;
+        for (int i = 0; i < BUCKET_UPPER_BOUNDS_MS.length; i++) {
+            accumulated += bucketCounts.get(i);
+            if (accumulated >= threshold) {
+                return BUCKET_UPPER_BOUNDS_MS[i];
+            }
+        }
+        return getMaxDuration();
+    }
+
+    @Override
+    public String toString() {
+        return format("count=%d, mean=%dms, p50<=%dms, p90<=%dms, p99<=%dms, max=%dms",
+                getCount(),
+                getMeanDuration(),
+                getPercentileUpperBound(50),
+                getPercentileUpperBound(90),
+                getPercentileUpperBound(99),
+                getMaxDuration());
+    }
+}
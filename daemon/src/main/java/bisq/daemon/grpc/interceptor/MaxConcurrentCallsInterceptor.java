@@ -0,0 +1,119 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.grpc.interceptor;
+
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.grpc.Status.RESOURCE_EXHAUSTED;
+import static java.lang.String.format;
+
+/**
+ * Bounds the number of unary calls in progress. The gRPC worker pool has an unbounded queue, so an overloaded
+ * server rejects the calls above the limit with RESOURCE_EXHAUSTED instead of failing them in the transport.
+ * Streaming calls are long-lived and are not counted.
+ */
+@Slf4j
+public final class MaxConcurrentCallsInterceptor implements ServerInterceptor {
+
+    private final int maxConcurrentCalls;
+    private final Semaphore permits;
+
+    public MaxConcurrentCallsInterceptor(int maxConcurrentCalls) {
+        checkArgument(maxConcurrentCalls > 0, "maxConcurrentCalls must be positive");
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.permits = new Semaphore(maxConcurrentCalls);
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> serverCall,
+                                                                 Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> serverCallHandler) {
+        if (serverCall.getMethodDescriptor().getType() != MethodDescriptor.MethodType.UNARY) {
+            return serverCallHandler.startCall(serverCall, headers);
+        }
+
+        if (!permits.tryAcquire()) {
+            String msg = format("The maximum number of %d concurrent calls has been exceeded", maxConcurrentCalls);
+            log.warn("{}, rejecting {}.", msg, serverCall.getMethodDescriptor().getFullMethodName());
+            serverCall.close(RESOURCE_EXHAUSTED.withDescription(msg.toLowerCase()), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+
+        Permit permit = new Permit();
+        try {
+            return new PermitReleasingListener<>(serverCallHandler.startCall(serverCall, headers), permit);
+        } catch (RuntimeException e) {
+            permit.release();
+            throw e;
+        }
+    }
+
+    int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    // Both onComplete and onCancel can be the last callback of a call, the permit is released only once.
+    private class Permit {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    private static class PermitReleasingListener<ReqT> extends ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
+        private final Permit permit;
+
+        PermitReleasingListener(ServerCall.Listener<ReqT> delegate, Permit permit) {
+            super(delegate);
+            this.permit = permit;
+        }
+
+        @Override
+        public void onCancel() {
+            try {
+                super.onCancel();
+            } finally {
+                permit.release();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                super.onComplete();
+            } finally {
+                permit.release();
+            }
+        }
+    }
+}
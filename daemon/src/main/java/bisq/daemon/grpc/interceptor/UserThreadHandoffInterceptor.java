@@ -0,0 +1,96 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.grpc.interceptor;
+
+import bisq.common.UserThread;
+
+import bisq.proto.grpc.GetVersionGrpc;
+import bisq.proto.grpc.HelpGrpc;
+import bisq.proto.grpc.OffersGrpc;
+import bisq.proto.grpc.TradesGrpc;
+import bisq.proto.grpc.WalletsGrpc;
+
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+import java.util.Set;
+
+/**
+ * The gRPC server runs on its own worker pool, so transport, authentication and rate metering do not block the
+ * UserThread. The core services are not thread-safe, so we marshal the invocation of all service methods to the
+ * UserThread, except for the methods which do not access mutable core state.
+ */
+public final class UserThreadHandoffInterceptor implements ServerInterceptor {
+
+    // Methods which can be executed on the gRPC worker threads. The read only methods GetOffers, GetTrades,
+    // GetBalances and GetTransactions take an immutable snapshot of the core state on the UserThread and build
+    // the reply on the worker thread (see UserThreadSnapshot).
+    static final Set<String> WORKER_THREAD_METHODS = Set.of(
+            GetVersionGrpc.getGetVersionMethod().getFullMethodName(),
+            HelpGrpc.getGetMethodHelpMethod().getFullMethodName(),
+            OffersGrpc.getGetOffersMethod().getFullMethodName(),
+            TradesGrpc.getGetTradesMethod().getFullMethodName(),
+            WalletsGrpc.getGetBalancesMethod().getFullMethodName(),
+            WalletsGrpc.getGetTransactionsMethod().getFullMethodName());
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> serverCall,
+                                                                 Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> serverCallHandler) {
+        ServerCall.Listener<ReqT> listener = serverCallHandler.startCall(serverCall, headers);
+        if (WORKER_THREAD_METHODS.contains(serverCall.getMethodDescriptor().getFullMethodName())) {
+            return listener;
+        }
+        return new UserThreadListener<>(listener);
+    }
+
+    // The UserThread executor is single threaded, so the order of the listener callbacks is preserved.
+    private static class UserThreadListener<ReqT> extends ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
+        UserThreadListener(ServerCall.Listener<ReqT> delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void onMessage(ReqT message) {
+            UserThread.execute(() -> super.onMessage(message));
+        }
+
+        @Override
+        public void onHalfClose() {
+            UserThread.execute(super::onHalfClose);
+        }
+
+        @Override
+        public void onCancel() {
+            UserThread.execute(super::onCancel);
+        }
+
+        @Override
+        public void onComplete() {
+            UserThread.execute(super::onComplete);
+        }
+
+        @Override
+        public void onReady() {
+            UserThread.execute(super::onReady);
+        }
+    }
+}
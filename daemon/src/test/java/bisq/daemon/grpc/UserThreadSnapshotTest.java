@@ -0,0 +1,69 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.grpc;
+
+import bisq.common.UserThread;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UserThreadSnapshotTest {
+
+    private static final String USER_THREAD_NAME = "UserThreadSnapshotTest-UserThread";
+
+    private Executor userThreadExecutor;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        userThreadExecutor = UserThread.getExecutor();
+        executor = Executors.newSingleThreadExecutor(r -> new Thread(r, USER_THREAD_NAME));
+        UserThread.setExecutor(executor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        UserThread.setExecutor(userThreadExecutor);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSnapshotIsTakenOnUserThread() {
+        String threadName = UserThreadSnapshot.take(() -> Thread.currentThread().getName());
+        assertEquals(USER_THREAD_NAME, threadName);
+    }
+
+    @Test
+    public void testExceptionIsRethrownUnwrapped() {
+        IllegalArgumentException exception = new IllegalArgumentException("invalid category");
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> UserThreadSnapshot.take(() -> {
+                    throw exception;
+                }));
+        assertSame(exception, thrown);
+    }
+}
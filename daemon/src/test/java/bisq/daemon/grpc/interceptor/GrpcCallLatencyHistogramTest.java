@@ -0,0 +1,99 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.grpc.interceptor;
+
+import bisq.proto.grpc.GetVersionGrpc;
+import bisq.proto.grpc.WalletsGrpc;
+
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GrpcCallLatencyHistogramTest {
+
+    @Test
+    public void testPercentileUpperBounds() {
+        GrpcCallLatencyHistogram histogram = new GrpcCallLatencyHistogram();
+        assertEquals(0, histogram.getPercentileUpperBound(50));
+
+        for (int i = 0; i < 90; i++) {
+            histogram.record(3);
+        }
+        for (int i = 0; i < 9; i++) {
+            histogram.record(40);
+        }
+        histogram.record(20000);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(5, histogram.getPercentileUpperBound(50));
+        assertEquals(5, histogram.getPercentileUpperBound(90));
+        assertEquals(50, histogram.getPercentileUpperBound(99));
+        // The overflow bucket reports the max duration.
+        assertEquals(20000, histogram.getPercentileUpperBound(100));
+        assertEquals(20000, histogram.getMaxDuration());
+        assertEquals((90 * 3 + 9 * 40 + 20000) / 100, histogram.getMeanDuration());
+    }
+
+    @Test
+    public void whenUnaryCallIsClosed_thenLatencyIsRecorded() {
+        CallRateMeteringInterceptor interceptor = CallRateMeteringInterceptor.valueOf(new HashMap<>());
+        MethodDescriptor<?, ?> method = GetVersionGrpc.getGetVersionMethod();
+        closeCall(interceptor, method);
+        closeCall(interceptor, method);
+
+        GrpcCallLatencyHistogram histogram = interceptor.getLatencyHistograms().get(method.getFullMethodName());
+        assertEquals(2, histogram.getCount());
+    }
+
+    @Test
+    public void whenStreamingCallIsClosed_thenLatencyIsNotRecorded() {
+        CallRateMeteringInterceptor interceptor = CallRateMeteringInterceptor.valueOf(new HashMap<>());
+        MethodDescriptor<?, ?> method = WalletsGrpc.getSubscribeBalancesMethod();
+        closeCall(interceptor, method);
+
+        assertFalse(interceptor.getLatencyHistograms().containsKey(method.getFullMethodName()));
+        assertTrue(interceptor.getLatencyHistograms().isEmpty());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void closeCall(CallRateMeteringInterceptor interceptor, MethodDescriptor<?, ?> method) {
+        ServerCall<Object, Object> call = mock(ServerCall.class);
+        when(call.getMethodDescriptor()).thenReturn((MethodDescriptor<Object, Object>) method);
+        AtomicReference<ServerCall<Object, Object>> startedCall = new AtomicReference<>();
+        ServerCallHandler<Object, Object> handler = (c, headers) -> {
+            startedCall.set(c);
+            return new ServerCall.Listener<>() {
+            };
+        };
+        interceptor.interceptCall(call, new Metadata(), handler);
+        startedCall.get().close(Status.OK, new Metadata());
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.grpc.interceptor;
+
+import bisq.proto.grpc.GetVersionGrpc;
+import bisq.proto.grpc.WalletsGrpc;
+
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MaxConcurrentCallsInterceptorTest {
+
+    private final List<ServerCall.Listener<Object>> startedListeners = new ArrayList<>();
+    private final ServerCallHandler<Object, Object> handler = (call, headers) -> {
+        @SuppressWarnings("unchecked")
+        ServerCall.Listener<Object> listener = mock(ServerCall.Listener.class);
+        startedListeners.add(listener);
+        return listener;
+    };
+
+    @Test
+    public void whenLimitIsReached_thenCallIsClosedWithResourceExhausted() {
+        MaxConcurrentCallsInterceptor interceptor = new MaxConcurrentCallsInterceptor(2);
+        interceptor.interceptCall(newCall(GetVersionGrpc.getGetVersionMethod()), new Metadata(), handler);
+        interceptor.interceptCall(newCall(GetVersionGrpc.getGetVersionMethod()), new Metadata(), handler);
+        assertEquals(0, interceptor.getAvailablePermits());
+
+        ServerCall<Object, Object> rejectedCall = newCall(GetVersionGrpc.getGetVersionMethod());
+        interceptor.interceptCall(rejectedCall, new Metadata(), handler);
+
+        ArgumentCaptor<Status> status = ArgumentCaptor.forClass(Status.class);
+        verify(rejectedCall).close(status.capture(), any(Metadata.class));
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, status.getValue().getCode());
+        // The rejected call is not passed to the service.
+        assertEquals(2, startedListeners.size());
+    }
+
+    @Test
+    public void whenCallCompletes_thenPermitIsReleasedOnce() {
+        MaxConcurrentCallsInterceptor interceptor = new MaxConcurrentCallsInterceptor(2);
+        ServerCall.Listener<Object> first = interceptor.interceptCall(newCall(GetVersionGrpc.getGetVersionMethod()),
+                new Metadata(), handler);
+        ServerCall.Listener<Object> second = interceptor.interceptCall(newCall(GetVersionGrpc.getGetVersionMethod()),
+                new Metadata(), handler);
+        assertEquals(0, interceptor.getAvailablePermits());
+
+        first.onComplete();
+        assertEquals(1, interceptor.getAvailablePermits());
+        // A cancel after the completion must not release the permit again.
+        first.onCancel();
+        assertEquals(1, interceptor.getAvailablePermits());
+
+        second.onCancel();
+        assertEquals(2, interceptor.getAvailablePermits());
+
+        // The callbacks are forwarded to the service listeners.
+        verify(startedListeners.get(0)).onComplete();
+        verify(startedListeners.get(1)).onCancel();
+    }
+
+    @Test
+    public void whenCallIsStreaming_thenNoPermitIsTaken() {
+        MaxConcurrentCallsInterceptor interceptor = new MaxConcurrentCallsInterceptor(1);
+        ServerCall<Object, Object> streamingCall = newCall(WalletsGrpc.getSubscribeBalancesMethod());
+        ServerCall.Listener<Object> listener = interceptor.interceptCall(streamingCall, new Metadata(), handler);
+
+        assertSame(startedListeners.get(0), listener);
+        assertEquals(1, interceptor.getAvailablePermits());
+
+        ServerCall.Listener<Object> unaryListener = interceptor.interceptCall(
+                newCall(GetVersionGrpc.getGetVersionMethod()), new Metadata(), handler);
+        assertNotSame(startedListeners.get(1), unaryListener);
+        verify(streamingCall, never()).close(any(Status.class), any(Metadata.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ServerCall<Object, Object> newCall(MethodDescriptor<?, ?> methodDescriptor) {
+        ServerCall<Object, Object> call = mock(ServerCall.class);
+        when(call.getMethodDescriptor()).thenReturn((MethodDescriptor<Object, Object>) methodDescriptor);
+        return call;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.grpc.interceptor;
+
+import bisq.common.UserThread;
+
+import bisq.proto.grpc.GetVersionGrpc;
+import bisq.proto.grpc.OffersGrpc;
+import bisq.proto.grpc.TradesGrpc;
+import bisq.proto.grpc.WalletsGrpc;
+
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class UserThreadHandoffInterceptorTest {
+
+    private final List<Runnable> userThreadTasks = new ArrayList<>();
+    private Executor userThreadExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        userThreadExecutor = UserThread.getExecutor();
+        UserThread.setExecutor(userThreadTasks::add);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        UserThread.setExecutor(userThreadExecutor);
+    }
+
+    @Test
+    public void testReadOnlyMethodsAreExecutedOnWorkerThreads() {
+        assertTrue(UserThreadHandoffInterceptor.WORKER_THREAD_METHODS.containsAll(List.of(
+                GetVersionGrpc.getGetVersionMethod().getFullMethodName(),
+                OffersGrpc.getGetOffersMethod().getFullMethodName(),
+                TradesGrpc.getGetTradesMethod().getFullMethodName(),
+                WalletsGrpc.getGetBalancesMethod().getFullMethodName(),
+                WalletsGrpc.getGetTransactionsMethod().getFullMethodName())));
+
+        ServerCall.Listener<Object> serviceListener = newListener();
+        ServerCall.Listener<Object> listener = new UserThreadHandoffInterceptor().interceptCall(
+                newCall(OffersGrpc.getGetOffersMethod()), new Metadata(), (call, headers) -> serviceListener);
+
+        assertSame(serviceListener, listener);
+    }
+
+    @Test
+    public void testOtherMethodsAreExecutedOnUserThread() {
+        ServerCall.Listener<Object> serviceListener = newListener();
+        ServerCall.Listener<Object> listener = new UserThreadHandoffInterceptor().interceptCall(
+                newCall(OffersGrpc.getCreateOfferMethod()), new Metadata(), (call, headers) -> serviceListener);
+        assertNotSame(serviceListener, listener);
+
+        Object request = new Object();
+        listener.onMessage(request);
+        listener.onHalfClose();
+        listener.onComplete();
+        verifyNoInteractions(serviceListener);
+
+        assertEquals(3, userThreadTasks.size());
+        userThreadTasks.forEach(Runnable::run);
+        verify(serviceListener).onMessage(request);
+        verify(serviceListener).onHalfClose();
+        verify(serviceListener).onComplete();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ServerCall.Listener<Object> newListener() {
+        return mock(ServerCall.Listener.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ServerCall<Object, Object> newCall(MethodDescriptor<?, ?> methodDescriptor) {
+        ServerCall<Object, Object> call = mock(ServerCall.class);
+        when(call.getMethodDescriptor()).thenReturn((MethodDescriptor<Object, Object>) methodDescriptor);
+        return call;
+    }
+}
@@ -209,7 +209,7 @@ class TradesChartsViewModel extends ActivatableViewModel {
 
     private void applyAsyncUsdAveragePriceMapsPerTickUnit(CompletableFuture<Boolean> completeFuture) {
         long ts = System.currentTimeMillis();
-        ChartCalculations.getUsdAveragePriceMapsPerTickUnit(tradeStatisticsManager.getNavigableTradeStatisticsSet())
+        ChartCalculations.getUsdAveragePriceMapsPerTickUnit(tradeStatisticsManager.getNavigableTradeStatisticsSet("USD"))
                 .whenComplete((usdAveragePriceMapsPerTickUnit, throwable) -> {
                     if (deactivateCalled) {
                         return;
@@ -236,9 +236,13 @@ class TradesChartsViewModel extends ActivatableViewModel {
                                                                             @Nullable CompletableFuture<Boolean> completeFuture) {
         CompletableFuture<Boolean> future = new CompletableFuture<>();
         long ts = System.currentTimeMillis();
-        ChartCalculations.getTradeStatisticsForCurrency(tradeStatisticsManager.getObservableTradeStatisticsSet(),
+        boolean showAllTradeCurrencies = showAllTradeCurrenciesProperty.get();
+        Set<TradeStatistics3> tradeStatisticsSet = showAllTradeCurrencies ?
+                tradeStatisticsManager.getObservableTradeStatisticsSet() :
+                tradeStatisticsManager.getNavigableTradeStatisticsSet(currencyCode);
+        ChartCalculations.getTradeStatisticsForCurrency(tradeStatisticsSet,
                         currencyCode,
-                        showAllTradeCurrenciesProperty.get())
+                        showAllTradeCurrencies)
                 .whenComplete((list, throwable) -> {
                     if (deactivateCalled) {
                         return;
@@ -87,7 +87,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import lombok.Getter;
 
@@ -365,12 +364,9 @@ public abstract class MutableOfferDataModel extends OfferDataModel implements Bs
             // Get average historic prices over for the prior trade period equaling the lock time
             var blocksRange = Restrictions.getLockTime(paymentAccount.getPaymentMethod().isBlockchain());
             var startDate = new Date(System.currentTimeMillis() - blocksRange * 10L * 60000);
-            var sortedRangeData = RangeUtils.subSet(tradeStatisticsManager.getNavigableTradeStatisticsSet())
+            var sortedFilteredRangeData = RangeUtils.subSet(tradeStatisticsManager.getNavigableTradeStatisticsSet(getTradeCurrency().getCode()))
                     .withKey(TradeStatistics3::getDate)
                     .overRange(Range.atLeast(startDate));
-            var sortedFilteredRangeData = sortedRangeData.stream()
-                    .filter(e -> e.getCurrency().equals(getTradeCurrency().getCode()))
-                    .collect(Collectors.toList());
             var movingAverage = new MathUtils.MovingAverage(10, 0.2);
             double[] extremes = {Double.MAX_VALUE, Double.MIN_VALUE};
             sortedFilteredRangeData.forEach(e -> {
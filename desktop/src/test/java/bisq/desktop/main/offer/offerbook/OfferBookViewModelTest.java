@@ -99,6 +99,7 @@ public class OfferBookViewModelTest {
         PriceFeedService priceFeedService = mock(PriceFeedService.class);
         TradeStatisticsManager tradeStatisticsManager = mock(TradeStatisticsManager.class);
         when(tradeStatisticsManager.getNavigableTradeStatisticsSet()).thenReturn(Collections.emptyNavigableSet());
+        when(tradeStatisticsManager.getNavigableTradeStatisticsSet(anyString())).thenReturn(Collections.emptyNavigableSet());
         return new PriceUtil(priceFeedService, tradeStatisticsManager, empty);
     }
 
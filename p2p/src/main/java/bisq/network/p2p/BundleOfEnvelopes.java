@@ -27,54 +27,123 @@ import bisq.common.proto.ProtobufferException;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkProtoResolver;
 
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.io.ByteArrayOutputStream;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
+
+import javax.annotation.Nullable;
 
 @EqualsAndHashCode(callSuper = true)
 @Value
 public final class BundleOfEnvelopes extends BroadcastMessage implements ExtendedDataSizePermission, CapabilityRequiringPayload {
+    // Smaller bundles are not worth the compression
+    private static final int MIN_SIZE_FOR_COMPRESSION = 1024;
+    // Same as the max. permitted size of a ExtendedDataSizePermission message
+    private static final int MAX_UNCOMPRESSED_SIZE = 10 * 1024 * 1024;
+    private static final int INITIAL_INFLATE_BUFFER_SIZE = 8192;
 
     private final List<NetworkEnvelope> envelopes;
+    // If set the envelopes are sent deflated. Must only be set if the peer has Capability.COMPRESSED_BUNDLE.
+    @EqualsAndHashCode.Exclude
+    private final boolean compressed;
+    // The proto gets built for the size check and for sending, so we keep it to not compress twice. It is reset if
+    // an envelope gets added.
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @NonFinal
+    @Nullable
+    private transient volatile protobuf.NetworkEnvelope protoNetworkEnvelope;
 
     public BundleOfEnvelopes() {
-        this(new ArrayList<>(), Version.getP2PMessageVersion());
+        this(new ArrayList<>(), false, Version.getP2PMessageVersion());
     }
 
     public BundleOfEnvelopes(List<NetworkEnvelope> envelopes) {
-        this(envelopes, Version.getP2PMessageVersion());
+        this(envelopes, false, Version.getP2PMessageVersion());
+    }
+
+    public BundleOfEnvelopes(List<NetworkEnvelope> envelopes, boolean compressed) {
+        this(envelopes, compressed, Version.getP2PMessageVersion());
     }
 
     public void add(NetworkEnvelope networkEnvelope) {
         envelopes.add(networkEnvelope);
+        protoNetworkEnvelope = null;
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private BundleOfEnvelopes(List<NetworkEnvelope> envelopes, int messageVersion) {
+    private BundleOfEnvelopes(List<NetworkEnvelope> envelopes, boolean compressed, int messageVersion) {
         super(messageVersion);
         this.envelopes = envelopes;
+        this.compressed = compressed;
     }
 
 
     @Override
     public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
-        return getNetworkEnvelopeBuilder()
-                .setBundleOfEnvelopes(protobuf.BundleOfEnvelopes.newBuilder().addAllEnvelopes(envelopes.stream()
+        protobuf.NetworkEnvelope proto = protoNetworkEnvelope;
+        if (proto == null) {
+            proto = buildProtoNetworkEnvelope();
+            protoNetworkEnvelope = proto;
+        }
+        return proto;
+    }
+
+    private protobuf.NetworkEnvelope buildProtoNetworkEnvelope() {
+        protobuf.BundleOfEnvelopes bundleOfEnvelopes = protobuf.BundleOfEnvelopes.newBuilder()
+                .addAllEnvelopes(envelopes.stream()
                         .map(NetworkEnvelope::toProtoNetworkEnvelope)
-                        .collect(Collectors.toList())))
+                        .collect(Collectors.toList()))
+                .build();
+        if (compressed && bundleOfEnvelopes.getSerializedSize() >= MIN_SIZE_FOR_COMPRESSION) {
+            byte[] deflated = deflate(bundleOfEnvelopes.toByteArray());
+            if (deflated.length < bundleOfEnvelopes.getSerializedSize()) {
+                bundleOfEnvelopes = protobuf.BundleOfEnvelopes.newBuilder()
+                        .setCompressedEnvelopes(ByteString.copyFrom(deflated))
+                        .build();
+            }
+        }
+        return getNetworkEnvelopeBuilder()
+                .setBundleOfEnvelopes(bundleOfEnvelopes)
                 .build();
     }
 
     public static BundleOfEnvelopes fromProto(protobuf.BundleOfEnvelopes proto,
                                               NetworkProtoResolver resolver,
-                                              int messageVersion) {
+                                              int messageVersion) throws ProtobufferException {
+        boolean compressed = !proto.getCompressedEnvelopes().isEmpty();
+        if (compressed) {
+            try {
+                proto = protobuf.BundleOfEnvelopes.parseFrom(inflate(proto.getCompressedEnvelopes().toByteArray()));
+            } catch (InvalidProtocolBufferException | DataFormatException e) {
+                throw new ProtobufferException("Invalid compressed BundleOfEnvelopes", e);
+            }
+            if (!proto.getCompressedEnvelopes().isEmpty()) {
+                throw new ProtobufferException("Nested compressed BundleOfEnvelopes");
+            }
+        }
+
         List<NetworkEnvelope> envelopes = proto.getEnvelopesList()
                 .stream()
                 .map(envelope -> {
@@ -87,7 +156,51 @@ public final class BundleOfEnvelopes extends BroadcastMessage implements Extende
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
 
-        return new BundleOfEnvelopes(envelopes, messageVersion);
+        return new BundleOfEnvelopes(envelopes, compressed, messageVersion);
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length / 2);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                outputStream.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return outputStream.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes) throws DataFormatException, ProtobufferException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+            // We start with the expected size and grow with the inflated data, but never beyond MAX_UNCOMPRESSED_SIZE,
+            // which protects against small messages which inflate to a huge size.
+            byte[] buffer = new byte[(int) Math.min(MAX_UNCOMPRESSED_SIZE,
+                    Math.max(INITIAL_INFLATE_BUFFER_SIZE, 4L * bytes.length))];
+            int size = 0;
+            while (!inflater.finished()) {
+                if (size == buffer.length) {
+                    if (size == MAX_UNCOMPRESSED_SIZE) {
+                        throw new ProtobufferException("Uncompressed BundleOfEnvelopes exceeds " + MAX_UNCOMPRESSED_SIZE + " bytes");
+                    }
+                    buffer = Arrays.copyOf(buffer, (int) Math.min(MAX_UNCOMPRESSED_SIZE, 2L * size));
+                }
+                int length = inflater.inflate(buffer, size, buffer.length - size);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated compressed data");
+                }
+                size += length;
+            }
+            return size == buffer.length ? buffer : Arrays.copyOf(buffer, size);
+        } finally {
+            inflater.end();
+        }
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
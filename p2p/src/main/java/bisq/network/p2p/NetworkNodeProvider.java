@@ -55,9 +55,10 @@ public class NetworkNodeProvider implements Provider<NetworkNode> {
                                @Named(Config.TOR_CONTROL_PASSWORD) String password,
                                @Nullable @Named(Config.TOR_CONTROL_COOKIE_FILE) File cookieFile,
                                @Named(Config.TOR_STREAM_ISOLATION) boolean streamIsolation,
-                               @Named(Config.TOR_CONTROL_USE_SAFE_COOKIE_AUTH) boolean useSafeCookieAuthentication) {
+                               @Named(Config.TOR_CONTROL_USE_SAFE_COOKIE_AUTH) boolean useSafeCookieAuthentication,
+                               @Named(Config.USE_NIO_TRANSPORT) boolean useNioTransport) {
         if (useLocalhostForP2P) {
-            networkNode = new LocalhostNetworkNode(port, networkProtoResolver, banFilter, maxConnections);
+            networkNode = new LocalhostNetworkNode(port, networkProtoResolver, banFilter, maxConnections, useNioTransport);
         } else {
             TorMode torMode = getTorMode(bridgeAddressProvider,
                     torDir,
@@ -67,7 +68,7 @@ public class NetworkNodeProvider implements Provider<NetworkNode> {
                     password,
                     cookieFile,
                     useSafeCookieAuthentication);
-            networkNode = new TorNetworkNode(port, networkProtoResolver, streamIsolation, torMode, banFilter, maxConnections);
+            networkNode = new TorNetworkNode(port, networkProtoResolver, streamIsolation, torMode, banFilter, maxConnections, useNioTransport);
         }
     }
 
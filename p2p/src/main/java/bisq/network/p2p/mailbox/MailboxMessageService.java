@@ -43,6 +43,7 @@ import bisq.common.crypto.CryptoException;
 import bisq.common.crypto.KeyRing;
 import bisq.common.crypto.PubKeyRing;
 import bisq.common.crypto.SealedAndSigned;
+import bisq.common.crypto.Sig;
 import bisq.common.persistence.PersistenceManager;
 import bisq.common.proto.ProtobufferException;
 import bisq.common.proto.network.NetworkEnvelope;
@@ -68,6 +69,7 @@ import java.time.Clock;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Date;
@@ -124,6 +126,9 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
     private final KeyRing keyRing;
     private final Clock clock;
     private final boolean republishMailboxEntries;
+    // Lazily set. Accessed by the batch processing thread.
+    @Nullable
+    private volatile byte[] mySignaturePubKeyBytes;
 
     private final Set<DecryptedMailboxListener> decryptedMailboxListeners = new CopyOnWriteArraySet<>();
     private final MailboxMessageList mailboxMessageList = new MailboxMessageList();
@@ -428,7 +433,7 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
     }
 
     // We run the batch processing of all mailbox messages we have received at startup in a thread to not block the UI.
-    // For about 1000 messages decryption takes about 1 sec.
+    // For about 1000 messages decryption takes about 1 sec, but we only try to decrypt the messages addressed to us.
     private void threadedBatchProcessMailboxEntries(Collection<ProtectedMailboxStorageEntry> protectedMailboxStorageEntries) {
         long ts = System.currentTimeMillis();
         SettableFuture<Set<MailboxItem>> future = SettableFuture.create();
@@ -475,6 +480,11 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
             // We had persisted a past failed decryption attempt on that message so we don't try again and return early
             return new MailboxItem(protectedMailboxStorageEntry, null);
         }
+        if (!isAddressedToUs(protectedMailboxStorageEntry)) {
+            // The entry carries the receivers signature pubKey (validated at the add operation as it is required for
+            // removal), so we can skip the decryption of messages to other receivers.
+            return new MailboxItem(protectedMailboxStorageEntry, null);
+        }
         try {
             DecryptedMessageWithPubKey decryptedMessageWithPubKey = encryptionService.decryptAndVerify(sealedAndSigned);
             checkArgument(decryptedMessageWithPubKey.getNetworkEnvelope() instanceof MailboxMessage);
@@ -490,6 +500,13 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         return new MailboxItem(protectedMailboxStorageEntry, null);
     }
 
+    private boolean isAddressedToUs(ProtectedMailboxStorageEntry protectedMailboxStorageEntry) {
+        if (mySignaturePubKeyBytes == null) {
+            mySignaturePubKeyBytes = Sig.getPublicKeyBytes(keyRing.getSignatureKeyPair().getPublic());
+        }
+        return Arrays.equals(protectedMailboxStorageEntry.getReceiversPubKeyBytes(), mySignaturePubKeyBytes);
+    }
+
     private void handleMailboxItem(MailboxItem mailboxItem) {
         String uid = mailboxItem.getUid();
         if (!mailboxItemsByUid.containsKey(uid)) {
@@ -0,0 +1,96 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import java.net.SocketTimeoutException;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Blocking OutputStream on top of a non-blocking SocketChannel of the NIO transport. The input of the channel is
+ * handled by a ConnectionEventLoop, the writes stay on the sending thread (ProtoOutputStream serializes them). If the
+ * socket's send buffer is full, the sending thread waits on an own selector until the channel is writable again.
+ */
+@NotThreadSafe
+class ChannelOutputStream extends OutputStream {
+    // We check in that interval if the channel got closed while we are waiting.
+    private static final long WRITABLE_CHECK_INTERVAL_MS = 1000;
+
+    private final SocketChannel channel;
+    private final long writeTimeoutMs;
+    // Created at the first time the send buffer was full.
+    private Selector writeSelector;
+
+    ChannelOutputStream(SocketChannel channel, long writeTimeoutMs) {
+        this.channel = channel;
+        this.writeTimeoutMs = writeTimeoutMs;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+        while (buffer.hasRemaining()) {
+            if (channel.write(buffer) == 0) {
+                awaitWritable();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (writeSelector != null) {
+                writeSelector.close();
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void awaitWritable() throws IOException {
+        if (writeSelector == null) {
+            writeSelector = Selector.open();
+            channel.register(writeSelector, SelectionKey.OP_WRITE);
+        }
+
+        long deadline = System.currentTimeMillis() + writeTimeoutMs;
+        while (writeSelector.select(WRITABLE_CHECK_INTERVAL_MS) == 0) {
+            if (!channel.isOpen()) {
+                throw new ClosedChannelException();
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new SocketTimeoutException("Channel was not writable for " + writeTimeoutMs + " ms");
+            }
+        }
+        writeSelector.selectedKeys().clear();
+    }
+}
@@ -56,14 +56,14 @@ import java.net.Socket;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
 
+import java.nio.channels.SocketChannel;
+
 import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InvalidClassException;
 import java.io.OptionalDataException;
 import java.io.StreamCorruptedException;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -152,9 +152,12 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
 
     @Getter
     private final ObjectProperty<NodeAddress> peersNodeAddressProperty = new SimpleObjectProperty<>();
-    private final List<Long> messageTimeStamps = new ArrayList<>();
+    private final MessageRateLimiter inboundRateLimiter = new MessageRateLimiter(getMsgThrottlePer10Sec() / 10d,
+            getMsgThrottlePerSec(), getMsgThrottleLimitsByClass());
     private final CopyOnWriteArraySet<MessageListener> messageListeners = new CopyOnWriteArraySet<>();
-    private volatile long lastSendTimeStamp = 0;
+    // We may send ahead of the pace of one message per sendMsgThrottleTrigger ms by up to sendMsgThrottleSleep ms.
+    private final TokenBucket outboundThrottle = new TokenBucket(1000d / getSendMsgThrottleTrigger(),
+            1 + getSendMsgThrottleSleep() / getSendMsgThrottleTrigger());
     // We use a weak reference here to ensure that no connection causes a memory leak in case it get closed without
     // the shutDown being called.
     private final CopyOnWriteArraySet<WeakReference<SupportedCapabilitiesListener>> capabilitiesListeners = new CopyOnWriteArraySet<>();
@@ -201,10 +204,22 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             // When you construct an ObjectInputStream, in the constructor the class attempts to read a header that
             // the associated ObjectOutputStream on the other end of the connection has written.
             // It will not return until that header has been read.
-            protoOutputStream = new ProtoOutputStream(socket.getOutputStream(), statistic);
-            protoInputStream = socket.getInputStream();
-            // We create a thread for handling inputStream data
-            executorService.submit(this);
+            SocketChannel socketChannel = socket.getChannel();
+            if (socketChannel != null) {
+                // Sockets of the NIO transport are read by a shared ConnectionEventLoop instead of an own thread.
+                socketChannel.configureBlocking(false);
+                protoOutputStream = new ProtoOutputStream(new ChannelOutputStream(socketChannel, SOCKET_TIMEOUT), statistic);
+                ConnectionEventLoop.next().register(socketChannel,
+                        MAX_PERMITTED_MESSAGE_SIZE,
+                        SOCKET_TIMEOUT,
+                        this::readAndHandleEnvelope,
+                        this::handleException);
+            } else {
+                protoOutputStream = new ProtoOutputStream(socket.getOutputStream(), statistic);
+                protoInputStream = new ProtoInputStream(socket.getInputStream(), MAX_PERMITTED_MESSAGE_SIZE);
+                // We create a thread for handling inputStream data
+                executorService.submit(this);
+            }
 
             if (peersNodeAddress != null) {
                 setPeersNodeAddress(peersNodeAddress);
@@ -251,20 +266,14 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         }
         int networkEnvelopeSize = networkEnvelope.toProtoNetworkEnvelope().getSerializedSize();
         try {
-            // Throttle outbound network_messages
-            long now = System.currentTimeMillis();
-            long elapsed = now - lastSendTimeStamp;
-            if (elapsed < getSendMsgThrottleTrigger()) {
-                log.debug("We got 2 sendMessage requests in less than {} ms. We set the thread to sleep " +
-                                "for {} ms to avoid flooding our peer. lastSendTimeStamp={}, now={}, elapsed={}, networkEnvelope={}",
-                        getSendMsgThrottleTrigger(), getSendMsgThrottleSleep(), lastSendTimeStamp, now, elapsed,
-                        networkEnvelope.getClass().getSimpleName());
-
-                Thread.sleep(getSendMsgThrottleSleep());
+            // Throttle outbound network_messages. We only wait as long as needed to get back to the permitted pace.
+            long waitNanos = outboundThrottle.reserve();
+            if (waitNanos > 0) {
+                log.debug("We send messages faster than permitted. We wait {} ms to avoid flooding our peer. networkEnvelope={}",
+                        TimeUnit.NANOSECONDS.toMillis(waitNanos), networkEnvelope.getClass().getSimpleName());
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
             }
 
-            lastSendTimeStamp = now;
-
             if (!stopped) {
                 protoOutputStream.writeEnvelope(networkEnvelope);
                 UserThread.execute(() -> messageListeners.forEach(e -> e.onMessageSent(networkEnvelope, this)));
@@ -340,19 +349,6 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         capabilitiesListeners.add(new WeakReference<>(listener));
     }
 
-    private boolean violatesThrottleLimit() {
-        long now = System.currentTimeMillis();
-
-        messageTimeStamps.add(now);
-
-        // clean list
-        while (messageTimeStamps.size() > getMsgThrottlePer10Sec())
-            messageTimeStamps.remove(0);
-
-        return violatesThrottleLimit(now, 1, getMsgThrottlePerSec()) ||
-                violatesThrottleLimit(now, 10, getMsgThrottlePer10Sec());
-    }
-
     private int getMsgThrottlePerSec() {
         return config != null ? config.msgThrottlePerSec : 200;
     }
@@ -361,29 +357,16 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         return config != null ? config.msgThrottlePer10Sec : 1000;
     }
 
+    private List<String> getMsgThrottleLimitsByClass() {
+        return config != null ? config.msgThrottleLimitsByClass : List.of();
+    }
+
     private int getSendMsgThrottleSleep() {
         return config != null ? config.sendMsgThrottleSleep : 50;
     }
 
     private int getSendMsgThrottleTrigger() {
-        return config != null ? config.sendMsgThrottleTrigger : 20;
-    }
-
-    private boolean violatesThrottleLimit(long now, int seconds, int messageCountLimit) {
-        if (messageTimeStamps.size() >= messageCountLimit) {
-
-            // find the entry in the message timestamp history which determines whether we overshot the limit or not
-            long compareValue = messageTimeStamps.get(messageTimeStamps.size() - messageCountLimit);
-
-            // if duration < seconds sec we received too much network_messages
-            if (now - compareValue < TimeUnit.SECONDS.toMillis(seconds)) {
-                log.error("violatesThrottleLimit {}/{} second(s)", messageCountLimit, seconds);
-
-                return true;
-            }
-        }
-
-        return false;
+        return config != null ? Math.max(1, config.sendMsgThrottleTrigger) : 20;
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -533,7 +516,9 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             capabilitiesListeners.clear();
 
             try {
-                protoInputStream.close();
+                if (protoInputStream != null) {
+                    protoInputStream.close();
+                }
             } catch (IOException e) {
                 log.error(e.getMessage());
                 e.printStackTrace();
@@ -634,6 +619,13 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         }
     }
 
+    // Closes the connection regardless of the tolerance of the ruleViolation.
+    private void closeAtRuleViolation(RuleViolation ruleViolation) {
+        ruleViolations.merge(ruleViolation, 1, Integer::sum);
+        this.ruleViolation = ruleViolation;
+        shutDown(CloseConnectionReason.RULE_VIOLATION);
+    }
+
     private void handleException(Throwable e) {
         CloseConnectionReason closeConnectionReason;
 
@@ -701,10 +693,12 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     // Runs in same thread as Connection, receives a message, performs several checks on it
     // (including throttling limits, validity and statistics)
     // and delivers it to the message listener given in the constructor.
-    private InputStream protoInputStream;
+    // With the NIO transport the workers of the ConnectionEventLoop call readAndHandleEnvelope (one frame at a time)
+    // and protoInputStream is not used.
+    @Nullable
+    private ProtoInputStream protoInputStream;
     private final NetworkProtoResolver networkProtoResolver;
 
-    private long lastReadTimeStamp;
     private boolean threadNameSet;
 
     @Override
@@ -716,157 +710,159 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                     Thread.currentThread().setName("InputHandler-" + Utilities.toTruncatedString(getPeersNodeAddressOptional().get().getFullAddress(), 15));
                     threadNameSet = true;
                 }
-                try {
-                    if (socket != null &&
-                            socket.isClosed()) {
-                        log.warn("Socket is null or closed socket={}", socket);
-                        shutDown(CloseConnectionReason.SOCKET_CLOSED);
-                        return;
-                    }
+                if (!readAndHandleEnvelope(checkNotNull(protoInputStream)::readEnvelope)) {
+                    return;
+                }
+            }
+        } catch (Throwable t) {
+            handleException(t);
+        }
+    }
 
-                    // Blocking read from the inputStream
-                    protobuf.NetworkEnvelope proto = protobuf.NetworkEnvelope.parseDelimitedFrom(protoInputStream);
+    // Returns false if we must not read any further input from that connection.
+    private boolean readAndHandleEnvelope(EnvelopeSource envelopeSource) {
+        try {
+            if (socket != null &&
+                    socket.isClosed()) {
+                log.warn("Socket is null or closed socket={}", socket);
+                shutDown(CloseConnectionReason.SOCKET_CLOSED);
+                return false;
+            }
 
-                    long ts = System.currentTimeMillis();
+            // Blocking read from the inputStream (or the frame received by the ConnectionEventLoop). Messages
+            // exceeding MAX_PERMITTED_MESSAGE_SIZE are already rejected by their length prefix, the type
+            // specific limits are checked after parsing.
+            protobuf.NetworkEnvelope proto = envelopeSource.read();
 
-                    if (socket != null &&
-                            socket.isClosed()) {
-                        log.warn("Socket is null or closed socket={}", socket);
-                        shutDown(CloseConnectionReason.SOCKET_CLOSED);
-                        return;
-                    }
+            long ts = System.currentTimeMillis();
 
-                    if (proto == null) {
-                        if (stopped) {
-                            return;
-                        }
-                        if (protoInputStream.read() == -1) {
-                            log.warn("proto is null because protoInputStream.read()=-1 (EOF). That is expected if client got stopped without proper shutdown.");
-                        } else {
-                            log.warn("proto is null. protoInputStream.read()=" + protoInputStream.read());
-                        }
-                        shutDown(CloseConnectionReason.NO_PROTO_BUFFER_ENV);
-                        return;
-                    }
+            if (socket != null &&
+                    socket.isClosed()) {
+                log.warn("Socket is null or closed socket={}", socket);
+                shutDown(CloseConnectionReason.SOCKET_CLOSED);
+                return false;
+            }
 
-                    if (banFilter != null &&
-                            peersNodeAddressOptional.isPresent() &&
-                            banFilter.isPeerBanned(peersNodeAddressOptional.get())) {
+            if (proto == null) {
+                if (stopped) {
+                    return false;
+                }
+                log.warn("proto is null because of EOF. That is expected if client got stopped without proper shutdown.");
+                shutDown(CloseConnectionReason.NO_PROTO_BUFFER_ENV);
+                return false;
+            }
 
-                        log.warn("We got a message from a banned peer. proto={}", Utilities.toTruncatedString(proto));
-                        reportInvalidRequest(RuleViolation.PEER_BANNED);
-                        return;
-                    }
+            if (banFilter != null &&
+                    peersNodeAddressOptional.isPresent() &&
+                    banFilter.isPeerBanned(peersNodeAddressOptional.get())) {
 
-                    // Throttle inbound network_messages
-                    long now = System.currentTimeMillis();
-                    long elapsed = now - lastReadTimeStamp;
-                    if (elapsed < 10) {
-                        log.debug("We got 2 network_messages received in less than 10 ms. We set the thread to sleep " +
-                                        "for 20 ms to avoid getting flooded by our peer. lastReadTimeStamp={}, now={}, elapsed={}",
-                                lastReadTimeStamp, now, elapsed);
-                        Thread.sleep(20);
-                    }
+                log.warn("We got a message from a banned peer. proto={}", Utilities.toTruncatedString(proto));
+                reportInvalidRequest(RuleViolation.PEER_BANNED);
+                return false;
+            }
 
-                    NetworkEnvelope networkEnvelope = networkProtoResolver.fromProto(proto);
-                    lastReadTimeStamp = now;
-                    log.debug("<< Received networkEnvelope of type: {}", networkEnvelope.getClass().getSimpleName());
-                    int size = proto.getSerializedSize();
+            NetworkEnvelope networkEnvelope = networkProtoResolver.fromProto(proto);
+            log.debug("<< Received networkEnvelope of type: {}", networkEnvelope.getClass().getSimpleName());
+            int size = proto.getSerializedSize();
 
-                    // We want to track the size of each object even if it is invalid data
-                    statistic.addReceivedBytes(size);
+            // We want to track the size of each object even if it is invalid data
+            statistic.addReceivedBytes(size);
 
-                    // We want to track the network_messages also before the checks, so do it early...
-                    statistic.addReceivedMessage(networkEnvelope);
+            // We want to track the network_messages also before the checks, so do it early...
+            statistic.addReceivedMessage(networkEnvelope);
 
-                    // First we check the size
-                    boolean exceeds;
-                    if (networkEnvelope instanceof ExtendedDataSizePermission) {
-                        exceeds = size > MAX_PERMITTED_MESSAGE_SIZE;
-                    } else {
-                        exceeds = size > PERMITTED_MESSAGE_SIZE;
-                    }
+            // First we check the size
+            boolean exceeds;
+            if (networkEnvelope instanceof ExtendedDataSizePermission) {
+                exceeds = size > MAX_PERMITTED_MESSAGE_SIZE;
+            } else {
+                exceeds = size > PERMITTED_MESSAGE_SIZE;
+            }
 
-                    if (networkEnvelope instanceof AddPersistableNetworkPayloadMessage &&
-                            !((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().verifyHashSize()) {
-                        log.warn("PersistableNetworkPayload.verifyHashSize failed. hashSize={}; object={}",
-                                ((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().getHash().length,
-                                Utilities.toTruncatedString(proto));
-                        if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
-                            return;
-                    }
+            if (networkEnvelope instanceof AddPersistableNetworkPayloadMessage &&
+                    !((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().verifyHashSize()) {
+                log.warn("PersistableNetworkPayload.verifyHashSize failed. hashSize={}; object={}",
+                        ((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().getHash().length,
+                        Utilities.toTruncatedString(proto));
+                if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
+                    return false;
+            }
 
-                    if (exceeds) {
-                        log.warn("size > MAX_MSG_SIZE. size={}; object={}", size, Utilities.toTruncatedString(proto));
+            if (exceeds) {
+                log.warn("size > MAX_MSG_SIZE. size={}; object={}", size, Utilities.toTruncatedString(proto));
 
-                        if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
-                            return;
-                    }
+                if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
+                    return false;
+            }
 
-                    if (violatesThrottleLimit() && reportInvalidRequest(RuleViolation.THROTTLE_LIMIT_EXCEEDED))
-                        return;
-
-                    // Check P2P network ID
-                    if (proto.getMessageVersion() != Version.getP2PMessageVersion()
-                            && reportInvalidRequest(RuleViolation.WRONG_NETWORK_ID)) {
-                        log.warn("RuleViolation.WRONG_NETWORK_ID. version of message={}, app version={}, " +
-                                        "proto.toTruncatedString={}", proto.getMessageVersion(),
-                                Version.getP2PMessageVersion(),
-                                Utilities.toTruncatedString(proto.toString()));
-                        return;
-                    }
+            if (!inboundRateLimiter.tryAcquire(networkEnvelope) &&
+                    reportInvalidRequest(RuleViolation.THROTTLE_LIMIT_EXCEEDED))
+                return false;
+
+            // Check P2P network ID
+            if (proto.getMessageVersion() != Version.getP2PMessageVersion()
+                    && reportInvalidRequest(RuleViolation.WRONG_NETWORK_ID)) {
+                log.warn("RuleViolation.WRONG_NETWORK_ID. version of message={}, app version={}, " +
+                                "proto.toTruncatedString={}", proto.getMessageVersion(),
+                        Version.getP2PMessageVersion(),
+                        Utilities.toTruncatedString(proto.toString()));
+                return false;
+            }
 
-                    boolean causedShutDown = maybeHandleSupportedCapabilitiesMessage(networkEnvelope);
-                    if (causedShutDown) {
-                        return;
-                    }
+            boolean causedShutDown = maybeHandleSupportedCapabilitiesMessage(networkEnvelope);
+            if (causedShutDown) {
+                return false;
+            }
 
-                    if (networkEnvelope instanceof CloseConnectionMessage) {
-                        // If we get a CloseConnectionMessage we shut down
-                        log.debug("CloseConnectionMessage received. Reason={}\n\t" +
-                                "connection={}", proto.getCloseConnectionMessage().getReason(), this);
-
-                        if (CloseConnectionReason.PEER_BANNED.name().equals(proto.getCloseConnectionMessage().getReason())) {
-                            log.warn("We got shut down because we are banned by the other peer. " +
-                                    "(InputHandler.run CloseConnectionMessage). Peer: {}", getPeersNodeAddressOptional());
-                        }
-                        shutDown(CloseConnectionReason.CLOSE_REQUESTED_BY_PEER);
-                        return;
-                    } else if (!stopped) {
-                        // We don't want to get the activity ts updated by ping/pong msg
-                        if (!(networkEnvelope instanceof KeepAliveMessage))
-                            statistic.updateLastActivityTimestamp();
-
-                        // If SendersNodeAddressMessage we do some verifications and apply if successful,
-                        // otherwise we return false.
-                        if (networkEnvelope instanceof SendersNodeAddressMessage) {
-                            boolean isValid = processSendersNodeAddressMessage((SendersNodeAddressMessage) networkEnvelope);
-                            if (!isValid) {
-                                return;
-                            }
-                        }
-
-                        if (!(networkEnvelope instanceof SendersNodeAddressMessage) && peersNodeAddressOptional.isEmpty()) {
-                            log.info("We got a {} from a peer with yet unknown address on connection with uid={}", networkEnvelope.getClass().getSimpleName(), uid);
-                        }
-
-                        onMessage(networkEnvelope, this);
-                        UserThread.execute(() -> connectionStatistics.addReceivedMsgMetrics(System.currentTimeMillis() - ts, size));
+            if (networkEnvelope instanceof CloseConnectionMessage) {
+                // If we get a CloseConnectionMessage we shut down
+                log.debug("CloseConnectionMessage received. Reason={}\n\t" +
+                        "connection={}", proto.getCloseConnectionMessage().getReason(), this);
+
+                if (CloseConnectionReason.PEER_BANNED.name().equals(proto.getCloseConnectionMessage().getReason())) {
+                    log.warn("We got shut down because we are banned by the other peer. " +
+                            "(InputHandler.run CloseConnectionMessage). Peer: {}", getPeersNodeAddressOptional());
+                }
+                shutDown(CloseConnectionReason.CLOSE_REQUESTED_BY_PEER);
+                return false;
+            } else if (!stopped) {
+                // We don't want to get the activity ts updated by ping/pong msg
+                if (!(networkEnvelope instanceof KeepAliveMessage))
+                    statistic.updateLastActivityTimestamp();
+
+                // If SendersNodeAddressMessage we do some verifications and apply if successful,
+                // otherwise we return false.
+                if (networkEnvelope instanceof SendersNodeAddressMessage) {
+                    boolean isValid = processSendersNodeAddressMessage((SendersNodeAddressMessage) networkEnvelope);
+                    if (!isValid) {
+                        return false;
                     }
-                } catch (InvalidClassException e) {
-                    log.error(e.getMessage());
-                    e.printStackTrace();
-                    reportInvalidRequest(RuleViolation.INVALID_CLASS);
-                } catch (ProtobufferException | NoClassDefFoundError | InvalidProtocolBufferException e) {
-                    log.error(e.getMessage());
-                    reportInvalidRequest(RuleViolation.INVALID_DATA_TYPE);
-                } catch (Throwable t) {
-                    handleException(t);
                 }
+
+                if (!(networkEnvelope instanceof SendersNodeAddressMessage) && peersNodeAddressOptional.isEmpty()) {
+                    log.info("We got a {} from a peer with yet unknown address on connection with uid={}", networkEnvelope.getClass().getSimpleName(), uid);
+                }
+
+                onMessage(networkEnvelope, this);
+                UserThread.execute(() -> connectionStatistics.addReceivedMsgMetrics(System.currentTimeMillis() - ts, size));
             }
+            return true;
+        } catch (InvalidClassException e) {
+            log.error(e.getMessage());
+            e.printStackTrace();
+            reportInvalidRequest(RuleViolation.INVALID_CLASS);
+        } catch (ProtobufferException | NoClassDefFoundError | InvalidProtocolBufferException e) {
+            log.error(e.getMessage());
+            reportInvalidRequest(RuleViolation.INVALID_DATA_TYPE);
+        } catch (ProtoInputStream.MessageSizeExceededException e) {
+            // The oversized frame does not get drained, so we cannot read any further from that connection.
+            log.warn("size > MAX_MSG_SIZE. size={}. We close the connection.", e.getSize());
+            closeAtRuleViolation(RuleViolation.MAX_MSG_SIZE_EXCEEDED);
+            return false;
         } catch (Throwable t) {
             handleException(t);
         }
+        return true;
     }
 
     public boolean maybeHandleSupportedCapabilitiesMessage(NetworkEnvelope networkEnvelope) {
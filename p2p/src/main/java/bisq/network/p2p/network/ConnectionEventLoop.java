@@ -0,0 +1,376 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.common.util.Utilities;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+import java.net.SocketTimeoutException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Selector based event loop which reads the input of the connections of the NIO transport (see
+ * NetworkNode.useNioTransport). A small fixed number of event loops serves all connections, instead of one blocking
+ * input handler thread per connection.
+ *
+ * The received frames are decoded by a ProtoFrameDecoder per channel. The loop thread only does the I/O and the
+ * decoding. Parsing and the input handling of the Connection run on a shared worker pool, so a large or slow message
+ * does not stall the other connections of that loop. While the frames of a channel are handled we do not read from it.
+ * That keeps the frames of a connection in order, lets at most one worker task per connection exist and applies
+ * backpressure to a peer sending faster than we handle its messages. A worker task gets at most
+ * MAX_FRAMES_PER_HAND_OFF frames. The remaining bytes of the read are decoded after the worker has handled them, so a
+ * peer sending many tiny frames cannot make us hold more than that number of frames per connection.
+ * Like the SO_TIMEOUT of the blocking transport, a channel without any received bytes for the given timeout is reported
+ * to its errorHandler. The time its frames are handled does not count.
+ * The event loops are shared by all NIO network nodes of the process. They are created with the first connection and
+ * shut down when the last network node which retained them has released them.
+ */
+@Slf4j
+class ConnectionEventLoop {
+    private static final int NUM_EVENT_LOOPS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    private static final int NUM_WORKER_THREADS = 16;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final long TIMEOUT_CHECK_INTERVAL_MS = 1000;
+    // Max. number of frames handed off to a worker at once. Together with the READ_BUFFER_SIZE it bounds the memory the
+    // received but not yet handled frames of a connection can use.
+    private static final int MAX_FRAMES_PER_HAND_OFF = 64;
+
+    private static final AtomicInteger nextEventLoopIndex = new AtomicInteger();
+
+    // Lazily created with the first connection of the NIO transport.
+    private static class WorkerExecutorHolder {
+        // There is only one task per connection at a time, so the queue is bounded by the number of connections.
+        private static final Executor WORKER_EXECUTOR = Utilities.getListeningExecutorService("ConnectionEventLoopWorker",
+                NUM_WORKER_THREADS,
+                NUM_WORKER_THREADS,
+                60,
+                new LinkedBlockingQueue<>());
+    }
+
+    // Guarded by the class lock
+    @Nullable
+    private static ConnectionEventLoop[] eventLoops;
+    private static int numRetainers;
+
+    /**
+     * @return One of the shared event loops, assigned round-robin
+     */
+    static synchronized ConnectionEventLoop next() {
+        if (eventLoops == null) {
+            eventLoops = createEventLoops();
+        }
+        return eventLoops[Math.floorMod(nextEventLoopIndex.getAndIncrement(), eventLoops.length)];
+    }
+
+    /**
+     * Called by a network node using the NIO transport. The shared event loops are kept until it calls release.
+     */
+    static synchronized void retain() {
+        numRetainers++;
+    }
+
+    /**
+     * Shuts down the shared event loops if no other network node has retained them. A later connection creates new
+     * ones.
+     */
+    static synchronized void release() {
+        if (numRetainers == 0) {
+            log.warn("ConnectionEventLoop.release called without retain");
+            return;
+        }
+        numRetainers--;
+        if (numRetainers == 0 && eventLoops != null) {
+            for (ConnectionEventLoop eventLoop : eventLoops) {
+                eventLoop.shutDown();
+            }
+            eventLoops = null;
+        }
+    }
+
+    private static ConnectionEventLoop[] createEventLoops() {
+        ConnectionEventLoop[] newEventLoops = new ConnectionEventLoop[NUM_EVENT_LOOPS];
+        try {
+            for (int i = 0; i < NUM_EVENT_LOOPS; i++) {
+                newEventLoops[i] = new ConnectionEventLoop("ConnectionEventLoop-" + i,
+                        WorkerExecutorHolder.WORKER_EXECUTOR);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open selector for connection event loop", e);
+        }
+        return newEventLoops;
+    }
+
+    private static class ChannelHandler {
+        private final SocketChannel channel;
+        private final ProtoFrameDecoder decoder;
+        private final long timeoutMs;
+        private final Predicate<EnvelopeSource> envelopeHandler;
+        private final Consumer<IOException> errorHandler;
+        // Only accessed from the loop thread
+        private long lastReadTimestamp = System.currentTimeMillis();
+        // Bytes of the last read which were not decoded yet because MAX_FRAMES_PER_HAND_OFF was reached.
+        // Only accessed from the loop thread.
+        @Nullable
+        private ByteBuffer pendingInput;
+
+        private ChannelHandler(SocketChannel channel,
+                               int maxMessageSize,
+                               long timeoutMs,
+                               Predicate<EnvelopeSource> envelopeHandler,
+                               Consumer<IOException> errorHandler) {
+            this.channel = channel;
+            this.decoder = new ProtoFrameDecoder(maxMessageSize);
+            this.timeoutMs = timeoutMs;
+            this.envelopeHandler = envelopeHandler;
+            this.errorHandler = errorHandler;
+        }
+    }
+
+    private final Selector selector;
+    private final Executor workerExecutor;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    // Only used inside onReadable, so all channels of that event loop can share it.
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private long lastTimeoutCheck;
+
+    ConnectionEventLoop(String name, Executor workerExecutor) throws IOException {
+        this.workerExecutor = workerExecutor;
+        selector = Selector.open();
+        Thread thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Starts reading from the channel, which must be in non-blocking mode.
+     *
+     * @param envelopeHandler Gets a source for each received frame and at the end of the stream. It is called on a
+     *                        worker thread, never concurrently for the same channel. If it returns false, or after
+     *                        the source of an oversized frame, we stop reading from the channel.
+     * @param errorHandler    Gets a SocketTimeoutException on a worker thread if we have not received anything for
+     *                        timeoutMs. If the worker executor rejects a task it gets called on the loop thread. We
+     *                        stop reading from the channel then.
+     */
+    void register(SocketChannel channel,
+                  int maxMessageSize,
+                  long timeoutMs,
+                  Predicate<EnvelopeSource> envelopeHandler,
+                  Consumer<IOException> errorHandler) {
+        ChannelHandler handler = new ChannelHandler(channel, maxMessageSize, timeoutMs, envelopeHandler, errorHandler);
+        runOnLoop(() -> {
+            try {
+                channel.register(selector, SelectionKey.OP_READ, handler);
+            } catch (ClosedChannelException e) {
+                log.debug("Channel got closed before it was registered");
+            }
+        });
+    }
+
+    /**
+     * Closes the selector. The loop thread terminates, registered channels are not read anymore.
+     */
+    void shutDown() {
+        try {
+            selector.close();
+        } catch (IOException e) {
+            log.warn("Could not close selector of connection event loop", e);
+        }
+    }
+
+    private void runOnLoop(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    private void run() {
+        while (selector.isOpen() && !Thread.currentThread().isInterrupted()) {
+            try {
+                selector.select(TIMEOUT_CHECK_INTERVAL_MS);
+
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    try {
+                        if (key.isValid() && key.isReadable()) {
+                            onReadable(key);
+                        }
+                    } catch (CancelledKeyException e) {
+                        log.debug("Key got cancelled while handling it");
+                    }
+                }
+
+                maybeCheckTimeouts();
+            } catch (ClosedSelectorException e) {
+                break;
+            } catch (Throwable t) {
+                log.error("Error at connection event loop", t);
+            }
+        }
+        log.info("Connection event loop {} terminated", Thread.currentThread().getName());
+    }
+
+    private void onReadable(SelectionKey key) {
+        ChannelHandler handler = (ChannelHandler) key.attachment();
+        readBuffer.clear();
+        int numBytes;
+        try {
+            numBytes = handler.channel.read(readBuffer);
+        } catch (IOException e) {
+            key.cancel();
+            handOff(key, handler, List.of(() -> {
+                throw e;
+            }), false);
+            return;
+        }
+
+        if (numBytes == -1) {
+            key.cancel();
+            EnvelopeSource endOfStream;
+            if (handler.decoder.isInFrame()) {
+                endOfStream = () -> {
+                    throw new EOFException("Stream ended within a message");
+                };
+            } else {
+                endOfStream = () -> null;
+            }
+            handOff(key, handler, List.of(endOfStream), false);
+            return;
+        }
+
+        handler.lastReadTimestamp = System.currentTimeMillis();
+        readBuffer.flip();
+        decodeAndHandOff(key, handler, readBuffer);
+    }
+
+    // Returns true if frames got handed off to a worker. Reading is paused then.
+    private boolean decodeAndHandOff(SelectionKey key, ChannelHandler handler, ByteBuffer buffer) {
+        List<EnvelopeSource> sources = new ArrayList<>();
+        boolean canDecodeFurther = handler.decoder.decode(buffer, source -> {
+            sources.add(source);
+            return sources.size() < MAX_FRAMES_PER_HAND_OFF;
+        });
+        // At an oversized frame the decoder stops. Its source is the last one, and we stop reading from the channel.
+        boolean resumeReading = canDecodeFurther || !handler.decoder.isStopped();
+        if (resumeReading && buffer.hasRemaining()) {
+            // We reached MAX_FRAMES_PER_HAND_OFF. The rest is decoded after the worker has handled these frames.
+            handler.pendingInput = buffer == readBuffer ?
+                    ByteBuffer.allocate(buffer.remaining()).put(buffer).flip() :
+                    buffer;
+        }
+        if (sources.isEmpty() && resumeReading) {
+            return false;
+        }
+
+        // We pause reading until the worker has handled the frames.
+        key.interestOps(0);
+        handOff(key, handler, sources, resumeReading);
+        return true;
+    }
+
+    private void handOff(SelectionKey key, ChannelHandler handler, List<EnvelopeSource> sources, boolean resumeReading) {
+        try {
+            workerExecutor.execute(() -> {
+                for (EnvelopeSource source : sources) {
+                    if (!handler.envelopeHandler.test(source)) {
+                        runOnLoop(key::cancel);
+                        return;
+                    }
+                }
+                if (resumeReading) {
+                    runOnLoop(() -> continueReading(key, handler));
+                } else {
+                    runOnLoop(key::cancel);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Worker executor rejected the input handling of a connection. We stop reading from it.");
+            key.cancel();
+            handler.errorHandler.accept(new IOException("Worker executor rejected the input handling", e));
+        }
+    }
+
+    private void continueReading(SelectionKey key, ChannelHandler handler) {
+        if (!key.isValid()) {
+            return;
+        }
+        handler.lastReadTimestamp = System.currentTimeMillis();
+        ByteBuffer pendingInput = handler.pendingInput;
+        handler.pendingInput = null;
+        if (pendingInput == null || !decodeAndHandOff(key, handler, pendingInput)) {
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    private void maybeCheckTimeouts() {
+        long now = System.currentTimeMillis();
+        if (now - lastTimeoutCheck < TIMEOUT_CHECK_INTERVAL_MS) {
+            return;
+        }
+        lastTimeoutCheck = now;
+
+        selector.keys().forEach(key -> {
+            ChannelHandler handler = (ChannelHandler) key.attachment();
+            // Channels with paused reading have their frames handled by a worker
+            if (key.isValid() &&
+                    key.interestOps() != 0 &&
+                    now - handler.lastReadTimestamp > handler.timeoutMs) {
+                key.cancel();
+                SocketTimeoutException timeoutException =
+                        new SocketTimeoutException("No data received for " + handler.timeoutMs + " ms");
+                try {
+                    workerExecutor.execute(() -> handler.errorHandler.accept(timeoutException));
+                } catch (RejectedExecutionException e) {
+                    log.warn("Worker executor rejected the timeout handling of a connection. We handle it at the loop thread.");
+                    handler.errorHandler.accept(timeoutException);
+                }
+            }
+        });
+    }
+}
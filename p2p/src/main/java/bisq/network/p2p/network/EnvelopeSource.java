@@ -0,0 +1,35 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import java.io.IOException;
+
+import javax.annotation.Nullable;
+
+/**
+ * Supplies the next received envelope to the input handling of a Connection. Read and parse errors are thrown at
+ * {@link #read()}, so that the blocking and the NIO transport share the same error handling.
+ */
+@FunctionalInterface
+interface EnvelopeSource {
+    /**
+     * @return The envelope or null if the stream ended before the next envelope
+     */
+    @Nullable
+    protobuf.NetworkEnvelope read() throws IOException;
+}
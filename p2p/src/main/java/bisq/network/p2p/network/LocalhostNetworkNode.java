@@ -22,9 +22,13 @@ import bisq.network.p2p.NodeAddress;
 import bisq.common.UserThread;
 import bisq.common.proto.network.NetworkProtoResolver;
 
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
 import java.io.IOException;
 
 import java.util.concurrent.TimeUnit;
@@ -58,7 +62,15 @@ public class LocalhostNetworkNode extends NetworkNode {
                                 NetworkProtoResolver networkProtoResolver,
                                 @Nullable BanFilter banFilter,
                                 int maxConnections) {
-        super(port, networkProtoResolver, banFilter, maxConnections);
+        this(port, networkProtoResolver, banFilter, maxConnections, false);
+    }
+
+    public LocalhostNetworkNode(int port,
+                                NetworkProtoResolver networkProtoResolver,
+                                @Nullable BanFilter banFilter,
+                                int maxConnections,
+                                boolean useNioTransport) {
+        super(port, networkProtoResolver, banFilter, maxConnections, useNioTransport);
     }
 
     @Override
@@ -75,7 +87,9 @@ public class LocalhostNetworkNode extends NetworkNode {
             // simulate tor HS publishing delay
             UserThread.runAfter(() -> {
                 try {
-                    startServer(new ServerSocket(servicePort));
+                    startServer(useNioTransport ?
+                            ServerSocketChannel.open().bind(new InetSocketAddress(servicePort)).socket() :
+                            new ServerSocket(servicePort));
                 } catch (IOException e) {
                     e.printStackTrace();
                     log.error("Exception at startServer: " + e.getMessage());
@@ -88,6 +102,9 @@ public class LocalhostNetworkNode extends NetworkNode {
     // Called from NetworkNode thread
     @Override
     protected Socket createSocket(NodeAddress peerNodeAddress) throws IOException {
+        if (useNioTransport) {
+            return SocketChannel.open(new InetSocketAddress(peerNodeAddress.getHostName(), peerNodeAddress.getPort())).socket();
+        }
         return new Socket(peerNodeAddress.getHostName(), peerNodeAddress.getPort());
     }
 }
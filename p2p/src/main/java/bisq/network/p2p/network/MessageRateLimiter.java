@@ -0,0 +1,116 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.BundleOfEnvelopes;
+
+import bisq.common.proto.network.NetworkEnvelope;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Decides without blocking whether a received message is within the rate limits of its connection. There is a
+ * limit for all messages and stricter ones for the message classes configured with msgThrottleLimitsByClass, which
+ * are expensive to handle or only expected occasionally. A BundleOfEnvelopes counts as one message for the limit of
+ * all messages, but each of its envelopes is charged against the limit of its class, so bundling does not bypass the
+ * limits by class.
+ */
+@Slf4j
+class MessageRateLimiter {
+    private static class Limit {
+        private final double messagesPerSec;
+        private final int burstCapacity;
+
+        private Limit(double messagesPerSec, int burstCapacity) {
+            this.messagesPerSec = messagesPerSec;
+            this.burstCapacity = burstCapacity;
+        }
+    }
+
+    private final TokenBucket allMessagesBucket;
+    // Keyed by the simple class name of the message
+    private final Map<String, Limit> limitsByClass;
+    private final Map<String, TokenBucket> bucketsByClass = new ConcurrentHashMap<>();
+
+    /**
+     * @param limitsByClass Entries of the form simpleClassName:messagesPerSec:burstCapacity
+     */
+    MessageRateLimiter(double messagesPerSec, int burstCapacity, List<String> limitsByClass) {
+        allMessagesBucket = new TokenBucket(messagesPerSec, burstCapacity);
+        this.limitsByClass = parseLimitsByClass(limitsByClass);
+    }
+
+    /**
+     * @return false if the message exceeds a rate limit
+     */
+    boolean tryAcquire(NetworkEnvelope networkEnvelope) {
+        return tryAcquire(networkEnvelope, System.nanoTime());
+    }
+
+    boolean tryAcquire(NetworkEnvelope networkEnvelope, long now) {
+        if (!tryAcquireLimitOfClass(networkEnvelope, now)) {
+            return false;
+        }
+        if (networkEnvelope instanceof BundleOfEnvelopes) {
+            for (NetworkEnvelope envelope : ((BundleOfEnvelopes) networkEnvelope).getEnvelopes()) {
+                if (!tryAcquireLimitOfClass(envelope, now)) {
+                    return false;
+                }
+            }
+        }
+
+        if (!allMessagesBucket.tryAcquire(now)) {
+            log.warn("Rate limit for all messages exceeded at {}", networkEnvelope.getClass().getSimpleName());
+            return false;
+        }
+        return true;
+    }
+
+    private boolean tryAcquireLimitOfClass(NetworkEnvelope networkEnvelope, long now) {
+        String messageClassName = networkEnvelope.getClass().getSimpleName();
+        Limit limit = limitsByClass.get(messageClassName);
+        if (limit == null) {
+            return true;
+        }
+        TokenBucket bucket = bucketsByClass.computeIfAbsent(messageClassName,
+                key -> new TokenBucket(limit.messagesPerSec, limit.burstCapacity));
+        if (!bucket.tryAcquire(now)) {
+            log.warn("Rate limit of {} messages/sec (burst {}) for {} exceeded",
+                    limit.messagesPerSec, limit.burstCapacity, messageClassName);
+            return false;
+        }
+        return true;
+    }
+
+    private static Map<String, Limit> parseLimitsByClass(List<String> limitsByClass) {
+        Map<String, Limit> result = new HashMap<>();
+        limitsByClass.forEach(entry -> {
+            String[] tokens = entry.split(":");
+            checkArgument(tokens.length == 3, "Invalid message rate limit %s", entry);
+            result.put(tokens[0], new Limit(Double.parseDouble(tokens[1]), Integer.parseInt(tokens[2])));
+        });
+        return result;
+    }
+}
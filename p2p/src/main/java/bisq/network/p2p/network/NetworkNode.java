@@ -69,6 +69,9 @@ public abstract class NetworkNode implements MessageListener {
     private static final int CREATE_SOCKET_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(120);
 
     final int servicePort;
+    // If set, the sockets are created from channels, so the connections are handled by the ConnectionEventLoops
+    // instead of an input handler thread per connection.
+    final boolean useNioTransport;
     private final NetworkProtoResolver networkProtoResolver;
     @Nullable
     private final BanFilter banFilter;
@@ -94,8 +97,10 @@ public abstract class NetworkNode implements MessageListener {
     NetworkNode(int servicePort,
                 NetworkProtoResolver networkProtoResolver,
                 @Nullable BanFilter banFilter,
-                int maxConnections) {
+                int maxConnections,
+                boolean useNioTransport) {
         this.servicePort = servicePort;
+        this.useNioTransport = useNioTransport;
         this.networkProtoResolver = networkProtoResolver;
         this.banFilter = banFilter;
 
@@ -109,6 +114,10 @@ public abstract class NetworkNode implements MessageListener {
                 maxConnections * 3,
                 30,
                 30);
+
+        if (useNioTransport) {
+            ConnectionEventLoop.retain();
+        }
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -362,6 +371,10 @@ public abstract class NetworkNode implements MessageListener {
                 server.shutDown();
                 server = null;
             }
+            // Connections are not read anymore. The shared event loops get shut down with the last network node.
+            if (useNioTransport) {
+                ConnectionEventLoop.release();
+            }
 
             Set<Connection> allConnections = getAllConnections();
             int numConnections = allConnections.size();
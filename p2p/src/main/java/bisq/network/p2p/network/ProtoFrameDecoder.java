@@ -0,0 +1,200 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.nio.ByteBuffer;
+
+import java.io.IOException;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Incremental counterpart of ProtoInputStream for the NIO transport. It gets the bytes as they arrive on a
+ * non-blocking channel and keeps the state of a partly received frame between the reads. The same rules apply: the
+ * length prefix is checked before anything gets allocated and the buffer of a large frame grows with the received
+ * bytes, so a peer cannot make us hold a buffer of the announced size without sending the data. An oversized frame is
+ * not drained, we stop decoding the stream at it.
+ * As the frames are handed off before they are parsed, many of them can be held at once. Only frames close to the
+ * POOLED_FRAME_BUFFER_SIZE use the pooled buffers of ProtoInputStream, smaller frames get a buffer of their size.
+ * Empty frames are rejected, so each frame costs at least its bytes on the wire.
+ */
+@NotThreadSafe
+class ProtoFrameDecoder {
+    private final int maxMessageSize;
+
+    // Length prefix (varint32)
+    private int size;
+    private int sizeShift;
+    private boolean isReadingSize = true;
+
+    @Nullable
+    private byte[] frame;
+    private boolean isPooled;
+    private int offset;
+
+    // Set at an oversized frame. The remaining bytes of the stream are not decoded anymore.
+    private boolean isStopped;
+
+    ProtoFrameDecoder(int maxMessageSize) {
+        this.maxMessageSize = maxMessageSize;
+    }
+
+    /**
+     * Decodes the bytes of the buffer and passes a source for each complete frame to the envelopeHandler. Errors
+     * (oversized or malformed frames) are passed as sources which throw at read. A source owns its frame and can be
+     * read once on any thread.
+     *
+     * @return false if the envelopeHandler returned false or the stream cannot be decoded any further because of an
+     * oversized frame. The remaining bytes of the buffer are not decoded then.
+     */
+    boolean decode(ByteBuffer buffer, Predicate<EnvelopeSource> envelopeHandler) {
+        if (isStopped) {
+            return false;
+        }
+        while (buffer.hasRemaining()) {
+            if (isReadingSize) {
+                if (!decodeSize(buffer.get(), envelopeHandler)) {
+                    return false;
+                }
+            } else {
+                byte[] currentFrame = checkNotNull(frame);
+                if (offset == currentFrame.length) {
+                    currentFrame = Arrays.copyOf(currentFrame, (int) Math.min(size, 2L * currentFrame.length));
+                    frame = currentFrame;
+                }
+                int numBytes = Math.min(currentFrame.length - offset, buffer.remaining());
+                buffer.get(currentFrame, offset, numBytes);
+                offset += numBytes;
+                if (offset == size && !onFrameComplete(envelopeHandler)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    boolean isInFrame() {
+        return !isReadingSize || sizeShift > 0;
+    }
+
+    boolean isStopped() {
+        return isStopped;
+    }
+
+    @VisibleForTesting
+    int getFrameBufferSize() {
+        return frame != null ? frame.length : 0;
+    }
+
+    private boolean decodeSize(byte b, Predicate<EnvelopeSource> envelopeHandler) {
+        size |= (b & 0x7f) << sizeShift;
+        if ((b & 0x80) != 0) {
+            sizeShift += 7;
+            if (sizeShift < 35) {
+                return true;
+            }
+            reset();
+            return envelopeHandler.test(() -> {
+                throw new InvalidProtocolBufferException("Malformed varint of message size");
+            });
+        }
+
+        int frameSize = size;
+        if (frameSize == 0) {
+            reset();
+            return envelopeHandler.test(() -> {
+                throw new InvalidProtocolBufferException("Empty message");
+            });
+        }
+        if (frameSize < 0) {
+            reset();
+            return envelopeHandler.test(() -> {
+                throw new InvalidProtocolBufferException("Negative message size: " + frameSize);
+            });
+        }
+        if (frameSize > maxMessageSize) {
+            reset();
+            isStopped = true;
+            envelopeHandler.test(() -> {
+                throw new ProtoInputStream.MessageSizeExceededException(frameSize, maxMessageSize);
+            });
+            return false;
+        }
+
+        isReadingSize = false;
+        isPooled = frameSize >= ProtoInputStream.MIN_POOLED_FRAME_SIZE &&
+                frameSize <= ProtoInputStream.POOLED_FRAME_BUFFER_SIZE;
+        frame = isPooled ?
+                ProtoInputStream.borrowFrameBuffer() :
+                new byte[Math.min(frameSize, ProtoInputStream.INITIAL_LARGE_FRAME_BUFFER_SIZE)];
+        return true;
+    }
+
+    private boolean onFrameComplete(Predicate<EnvelopeSource> envelopeHandler) {
+        FrameSource frameSource = new FrameSource(checkNotNull(frame), size, isPooled);
+        reset();
+        return envelopeHandler.test(frameSource);
+    }
+
+    private void reset() {
+        size = 0;
+        sizeShift = 0;
+        isReadingSize = true;
+        frame = null;
+        isPooled = false;
+        offset = 0;
+    }
+
+    private static class FrameSource implements EnvelopeSource {
+        @Nullable
+        private byte[] frame;
+        private final int size;
+        private final boolean isPooled;
+
+        private FrameSource(byte[] frame, int size, boolean isPooled) {
+            this.frame = frame;
+            this.size = size;
+            this.isPooled = isPooled;
+        }
+
+        @Override
+        public protobuf.NetworkEnvelope read() throws IOException {
+            byte[] bytes = frame;
+            checkState(bytes != null, "Frame has already been read");
+            frame = null;
+            try {
+                return protobuf.NetworkEnvelope.parser().parseFrom(bytes, 0, size);
+            } finally {
+                if (isPooled) {
+                    ProtoInputStream.releaseFrameBuffer(bytes);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Reads length delimited envelopes like protobuf.NetworkEnvelope.parseDelimitedFrom, but reads the length prefix
+ * first, so that frames exceeding the max. message size are rejected before anything gets allocated or parsed.
+ * Frames up to POOLED_FRAME_BUFFER_SIZE are read into buffers shared by all connections. The buffer of a larger frame
+ * grows with the received bytes, so a peer cannot make us allocate the announced size without sending the data. The
+ * parsed protobuf messages do not reference the buffer anymore.
+ * The NIO transport uses the ProtoFrameDecoder with the same rules instead.
+ */
+@NotThreadSafe
+class ProtoInputStream implements Closeable {
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+    static final int POOLED_FRAME_BUFFER_SIZE = 64 * 1024;
+    // The ProtoFrameDecoder gives smaller frames a buffer of their size instead of a pooled one.
+    static final int MIN_POOLED_FRAME_SIZE = POOLED_FRAME_BUFFER_SIZE / 2;
+    // Initial buffer size for frames larger than POOLED_FRAME_BUFFER_SIZE. It is doubled as the bytes arrive, up to
+    // the size of the frame.
+    static final int INITIAL_LARGE_FRAME_BUFFER_SIZE = 2 * POOLED_FRAME_BUFFER_SIZE;
+    private static final int MAX_POOLED_FRAME_BUFFERS = 64;
+
+    private static final BlockingQueue<byte[]> FRAME_BUFFER_POOL = new ArrayBlockingQueue<>(MAX_POOLED_FRAME_BUFFERS);
+
+    static class MessageSizeExceededException extends IOException {
+        @Getter
+        private final int size;
+
+        MessageSizeExceededException(int size, int maxMessageSize) {
+            super("Message size " + size + " exceeds max. permitted message size " + maxMessageSize);
+            this.size = size;
+        }
+    }
+
+    private final InputStream inputStream;
+    private final int maxMessageSize;
+
+    ProtoInputStream(InputStream inputStream, int maxMessageSize) {
+        this.inputStream = new BufferedInputStream(inputStream, READ_BUFFER_SIZE);
+        this.maxMessageSize = maxMessageSize;
+    }
+
+    /**
+     * Blocking read of the next envelope.
+     *
+     * @return The envelope or null if the stream ended before the next envelope
+     * @throws MessageSizeExceededException If the length prefix exceeds the max. message size. The frame does not get
+     *                                      drained, so the stream must not be read any further.
+     */
+    @Nullable
+    protobuf.NetworkEnvelope readEnvelope() throws IOException {
+        int firstByte = inputStream.read();
+        if (firstByte == -1) {
+            return null;
+        }
+
+        int size = CodedInputStream.readRawVarint32(firstByte, inputStream);
+        if (size == 0) {
+            throw new InvalidProtocolBufferException("Empty message");
+        }
+        if (size < 0) {
+            throw new InvalidProtocolBufferException("Negative message size: " + size);
+        }
+        if (size > maxMessageSize) {
+            throw new MessageSizeExceededException(size, maxMessageSize);
+        }
+
+        if (size > POOLED_FRAME_BUFFER_SIZE) {
+            return protobuf.NetworkEnvelope.parser().parseFrom(readLargeFrame(size), 0, size);
+        }
+
+        byte[] buffer = borrowFrameBuffer();
+        try {
+            readFully(buffer, 0, size);
+            return protobuf.NetworkEnvelope.parser().parseFrom(buffer, 0, size);
+        } finally {
+            releaseFrameBuffer(buffer);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+    private byte[] readLargeFrame(int size) throws IOException {
+        byte[] buffer = new byte[Math.min(size, INITIAL_LARGE_FRAME_BUFFER_SIZE)];
+        int offset = 0;
+        while (offset < size) {
+            if (offset == buffer.length) {
+                buffer = Arrays.copyOf(buffer, (int) Math.min(size, 2L * buffer.length));
+            }
+            offset = readFully(buffer, offset, buffer.length);
+        }
+        return buffer;
+    }
+
+    // Reads until the buffer is filled up to the given end and returns the end.
+    private int readFully(byte[] buffer, int offset, int end) throws IOException {
+        while (offset < end) {
+            int read = inputStream.read(buffer, offset, end - offset);
+            if (read == -1) {
+                throw new EOFException("Stream ended after " + offset + " bytes of the message");
+            }
+            offset += read;
+        }
+        return end;
+    }
+
+    static byte[] borrowFrameBuffer() {
+        byte[] buffer = FRAME_BUFFER_POOL.poll();
+        return buffer != null ? buffer : new byte[POOLED_FRAME_BUFFER_SIZE];
+    }
+
+    static void releaseFrameBuffer(byte[] buffer) {
+        FRAME_BUFFER_POOL.offer(buffer);
+    }
+}
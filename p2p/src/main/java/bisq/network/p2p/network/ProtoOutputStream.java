@@ -21,12 +21,12 @@ import bisq.network.p2p.peers.keepalive.messages.KeepAliveMessage;
 
 import bisq.common.proto.network.NetworkEnvelope;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.Logger;
@@ -37,23 +37,26 @@ import javax.annotation.concurrent.ThreadSafe;
 @ThreadSafe
 class ProtoOutputStream {
     private static final Logger log = LoggerFactory.getLogger(ProtoOutputStream.class);
+    private static final int WRITE_BUFFER_SIZE = 16 * 1024;
 
     private final OutputStream outputStream;
     private final Statistic statistic;
 
     private final AtomicBoolean isConnectionActive = new AtomicBoolean(true);
-    private final Lock lock = new ReentrantLock();
+    private final ReentrantLock lock = new ReentrantLock();
 
     ProtoOutputStream(OutputStream outputStream, Statistic statistic) {
-        this.outputStream = outputStream;
+        this.outputStream = new BufferedOutputStream(outputStream, WRITE_BUFFER_SIZE);
         this.statistic = statistic;
     }
 
     void writeEnvelope(NetworkEnvelope envelope) {
+        // We serialize outside the lock, so concurrent senders only wait for the actual write.
+        protobuf.NetworkEnvelope proto = envelope.toProtoNetworkEnvelope();
         lock.lock();
 
         try {
-            writeEnvelopeOrThrow(envelope);
+            writeEnvelopeOrThrow(envelope, proto);
         } catch (IOException e) {
             if (!isConnectionActive.get()) {
                 // Connection was closed by us.
@@ -86,11 +89,14 @@ class ProtoOutputStream {
         }
     }
 
-    private void writeEnvelopeOrThrow(NetworkEnvelope envelope) throws IOException {
+    private void writeEnvelopeOrThrow(NetworkEnvelope envelope, protobuf.NetworkEnvelope proto) throws IOException {
         long ts = System.currentTimeMillis();
-        protobuf.NetworkEnvelope proto = envelope.toProtoNetworkEnvelope();
         proto.writeDelimitedTo(outputStream);
-        outputStream.flush();
+        // If other senders are waiting for the lock we leave the flush to the last of them, so a burst of messages
+        // gets written to the socket together. Closing the stream at shutdown flushes as well.
+        if (!lock.hasQueuedThreads()) {
+            outputStream.flush();
+        }
         long duration = System.currentTimeMillis() - ts;
         if (duration > 10000) {
             log.info("Sending {} to peer took {} sec.", envelope.getClass().getSimpleName(), duration / 1000d);
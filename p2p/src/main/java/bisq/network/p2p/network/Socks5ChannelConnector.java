@@ -0,0 +1,105 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Opens a SocketChannel to a host through a SOCKS5 proxy (RFC 1928, CONNECT without authentication), so that the
+ * connections to onion addresses via the local Tor proxy can be handled by the NIO transport. The netlayer TorSocket
+ * cannot be used for that as it is not backed by a channel.
+ * The handshake uses the blocking streams of the channel's socket, which respect the SO_TIMEOUT.
+ */
+class Socks5ChannelConnector {
+    private static final byte SOCKS_VERSION = 0x05;
+    private static final byte AUTH_METHOD_NONE = 0x00;
+    private static final byte CMD_CONNECT = 0x01;
+    private static final byte ATYPE_IPV4 = 0x01;
+    private static final byte ATYPE_HOSTNAME = 0x03;
+    private static final byte ATYPE_IPV6 = 0x04;
+
+    static SocketChannel connect(InetSocketAddress proxyAddress,
+                                 String host,
+                                 int port,
+                                 int timeoutMs) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            Socket socket = channel.socket();
+            socket.connect(proxyAddress, timeoutMs);
+            socket.setSoTimeout(timeoutMs);
+            OutputStream outputStream = socket.getOutputStream();
+            DataInputStream inputStream = new DataInputStream(socket.getInputStream());
+
+            outputStream.write(new byte[]{SOCKS_VERSION, 1, AUTH_METHOD_NONE});
+            if (inputStream.readByte() != SOCKS_VERSION || inputStream.readByte() != AUTH_METHOD_NONE) {
+                throw new IOException("SOCKS5 proxy " + proxyAddress + " does not accept connections without authentication");
+            }
+
+            byte[] hostBytes = host.getBytes(StandardCharsets.US_ASCII);
+            if (hostBytes.length > 255) {
+                throw new IOException("Host name too long for SOCKS5: " + host);
+            }
+            byte[] request = new byte[7 + hostBytes.length];
+            request[0] = SOCKS_VERSION;
+            request[1] = CMD_CONNECT;
+            request[2] = 0;                               // reserved
+            request[3] = ATYPE_HOSTNAME;
+            request[4] = (byte) hostBytes.length;
+            System.arraycopy(hostBytes, 0, request, 5, hostBytes.length);
+            request[5 + hostBytes.length] = (byte) (port >> 8);
+            request[6 + hostBytes.length] = (byte) port;
+            outputStream.write(request);
+
+            if (inputStream.readByte() != SOCKS_VERSION) {
+                throw new IOException("Invalid SOCKS5 proxy response");
+            }
+            byte reply = inputStream.readByte();
+            if (reply != 0) {
+                throw new IOException("SOCKS5 connect to " + host + ":" + port + " failed with reply code " + reply);
+            }
+            inputStream.readByte();                       // reserved
+            // Skip the bound address and port, we don't need it.
+            byte atype = inputStream.readByte();
+            int addressLength;
+            if (atype == ATYPE_IPV4) {
+                addressLength = 4;
+            } else if (atype == ATYPE_IPV6) {
+                addressLength = 16;
+            } else if (atype == ATYPE_HOSTNAME) {
+                addressLength = inputStream.readUnsignedByte();
+            } else {
+                throw new IOException("Invalid SOCKS5 address type " + atype);
+            }
+            inputStream.readFully(new byte[addressLength + 2]);
+
+            socket.setSoTimeout(0);
+            return channel;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Lock-free token bucket. Tokens are refilled at tokensPerSec up to the capacity, so bursts up to the capacity pass
+ * while the sustained rate is limited to tokensPerSec.
+ *
+ * Implemented as generic cell rate algorithm: instead of the number of tokens we only keep the time at which the bucket
+ * would be full again. Each decision is a single compare-and-set on that time.
+ */
+class TokenBucket {
+    private final long nanosPerToken;
+    private final long capacityNanos;
+    // System.nanoTime at which the bucket is full again. Long.MIN_VALUE for a full bucket at creation.
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+    TokenBucket(double tokensPerSec, int capacity) {
+        checkArgument(tokensPerSec > 0, "tokensPerSec must be positive");
+        checkArgument(capacity > 0, "capacity must be positive");
+        this.nanosPerToken = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSec));
+        this.capacityNanos = nanosPerToken * capacity;
+    }
+
+    /**
+     * @return true if a token was available and got taken
+     */
+    boolean tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    /**
+     * Takes a token even if none is available yet.
+     *
+     * @return The nanos to wait until the token is available, 0 if it was available
+     */
+    long reserve() {
+        return reserve(System.nanoTime());
+    }
+
+    boolean tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            if (next - now > capacityNanos) {
+                return false;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    long reserve(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            if (fullAt.compareAndSet(current, next)) {
+                return Math.max(0, next - now - capacityNanos);
+            }
+        }
+    }
+}
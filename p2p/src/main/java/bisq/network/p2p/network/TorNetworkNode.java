@@ -34,22 +34,26 @@ import com.runjva.sourceforge.jsocks.protocol.Socks5Proxy;
 
 import java.security.SecureRandom;
 
+import java.net.InetSocketAddress;
 import java.net.Socket;
 
 import java.io.IOException;
 
 import java.util.Base64;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.Nullable;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 
 @Slf4j
 public class TorNetworkNode extends NetworkNode {
     private static final long SHUT_DOWN_TIMEOUT = 2;
+    private static final int SOCKS_CONNECT_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(120);
 
     private HiddenServiceSocket hiddenServiceSocket;
     private Timer shutDownTimeoutTimer;
@@ -71,7 +75,17 @@ public class TorNetworkNode extends NetworkNode {
                           TorMode torMode,
                           @Nullable BanFilter banFilter,
                           int maxConnections) {
-        super(servicePort, networkProtoResolver, banFilter, maxConnections);
+        this(servicePort, networkProtoResolver, useStreamIsolation, torMode, banFilter, maxConnections, false);
+    }
+
+    public TorNetworkNode(int servicePort,
+                          NetworkProtoResolver networkProtoResolver,
+                          boolean useStreamIsolation,
+                          TorMode torMode,
+                          @Nullable BanFilter banFilter,
+                          int maxConnections,
+                          boolean useNioTransport) {
+        super(servicePort, networkProtoResolver, banFilter, maxConnections, useNioTransport);
         this.torMode = torMode;
         this.streamIsolation = useStreamIsolation;
 
@@ -96,6 +110,16 @@ public class TorNetworkNode extends NetworkNode {
     @Override
     protected Socket createSocket(NodeAddress peerNodeAddress) throws IOException {
         checkArgument(peerNodeAddress.getHostName().endsWith(".onion"), "PeerAddress is not an onion address");
+        if (useNioTransport) {
+            // We connect through the local SOCKS proxy of Tor ourselves, as a TorSocket is not backed by a channel.
+            // Inbound connections from our hidden service are accepted by the HiddenServiceSocket and stay blocking.
+            // As with the TorSocket below we connect without stream isolation.
+            Socks5Proxy proxy = checkNotNull(getSocksProxy(), "Tor SOCKS proxy is not available");
+            return Socks5ChannelConnector.connect(new InetSocketAddress(proxy.getInetAddress(), proxy.getPort()),
+                    peerNodeAddress.getHostName(),
+                    peerNodeAddress.getPort(),
+                    SOCKS_CONNECT_TIMEOUT).socket();
+        }
         // If streamId is null stream isolation gets deactivated.
         // Hidden services use stream isolation by default, so we pass null.
         return new TorSocket(peerNodeAddress.getHostName(), peerNodeAddress.getPort(), null);
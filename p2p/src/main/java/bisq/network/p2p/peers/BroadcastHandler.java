@@ -25,6 +25,7 @@ import bisq.network.p2p.storage.messages.BroadcastMessage;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
+import bisq.common.app.Capability;
 
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
@@ -263,7 +264,7 @@ public class BroadcastHandler implements PeerManager.Listener {
                             List<Broadcaster.BroadcastRequest> broadcastRequestsForConnection,
                             ListeningExecutorService executor) {
         // Can be BundleOfEnvelopes or a single BroadcastMessage
-        BroadcastMessage broadcastMessage = getMessage(broadcastRequestsForConnection);
+        BroadcastMessage broadcastMessage = getMessage(connection, broadcastRequestsForConnection);
         SettableFuture<Connection> future = networkNode.sendMessage(connection, broadcastMessage, executor);
         sendMessageFutures.add(future);
         Futures.addCallback(future, new FutureCallback<>() {
@@ -294,14 +295,15 @@ public class BroadcastHandler implements PeerManager.Listener {
         }, MoreExecutors.directExecutor());
     }
 
-    private BroadcastMessage getMessage(List<Broadcaster.BroadcastRequest> broadcastRequests) {
+    private BroadcastMessage getMessage(Connection connection, List<Broadcaster.BroadcastRequest> broadcastRequests) {
         if (broadcastRequests.size() == 1) {
             // If we only have 1 message we avoid the overhead of the BundleOfEnvelopes and send the message directly
             return broadcastRequests.get(0).getMessage();
         } else {
+            boolean compressed = connection.getCapabilities().contains(Capability.COMPRESSED_BUNDLE);
             return new BundleOfEnvelopes(broadcastRequests.stream()
                     .map(Broadcaster.BroadcastRequest::getMessage)
-                    .collect(Collectors.toList()));
+                    .collect(Collectors.toList()), compressed);
         }
     }
 
@@ -19,7 +19,14 @@ package bisq.network.p2p.peers;
 
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.PayloadHashCache;
+import bisq.network.p2p.storage.messages.AddDataMessage;
 import bisq.network.p2p.storage.messages.BroadcastMessage;
+import bisq.network.p2p.storage.messages.RefreshOfferMessage;
+import bisq.network.p2p.storage.messages.RemoveDataMessage;
+import bisq.network.p2p.storage.messages.RemoveMailboxDataMessage;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
@@ -29,11 +36,14 @@ import bisq.common.util.Utilities;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -46,12 +56,21 @@ import org.jetbrains.annotations.Nullable;
 
 @Slf4j
 public class Broadcaster implements BroadcastHandler.ResultHandler {
+    // Max. time a request waits for being bundled with further requests
     private static final long BROADCAST_INTERVAL_MS = 2000;
+    // If we have not broadcast within the last BROADCAST_INTERVAL_MS we only wait that long for further requests
+    private static final long MIN_BROADCAST_DELAY_MS = 200;
+    // A bundle with that many requests is broadcast without waiting
+    private static final int MAX_REQUESTS_PER_BUNDLE = 100;
 
     private final NetworkNode networkNode;
     private final PeerManager peerManager;
+    private final PayloadHashCache payloadHashCache;
     private final Set<BroadcastHandler> broadcastHandlers = new CopyOnWriteArraySet<>();
     private final List<BroadcastRequest> broadcastRequests = new ArrayList<>();
+    // Latest pending request by hash of payload, used for dropping superseded requests
+    private final Map<P2PDataStorage.ByteArray, BroadcastRequest> broadcastRequestsByHashOfPayload = new HashMap<>();
+    private long lastBroadcastTimeStamp;
     private Timer timer;
     private boolean shutDownRequested;
     private Runnable shutDownResultHandler;
@@ -65,9 +84,11 @@ public class Broadcaster implements BroadcastHandler.ResultHandler {
     @Inject
     public Broadcaster(NetworkNode networkNode,
                        PeerManager peerManager,
+                       PayloadHashCache payloadHashCache,
                        @Named(Config.MAX_CONNECTIONS) int maxConnections) {
         this.networkNode = networkNode;
         this.peerManager = peerManager;
+        this.payloadHashCache = payloadHashCache;
 
         ThreadPoolExecutor threadPoolExecutor = Utilities.getThreadPoolExecutor("Broadcaster",
                 maxConnections * 3,
@@ -118,18 +139,42 @@ public class Broadcaster implements BroadcastHandler.ResultHandler {
     public void broadcast(BroadcastMessage message,
                           @Nullable NodeAddress sender,
                           @Nullable BroadcastHandler.Listener listener) {
-        broadcastRequests.add(new BroadcastRequest(message, sender, listener));
-        if (timer == null) {
-            timer = UserThread.runAfter(this::maybeBroadcastBundle, BROADCAST_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        addBroadcastRequest(new BroadcastRequest(message, sender, listener));
+
+        if (broadcastRequests.size() >= MAX_REQUESTS_PER_BUNDLE) {
+            maybeBroadcastBundle();
+        } else if (timer == null) {
+            long delay = getBroadcastDelay(System.currentTimeMillis() - lastBroadcastTimeStamp);
+            timer = UserThread.runAfter(this::maybeBroadcastBundle, delay, TimeUnit.MILLISECONDS);
         }
     }
 
+    // After a quiet period we broadcast with a short delay. During bursts we broadcast at most one bundle
+    // per BROADCAST_INTERVAL_MS.
+    @VisibleForTesting
+    static long getBroadcastDelay(long timeSinceLastBroadcast) {
+        return Math.max(MIN_BROADCAST_DELAY_MS, BROADCAST_INTERVAL_MS - timeSinceLastBroadcast);
+    }
+
+    @VisibleForTesting
+    void addBroadcastRequest(BroadcastRequest broadcastRequest) {
+        maybeRemoveSupersededRequest(broadcastRequest);
+        broadcastRequests.add(broadcastRequest);
+    }
+
+    @VisibleForTesting
+    List<BroadcastRequest> getBroadcastRequests() {
+        return new ArrayList<>(broadcastRequests);
+    }
+
     private void maybeBroadcastBundle() {
         if (!broadcastRequests.isEmpty()) {
             BroadcastHandler broadcastHandler = new BroadcastHandler(networkNode, peerManager, this);
             broadcastHandlers.add(broadcastHandler);
             broadcastHandler.broadcast(new ArrayList<>(broadcastRequests), shutDownRequested, executor);
             broadcastRequests.clear();
+            broadcastRequestsByHashOfPayload.clear();
+            lastBroadcastTimeStamp = System.currentTimeMillis();
 
             if (timer != null) {
                 timer.stop();
@@ -138,6 +183,71 @@ public class Broadcaster implements BroadcastHandler.ResultHandler {
         }
     }
 
+    // If a pending add or refresh gets superseded by a newer add, refresh or remove of the same payload, we don't
+    // need to broadcast it anymore. Requests with a listener are kept as the listener expects a result.
+    private void maybeRemoveSupersededRequest(BroadcastRequest broadcastRequest) {
+        BroadcastMessage message = broadcastRequest.getMessage();
+        P2PDataStorage.ByteArray hashOfPayload = getHashOfPayload(message);
+        if (hashOfPayload == null) {
+            return;
+        }
+
+        BroadcastRequest pendingRequest = broadcastRequestsByHashOfPayload.put(hashOfPayload, broadcastRequest);
+        if (pendingRequest != null &&
+                pendingRequest.getListener() == null &&
+                isSupersededBy(pendingRequest.getMessage(), message)) {
+            log.debug("We remove the pending {} as it got superseded by {}",
+                    pendingRequest.getMessage().getClass().getSimpleName(), message.getClass().getSimpleName());
+            broadcastRequests.remove(pendingRequest);
+        }
+    }
+
+    @VisibleForTesting
+    static boolean isSupersededBy(BroadcastMessage pendingMessage, BroadcastMessage message) {
+        boolean isRemove = message instanceof RemoveDataMessage || message instanceof RemoveMailboxDataMessage;
+        boolean isSupersedingType;
+        if (pendingMessage instanceof AddDataMessage) {
+            // A refresh requires that the peer has the entry, so it cannot supersede an add
+            isSupersedingType = isRemove || message instanceof AddDataMessage;
+        } else if (pendingMessage instanceof RefreshOfferMessage) {
+            isSupersedingType = isRemove || message instanceof RefreshOfferMessage;
+        } else {
+            isSupersedingType = false;
+        }
+        return isSupersedingType && getSequenceNumber(message) > getSequenceNumber(pendingMessage);
+    }
+
+    @Nullable
+    private P2PDataStorage.ByteArray getHashOfPayload(BroadcastMessage message) {
+        if (message instanceof RefreshOfferMessage) {
+            return new P2PDataStorage.ByteArray(((RefreshOfferMessage) message).getHashOfPayload());
+        }
+        ProtectedStorageEntry protectedStorageEntry = getProtectedStorageEntry(message);
+        return protectedStorageEntry != null ?
+                payloadHashCache.getHashOfPayload(protectedStorageEntry.getProtectedStoragePayload()) :
+                null;
+    }
+
+    private static int getSequenceNumber(BroadcastMessage message) {
+        if (message instanceof RefreshOfferMessage) {
+            return ((RefreshOfferMessage) message).getSequenceNumber();
+        }
+        ProtectedStorageEntry protectedStorageEntry = getProtectedStorageEntry(message);
+        return protectedStorageEntry != null ? protectedStorageEntry.getSequenceNumber() : 0;
+    }
+
+    @Nullable
+    private static ProtectedStorageEntry getProtectedStorageEntry(BroadcastMessage message) {
+        if (message instanceof AddDataMessage) {
+            return ((AddDataMessage) message).getProtectedStorageEntry();
+        } else if (message instanceof RemoveDataMessage) {
+            return ((RemoveDataMessage) message).getProtectedStorageEntry();
+        } else if (message instanceof RemoveMailboxDataMessage) {
+            return ((RemoveMailboxDataMessage) message).getProtectedMailboxStorageEntry();
+        }
+        return null;
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // BroadcastHandler.ResultHandler implementation
@@ -164,9 +274,9 @@ public class Broadcaster implements BroadcastHandler.ResultHandler {
         @Nullable
         private BroadcastHandler.Listener listener;
 
-        private BroadcastRequest(BroadcastMessage message,
-                                 @Nullable NodeAddress sender,
-                                 @Nullable BroadcastHandler.Listener listener) {
+        BroadcastRequest(BroadcastMessage message,
+                         @Nullable NodeAddress sender,
+                         @Nullable BroadcastHandler.Listener listener) {
             this.message = message;
             this.sender = sender;
             this.listener = listener;
@@ -31,6 +31,7 @@ import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
+import bisq.common.app.Capability;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkPayload;
 import bisq.common.util.Tuple2;
@@ -121,10 +122,14 @@ class RequestDataHandler implements MessageListener {
         if (!stopped) {
             GetDataRequest getDataRequest;
 
+            // We only send the compact known hashes filter if we know that the peer supports it. For the first
+            // request to a peer we have not been connected to and which is not in our peer list we do not know its
+            // capabilities yet and send the full list of excluded keys. Later requests use the filter.
+            boolean useKnownHashesFilter = peerManager.peerHasCapability(nodeAddress, Capability.KNOWN_HASHES_FILTER);
             if (isPreliminaryDataRequest)
-                getDataRequest = dataStorage.buildPreliminaryGetDataRequest(nonce);
+                getDataRequest = dataStorage.buildPreliminaryGetDataRequest(nonce, useKnownHashesFilter);
             else
-                getDataRequest = dataStorage.buildGetUpdatedDataRequest(networkNode.getNodeAddress(), nonce);
+                getDataRequest = dataStorage.buildGetUpdatedDataRequest(networkNode.getNodeAddress(), nonce, useKnownHashesFilter);
 
             if (timeoutTimer == null) {
                 timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
@@ -197,11 +202,21 @@ class RequestDataHandler implements MessageListener {
                             return;
                         }
 
+                        // Large responses are verified on a worker pool before they get applied on the user thread.
+                        // We do not want to process another response meanwhile.
+                        networkNode.removeMessageListener(this);
                         dataStorage.processGetDataResponse(getDataResponse,
-                                connection.getPeersNodeAddressOptional().get());
-
-                        cleanup();
-                        listener.onComplete(getDataResponse.isWasTruncated());
+                                connection.getPeersNodeAddressOptional().get(),
+                                () -> {
+                                    log.info("Processing GetDataResponse took {} ms", System.currentTimeMillis() - ts1);
+                                    if (!stopped) {
+                                        cleanup();
+                                        listener.onComplete(getDataResponse.isWasTruncated());
+                                    } else {
+                                        log.warn("We have stopped already while processing the GetDataResponse. " +
+                                                "We ignore that onComplete call.");
+                                    }
+                                });
                     } else {
                         log.warn("Nonce not matching. That can happen rarely if we get a response after a canceled " +
                                         "handshake (timeout causes connection close but peer might have sent a msg before " +
@@ -209,7 +224,6 @@ class RequestDataHandler implements MessageListener {
                                         "We drop that message. nonce={} / requestNonce={}",
                                 nonce, getDataResponse.getRequestNonce());
                     }
-                    log.info("Processing GetDataResponse took {} ms", System.currentTimeMillis() - ts1);
                 } else {
                     log.warn("We have stopped already. We ignore that onDataRequest call.");
                 }
@@ -44,13 +44,20 @@ public abstract class GetDataRequest extends NetworkEnvelope implements Extended
     @Nullable
     protected final String version;
 
+    // Added at v1.9.13
+    // Compact representation of further known hashes. Only sent to peers with Capability.KNOWN_HASHES_FILTER.
+    @Nullable
+    protected final KnownHashesFilter knownHashesFilter;
+
     public GetDataRequest(int messageVersion,
                           int nonce,
                           Set<byte[]> excludedKeys,
-                          @Nullable String version) {
+                          @Nullable String version,
+                          @Nullable KnownHashesFilter knownHashesFilter) {
         super(messageVersion);
         this.nonce = nonce;
         this.excludedKeys = excludedKeys;
         this.version = version;
+        this.knownHashesFilter = knownHashesFilter;
     }
 }
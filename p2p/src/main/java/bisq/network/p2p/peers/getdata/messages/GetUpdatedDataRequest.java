@@ -46,9 +46,17 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
     public GetUpdatedDataRequest(NodeAddress senderNodeAddress,
                                  int nonce,
                                  Set<byte[]> excludedKeys) {
+        this(senderNodeAddress, nonce, excludedKeys, null);
+    }
+
+    public GetUpdatedDataRequest(NodeAddress senderNodeAddress,
+                                 int nonce,
+                                 Set<byte[]> excludedKeys,
+                                 @Nullable KnownHashesFilter knownHashesFilter) {
         this(senderNodeAddress,
                 nonce,
                 excludedKeys,
+                knownHashesFilter,
                 Version.VERSION,
                 Version.getP2PMessageVersion());
     }
@@ -61,12 +69,14 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
     private GetUpdatedDataRequest(NodeAddress senderNodeAddress,
                                   int nonce,
                                   Set<byte[]> excludedKeys,
+                                  @Nullable KnownHashesFilter knownHashesFilter,
                                   @Nullable String version,
                                   int messageVersion) {
         super(messageVersion,
                 nonce,
                 excludedKeys,
-                version);
+                version,
+                knownHashesFilter);
         this.senderNodeAddress = senderNodeAddress;
     }
 
@@ -79,22 +89,28 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
                         .map(ByteString::copyFrom)
                         .collect(Collectors.toList()));
         Optional.ofNullable(version).ifPresent(builder::setVersion);
+        Optional.ofNullable(knownHashesFilter).ifPresent(filter -> builder.setKnownHashesFilter(filter.toProtoMessage()));
         NetworkEnvelope proto = getNetworkEnvelopeBuilder()
                 .setGetUpdatedDataRequest(builder)
                 .build();
-        log.info("Sending a GetUpdatedDataRequest with {} kB and {} excluded key entries. Requesters version={}",
-                proto.getSerializedSize() / 1000d, excludedKeys.size(), version);
+        log.info("Sending a GetUpdatedDataRequest with {} kB, {} excluded key entries and a known hashes filter of {} kB. " +
+                        "Requesters version={}",
+                proto.getSerializedSize() / 1000d, excludedKeys.size(),
+                knownHashesFilter != null ? knownHashesFilter.getSizeInBytes() / 1000d : 0, version);
         return proto;
     }
 
     public static GetUpdatedDataRequest fromProto(protobuf.GetUpdatedDataRequest proto, int messageVersion) {
         Set<byte[]> excludedKeys = ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList());
         String requestersVersion = ProtoUtil.stringOrNullFromProto(proto.getVersion());
+        KnownHashesFilter knownHashesFilter = proto.hasKnownHashesFilter() ?
+                KnownHashesFilter.fromProto(proto.getKnownHashesFilter()) : null;
         log.info("Received a GetUpdatedDataRequest with {} kB and {} excluded key entries. Requesters version={}",
                 proto.getSerializedSize() / 1000d, excludedKeys.size(), requestersVersion);
         return new GetUpdatedDataRequest(NodeAddress.fromProto(proto.getSenderNodeAddress()),
                 proto.getNonce(),
                 excludedKeys,
+                knownHashesFilter,
                 requestersVersion,
                 messageVersion);
     }
@@ -0,0 +1,159 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata.messages;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import bisq.common.proto.network.NetworkPayload;
+
+import com.google.protobuf.ByteString;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Bloom filter of the payload hashes known by the requester of a GetDataRequest. It is a compact alternative to
+ * the excluded keys list and is only sent to peers which have the Capability.KNOWN_HASHES_FILTER.
+ * <p>
+ * A false positive leads to an entry not being delivered. As we use a random tweak for each filter, different requests
+ * have different false positives, so a missed entry will be delivered by a later request or by another seed node.
+ */
+@EqualsAndHashCode
+@Getter
+public final class KnownHashesFilter implements NetworkPayload {
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+    private static final int MAX_NUM_HASH_FUNCTIONS = 32;
+
+    private final byte[] bits;
+    private final int numHashFunctions;
+    private final long tweak;
+
+    public static KnownHashesFilter fromHashes(Collection<P2PDataStorage.ByteArray> hashes) {
+        int numEntries = Math.max(1, hashes.size());
+        long numBits = (long) Math.ceil(-numEntries * Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2)));
+        int numBytes = (int) Math.max(1, (numBits + 7) / 8);
+        int numHashFunctions = (int) Math.round((double) numBytes * 8 / numEntries * Math.log(2));
+        numHashFunctions = Math.max(1, Math.min(MAX_NUM_HASH_FUNCTIONS, numHashFunctions));
+
+        KnownHashesFilter filter = new KnownHashesFilter(new byte[numBytes],
+                numHashFunctions,
+                ThreadLocalRandom.current().nextLong());
+        hashes.forEach(hash -> filter.add(hash.bytes));
+        return filter;
+    }
+
+    private KnownHashesFilter(byte[] bits, int numHashFunctions, long tweak) {
+        checkArgument(bits.length > 0, "bits must not be empty");
+        checkArgument(numHashFunctions > 0 && numHashFunctions <= MAX_NUM_HASH_FUNCTIONS,
+                "Invalid numHashFunctions " + numHashFunctions);
+        this.bits = bits;
+        this.numHashFunctions = numHashFunctions;
+        this.tweak = tweak;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public protobuf.KnownHashesFilter toProtoMessage() {
+        return protobuf.KnownHashesFilter.newBuilder()
+                .setBits(ByteString.copyFrom(bits))
+                .setNumHashFunctions(numHashFunctions)
+                .setTweak(tweak)
+                .build();
+    }
+
+    public static KnownHashesFilter fromProto(protobuf.KnownHashesFilter proto) {
+        return new KnownHashesFilter(proto.getBits().toByteArray(),
+                proto.getNumHashFunctions(),
+                proto.getTweak());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public boolean mightContain(P2PDataStorage.ByteArray hash) {
+        long numBits = (long) bits.length * 8;
+        long h1 = getBaseHash(hash.bytes);
+        long h2 = mix(h1 ^ tweak) | 1;
+        for (int i = 0; i < numHashFunctions; i++) {
+            int index = (int) Long.remainderUnsigned(h1 + i * h2, numBits);
+            if ((bits[index >>> 3] & (1 << (index & 7))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getSizeInBytes() {
+        return bits.length;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void add(byte[] hash) {
+        long numBits = (long) bits.length * 8;
+        long h1 = getBaseHash(hash);
+        long h2 = mix(h1 ^ tweak) | 1;
+        for (int i = 0; i < numHashFunctions; i++) {
+            int index = (int) Long.remainderUnsigned(h1 + i * h2, numBits);
+            bits[index >>> 3] |= (byte) (1 << (index & 7));
+        }
+    }
+
+    // The keys are hashes already, so we only need to fold them together with the tweak (FNV-1a) and mix the result.
+    private long getBaseHash(byte[] hash) {
+        long result = 0xcbf29ce484222325L ^ tweak;
+        for (byte b : hash) {
+            result ^= b & 0xff;
+            result *= 0x100000001b3L;
+        }
+        return mix(result);
+    }
+
+    // Finalization mix of MurmurHash3
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "KnownHashesFilter{" +
+                "\n     sizeInBytes=" + bits.length +
+                ",\n     numHashFunctions=" + numHashFunctions +
+                ",\n     tweak=" + tweak +
+                "\n}";
+    }
+}
@@ -45,8 +45,15 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
     private final Capabilities supportedCapabilities;
 
     public PreliminaryGetDataRequest(int nonce, Set<byte[]> excludedKeys) {
+        this(nonce, excludedKeys, null);
+    }
+
+    public PreliminaryGetDataRequest(int nonce,
+                                     Set<byte[]> excludedKeys,
+                                     @Nullable KnownHashesFilter knownHashesFilter) {
         this(nonce,
                 excludedKeys,
+                knownHashesFilter,
                 Version.VERSION,
                 Capabilities.app,
                 Version.getP2PMessageVersion());
@@ -59,10 +66,11 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
 
     private PreliminaryGetDataRequest(int nonce,
                                       Set<byte[]> excludedKeys,
+                                      @Nullable KnownHashesFilter knownHashesFilter,
                                       @Nullable String version,
                                       Capabilities supportedCapabilities,
                                       int messageVersion) {
-        super(messageVersion, nonce, excludedKeys, version);
+        super(messageVersion, nonce, excludedKeys, version, knownHashesFilter);
 
         this.supportedCapabilities = supportedCapabilities;
     }
@@ -76,21 +84,27 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
                         .map(ByteString::copyFrom)
                         .collect(Collectors.toList()));
         Optional.ofNullable(version).ifPresent(builder::setVersion);
+        Optional.ofNullable(knownHashesFilter).ifPresent(filter -> builder.setKnownHashesFilter(filter.toProtoMessage()));
         NetworkEnvelope proto = getNetworkEnvelopeBuilder()
                 .setPreliminaryGetDataRequest(builder)
                 .build();
-        log.info("Sending a PreliminaryGetDataRequest with {} kB and {} excluded key entries. Requesters version={}",
-                proto.getSerializedSize() / 1000d, excludedKeys.size(), version);
+        log.info("Sending a PreliminaryGetDataRequest with {} kB, {} excluded key entries and a known hashes filter of {} kB. " +
+                        "Requesters version={}",
+                proto.getSerializedSize() / 1000d, excludedKeys.size(),
+                knownHashesFilter != null ? knownHashesFilter.getSizeInBytes() / 1000d : 0, version);
         return proto;
     }
 
     public static PreliminaryGetDataRequest fromProto(protobuf.PreliminaryGetDataRequest proto, int messageVersion) {
         Set<byte[]> excludedKeys = ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList());
         String requestersVersion = ProtoUtil.stringOrNullFromProto(proto.getVersion());
+        KnownHashesFilter knownHashesFilter = proto.hasKnownHashesFilter() ?
+                KnownHashesFilter.fromProto(proto.getKnownHashesFilter()) : null;
         log.info("Received a PreliminaryGetDataRequest with {} kB and {} excluded key entries. Requesters version={}",
                 proto.getSerializedSize() / 1000d, excludedKeys.size(), requestersVersion);
         return new PreliminaryGetDataRequest(proto.getNonce(),
                 excludedKeys,
+                knownHashesFilter,
                 requestersVersion,
                 Capabilities.fromIntList(proto.getSupportedCapabilitiesList()),
                 messageVersion);
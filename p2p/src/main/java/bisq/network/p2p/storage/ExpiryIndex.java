@@ -0,0 +1,86 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.storage.payload.ExpirablePayload;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Index of the hashes of ProtectedStorageEntries with an ExpirablePayload by the time they expire, grouped into
+ * buckets of BUCKET_MILLIS. It allows to find the expired entries without checking each entry of the map.
+ *
+ * Entries are added at each put to the map and again if their expiry time moves backward (backDate). Removals and the
+ * former buckets of refreshed entries are not cleaned up. Instead the hashes of a due bucket are only candidates which
+ * the caller has to check against its map: removed entries are dropped and entries which are not expired (anymore)
+ * have to be added again with their current expiry time.
+ */
+class ExpiryIndex {
+    static final long BUCKET_MILLIS = 1000;
+
+    private final NavigableMap<Long, Set<P2PDataStorage.ByteArray>> hashesByBucket = new TreeMap<>();
+
+    synchronized void add(P2PDataStorage.ByteArray hashOfPayload, ProtectedStorageEntry protectedStorageEntry) {
+        if (!(protectedStorageEntry.getProtectedStoragePayload() instanceof ExpirablePayload))
+            return;
+
+        long bucket = Math.floorDiv(getExpiryTime(protectedStorageEntry), BUCKET_MILLIS);
+        hashesByBucket.computeIfAbsent(bucket, key -> new HashSet<>()).add(hashOfPayload);
+    }
+
+    synchronized void addAll(Map<P2PDataStorage.ByteArray, ProtectedStorageEntry> map) {
+        map.forEach(this::add);
+    }
+
+    /**
+     * Removes all buckets up to and including the one of the given time.
+     *
+     * @return The hashes of the entries which might be expired at that time
+     */
+    synchronized Set<P2PDataStorage.ByteArray> pollDue(long currentTimeMillis) {
+        // A hash can be in several buckets after a refresh or a backDate.
+        Set<P2PDataStorage.ByteArray> candidates = new LinkedHashSet<>();
+        Iterator<Set<P2PDataStorage.ByteArray>> iterator = hashesByBucket
+                .headMap(Math.floorDiv(currentTimeMillis, BUCKET_MILLIS), true)
+                .values()
+                .iterator();
+        while (iterator.hasNext()) {
+            candidates.addAll(iterator.next());
+            iterator.remove();
+        }
+        return candidates;
+    }
+
+    // First time at which ProtectedStorageEntry.isExpired returns true.
+    private static long getExpiryTime(ProtectedStorageEntry protectedStorageEntry) {
+        long ttl = ((ExpirablePayload) protectedStorageEntry.getProtectedStoragePayload()).getTTL();
+        long creationTimeStamp = protectedStorageEntry.getCreationTimeStamp();
+        try {
+            return Math.addExact(creationTimeStamp, Math.addExact(ttl, 1));
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import bisq.network.p2p.peers.Broadcaster;
 import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
 import bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
+import bisq.network.p2p.peers.getdata.messages.KnownHashesFilter;
 import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
 import bisq.network.p2p.storage.messages.AddDataMessage;
 import bisq.network.p2p.storage.messages.AddOncePayload;
@@ -49,6 +50,7 @@ import bisq.network.p2p.storage.payload.RequiresOwnerIsOnlinePayload;
 import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreListener;
 import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
 import bisq.network.p2p.storage.persistence.HistoricalDataStoreService;
+import bisq.network.p2p.storage.persistence.LayeredMapView;
 import bisq.network.p2p.storage.persistence.PersistableNetworkPayloadStore;
 import bisq.network.p2p.storage.persistence.ProtectedDataStoreService;
 import bisq.network.p2p.storage.persistence.RemovedPayloadsService;
@@ -104,6 +106,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -128,8 +132,20 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @VisibleForTesting
     public static final int PURGE_AGE_DAYS = 10;
 
+    // As the expired entries are looked up in the expiryIndex we can check more often than at the former full map scan.
     @VisibleForTesting
-    public static final int CHECK_TTL_INTERVAL_SEC = 60;
+    public static final int CHECK_TTL_INTERVAL_SEC = 10;
+
+    // Below that number of entries in a GetDataResponse we do not use the worker pool for the pre-verification.
+    @VisibleForTesting
+    static final int MIN_ENTRIES_FOR_PARALLEL_PRE_VERIFICATION = 64;
+    private static final int PRE_VERIFICATION_PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    // Lazily created at the first large GetDataResponse.
+    private static class PreVerificationExecutorHolder {
+        private static final ExecutorService EXECUTOR = Utilities.getThreadPoolExecutor("P2PDataStorage.preVerification",
+                PRE_VERIFICATION_PARALLELISM, PRE_VERIFICATION_PARALLELISM, 1000, 60);
+    }
 
     private boolean initialRequestApplied = false;
 
@@ -141,6 +157,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     @Getter
     private final Map<ByteArray, ProtectedStorageEntry> map = new ConcurrentHashMap<>();
+    // Must be updated at each put to the map and at each backDate of an entry of the map.
+    private final ExpiryIndex expiryIndex = new ExpiryIndex();
     private final Set<HashMapChangedListener> hashMapChangedListeners = new CopyOnWriteArraySet<>();
     private Timer removeExpiredEntriesTimer;
 
@@ -151,6 +169,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     private final Set<AppendOnlyDataStoreListener> appendOnlyDataStoreListeners = new CopyOnWriteArraySet<>();
     private final RemovedPayloadsService removedPayloadsService;
+    private final PayloadHashCache payloadHashCache;
     private final Clock clock;
 
     /// The maximum number of items that must exist in the SequenceNumberMap before it is scheduled for a purge
@@ -176,6 +195,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                           ResourceDataStoreService resourceDataStoreService,
                           PersistenceManager<SequenceNumberMap> persistenceManager,
                           RemovedPayloadsService removedPayloadsService,
+                          PayloadHashCache payloadHashCache,
                           Clock clock,
                           @Named("MAX_SEQUENCE_NUMBER_MAP_SIZE_BEFORE_PURGE") int maxSequenceNumberBeforePurge) {
         this.broadcaster = broadcaster;
@@ -184,6 +204,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         this.resourceDataStoreService = resourceDataStoreService;
         this.persistenceManager = persistenceManager;
         this.removedPayloadsService = removedPayloadsService;
+        this.payloadHashCache = payloadHashCache;
         this.clock = clock;
         this.maxSequenceNumberMapSizeBeforePurge = maxSequenceNumberBeforePurge;
 
@@ -235,6 +256,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         appendOnlyDataStoreService.readFromResources(postFix, () -> appendOnlyDataStoreServiceReady.set(true));
         protectedDataStoreService.readFromResources(postFix, () -> {
             map.putAll(protectedDataStoreService.getMap());
+            expiryIndex.addAll(protectedDataStoreService.getMap());
             protectedDataStoreServiceReady.set(true);
         });
         resourceDataStoreService.readFromResources(postFix, () -> resourceDataStoreServiceReady.set(true));
@@ -248,14 +270,16 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         resourceDataStoreService.readFromResourcesSync(postFix);
 
         map.putAll(protectedDataStoreService.getMap());
+        expiryIndex.addAll(protectedDataStoreService.getMap());
     }
 
     // We get added mailbox message data from MailboxMessageService. We want to add those early so we can get it added
     // to our excluded keys to reduce initial data response data size.
     public void addProtectedMailboxStorageEntryToMap(ProtectedStorageEntry protectedStorageEntry) {
         ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
-        ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
+        ByteArray hashOfPayload = payloadHashCache.getHashOfPayload(protectedStoragePayload);
         map.put(hashOfPayload, protectedStorageEntry);
+        expiryIndex.add(hashOfPayload, protectedStorageEntry);
         //log.trace("## addProtectedMailboxStorageEntryToMap hashOfPayload={}, map={}", hashOfPayload, printMap());
     }
 
@@ -268,6 +292,17 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      * Returns a PreliminaryGetDataRequest that can be sent to a peer node to request missing Payload data.
      */
     public PreliminaryGetDataRequest buildPreliminaryGetDataRequest(int nonce) {
+        return buildPreliminaryGetDataRequest(nonce, false);
+    }
+
+    /**
+     * Returns a PreliminaryGetDataRequest. If useKnownHashesFilter is set the hashes of the PersistableNetworkPayload
+     * items are sent as KnownHashesFilter. This must only be used if the peer has Capability.KNOWN_HASHES_FILTER.
+     */
+    public PreliminaryGetDataRequest buildPreliminaryGetDataRequest(int nonce, boolean useKnownHashesFilter) {
+        if (useKnownHashesFilter) {
+            return new PreliminaryGetDataRequest(nonce, getKeysAsByteSet(map), getKnownHashesFilter());
+        }
         return new PreliminaryGetDataRequest(nonce, getKnownPayloadHashes());
     }
 
@@ -275,9 +310,31 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      * Returns a GetUpdatedDataRequest that can be sent to a peer node to request missing Payload data.
      */
     public GetUpdatedDataRequest buildGetUpdatedDataRequest(NodeAddress senderNodeAddress, int nonce) {
+        return buildGetUpdatedDataRequest(senderNodeAddress, nonce, false);
+    }
+
+    /**
+     * Returns a GetUpdatedDataRequest. If useKnownHashesFilter is set the hashes of the PersistableNetworkPayload
+     * items are sent as KnownHashesFilter. This must only be used if the peer has Capability.KNOWN_HASHES_FILTER.
+     */
+    public GetUpdatedDataRequest buildGetUpdatedDataRequest(NodeAddress senderNodeAddress,
+                                                            int nonce,
+                                                            boolean useKnownHashesFilter) {
+        if (useKnownHashesFilter) {
+            return new GetUpdatedDataRequest(senderNodeAddress, nonce, getKeysAsByteSet(map), getKnownHashesFilter());
+        }
         return new GetUpdatedDataRequest(senderNodeAddress, nonce, getKnownPayloadHashes());
     }
 
+    /**
+     * Returns a bloom filter of the PersistableNetworkPayload hashes. Those are the vast majority of our known
+     * hashes. We keep the ProtectedStorageEntry hashes in the excluded keys as a false positive would cause that we
+     * miss an offer or mailbox message.
+     */
+    private KnownHashesFilter getKnownHashesFilter() {
+        return KnownHashesFilter.fromHashes(getMapForDataRequest().keySet());
+    }
+
     /**
      * Returns the set of known payload hashes. This is used in the GetData path to request missing data from peer nodes
      */
@@ -305,6 +362,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray =
                 P2PDataStorage.ByteArray.convertBytesSetToByteArraySet(getDataRequest.getExcludedKeys());
+        KnownHashesFilter knownHashesFilter = getDataRequest.getKnownHashesFilter();
 
         // Pre v 1.4.0 requests do not have set the requesters version field so it is null.
         // The methods in HistoricalDataStoreService will return all historical data in that case.
@@ -322,6 +380,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                         mapForDataResponse,
                         Function.identity(),
                         excludedKeysAsByteArray,
+                        knownHashesFilter,
                         peerCapabilities,
                         maxEntriesPerType,
                         limit,
@@ -337,11 +396,14 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         // We give 75% space to ProtectedStorageEntries as they contain MailBoxMessages and those can be larger.
         limit = Math.round(maxSize * 0.75);
+        // The knownHashesFilter only covers PersistableNetworkPayloads. A false positive must never drop an offer or
+        // mailbox message, so ProtectedStorageEntries are only filtered by the exact excluded keys.
         Set<ProtectedStorageEntry> filteredProtectedStorageEntries =
                 filterKnownHashes(
                         map,
                         ProtectedStorageEntry::getProtectedStoragePayload,
                         excludedKeysAsByteArray,
+                        null,
                         peerCapabilities,
                         maxEntriesPerType,
                         limit,
@@ -352,7 +414,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 filteredProtectedStorageEntries.size(), map.size());
         log.trace("## buildGetDataResponse filteredProtectedStorageEntryHashes={}",
                 filteredProtectedStorageEntries.stream()
-                        .map(e -> get32ByteHashAsByteArray((e.getProtectedStoragePayload())))
+                        .map(e -> payloadHashCache.getHashOfPayload(e.getProtectedStoragePayload()))
                         .toArray());
 
         boolean wasTruncated = wasPersistableNetworkPayloadsTruncated.get() || wasProtectedStorageEntriesTruncated.get();
@@ -369,8 +431,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     // Utils for collecting the exclude hashes
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Returns a read-only view over the maps of the services
     private Map<ByteArray, PersistableNetworkPayload> getMapForDataRequest() {
-        Map<ByteArray, PersistableNetworkPayload> map = new HashMap<>();
+        List<Map<ByteArray, PersistableNetworkPayload>> serviceMaps = new ArrayList<>();
         appendOnlyDataStoreService.getServices()
                 .forEach(service -> {
                     Map<ByteArray, PersistableNetworkPayload> serviceMap;
@@ -382,15 +445,17 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                     } else {
                         serviceMap = service.getMap();
                     }
-                    map.putAll(serviceMap);
+                    serviceMaps.add(serviceMap);
                     log.debug("We added {} entries from {} to the excluded key set of our request",
                             serviceMap.size(), service.getClass().getSimpleName());
                 });
-        return map;
+        // The services handle different payload types, so the keys of their maps are disjoint
+        return new LayeredMapView<>(serviceMaps);
     }
 
+    // Returns a read-only view over the maps of the services
     public Map<ByteArray, PersistableNetworkPayload> getMapForDataResponse(String requestersVersion) {
-        Map<ByteArray, PersistableNetworkPayload> map = new HashMap<>();
+        List<Map<ByteArray, PersistableNetworkPayload>> serviceMaps = new ArrayList<>();
         appendOnlyDataStoreService.getServices()
                 .forEach(service -> {
                     Map<ByteArray, PersistableNetworkPayload> serviceMap;
@@ -400,29 +465,31 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                     } else {
                         serviceMap = service.getMap();
                     }
-                    map.putAll(serviceMap);
+                    serviceMaps.add(serviceMap);
                     log.info("We added {} entries from {} to be filtered by excluded keys",
                             serviceMap.size(), service.getClass().getSimpleName());
                 });
-        return map;
+        return new LayeredMapView<>(serviceMaps);
     }
 
     /**
      * Generic function that can be used to filter a Map<ByteArray, ProtectedStorageEntry || PersistableNetworkPayload>
-     * by a given set of keys and peer capabilities.
+     * by a given set of keys, an optional bloom filter of known keys and peer capabilities.
      */
     static private <T extends NetworkPayload> Set<T> filterKnownHashes(
             Map<ByteArray, T> toFilter,
             Function<T, ? extends NetworkPayload> asPayload,
             Set<ByteArray> knownHashes,
+            @Nullable KnownHashesFilter knownHashesFilter,
             Capabilities peerCapabilities,
             int maxEntries,
             long limit,
             AtomicBoolean outTruncated,
             boolean isPersistableNetworkPayload) {
-        log.info("Filter {} data based on {} knownHashes",
+        log.info("Filter {} data based on {} knownHashes and {}",
                 isPersistableNetworkPayload ? "PersistableNetworkPayload" : "ProtectedStorageEntry",
-                knownHashes.size());
+                knownHashes.size(),
+                knownHashesFilter != null ? "a knownHashesFilter" : "no knownHashesFilter");
 
         AtomicLong totalSize = new AtomicLong();
         AtomicBoolean exceededSizeLimit = new AtomicBoolean();
@@ -439,6 +506,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         // Map.Entry.value can be ProtectedStorageEntry or PersistableNetworkPayload. We call it item in the steam iterations.
         List<T> filteredItems = entries.stream()
                 .filter(entry -> !knownHashes.contains(entry.getKey()))
+                .filter(entry -> knownHashesFilter == null || !knownHashesFilter.mightContain(entry.getKey()))
                 .map(Map.Entry::getValue)
                 .filter(item -> shouldTransmitPayloadToPeer(peerCapabilities, asPayload.apply(item)))
                 .collect(Collectors.toList());
@@ -578,10 +646,62 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      * or domain listeners.
      */
     public void processGetDataResponse(GetDataResponse getDataResponse, NodeAddress sender) {
-        Set<ProtectedStorageEntry> protectedStorageEntries = getDataResponse.getDataSet();
+        List<ProtectedStorageEntry> protectedStorageEntries = new ArrayList<>(getDataResponse.getDataSet());
+        applyGetDataResponse(getDataResponse, protectedStorageEntries, new ByteArray[protectedStorageEntries.size()], sender);
+    }
+
+    /**
+     * Like processGetDataResponse, but for large responses the payload hashes and signatures of the
+     * ProtectedStorageEntries are computed on a worker pool first. The response is applied on the user thread
+     * afterwards and the completeHandler is called on the user thread once it was applied.
+     */
+    public void processGetDataResponse(GetDataResponse getDataResponse,
+                                       NodeAddress sender,
+                                       Runnable completeHandler) {
+        List<ProtectedStorageEntry> protectedStorageEntries = new ArrayList<>(getDataResponse.getDataSet());
+        int numEntries = protectedStorageEntries.size();
+        ByteArray[] hashesOfPayloads = new ByteArray[numEntries];
+        if (numEntries < MIN_ENTRIES_FOR_PARALLEL_PRE_VERIFICATION) {
+            applyGetDataResponse(getDataResponse, protectedStorageEntries, hashesOfPayloads, sender);
+            completeHandler.run();
+            return;
+        }
+
+        long ts = this.clock.millis();
+        int numTasks = Math.min(PRE_VERIFICATION_PARALLELISM, numEntries);
+        AtomicInteger numPendingTasks = new AtomicInteger(numTasks);
+        for (int task = 0; task < numTasks; task++) {
+            int firstIndex = task;
+            Runnable preVerificationTask = () -> {
+                preVerifyProtectedStorageEntries(protectedStorageEntries, hashesOfPayloads, firstIndex, numTasks);
+                // The last task hands over to the user thread. The decrement makes the array writes of all tasks
+                // visible to it.
+                if (numPendingTasks.decrementAndGet() == 0) {
+                    UserThread.execute(() -> {
+                        log.info("Pre-verification of {} protectedStorageEntries took {} ms.",
+                                numEntries, this.clock.millis() - ts);
+                        applyGetDataResponse(getDataResponse, protectedStorageEntries, hashesOfPayloads, sender);
+                        completeHandler.run();
+                    });
+                }
+            };
+            try {
+                PreVerificationExecutorHolder.EXECUTOR.execute(preVerificationTask);
+            } catch (RejectedExecutionException e) {
+                log.warn("Pre-verification task got rejected. We run it on the calling thread. {}", e.toString());
+                preVerificationTask.run();
+            }
+        }
+    }
+
+    private void applyGetDataResponse(GetDataResponse getDataResponse,
+                                      List<ProtectedStorageEntry> protectedStorageEntries,
+                                      ByteArray[] hashesOfPayloads,
+                                      NodeAddress sender) {
         Set<PersistableNetworkPayload> persistableNetworkPayloadSet = getDataResponse.getPersistableNetworkPayloadSet();
         long ts = System.currentTimeMillis();
-        protectedStorageEntries.forEach(protectedStorageEntry -> {
+        for (int i = 0; i < protectedStorageEntries.size(); i++) {
+            ProtectedStorageEntry protectedStorageEntry = protectedStorageEntries.get(i);
             // We rebroadcast high priority data after a delay for better resilience
             if (protectedStorageEntry.getProtectedStoragePayload().getGetDataResponsePriority() == GetDataResponsePriority.HIGH) {
                 UserThread.runAfter(() -> {
@@ -591,9 +711,11 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             }
 
             // We don't broadcast here (last param) as we are only connected to the seed node and would be pointless
-            addProtectedStorageEntry(protectedStorageEntry, sender, null, false);
-
-        });
+            ByteArray hashOfPayload = hashesOfPayloads[i] != null ?
+                    hashesOfPayloads[i] :
+                    payloadHashCache.getHashOfPayload(protectedStorageEntry.getProtectedStoragePayload());
+            addProtectedStorageEntry(protectedStorageEntry, hashOfPayload, sender, null, false);
+        }
         log.info("Processing {} protectedStorageEntries took {} ms.", protectedStorageEntries.size(), this.clock.millis() - ts);
 
         ts = this.clock.millis();
@@ -623,6 +745,26 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         initialRequestApplied = true;
     }
 
+    // Computes the payload hashes and verifies the signatures of every numTasks-th entry starting at firstIndex. The
+    // signature verification result is cached in the entries, so the add operations on the user thread only do the
+    // cheap, order dependent checks and map updates. The add operations do all checks as before, so the acceptance of
+    // the entries does not change. If the hash of an entry cannot be computed, its slot in the array stays null.
+    private void preVerifyProtectedStorageEntries(List<ProtectedStorageEntry> protectedStorageEntries,
+                                                  ByteArray[] hashesOfPayloads,
+                                                  int firstIndex,
+                                                  int numTasks) {
+        for (int i = firstIndex; i < protectedStorageEntries.size(); i += numTasks) {
+            ProtectedStorageEntry protectedStorageEntry = protectedStorageEntries.get(i);
+            try {
+                hashesOfPayloads[i] = payloadHashCache.getHashOfPayload(protectedStorageEntry.getProtectedStoragePayload());
+                protectedStorageEntry.isSignatureValid(payloadHashCache);
+            } catch (Throwable t) {
+                // The add operation will repeat the failed step on the user thread.
+                log.debug("Pre-verification of protectedStorageEntry failed. {}", t.toString());
+            }
+        }
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -639,10 +781,19 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         // object when we get it sent from new peers, we don’t remove the sequence number from the map.
         // That way an ADD message for an already expired data will fail because the sequence number
         // is equal and not larger as expected.
-        ArrayList<Map.Entry<ByteArray, ProtectedStorageEntry>> toRemoveList =
-                map.entrySet().stream()
-                        .filter(entry -> entry.getValue().isExpired(this.clock))
-                        .collect(Collectors.toCollection(ArrayList::new));
+        // We only check the entries of the due buckets of the expiryIndex. Entries which got refreshed in the meantime
+        // are indexed again with their new expiry time and removed entries are dropped.
+        ArrayList<Map.Entry<ByteArray, ProtectedStorageEntry>> toRemoveList = new ArrayList<>();
+        expiryIndex.pollDue(this.clock.millis()).forEach(hashOfPayload -> {
+            ProtectedStorageEntry protectedStorageEntry = map.get(hashOfPayload);
+            if (protectedStorageEntry == null)
+                return;
+
+            if (protectedStorageEntry.isExpired(this.clock))
+                toRemoveList.add(Map.entry(hashOfPayload, protectedStorageEntry));
+            else
+                expiryIndex.add(hashOfPayload, protectedStorageEntry);
+        });
 
         // Batch processing can cause performance issues, so do all of the removes first, then update the listeners
         // to let them know about the removes.
@@ -709,10 +860,11 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         NodeAddress peersNodeAddress = connection.getPeersNodeAddressOptional().get();
 
         // Backdate all the eligible payloads based on the node that disconnected
-        map.values().stream()
-                .filter(protectedStorageEntry -> protectedStorageEntry.getProtectedStoragePayload() instanceof RequiresOwnerIsOnlinePayload)
-                .filter(protectedStorageEntry -> ((RequiresOwnerIsOnlinePayload) protectedStorageEntry.getProtectedStoragePayload()).getOwnerNodeAddress().equals(peersNodeAddress))
-                .forEach(protectedStorageEntry -> {
+        map.entrySet().stream()
+                .filter(entry -> entry.getValue().getProtectedStoragePayload() instanceof RequiresOwnerIsOnlinePayload)
+                .filter(entry -> ((RequiresOwnerIsOnlinePayload) entry.getValue().getProtectedStoragePayload()).getOwnerNodeAddress().equals(peersNodeAddress))
+                .forEach(entry -> {
+                    ProtectedStorageEntry protectedStorageEntry = entry.getValue();
                     // We only set the data back by half of the TTL and remove the data only if is has
                     // expired after that back dating.
                     // We might get connection drops which are not caused by the node going offline, so
@@ -724,6 +876,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                     // Usually the are: SOCKET_TIMEOUT ,TERMINATED (EOFException)
                     log.debug("Backdating {} due to closeConnectionReason={}", protectedStorageEntry, closeConnectionReason);
                     protectedStorageEntry.backDate();
+                    // The entry expires earlier now, so it might be due before its current bucket in the expiryIndex.
+                    expiryIndex.add(entry.getKey(), protectedStorageEntry);
                 });
     }
 
@@ -829,8 +983,16 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                                              @Nullable NodeAddress sender,
                                              @Nullable BroadcastHandler.Listener listener,
                                              boolean allowBroadcast) {
+        ByteArray hashOfPayload = payloadHashCache.getHashOfPayload(protectedStorageEntry.getProtectedStoragePayload());
+        return addProtectedStorageEntry(protectedStorageEntry, hashOfPayload, sender, listener, allowBroadcast);
+    }
+
+    private boolean addProtectedStorageEntry(ProtectedStorageEntry protectedStorageEntry,
+                                             ByteArray hashOfPayload,
+                                             @Nullable NodeAddress sender,
+                                             @Nullable BroadcastHandler.Listener listener,
+                                             boolean allowBroadcast) {
         ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
-        ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
 
         //log.trace("## call addProtectedStorageEntry hash={}, map={}", hashOfPayload, printMap());
 
@@ -866,6 +1028,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         }
 
         // Verify the ProtectedStorageEntry is well formed and valid for the add operation
+        verifySignature(protectedStorageEntry);
         if (!protectedStorageEntry.isValidForAddOperation()) {
             log.trace("## !isValidForAddOperation hash={}", hashOfPayload);
             return false;
@@ -886,6 +1049,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         // This is an updated entry. Record it and signal listeners.
         map.put(hashOfPayload, protectedStorageEntry);
+        expiryIndex.add(hashOfPayload, protectedStorageEntry);
         hashMapChangedListeners.forEach(e -> e.onAdded(Collections.singletonList(protectedStorageEntry)));
 
         // Record the updated sequence number and persist it. Higher delay so we can batch more items.
@@ -918,7 +1082,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                                                               @Nullable NodeAddress sender,
                                                               @Nullable BroadcastHandler.Listener listener) {
         ProtectedStoragePayload protectedStoragePayload = protectedMailboxStorageEntry.getProtectedStoragePayload();
-        ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
+        ByteArray hashOfPayload = payloadHashCache.getHashOfPayload(protectedStoragePayload);
 
         //log.trace("## call republishProtectedStorageEntry hash={}, map={}", hashOfPayload, printMap());
 
@@ -971,11 +1135,13 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 return false;
 
             // Verify the updated ProtectedStorageEntry is well formed and valid for update
+            verifySignature(updatedEntry);
             if (!updatedEntry.isValidForAddOperation())
                 return false;
 
             // Update the hash map with the updated entry
             map.put(hashOfPayload, updatedEntry);
+            expiryIndex.add(hashOfPayload, updatedEntry);
 
             // Record the latest sequence number and persist it
             sequenceNumberMap.put(hashOfPayload, new MapValue(updatedEntry.getSequenceNumber(), this.clock.millis()));
@@ -1003,13 +1169,14 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     public boolean remove(ProtectedStorageEntry protectedStorageEntry,
                           @Nullable NodeAddress sender) {
         ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
-        ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
+        ByteArray hashOfPayload = payloadHashCache.getHashOfPayload(protectedStoragePayload);
 
         // If we have seen a more recent operation for this payload, ignore this one
         if (!hasSequenceNrIncreased(protectedStorageEntry.getSequenceNumber(), hashOfPayload))
             return false;
 
         // Verify the ProtectedStorageEntry is well formed and valid for the remove operation
+        verifySignature(protectedStorageEntry);
         if (!protectedStorageEntry.isValidForRemoveOperation())
             return false;
 
@@ -1049,14 +1216,14 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     public ProtectedStorageEntry getProtectedStorageEntry(ProtectedStoragePayload protectedStoragePayload,
                                                           KeyPair ownerStoragePubKey)
             throws CryptoException {
-        ByteArray hashOfData = get32ByteHashAsByteArray(protectedStoragePayload);
+        ByteArray hashOfData = payloadHashCache.getHashOfPayload(protectedStoragePayload);
         int sequenceNumber;
         if (sequenceNumberMap.containsKey(hashOfData))
             sequenceNumber = sequenceNumberMap.get(hashOfData).sequenceNr + 1;
         else
             sequenceNumber = 1;
 
-        byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(new DataAndSeqNrPair(protectedStoragePayload, sequenceNumber));
+        byte[] hashOfDataAndSeqNr = payloadHashCache.getHashOfDataAndSeqNr(protectedStoragePayload, sequenceNumber);
         byte[] signature = Sig.sign(ownerStoragePubKey.getPrivate(), hashOfDataAndSeqNr);
         return new ProtectedStorageEntry(protectedStoragePayload, ownerStoragePubKey.getPublic(), sequenceNumber, signature, this.clock);
     }
@@ -1064,14 +1231,14 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     public RefreshOfferMessage getRefreshTTLMessage(ProtectedStoragePayload protectedStoragePayload,
                                                     KeyPair ownerStoragePubKey)
             throws CryptoException {
-        ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
+        ByteArray hashOfPayload = payloadHashCache.getHashOfPayload(protectedStoragePayload);
         int sequenceNumber;
         if (sequenceNumberMap.containsKey(hashOfPayload))
             sequenceNumber = sequenceNumberMap.get(hashOfPayload).sequenceNr + 1;
         else
             sequenceNumber = 1;
 
-        byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(new DataAndSeqNrPair(protectedStoragePayload, sequenceNumber));
+        byte[] hashOfDataAndSeqNr = payloadHashCache.getHashOfDataAndSeqNr(protectedStoragePayload, sequenceNumber);
         byte[] signature = Sig.sign(ownerStoragePubKey.getPrivate(), hashOfDataAndSeqNr);
         return new RefreshOfferMessage(hashOfDataAndSeqNr, signature, hashOfPayload.bytes, sequenceNumber);
     }
@@ -1080,14 +1247,14 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                                                                       KeyPair storageSignaturePubKey,
                                                                       PublicKey receiversPublicKey)
             throws CryptoException {
-        ByteArray hashOfData = get32ByteHashAsByteArray(expirableMailboxStoragePayload);
+        ByteArray hashOfData = payloadHashCache.getHashOfPayload(expirableMailboxStoragePayload);
         int sequenceNumber;
         if (sequenceNumberMap.containsKey(hashOfData))
             sequenceNumber = sequenceNumberMap.get(hashOfData).sequenceNr + 1;
         else
             sequenceNumber = 1;
 
-        byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(new DataAndSeqNrPair(expirableMailboxStoragePayload, sequenceNumber));
+        byte[] hashOfDataAndSeqNr = payloadHashCache.getHashOfDataAndSeqNr(expirableMailboxStoragePayload, sequenceNumber);
         byte[] signature = Sig.sign(storageSignaturePubKey.getPrivate(), hashOfDataAndSeqNr);
         return new ProtectedMailboxStorageEntry(expirableMailboxStoragePayload,
                 storageSignaturePubKey.getPublic(), sequenceNumber, signature, receiversPublicKey, this.clock);
@@ -1144,6 +1311,12 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         hashMapChangedListeners.forEach(e -> e.onRemoved(removedProtectedStorageEntries));
     }
 
+    // Verifies the signature with the signed hash built from the cached serialized payload. The entry caches the
+    // result, so its validity checks do not serialize the payload again.
+    private void verifySignature(ProtectedStorageEntry protectedStorageEntry) {
+        protectedStorageEntry.isSignatureValid(payloadHashCache);
+    }
+
     private boolean hasSequenceNrIncreased(int newSequenceNumber, ByteArray hashOfData) {
         if (sequenceNumberMap.containsKey(hashOfData)) {
             int storedSequenceNumber = sequenceNumberMap.get(hashOfData).sequenceNr;
@@ -1196,13 +1369,13 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             sb.append("Data set ").append(info).append(" operation");
             // We print the items sorted by hash with the payload class name and id
             List<Tuple2<String, ProtectedStorageEntry>> tempList = map.values().stream()
-                    .map(e -> new Tuple2<>(org.bitcoinj.core.Utils.HEX.encode(get32ByteHashAsByteArray(e.getProtectedStoragePayload()).bytes), e))
+                    .map(e -> new Tuple2<>(org.bitcoinj.core.Utils.HEX.encode(payloadHashCache.getHashOfPayload(e.getProtectedStoragePayload()).bytes), e))
                     .sorted(Comparator.comparing(o -> o.first))
                     .collect(Collectors.toList());
             tempList.forEach(e -> {
                 ProtectedStorageEntry storageEntry = e.second;
                 ProtectedStoragePayload protectedStoragePayload = storageEntry.getProtectedStoragePayload();
-                MapValue mapValue = sequenceNumberMap.get(get32ByteHashAsByteArray(protectedStoragePayload));
+                MapValue mapValue = sequenceNumberMap.get(payloadHashCache.getHashOfPayload(protectedStoragePayload));
                 sb.append("\n")
                         .append("Hash=")
                         .append(e.first)
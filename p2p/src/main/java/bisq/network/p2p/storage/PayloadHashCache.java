@@ -0,0 +1,110 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
+
+import bisq.common.crypto.Hash;
+
+import com.google.protobuf.CodedOutputStream;
+
+import javax.inject.Inject;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Caches the serialized protobuf message and the hash of the ProtectedStoragePayloads handled by the P2PDataStorage,
+ * so that a payload is serialized at most once while it is in use, instead of at each add, refresh, remove and
+ * signature check.
+ *
+ * The caches use weak keys, so the payloads are compared by identity and the entries are dropped together with the
+ * payloads. This is only safe for payloads which are not mutated anymore, so it must only be used for the payloads of
+ * signed ProtectedStorageEntries (a mutation would invalidate the signature anyway). Other callers have to use
+ * P2PDataStorage.get32ByteHash.
+ */
+public class PayloadHashCache {
+    // The serialized payloads are bounded by their size, as mailbox payloads can be large.
+    private static final long MAX_SERIALIZED_PAYLOADS_BYTES = 64 * 1024 * 1024;
+    private static final long MAX_HASHES = 200_000;
+
+    private final Cache<ProtectedStoragePayload, byte[]> serializedPayloads = CacheBuilder.newBuilder()
+            .weakKeys()
+            .maximumWeight(MAX_SERIALIZED_PAYLOADS_BYTES)
+            .weigher((ProtectedStoragePayload payload, byte[] serializedPayload) -> serializedPayload.length)
+            .build();
+    private final Cache<ProtectedStoragePayload, P2PDataStorage.ByteArray> hashes = CacheBuilder.newBuilder()
+            .weakKeys()
+            .maximumSize(MAX_HASHES)
+            .build();
+
+    @Inject
+    public PayloadHashCache() {
+    }
+
+    /**
+     * @return The same hash as P2PDataStorage.get32ByteHashAsByteArray(protectedStoragePayload)
+     */
+    public P2PDataStorage.ByteArray getHashOfPayload(ProtectedStoragePayload protectedStoragePayload) {
+        P2PDataStorage.ByteArray hash = hashes.getIfPresent(protectedStoragePayload);
+        if (hash == null) {
+            hash = new P2PDataStorage.ByteArray(Hash.getSha256Hash(getSerializedPayload(protectedStoragePayload)));
+            hashes.put(protectedStoragePayload, hash);
+        }
+        return hash;
+    }
+
+    /**
+     * @return The same hash as P2PDataStorage.get32ByteHash(new DataAndSeqNrPair(protectedStoragePayload, sequenceNumber))
+     */
+    public byte[] getHashOfDataAndSeqNr(ProtectedStoragePayload protectedStoragePayload, int sequenceNumber) {
+        // We write the protobuf.DataAndSeqNrPair encoding with the serialized payload as the embedded message, so the
+        // payload does not get serialized again. As in proto3, a sequence number of 0 is not written.
+        byte[] serializedPayload = getSerializedPayload(protectedStoragePayload);
+        int size = CodedOutputStream.computeByteArraySize(protobuf.DataAndSeqNrPair.PAYLOAD_FIELD_NUMBER, serializedPayload);
+        if (sequenceNumber != 0) {
+            size += CodedOutputStream.computeInt32Size(protobuf.DataAndSeqNrPair.SEQUENCE_NUMBER_FIELD_NUMBER, sequenceNumber);
+        }
+        byte[] serializedDataAndSeqNrPair = new byte[size];
+        CodedOutputStream outputStream = CodedOutputStream.newInstance(serializedDataAndSeqNrPair);
+        try {
+            outputStream.writeByteArray(protobuf.DataAndSeqNrPair.PAYLOAD_FIELD_NUMBER, serializedPayload);
+            if (sequenceNumber != 0) {
+                outputStream.writeInt32(protobuf.DataAndSeqNrPair.SEQUENCE_NUMBER_FIELD_NUMBER, sequenceNumber);
+            }
+            outputStream.checkNoSpaceLeft();
+        } catch (IOException e) {
+            // Cannot happen as the array has the computed size
+            throw new UncheckedIOException(e);
+        }
+        return Hash.getSha256Hash(serializedDataAndSeqNrPair);
+    }
+
+    // We do not use Cache.get with a loader, as it would wrap the exceptions of toProtoMessage.
+    private byte[] getSerializedPayload(ProtectedStoragePayload protectedStoragePayload) {
+        byte[] serializedPayload = serializedPayloads.getIfPresent(protectedStoragePayload);
+        if (serializedPayload == null) {
+            serializedPayload = protectedStoragePayload.toProtoMessage().toByteArray();
+            serializedPayloads.put(protectedStoragePayload, serializedPayload);
+        }
+        return serializedPayload;
+    }
+}
@@ -18,6 +18,7 @@
 package bisq.network.p2p.storage.payload;
 
 import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.PayloadHashCache;
 
 import bisq.common.crypto.CryptoException;
 import bisq.common.crypto.Sig;
@@ -36,6 +37,9 @@ import java.security.PublicKey;
 
 import java.time.Clock;
 
+import java.util.function.Supplier;
+
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -52,6 +56,10 @@ public class ProtectedStorageEntry implements NetworkPayload, PersistablePayload
     private final int sequenceNumber;
     private final byte[] signature;
     private long creationTimeStamp;
+    // The signed data and the signature cannot change, so the result of the (expensive) verification is cached.
+    // Null as long as no verification has completed.
+    @Getter(AccessLevel.NONE)
+    transient private volatile Boolean signatureValid;
 
     public ProtectedStorageEntry(@NotNull ProtectedStoragePayload protectedStoragePayload,
                                  @NotNull PublicKey ownerPubKey,
@@ -207,16 +215,35 @@ public class ProtectedStorageEntry implements NetworkPayload, PersistablePayload
     /*
      * Returns true if the signature for the Entry is valid for the payload, sequence number, and ownerPubKey
      */
-    boolean isSignatureValid() {
+    public boolean isSignatureValid() {
+        return isSignatureValid(() -> P2PDataStorage.get32ByteHash(
+                new P2PDataStorage.DataAndSeqNrPair(this.protectedStoragePayload, this.sequenceNumber)));
+    }
+
+    /*
+     * Same as isSignatureValid(), but the signed hash is built from the serialized payload of the payloadHashCache.
+     * The P2PDataStorage calls it before the validity checks, which then use the cached result.
+     */
+    public boolean isSignatureValid(PayloadHashCache payloadHashCache) {
+        return isSignatureValid(() ->
+                payloadHashCache.getHashOfDataAndSeqNr(this.protectedStoragePayload, this.sequenceNumber));
+    }
+
+    private boolean isSignatureValid(Supplier<byte[]> hashOfDataAndSeqNrSupplier) {
+        Boolean cachedSignatureValid = signatureValid;
+        if (cachedSignatureValid != null)
+            return cachedSignatureValid;
+
         try {
-            byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(
-                    new P2PDataStorage.DataAndSeqNrPair(this.protectedStoragePayload, this.sequenceNumber));
+            byte[] hashOfDataAndSeqNr = hashOfDataAndSeqNrSupplier.get();
 
             boolean result = Sig.verify(this.ownerPubKey, hashOfDataAndSeqNr, this.signature);
 
             if (!result)
                 log.warn("ProtectedStorageEntry::isSignatureValid() failed.\n{}}", this);
 
+            // Only the result of a completed verification is cached, a failed verification is repeated at the next call.
+            signatureValid = result;
             return result;
         } catch (CryptoException e) {
             log.error("ProtectedStorageEntry::isSignatureValid() exception {}", e.toString());
@@ -28,8 +28,12 @@ import com.google.common.collect.ImmutableMap;
 
 import java.io.File;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import lombok.extern.slf4j.Slf4j;
@@ -39,12 +43,16 @@ import lombok.extern.slf4j.Slf4j;
  * New data is added to the default map in the store (live data). Historical data is created from resource files.
  * For initial data requests we only use the live data as the users version is sent with the
  * request so the responding (seed)node can figure out if we miss any of the historical data.
+ * The maps returned for the data responses are read-only views over the live map and the immutable historical maps,
+ * so that serving a request does not copy the data.
  */
 @Slf4j
 public abstract class HistoricalDataStoreService<T extends PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> extends MapStoreService<T, PersistableNetworkPayload> {
-    private ImmutableMap<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion;
-    // Cache to avoid that we have to recreate the historical data at each request
-    private ImmutableMap<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads;
+    // Historical payloads by the version of their store. The maps have disjoint keys, a payload contained in multiple
+    // stores is only kept in the store of the oldest version.
+    private ImmutableMap<String, ImmutableMap<P2PDataStorage.ByteArray, PersistableNetworkPayload>> historicalPayloadsByVersion =
+            ImmutableMap.of();
+    private Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads = ImmutableMap.of();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -64,10 +72,11 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
     // If requestersVersion is null we return all historical data.
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMapSinceVersion(String requestersVersion) {
         // We add all our live data
-        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> result = new HashMap<>(store.getMap());
+        List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> layers = new ArrayList<>();
+        layers.add(store.getMap());
 
         // If we have a store with a newer version than the requesters version we will add those as well.
-        storesByVersion.entrySet().stream()
+        historicalPayloadsByVersion.entrySet().stream()
                 .filter(entry -> {
                     // Old nodes not sending the version will get delivered all data
                     if (requestersVersion == null) {
@@ -87,9 +96,10 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
                             requestersVersion, storeVersion, details);
                     return newVersion;
                 })
-                .map(e -> e.getValue().getMap())
-                .forEach(result::putAll);
+                .map(Map.Entry::getValue)
+                .forEach(layers::add);
 
+        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> result = new LayeredMapView<>(layers);
         log.info("We found {} entries since requesters version {}",
                 result.size(), requestersVersion);
         return result;
@@ -99,10 +109,9 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
         return store.getMap();
     }
 
+    // Returns a read-only view
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMapOfAllData() {
-        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> result = new HashMap<>(getMapOfLiveData());
-        result.putAll(allHistoricalPayloads);
-        return result;
+        return new LayeredMapView<>(List.of(getMapOfLiveData(), allHistoricalPayloads));
     }
 
 
@@ -124,7 +133,7 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
         }
 
         getMapOfLiveData().put(hash, payload);
-        requestPersistence();
+        requestPersistence(payload);
     }
 
     @Override
@@ -137,7 +146,7 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
         // So it will be always null. We still keep the return type as we override the method from MapStoreService which
         // follow the Map.putIfAbsent signature.
         getMapOfLiveData().put(hash, payload);
-        requestPersistence();
+        requestPersistence(payload);
         return null;
     }
 
@@ -149,18 +158,15 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
                     getFileName(), getMapOfLiveData().size());
 
             // Now we add our historical data stores.
-            Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads = new HashMap<>();
             Map<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion = new HashMap<>();
             AtomicInteger numFiles = new AtomicInteger(Version.HISTORICAL_RESOURCE_FILE_VERSION_TAGS.size());
             Version.HISTORICAL_RESOURCE_FILE_VERSION_TAGS.forEach(version -> readHistoricalStoreFromResources(version,
                     postFix,
-                    allHistoricalPayloads,
                     storesByVersion,
                     () -> {
                         if (numFiles.decrementAndGet() == 0) {
-                            // At last iteration we set the immutable map
-                            this.allHistoricalPayloads = ImmutableMap.copyOf(allHistoricalPayloads);
-                            this.storesByVersion = ImmutableMap.copyOf(storesByVersion);
+                            // At last iteration we set the immutable maps
+                            setHistoricalPayloads(storesByVersion);
                             completeHandler.run();
                         }
                     }));
@@ -174,7 +180,6 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
 
     private void readHistoricalStoreFromResources(String version,
                                                   String postFix,
-                                                  Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads,
                                                   Map<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion,
                                                   Runnable completeHandler) {
 
@@ -184,7 +189,6 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
         // If resource file does not exist we do not create a new store as it would never get filled.
         persistenceManager.readPersisted(fileName, persisted -> {
                     storesByVersion.put(version, persisted);
-                    allHistoricalPayloads.putAll(persisted.getMap());
                     log.info("We have read from {} {} historical items.", fileName, persisted.getMap().size());
                     pruneStore(persisted, version);
                     completeHandler.run();
@@ -192,6 +196,29 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
                 completeHandler::run);
     }
 
+    // The stores are read in any order, so we build the disjoint maps in the order of the version tags.
+    private void setHistoricalPayloads(Map<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion) {
+        Set<P2PDataStorage.ByteArray> addedHashes = new HashSet<>();
+        ImmutableMap.Builder<String, ImmutableMap<P2PDataStorage.ByteArray, PersistableNetworkPayload>> historicalPayloadsByVersion =
+                ImmutableMap.builder();
+        List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> layers = new ArrayList<>();
+        Version.HISTORICAL_RESOURCE_FILE_VERSION_TAGS.stream()
+                .filter(storesByVersion::containsKey)
+                .forEach(version -> {
+                    ImmutableMap.Builder<P2PDataStorage.ByteArray, PersistableNetworkPayload> payloads = ImmutableMap.builder();
+                    storesByVersion.get(version).getMap().forEach((hash, payload) -> {
+                        if (addedHashes.add(hash)) {
+                            payloads.put(hash, payload);
+                        }
+                    });
+                    ImmutableMap<P2PDataStorage.ByteArray, PersistableNetworkPayload> payloadsOfVersion = payloads.build();
+                    historicalPayloadsByVersion.put(version, payloadsOfVersion);
+                    layers.add(payloadsOfVersion);
+                });
+        this.historicalPayloadsByVersion = historicalPayloadsByVersion.build();
+        this.allHistoricalPayloads = new LayeredMapView<>(layers);
+    }
+
     private void pruneStore(PersistableNetworkPayloadStore<? extends PersistableNetworkPayload> historicalStore,
                             String version) {
         Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> mapOfLiveData = getMapOfLiveData();
@@ -0,0 +1,99 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only view over a list of maps, so that several maps can be iterated and queried as one without copying them
+ * into a new map. The keys of the maps must be disjoint, otherwise entries would be iterated and counted twice.
+ * Changes of the underlying maps are visible in the view.
+ */
+public class LayeredMapView<K, V> extends AbstractMap<K, V> {
+    private final List<Map<K, V>> layers;
+    private final Set<Entry<K, V>> entrySet = new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return Iterators.unmodifiableIterator(Iterators.concat(layers.stream()
+                    .map(layer -> layer.entrySet().iterator())
+                    .iterator()));
+        }
+
+        @Override
+        public int size() {
+            return LayeredMapView.this.size();
+        }
+    };
+
+    public LayeredMapView(List<? extends Map<K, V>> layers) {
+        this.layers = ImmutableList.copyOf(layers);
+    }
+
+    @Override
+    public V get(Object key) {
+        for (Map<K, V> layer : layers) {
+            V value = layer.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        for (Map<K, V> layer : layers) {
+            if (layer.containsKey(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Map<K, V> layer : layers) {
+            size += layer.size();
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Map<K, V> layer : layers) {
+            if (!layer.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return entrySet;
+    }
+}
@@ -20,7 +20,8 @@ package bisq.network.p2p.storage.persistence;
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 
-import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.JournaledPersistableEnvelope;
+import bisq.common.proto.persistable.PersistablePayload;
 
 import java.util.Collection;
 import java.util.Map;
@@ -34,7 +35,7 @@ import lombok.extern.slf4j.Slf4j;
  * Store for PersistableNetworkPayload map entries with it's data hash as key.
  */
 @Slf4j
-public abstract class PersistableNetworkPayloadStore<T extends PersistableNetworkPayload> implements PersistableEnvelope {
+public abstract class PersistableNetworkPayloadStore<T extends PersistableNetworkPayload> implements JournaledPersistableEnvelope {
     @Getter
     protected final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = new ConcurrentHashMap<>();
 
@@ -48,4 +49,14 @@ public abstract class PersistableNetworkPayloadStore<T extends PersistableNetwor
     public boolean containsKey(P2PDataStorage.ByteArray hash) {
         return map.containsKey(hash);
     }
+
+    @Override
+    public void applyJournaledPayload(PersistablePayload payload) {
+        if (payload instanceof PersistableNetworkPayload) {
+            PersistableNetworkPayload persistableNetworkPayload = (PersistableNetworkPayload) payload;
+            map.put(new P2PDataStorage.ByteArray(persistableNetworkPayload.getHash()), persistableNetworkPayload);
+        } else {
+            log.warn("Journaled payload is not a PersistableNetworkPayload. payload={}", payload);
+        }
+    }
 }
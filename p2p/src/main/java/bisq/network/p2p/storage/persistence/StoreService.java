@@ -21,6 +21,7 @@ import bisq.common.file.FileUtil;
 import bisq.common.file.ResourceNotFoundException;
 import bisq.common.persistence.PersistenceManager;
 import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistablePayload;
 
 import com.google.common.annotations.VisibleForTesting;
 
@@ -69,6 +70,11 @@ public abstract class StoreService<T extends PersistableEnvelope> {
         persistenceManager.requestPersistence();
     }
 
+    // For journaled stores we only append the added payload instead of writing the whole store.
+    protected void requestPersistence(PersistablePayload addedPayload) {
+        persistenceManager.appendToJournal(addedPayload);
+    }
+
     protected T getStore() {
         return store;
     }
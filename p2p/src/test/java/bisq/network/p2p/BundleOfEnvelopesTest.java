@@ -0,0 +1,138 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p;
+
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+
+import bisq.common.proto.ProtobufferException;
+import bisq.common.proto.network.NetworkEnvelope;
+import bisq.common.proto.network.NetworkProtoResolver;
+
+import com.google.protobuf.ByteString;
+
+import java.io.ByteArrayOutputStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BundleOfEnvelopesTest {
+    private NetworkProtoResolver resolver;
+
+    @BeforeEach
+    public void setUp() throws ProtobufferException {
+        resolver = mock(NetworkProtoResolver.class);
+        when(resolver.fromProto(any(protobuf.NetworkEnvelope.class))).thenAnswer(invocation -> {
+            protobuf.NetworkEnvelope proto = invocation.getArgument(0);
+            return Ping.fromProto(proto.getPing(), proto.getMessageVersion());
+        });
+    }
+
+    @Test
+    public void testCompressedRoundTrip() throws ProtobufferException {
+        List<NetworkEnvelope> envelopes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            envelopes.add(new Ping(i % 10, 100));
+        }
+        protobuf.NetworkEnvelope uncompressed = new BundleOfEnvelopes(new ArrayList<>(envelopes)).toProtoNetworkEnvelope();
+        protobuf.NetworkEnvelope compressed = new BundleOfEnvelopes(new ArrayList<>(envelopes), true).toProtoNetworkEnvelope();
+
+        assertTrue(compressed.getBundleOfEnvelopes().getEnvelopesList().isEmpty());
+        assertTrue(compressed.getSerializedSize() < uncompressed.getSerializedSize());
+
+        BundleOfEnvelopes bundleOfEnvelopes = BundleOfEnvelopes.fromProto(compressed.getBundleOfEnvelopes(),
+                resolver, compressed.getMessageVersion());
+        assertTrue(bundleOfEnvelopes.isCompressed());
+        assertEquals(envelopes, bundleOfEnvelopes.getEnvelopes());
+    }
+
+    @Test
+    public void testSmallBundleIsNotCompressed() throws ProtobufferException {
+        List<NetworkEnvelope> envelopes = new ArrayList<>(List.of(new Ping(1, 100), new Ping(2, 100)));
+        protobuf.NetworkEnvelope proto = new BundleOfEnvelopes(envelopes, true).toProtoNetworkEnvelope();
+
+        assertTrue(proto.getBundleOfEnvelopes().getCompressedEnvelopes().isEmpty());
+        BundleOfEnvelopes bundleOfEnvelopes = BundleOfEnvelopes.fromProto(proto.getBundleOfEnvelopes(),
+                resolver, proto.getMessageVersion());
+        assertFalse(bundleOfEnvelopes.isCompressed());
+        assertEquals(envelopes, bundleOfEnvelopes.getEnvelopes());
+    }
+
+    @Test
+    public void testInvalidCompressedEnvelopesAreRejected() {
+        protobuf.BundleOfEnvelopes proto = protobuf.BundleOfEnvelopes.newBuilder()
+                .setCompressedEnvelopes(ByteString.copyFromUtf8("not deflated"))
+                .build();
+        assertThrows(ProtobufferException.class, () -> BundleOfEnvelopes.fromProto(proto, resolver, 0));
+    }
+
+    @Test
+    public void testProtoIsBuiltOnceUntilEnvelopeIsAdded() throws ProtobufferException {
+        List<NetworkEnvelope> envelopes = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            envelopes.add(new Ping(i % 10, 100));
+        }
+        BundleOfEnvelopes bundleOfEnvelopes = new BundleOfEnvelopes(new ArrayList<>(envelopes), true);
+        protobuf.NetworkEnvelope proto = bundleOfEnvelopes.toProtoNetworkEnvelope();
+        assertSame(proto, bundleOfEnvelopes.toProtoNetworkEnvelope());
+
+        Ping ping = new Ping(11, 100);
+        envelopes.add(ping);
+        bundleOfEnvelopes.add(ping);
+        protobuf.NetworkEnvelope updatedProto = bundleOfEnvelopes.toProtoNetworkEnvelope();
+        assertNotSame(proto, updatedProto);
+
+        // The inflated bundle is much larger than the initial inflate buffer
+        BundleOfEnvelopes result = BundleOfEnvelopes.fromProto(updatedProto.getBundleOfEnvelopes(),
+                resolver, updatedProto.getMessageVersion());
+        assertEquals(envelopes, result.getEnvelopes());
+    }
+
+    @Test
+    public void testTooLargeInflatedSizeIsRejected() {
+        Deflater deflater = new Deflater();
+        deflater.setInput(new byte[11 * 1024 * 1024]);
+        deflater.finish();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            outputStream.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+
+        protobuf.BundleOfEnvelopes proto = protobuf.BundleOfEnvelopes.newBuilder()
+                .setCompressedEnvelopes(ByteString.copyFrom(outputStream.toByteArray()))
+                .build();
+        Exception exception = assertThrows(ProtobufferException.class,
+                () -> BundleOfEnvelopes.fromProto(proto, resolver, 0));
+        assertTrue(exception.getMessage().contains("exceeds"));
+    }
+}
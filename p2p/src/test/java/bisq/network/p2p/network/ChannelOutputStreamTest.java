@@ -0,0 +1,103 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ChannelOutputStreamTest {
+    private ServerSocketChannel serverChannel;
+    private SocketChannel writer;
+    private SocketChannel reader;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        writer = SocketChannel.open(serverChannel.getLocalAddress());
+        writer.configureBlocking(false);
+        reader = serverChannel.accept();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        writer.close();
+        reader.close();
+        serverChannel.close();
+    }
+
+    @Test
+    public void testWritesMoreThanSendBufferToSlowReader() throws Exception {
+        // Much larger than the socket buffers, so the writer has to wait until the channel is writable again
+        byte[] bytes = new byte[16 * 1024 * 1024];
+        new Random(1).nextBytes(bytes);
+
+        CompletableFuture<byte[]> received = CompletableFuture.supplyAsync(() -> {
+            try {
+                Thread.sleep(200);
+                byte[] result = new byte[bytes.length];
+                new DataInputStream(reader.socket().getInputStream()).readFully(result);
+                return result;
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        ChannelOutputStream outputStream = new ChannelOutputStream(writer, 10_000);
+        outputStream.write(bytes, 0, bytes.length);
+
+        assertArrayEquals(bytes, received.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testWriteTimesOutIfPeerDoesNotRead() {
+        byte[] bytes = new byte[32 * 1024 * 1024];
+        ChannelOutputStream outputStream = new ChannelOutputStream(writer, 200);
+
+        assertThrows(SocketTimeoutException.class, () -> outputStream.write(bytes, 0, bytes.length));
+    }
+
+    @Test
+    public void testWriteSingleBytes() throws IOException {
+        ChannelOutputStream outputStream = new ChannelOutputStream(writer, 10_000);
+        outputStream.write(1);
+        outputStream.write(2);
+
+        byte[] result = new byte[2];
+        new DataInputStream(reader.socket().getInputStream()).readFully(result);
+        assertArrayEquals(new byte[]{1, 2}, result);
+    }
+}
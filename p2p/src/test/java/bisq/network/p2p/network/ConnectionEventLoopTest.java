@@ -0,0 +1,272 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+
+import com.google.protobuf.CodedOutputStream;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConnectionEventLoopTest {
+    private static final int MAX_MESSAGE_SIZE = 1024 * 1024;
+    private static final long TIMEOUT_MS = 60_000;
+    private static final AtomicInteger nextLoopIndex = new AtomicInteger();
+
+    private ExecutorService workerExecutor;
+    private String loopName;
+    private ConnectionEventLoop eventLoop;
+    private ServerSocketChannel serverChannel;
+    private final List<SocketChannel> channels = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        workerExecutor = Executors.newFixedThreadPool(2);
+        loopName = "TestEventLoop-" + nextLoopIndex.incrementAndGet();
+        eventLoop = new ConnectionEventLoop(loopName, workerExecutor);
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        eventLoop.shutDown();
+        workerExecutor.shutdownNow();
+        for (SocketChannel channel : channels) {
+            channel.close();
+        }
+        serverChannel.close();
+    }
+
+    @Test
+    public void testFramesAreHandledInOrderOffTheLoopThread() throws Exception {
+        SocketChannel[] pair = connectPair();
+        BlockingQueue<protobuf.NetworkEnvelope> received = new LinkedBlockingQueue<>();
+        AtomicInteger concurrentCalls = new AtomicInteger();
+        AtomicBoolean wasConcurrent = new AtomicBoolean();
+        AtomicBoolean wasOnLoopThread = new AtomicBoolean();
+        eventLoop.register(pair[1], MAX_MESSAGE_SIZE, TIMEOUT_MS, source -> {
+            if (concurrentCalls.incrementAndGet() > 1) {
+                wasConcurrent.set(true);
+            }
+            wasOnLoopThread.compareAndSet(false, Thread.currentThread().getName().equals(loopName));
+            try {
+                protobuf.NetworkEnvelope envelope = source.read();
+                if (envelope != null) {
+                    received.add(envelope);
+                }
+                return true;
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            } finally {
+                concurrentCalls.decrementAndGet();
+            }
+        }, e -> {
+        });
+
+        int numMessages = 200;
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        for (int i = 0; i < numMessages; i++) {
+            new Ping(i, i).toProtoNetworkEnvelope().writeDelimitedTo(outputStream);
+        }
+        writeFully(pair[0], outputStream.toByteArray());
+
+        for (int i = 0; i < numMessages; i++) {
+            protobuf.NetworkEnvelope envelope = received.poll(10, TimeUnit.SECONDS);
+            assertEquals(i, envelope.getPing().getNonce());
+        }
+        assertFalse(wasConcurrent.get());
+        assertFalse(wasOnLoopThread.get());
+    }
+
+    @Test
+    public void testSlowHandlerDoesNotStallOtherChannels() throws Exception {
+        SocketChannel[] slowPair = connectPair();
+        SocketChannel[] fastPair = connectPair();
+        CountDownLatch releaseSlowHandler = new CountDownLatch(1);
+        CountDownLatch slowHandlerCalled = new CountDownLatch(1);
+        eventLoop.register(slowPair[1], MAX_MESSAGE_SIZE, TIMEOUT_MS, source -> {
+            slowHandlerCalled.countDown();
+            try {
+                releaseSlowHandler.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        }, e -> {
+        });
+        BlockingQueue<protobuf.NetworkEnvelope> fastReceived = new LinkedBlockingQueue<>();
+        eventLoop.register(fastPair[1], MAX_MESSAGE_SIZE, TIMEOUT_MS, source -> {
+            try {
+                fastReceived.add(source.read());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            return true;
+        }, e -> {
+        });
+
+        writeFully(slowPair[0], toDelimitedBytes(new Ping(1, 1).toProtoNetworkEnvelope()));
+        assertTrue(slowHandlerCalled.await(10, TimeUnit.SECONDS));
+
+        writeFully(fastPair[0], toDelimitedBytes(new Ping(2, 2).toProtoNetworkEnvelope()));
+        protobuf.NetworkEnvelope envelope = fastReceived.poll(10, TimeUnit.SECONDS);
+        releaseSlowHandler.countDown();
+        assertEquals(2, envelope.getPing().getNonce());
+    }
+
+    @Test
+    public void testEndOfStreamIsReported() throws Exception {
+        SocketChannel[] pair = connectPair();
+        BlockingQueue<Boolean> endOfStream = new LinkedBlockingQueue<>();
+        eventLoop.register(pair[1], MAX_MESSAGE_SIZE, TIMEOUT_MS, source -> {
+            try {
+                endOfStream.add(source.read() == null);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            return false;
+        }, e -> {
+        });
+
+        pair[0].close();
+        assertTrue(endOfStream.poll(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testOversizedFrameStopsReading() throws Exception {
+        SocketChannel[] pair = connectPair();
+        BlockingQueue<Boolean> sizeExceeded = new LinkedBlockingQueue<>();
+        eventLoop.register(pair[1], MAX_MESSAGE_SIZE, TIMEOUT_MS, source -> {
+            try {
+                source.read();
+                sizeExceeded.add(false);
+            } catch (ProtoInputStream.MessageSizeExceededException e) {
+                sizeExceeded.add(true);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            return true;
+        }, e -> {
+        });
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(outputStream);
+        codedOutputStream.writeUInt32NoTag(MAX_MESSAGE_SIZE + 1);
+        codedOutputStream.flush();
+        writeFully(pair[0], outputStream.toByteArray());
+        assertTrue(sizeExceeded.poll(10, TimeUnit.SECONDS));
+
+        writeFully(pair[0], toDelimitedBytes(new Ping(1, 1).toProtoNetworkEnvelope()));
+        assertNull(sizeExceeded.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testTimeoutIsReported() throws Exception {
+        SocketChannel[] pair = connectPair();
+        BlockingQueue<IOException> errors = new LinkedBlockingQueue<>();
+        eventLoop.register(pair[1], MAX_MESSAGE_SIZE, 100, source -> true, errors::add);
+
+        assertTrue(errors.poll(10, TimeUnit.SECONDS) instanceof SocketTimeoutException);
+    }
+
+    @Test
+    public void testRejectedHandOffIsReported() throws Exception {
+        SocketChannel[] pair = connectPair();
+        AtomicBoolean handlerCalled = new AtomicBoolean();
+        BlockingQueue<IOException> errors = new LinkedBlockingQueue<>();
+        eventLoop.register(pair[1], MAX_MESSAGE_SIZE, TIMEOUT_MS, source -> {
+            handlerCalled.set(true);
+            return true;
+        }, errors::add);
+        workerExecutor.shutdownNow();
+
+        writeFully(pair[0], toDelimitedBytes(new Ping(1, 1).toProtoNetworkEnvelope()));
+        assertNotNull(errors.poll(10, TimeUnit.SECONDS));
+        assertFalse(handlerCalled.get());
+    }
+
+    @Test
+    public void testLoopThreadTerminatesAfterShutDown() throws Exception {
+        eventLoop.shutDown();
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (isLoopThreadAlive() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(isLoopThreadAlive());
+    }
+
+    private boolean isLoopThreadAlive() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.getName().equals(loopName) && thread.isAlive());
+    }
+
+    // Returns the client channel (blocking) and the accepted channel (non-blocking)
+    private SocketChannel[] connectPair() throws IOException {
+        SocketChannel client = SocketChannel.open(serverChannel.getLocalAddress());
+        SocketChannel accepted = serverChannel.accept();
+        accepted.configureBlocking(false);
+        channels.add(client);
+        channels.add(accepted);
+        return new SocketChannel[]{client, accepted};
+    }
+
+    private static byte[] toDelimitedBytes(protobuf.NetworkEnvelope envelope) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        envelope.writeDelimitedTo(outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static void writeFully(SocketChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.BundleOfEnvelopes;
+import bisq.network.p2p.CloseConnectionMessage;
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+import bisq.network.p2p.peers.keepalive.messages.Pong;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MessageRateLimiterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testLimitForAllMessages() {
+        MessageRateLimiter rateLimiter = new MessageRateLimiter(10, 3, List.of());
+        long now = 1000 * SECOND;
+        assertTrue(rateLimiter.tryAcquire(new Ping(1, 0), now));
+        assertTrue(rateLimiter.tryAcquire(new Pong(1), now));
+        assertTrue(rateLimiter.tryAcquire(new CloseConnectionMessage("test"), now));
+        assertFalse(rateLimiter.tryAcquire(new Ping(2, 0), now));
+
+        now += SECOND / 10;
+        assertTrue(rateLimiter.tryAcquire(new Ping(3, 0), now));
+    }
+
+    @Test
+    public void testLimitByClass() {
+        MessageRateLimiter rateLimiter = new MessageRateLimiter(100, 100, List.of("Ping:1:2", "Pong:0.5:1"));
+        long now = 1000 * SECOND;
+        assertTrue(rateLimiter.tryAcquire(new Ping(1, 0), now));
+        assertTrue(rateLimiter.tryAcquire(new Ping(2, 0), now));
+        assertFalse(rateLimiter.tryAcquire(new Ping(3, 0), now));
+
+        // Other classes have their own limit or none
+        assertTrue(rateLimiter.tryAcquire(new Pong(1), now));
+        assertFalse(rateLimiter.tryAcquire(new Pong(2), now));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(rateLimiter.tryAcquire(new CloseConnectionMessage("test"), now));
+        }
+
+        now += SECOND;
+        assertTrue(rateLimiter.tryAcquire(new Ping(4, 0), now));
+        assertFalse(rateLimiter.tryAcquire(new Ping(5, 0), now));
+        assertFalse(rateLimiter.tryAcquire(new Pong(3), now));
+
+        now += SECOND;
+        assertTrue(rateLimiter.tryAcquire(new Pong(4), now));
+    }
+
+    @Test
+    public void testRejectedByClassLimitDoesNotCountForAllMessages() {
+        MessageRateLimiter rateLimiter = new MessageRateLimiter(1, 2, List.of("Ping:1:1"));
+        long now = 1000 * SECOND;
+        assertTrue(rateLimiter.tryAcquire(new Ping(1, 0), now));
+        assertFalse(rateLimiter.tryAcquire(new Ping(2, 0), now));
+        assertFalse(rateLimiter.tryAcquire(new Ping(3, 0), now));
+        assertTrue(rateLimiter.tryAcquire(new Pong(1), now));
+    }
+
+    @Test
+    public void testEnvelopesOfBundleAreChargedByClass() {
+        MessageRateLimiter rateLimiter = new MessageRateLimiter(100, 100, List.of("Ping:1:2"));
+        long now = 1000 * SECOND;
+        assertTrue(rateLimiter.tryAcquire(new BundleOfEnvelopes(List.of(new Ping(1, 0), new Pong(1))), now));
+        assertFalse(rateLimiter.tryAcquire(new BundleOfEnvelopes(List.of(new Ping(2, 0), new Ping(3, 0))), now));
+
+        now += SECOND;
+        assertTrue(rateLimiter.tryAcquire(new Ping(4, 0), now));
+        assertFalse(rateLimiter.tryAcquire(new BundleOfEnvelopes(List.of(new Ping(5, 0))), now));
+    }
+
+    @Test
+    public void testInvalidLimitIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new MessageRateLimiter(1, 1, List.of("Ping:1")));
+        assertThrows(IllegalArgumentException.class, () -> new MessageRateLimiter(1, 1, List.of("Ping:x:1")));
+    }
+}
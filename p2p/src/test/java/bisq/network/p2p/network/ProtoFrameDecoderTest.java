@@ -0,0 +1,212 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.nio.ByteBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProtoFrameDecoderTest {
+    @Test
+    public void testDecodesFramesSplitAcrossReads() throws IOException {
+        protobuf.NetworkEnvelope first = new Ping(1, 10).toProtoNetworkEnvelope();
+        protobuf.NetworkEnvelope second = new Ping(2, 20).toProtoNetworkEnvelope();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        first.writeDelimitedTo(outputStream);
+        second.writeDelimitedTo(outputStream);
+        byte[] bytes = outputStream.toByteArray();
+
+        ProtoFrameDecoder decoder = new ProtoFrameDecoder(1024);
+        List<EnvelopeSource> sources = new ArrayList<>();
+        List<protobuf.NetworkEnvelope> envelopes = new ArrayList<>();
+        for (byte b : bytes) {
+            assertTrue(decoder.decode(ByteBuffer.wrap(new byte[]{b}), source -> {
+                sources.add(source);
+                try {
+                    envelopes.add(source.read());
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+                return true;
+            }));
+        }
+
+        assertEquals(2, sources.size());
+        assertEquals(first, envelopes.get(0));
+        assertEquals(second, envelopes.get(1));
+        assertFalse(decoder.isInFrame());
+    }
+
+    @Test
+    public void testRejectsOversizedFrameAndStopsDecoding() throws IOException {
+        protobuf.NetworkEnvelope oversized = new Ping(Integer.MAX_VALUE, Integer.MAX_VALUE).toProtoNetworkEnvelope();
+        protobuf.NetworkEnvelope next = new Ping(1, 1).toProtoNetworkEnvelope();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        oversized.writeDelimitedTo(outputStream);
+        next.writeDelimitedTo(outputStream);
+
+        ProtoFrameDecoder decoder = new ProtoFrameDecoder(next.getSerializedSize());
+        List<protobuf.NetworkEnvelope> envelopes = new ArrayList<>();
+        List<IOException> exceptions = new ArrayList<>();
+        Predicate<EnvelopeSource> envelopeHandler = source -> {
+            try {
+                envelopes.add(source.read());
+            } catch (IOException e) {
+                exceptions.add(e);
+            }
+            return true;
+        };
+        assertFalse(decoder.decode(ByteBuffer.wrap(outputStream.toByteArray()), envelopeHandler));
+
+        assertEquals(1, exceptions.size());
+        assertTrue(exceptions.get(0) instanceof ProtoInputStream.MessageSizeExceededException);
+        assertTrue(envelopes.isEmpty());
+
+        // The frame is not drained, later bytes of the stream are not decoded anymore.
+        ByteArrayOutputStream nextOutputStream = new ByteArrayOutputStream();
+        next.writeDelimitedTo(nextOutputStream);
+        assertFalse(decoder.decode(ByteBuffer.wrap(nextOutputStream.toByteArray()), envelopeHandler));
+        assertEquals(1, exceptions.size());
+        assertTrue(envelopes.isEmpty());
+    }
+
+    @Test
+    public void testStopsDecodingIfHandlerReturnsFalse() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new Ping(1, 10).toProtoNetworkEnvelope().writeDelimitedTo(outputStream);
+        new Ping(2, 20).toProtoNetworkEnvelope().writeDelimitedTo(outputStream);
+
+        ProtoFrameDecoder decoder = new ProtoFrameDecoder(1024);
+        List<EnvelopeSource> sources = new ArrayList<>();
+        assertFalse(decoder.decode(ByteBuffer.wrap(outputStream.toByteArray()), source -> !sources.add(source)));
+        assertEquals(1, sources.size());
+    }
+
+    @Test
+    public void testLargeFrameBufferGrowsWithReceivedBytes() throws IOException {
+        int announcedSize = 10 * 1024 * 1024;
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(outputStream);
+        codedOutputStream.writeUInt32NoTag(announcedSize);
+        codedOutputStream.flush();
+
+        ProtoFrameDecoder decoder = new ProtoFrameDecoder(announcedSize);
+        assertTrue(decoder.decode(ByteBuffer.wrap(outputStream.toByteArray()), source -> true));
+        assertTrue(decoder.isInFrame());
+        assertEquals(ProtoInputStream.INITIAL_LARGE_FRAME_BUFFER_SIZE, decoder.getFrameBufferSize());
+
+        byte[] chunk = new byte[ProtoInputStream.INITIAL_LARGE_FRAME_BUFFER_SIZE + 1];
+        assertTrue(decoder.decode(ByteBuffer.wrap(chunk), source -> true));
+        assertEquals(2 * ProtoInputStream.INITIAL_LARGE_FRAME_BUFFER_SIZE, decoder.getFrameBufferSize());
+    }
+
+    @Test
+    public void testManyTinyFramesGetBuffersOfTheirSize() throws IOException {
+        int numFrames = 10_000;
+        ByteBuffer buffer = ByteBuffer.allocate(numFrames * 3);
+        for (int i = 0; i < numFrames; i++) {
+            buffer.put(new byte[]{2, 8, 1});
+        }
+        buffer.flip();
+
+        ProtoFrameDecoder decoder = new ProtoFrameDecoder(1024);
+        List<EnvelopeSource> sources = new ArrayList<>();
+        assertTrue(decoder.decode(buffer, sources::add));
+        assertEquals(numFrames, sources.size());
+
+        // A partly received tiny frame does not hold a pooled buffer
+        assertTrue(decoder.decode(ByteBuffer.wrap(new byte[]{2, 8}), sources::add));
+        assertTrue(decoder.isInFrame());
+        assertEquals(2, decoder.getFrameBufferSize());
+
+        // Frames close to the pooled buffer size use the pool
+        ProtoFrameDecoder largeFrameDecoder = new ProtoFrameDecoder(ProtoInputStream.POOLED_FRAME_BUFFER_SIZE);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(outputStream);
+        codedOutputStream.writeUInt32NoTag(ProtoInputStream.POOLED_FRAME_BUFFER_SIZE);
+        codedOutputStream.flush();
+        assertTrue(largeFrameDecoder.decode(ByteBuffer.wrap(outputStream.toByteArray()), source -> true));
+        assertEquals(ProtoInputStream.POOLED_FRAME_BUFFER_SIZE, largeFrameDecoder.getFrameBufferSize());
+    }
+
+    @Test
+    public void testStoppedHandlerLeavesRemainingBytesInBuffer() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[]{2, 8, 1, 2, 8, 2, 2, 8, 3});
+        ProtoFrameDecoder decoder = new ProtoFrameDecoder(1024);
+        List<EnvelopeSource> sources = new ArrayList<>();
+        assertFalse(decoder.decode(buffer, source -> sources.add(source) && sources.size() < 2));
+        assertFalse(decoder.isStopped());
+        assertEquals(2, sources.size());
+        assertEquals(3, buffer.remaining());
+
+        assertTrue(decoder.decode(buffer, sources::add));
+        assertEquals(3, sources.size());
+    }
+
+    @Test
+    public void testRejectsEmptyFrame() {
+        ProtoFrameDecoder decoder = new ProtoFrameDecoder(1024);
+        List<EnvelopeSource> sources = new ArrayList<>();
+        assertTrue(decoder.decode(ByteBuffer.wrap(new byte[]{0}), sources::add));
+        assertEquals(1, sources.size());
+        assertThrows(InvalidProtocolBufferException.class, () -> sources.get(0).read());
+        assertFalse(decoder.isInFrame());
+    }
+
+    @Test
+    public void testSourceCanBeReadAfterDecode() throws Exception {
+        protobuf.NetworkEnvelope envelope = new Ping(1, 10).toProtoNetworkEnvelope();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        envelope.writeDelimitedTo(outputStream);
+
+        ProtoFrameDecoder decoder = new ProtoFrameDecoder(1024);
+        List<EnvelopeSource> sources = new ArrayList<>();
+        assertTrue(decoder.decode(ByteBuffer.wrap(outputStream.toByteArray()), sources::add));
+
+        // The next frame must not reuse the buffer of a source which was not read yet
+        ByteArrayOutputStream nextOutputStream = new ByteArrayOutputStream();
+        new Ping(2, 20).toProtoNetworkEnvelope().writeDelimitedTo(nextOutputStream);
+        assertTrue(decoder.decode(ByteBuffer.wrap(nextOutputStream.toByteArray()), sources::add));
+
+        assertEquals(envelope, CompletableFuture.supplyAsync(() -> {
+            try {
+                return sources.get(0).read();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }).get());
+    }
+}
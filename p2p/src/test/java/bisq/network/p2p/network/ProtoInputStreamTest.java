@@ -0,0 +1,115 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+
+import com.google.protobuf.CodedOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ProtoInputStreamTest {
+    @Test
+    public void testReadsDelimitedEnvelopes() throws IOException {
+        protobuf.NetworkEnvelope first = new Ping(1, 10).toProtoNetworkEnvelope();
+        protobuf.NetworkEnvelope second = new Ping(2, 20).toProtoNetworkEnvelope();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        first.writeDelimitedTo(outputStream);
+        second.writeDelimitedTo(outputStream);
+
+        ProtoInputStream protoInputStream = new ProtoInputStream(
+                new ByteArrayInputStream(outputStream.toByteArray()), 1024);
+        assertEquals(first, protoInputStream.readEnvelope());
+        assertEquals(second, protoInputStream.readEnvelope());
+        assertNull(protoInputStream.readEnvelope());
+    }
+
+    @Test
+    public void testRejectsOversizedEnvelopeWithoutReadingIt() throws IOException {
+        // Only the length prefix of the oversized frame is sent. If we tried to drain the frame we would get an
+        // EOFException.
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(outputStream);
+        codedOutputStream.writeUInt32NoTag(1024 * 1024 * 1024);
+        codedOutputStream.flush();
+
+        ProtoInputStream protoInputStream = new ProtoInputStream(
+                new ByteArrayInputStream(outputStream.toByteArray()), 1024);
+        ProtoInputStream.MessageSizeExceededException exception =
+                assertThrows(ProtoInputStream.MessageSizeExceededException.class, protoInputStream::readEnvelope);
+        assertEquals(1024 * 1024 * 1024, exception.getSize());
+    }
+
+    @Test
+    public void testReadsLargeEnvelope() throws IOException {
+        // Larger than the initial buffer of a large frame, so the buffer has to grow while reading.
+        char[] chars = new char[3 * ProtoInputStream.INITIAL_LARGE_FRAME_BUFFER_SIZE];
+        Arrays.fill(chars, 'a');
+        protobuf.NetworkEnvelope envelope = protobuf.NetworkEnvelope.newBuilder()
+                .setMessageVersion(1)
+                .setCloseConnectionMessage(protobuf.CloseConnectionMessage.newBuilder().setReason(new String(chars)))
+                .build();
+        protobuf.NetworkEnvelope next = new Ping(1, 10).toProtoNetworkEnvelope();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        envelope.writeDelimitedTo(outputStream);
+        next.writeDelimitedTo(outputStream);
+
+        ProtoInputStream protoInputStream = new ProtoInputStream(
+                new ByteArrayInputStream(outputStream.toByteArray()), envelope.getSerializedSize());
+        assertEquals(envelope, protoInputStream.readEnvelope());
+        assertEquals(next, protoInputStream.readEnvelope());
+        assertNull(protoInputStream.readEnvelope());
+    }
+
+    @Test
+    public void testThrowsAtTruncatedLargeEnvelope() throws IOException {
+        // The announced size is never sent, only a small part of the frame.
+        int announcedSize = 10 * 1024 * 1024;
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(outputStream);
+        codedOutputStream.writeUInt32NoTag(announcedSize);
+        codedOutputStream.writeRawBytes(new byte[1024]);
+        codedOutputStream.flush();
+
+        ProtoInputStream protoInputStream = new ProtoInputStream(
+                new ByteArrayInputStream(outputStream.toByteArray()), announcedSize);
+        assertThrows(EOFException.class, protoInputStream::readEnvelope);
+    }
+
+    @Test
+    public void testThrowsAtTruncatedEnvelope() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new Ping(1, 10).toProtoNetworkEnvelope().writeDelimitedTo(outputStream);
+        byte[] bytes = outputStream.toByteArray();
+
+        ProtoInputStream protoInputStream = new ProtoInputStream(
+                new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1)), 1024);
+        assertThrows(IOException.class, protoInputStream::readEnvelope);
+    }
+}
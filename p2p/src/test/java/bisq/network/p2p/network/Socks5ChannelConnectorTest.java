@@ -0,0 +1,144 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class Socks5ChannelConnectorTest {
+    private static final String HOST = "abcdefghijklmnop.onion";
+    private static final int PORT = 9999;
+
+    private ServerSocket proxy;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        proxy = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        proxy.close();
+    }
+
+    @Test
+    public void testConnectThroughProxy() throws Exception {
+        CompletableFuture<String> requestedTarget = runProxy((byte) 0);
+
+        SocketChannel channel = Socks5ChannelConnector.connect(getProxyAddress(), HOST, PORT, 5000);
+        try {
+            assertEquals(HOST + ":" + PORT, requestedTarget.get(5, TimeUnit.SECONDS));
+            assertTrue(channel.isConnected());
+            assertTrue(channel.isBlocking());
+
+            // After the handshake the proxy relays the data, our fake proxy echoes one byte
+            channel.write(ByteBuffer.wrap(new byte[]{42}));
+            ByteBuffer response = ByteBuffer.allocate(1);
+            channel.read(response);
+            assertEquals(42, response.get(0));
+        } finally {
+            channel.close();
+        }
+    }
+
+    @Test
+    public void testConnectFailsOnErrorReply() {
+        // 0x04: host unreachable
+        runProxy((byte) 0x04);
+
+        IOException exception = assertThrows(IOException.class,
+                () -> Socks5ChannelConnector.connect(getProxyAddress(), HOST, PORT, 5000));
+        assertTrue(exception.getMessage().contains("reply code 4"));
+    }
+
+    @Test
+    public void testConnectFailsIfProxyRequiresAuthentication() {
+        CompletableFuture.runAsync(() -> {
+            try (Socket socket = proxy.accept()) {
+                DataInputStream inputStream = new DataInputStream(socket.getInputStream());
+                inputStream.readFully(new byte[3]);
+                // 0xFF: no acceptable authentication method
+                socket.getOutputStream().write(new byte[]{5, (byte) 0xFF});
+                socket.getOutputStream().flush();
+                inputStream.read();
+            } catch (IOException ignore) {
+            }
+        });
+
+        assertThrows(IOException.class, () -> Socks5ChannelConnector.connect(getProxyAddress(), HOST, PORT, 5000));
+    }
+
+    private InetSocketAddress getProxyAddress() {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), proxy.getLocalPort());
+    }
+
+    // Fake SOCKS5 proxy for a single connection. Completes with the requested host:port.
+    private CompletableFuture<String> runProxy(byte replyCode) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Socket socket = proxy.accept()) {
+                DataInputStream inputStream = new DataInputStream(socket.getInputStream());
+                OutputStream outputStream = socket.getOutputStream();
+
+                byte[] greeting = new byte[3];
+                inputStream.readFully(greeting);
+                assertEquals(5, greeting[0]);
+                outputStream.write(new byte[]{5, 0});
+
+                byte[] header = new byte[5];
+                inputStream.readFully(header);
+                assertEquals(1, header[1]);
+                assertEquals(3, header[3]);
+                byte[] host = new byte[header[4]];
+                inputStream.readFully(host);
+                int port = inputStream.readUnsignedShort();
+
+                // Reply with bound IPv4 address 0.0.0.0:0
+                outputStream.write(new byte[]{5, replyCode, 0, 1, 0, 0, 0, 0, 0, 0});
+                outputStream.flush();
+                if (replyCode == 0) {
+                    outputStream.write(inputStream.read());
+                    outputStream.flush();
+                }
+                return new String(host, StandardCharsets.US_ASCII) + ":" + port;
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testBurstUpToCapacityThenRefill() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        long now = 1000 * SECOND;
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bucket.tryAcquire(now));
+        }
+        assertFalse(bucket.tryAcquire(now));
+
+        // One token got refilled after 100 ms
+        now += SECOND / 10;
+        assertTrue(bucket.tryAcquire(now));
+        assertFalse(bucket.tryAcquire(now));
+
+        // Refill never exceeds the capacity
+        now += 10 * SECOND;
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bucket.tryAcquire(now));
+        }
+        assertFalse(bucket.tryAcquire(now));
+    }
+
+    @Test
+    public void testReserveReturnsWaitTime() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        long now = 1000 * SECOND;
+        assertEquals(0, bucket.reserve(now));
+        assertEquals(0, bucket.reserve(now));
+        assertEquals(SECOND / 10, bucket.reserve(now));
+        assertEquals(2 * SECOND / 10, bucket.reserve(now));
+        assertFalse(bucket.tryAcquire(now + 2 * SECOND / 10));
+    }
+}
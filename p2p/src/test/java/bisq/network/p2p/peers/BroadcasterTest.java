@@ -0,0 +1,162 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers;
+
+import bisq.network.p2p.TestUtils;
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.storage.PayloadHashCache;
+import bisq.network.p2p.storage.messages.AddDataMessage;
+import bisq.network.p2p.storage.messages.BroadcastMessage;
+import bisq.network.p2p.storage.messages.RefreshOfferMessage;
+import bisq.network.p2p.storage.messages.RemoveDataMessage;
+import bisq.network.p2p.storage.mocks.ProtectedStoragePayloadStub;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
+
+import java.security.KeyPair;
+import java.security.NoSuchAlgorithmException;
+
+import java.time.Clock;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class BroadcasterTest {
+    private PayloadHashCache payloadHashCache;
+    private Broadcaster broadcaster;
+    private KeyPair ownerKeys;
+    private ProtectedStoragePayload payload;
+
+    @BeforeEach
+    public void setUp() throws NoSuchAlgorithmException {
+        payloadHashCache = new PayloadHashCache();
+        broadcaster = new Broadcaster(mock(NetworkNode.class), mock(PeerManager.class), payloadHashCache, 1);
+        ownerKeys = TestUtils.generateKeyPair();
+        payload = new ProtectedStoragePayloadStub(ownerKeys.getPublic());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        broadcaster.shutDown(() -> {
+        });
+    }
+
+    @Test
+    public void testNewerAddSupersedesPendingAdd() {
+        AddDataMessage add1 = createAddDataMessage(1);
+        AddDataMessage add2 = createAddDataMessage(2);
+        addBroadcastRequest(add1);
+        addBroadcastRequest(add2);
+
+        assertEquals(List.of(add2), getPendingMessages());
+    }
+
+    @Test
+    public void testOlderAddDoesNotSupersedePendingAdd() {
+        AddDataMessage add2 = createAddDataMessage(2);
+        AddDataMessage add1 = createAddDataMessage(1);
+        addBroadcastRequest(add2);
+        addBroadcastRequest(add1);
+
+        assertEquals(List.of(add2, add1), getPendingMessages());
+    }
+
+    @Test
+    public void testRemoveSupersedesPendingRefresh() {
+        RefreshOfferMessage refresh = createRefreshOfferMessage(2);
+        RemoveDataMessage remove = new RemoveDataMessage(createEntry(3));
+        addBroadcastRequest(refresh);
+        addBroadcastRequest(remove);
+
+        assertEquals(List.of(remove), getPendingMessages());
+    }
+
+    @Test
+    public void testRequestWithListenerIsKept() {
+        AddDataMessage add1 = createAddDataMessage(1);
+        AddDataMessage add2 = createAddDataMessage(2);
+        broadcaster.addBroadcastRequest(new Broadcaster.BroadcastRequest(add1, null, mock(BroadcastHandler.Listener.class)));
+        addBroadcastRequest(add2);
+
+        assertEquals(List.of(add1, add2), getPendingMessages());
+    }
+
+    @Test
+    public void testIsSupersededBy() {
+        AddDataMessage add1 = createAddDataMessage(1);
+        RefreshOfferMessage refresh2 = createRefreshOfferMessage(2);
+        RefreshOfferMessage refresh3 = createRefreshOfferMessage(3);
+        RemoveDataMessage remove4 = new RemoveDataMessage(createEntry(4));
+
+        assertTrue(Broadcaster.isSupersededBy(add1, createAddDataMessage(2)));
+        assertTrue(Broadcaster.isSupersededBy(add1, remove4));
+        assertTrue(Broadcaster.isSupersededBy(refresh2, refresh3));
+        assertTrue(Broadcaster.isSupersededBy(refresh2, remove4));
+
+        // A refresh requires that the peer got the add
+        assertFalse(Broadcaster.isSupersededBy(add1, refresh2));
+        // A remove is never superseded
+        assertFalse(Broadcaster.isSupersededBy(remove4, new RemoveDataMessage(createEntry(5))));
+        // The sequence number must be higher
+        assertFalse(Broadcaster.isSupersededBy(refresh3, refresh2));
+        assertFalse(Broadcaster.isSupersededBy(refresh3, createRefreshOfferMessage(3)));
+    }
+
+    @Test
+    public void testBroadcastDelay() {
+        // After a quiet period we broadcast soon
+        assertEquals(200, Broadcaster.getBroadcastDelay(Long.MAX_VALUE / 2));
+        assertEquals(200, Broadcaster.getBroadcastDelay(1900));
+        // During bursts we wait until 2 sec passed since the last broadcast
+        assertEquals(2000, Broadcaster.getBroadcastDelay(0));
+        assertEquals(500, Broadcaster.getBroadcastDelay(1500));
+    }
+
+    private void addBroadcastRequest(BroadcastMessage message) {
+        broadcaster.addBroadcastRequest(new Broadcaster.BroadcastRequest(message, null, null));
+    }
+
+    private List<BroadcastMessage> getPendingMessages() {
+        return broadcaster.getBroadcastRequests().stream()
+                .map(Broadcaster.BroadcastRequest::getMessage)
+                .collect(Collectors.toList());
+    }
+
+    private ProtectedStorageEntry createEntry(int sequenceNumber) {
+        return new ProtectedStorageEntry(payload, ownerKeys.getPublic(), sequenceNumber, new byte[]{},
+                Clock.systemDefaultZone());
+    }
+
+    private AddDataMessage createAddDataMessage(int sequenceNumber) {
+        return new AddDataMessage(createEntry(sequenceNumber));
+    }
+
+    private RefreshOfferMessage createRefreshOfferMessage(int sequenceNumber) {
+        return new RefreshOfferMessage(new byte[]{}, new byte[]{},
+                payloadHashCache.getHashOfPayload(payload).bytes, sequenceNumber);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata.messages;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import bisq.common.crypto.Hash;
+
+import java.nio.ByteBuffer;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KnownHashesFilterTest {
+
+    private static P2PDataStorage.ByteArray getHash(int i) {
+        return new P2PDataStorage.ByteArray(Hash.getSha256Hash(ByteBuffer.allocate(4).putInt(i).array()));
+    }
+
+    @Test
+    public void testContainsAllAddedHashes() {
+        Set<P2PDataStorage.ByteArray> hashes = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            hashes.add(getHash(i));
+        }
+
+        KnownHashesFilter filter = KnownHashesFilter.fromHashes(hashes);
+        hashes.forEach(hash -> assertTrue(filter.mightContain(hash)));
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        Set<P2PDataStorage.ByteArray> hashes = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            hashes.add(getHash(i));
+        }
+
+        KnownHashesFilter filter = KnownHashesFilter.fromHashes(hashes);
+        int numFalsePositives = 0;
+        for (int i = 10000; i < 20000; i++) {
+            if (filter.mightContain(getHash(i))) {
+                numFalsePositives++;
+            }
+        }
+        // Expected false positive rate is 0.1%, so about 10 of 10000
+        assertTrue(numFalsePositives < 50, "numFalsePositives=" + numFalsePositives);
+    }
+
+    @Test
+    public void testProtoRoundTrip() {
+        Set<P2PDataStorage.ByteArray> hashes = Set.of(getHash(1), getHash(2));
+        KnownHashesFilter filter = KnownHashesFilter.fromHashes(hashes);
+        KnownHashesFilter fromProto = KnownHashesFilter.fromProto(filter.toProtoMessage());
+
+        assertEquals(filter, fromProto);
+        hashes.forEach(hash -> assertTrue(fromProto.mightContain(hash)));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.TestUtils;
+import bisq.network.p2p.storage.mocks.ClockFake;
+import bisq.network.p2p.storage.mocks.ExpirableProtectedStoragePayloadStub;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExpiryIndexTest {
+    private static final long TTL = 60_000;
+
+    private ClockFake clock;
+    private ExpiryIndex expiryIndex;
+    private PublicKey ownerPubKey;
+
+    @BeforeEach
+    public void setUp() throws NoSuchAlgorithmException {
+        clock = new ClockFake();
+        expiryIndex = new ExpiryIndex();
+        ownerPubKey = TestUtils.generateKeyPair().getPublic();
+    }
+
+    private ProtectedStorageEntry createEntry() {
+        return new ProtectedStorageEntry(new ExpirableProtectedStoragePayloadStub(ownerPubKey, TTL),
+                ownerPubKey, 1, new byte[]{0}, clock);
+    }
+
+    @Test
+    public void testPollDueReturnsEntryOnceItIsExpired() {
+        ProtectedStorageEntry entry = createEntry();
+        P2PDataStorage.ByteArray hash = new P2PDataStorage.ByteArray(new byte[]{1});
+        expiryIndex.add(hash, entry);
+
+        clock.increment(TTL - ExpiryIndex.BUCKET_MILLIS);
+        assertTrue(expiryIndex.pollDue(clock.millis()).isEmpty());
+
+        clock.increment(ExpiryIndex.BUCKET_MILLIS + 1);
+        assertTrue(entry.isExpired(clock));
+        assertEquals(1, expiryIndex.pollDue(clock.millis()).size());
+        assertTrue(expiryIndex.pollDue(clock.millis()).isEmpty());
+    }
+
+    @Test
+    public void testPollDueReturnsBackDatedEntryEarlier() {
+        ProtectedStorageEntry entry = createEntry();
+        P2PDataStorage.ByteArray hash = new P2PDataStorage.ByteArray(new byte[]{1});
+        expiryIndex.add(hash, entry);
+
+        entry.backDate();
+        expiryIndex.add(hash, entry);
+
+        clock.increment(TTL / 2 + 1);
+        assertTrue(entry.isExpired(clock));
+        // The stale bucket of the entry is not due yet and the hash is only returned once.
+        assertEquals(1, expiryIndex.pollDue(clock.millis()).size());
+        assertTrue(expiryIndex.pollDue(clock.millis()).isEmpty());
+    }
+}
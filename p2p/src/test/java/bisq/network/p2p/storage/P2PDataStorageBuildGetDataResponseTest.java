@@ -23,6 +23,7 @@ import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
 import bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
+import bisq.network.p2p.peers.getdata.messages.KnownHashesFilter;
 import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
 import bisq.network.p2p.storage.mocks.PersistableNetworkPayloadStub;
 import bisq.network.p2p.storage.payload.CapabilityRequiringPayload;
@@ -65,6 +66,10 @@ public class P2PDataStorageBuildGetDataResponseTest {
 
         abstract GetDataRequest buildGetDataRequest(int nonce, Set<byte[]> knownKeys);
 
+        abstract GetDataRequest buildGetDataRequest(int nonce,
+                                                    Set<byte[]> knownKeys,
+                                                    KnownHashesFilter knownHashesFilter);
+
         @Mock
         NetworkNode networkNode;
 
@@ -381,6 +386,51 @@ public class P2PDataStorageBuildGetDataResponseTest {
             assertTrue(getDataResponse.getDataSet().contains(onlyLocal));
         }
 
+        // TESTCASE: Given a GetDataRequest w/ a knownHashesFilter matching an unknown PSE (false positive), send it back
+        @Test
+        public void buildGetDataResponse_knownHashesFilterFalsePositivePSESendBack() throws NoSuchAlgorithmException {
+            ProtectedStorageEntry onlyLocal = getProtectedStorageEntryForAdd();
+
+            this.testState.mockedStorage.addProtectedStorageEntry(
+                    onlyLocal, this.localNodeAddress, null);
+
+            // A filter which contains the key of the PSE behaves like a false positive as the requester does not
+            // have the entry.
+            P2PDataStorage.ByteArray key = P2PDataStorage.get32ByteHashAsByteArray(onlyLocal.getProtectedStoragePayload());
+            KnownHashesFilter knownHashesFilter = KnownHashesFilter.fromHashes(Collections.singletonList(key));
+            assertTrue(knownHashesFilter.mightContain(key));
+            GetDataRequest getDataRequest = this.buildGetDataRequest(1, new HashSet<>(), knownHashesFilter);
+
+            AtomicBoolean outPNPTruncated = new AtomicBoolean(false);
+            AtomicBoolean outPSETruncated = new AtomicBoolean(false);
+            Capabilities peerCapabilities = new Capabilities();
+            GetDataResponse getDataResponse = this.testState.mockedStorage.buildGetDataResponse(
+                    getDataRequest, 1, outPNPTruncated, outPSETruncated, peerCapabilities);
+
+            assertTrue(getDataResponse.getDataSet().contains(onlyLocal));
+        }
+
+        // TESTCASE: Given a GetDataRequest w/ a knownHashesFilter matching a PNP, don't send it back
+        @Test
+        public void buildGetDataResponse_knownHashesFilterMatchingPNPDoNothing() {
+            PersistableNetworkPayload onlyLocal = new PersistableNetworkPayloadStub(new byte[]{1});
+
+            this.testState.mockedStorage.addPersistableNetworkPayload(
+                    onlyLocal, this.localNodeAddress, false);
+
+            KnownHashesFilter knownHashesFilter = KnownHashesFilter.fromHashes(
+                    Collections.singletonList(new P2PDataStorage.ByteArray(onlyLocal.getHash())));
+            GetDataRequest getDataRequest = this.buildGetDataRequest(1, new HashSet<>(), knownHashesFilter);
+
+            AtomicBoolean outPNPTruncated = new AtomicBoolean(false);
+            AtomicBoolean outPSETruncated = new AtomicBoolean(false);
+            Capabilities peerCapabilities = new Capabilities();
+            GetDataResponse getDataResponse = this.testState.mockedStorage.buildGetDataResponse(
+                    getDataRequest, 1, outPNPTruncated, outPSETruncated, peerCapabilities);
+
+            assertTrue(getDataResponse.getPersistableNetworkPayloadSet().isEmpty());
+        }
+
         // TESTCASE: Given a GetDataRequest w/o known PNP, don't send more than truncation limit
         // @Test
         public void buildGetDataResponse_unknownPSESendBackTruncation() throws NoSuchAlgorithmException {
@@ -472,6 +522,11 @@ public class P2PDataStorageBuildGetDataResponseTest {
         GetDataRequest buildGetDataRequest(int nonce, Set<byte[]> knownKeys) {
             return new PreliminaryGetDataRequest(nonce, knownKeys);
         }
+
+        @Override
+        GetDataRequest buildGetDataRequest(int nonce, Set<byte[]> knownKeys, KnownHashesFilter knownHashesFilter) {
+            return new PreliminaryGetDataRequest(nonce, knownKeys, knownHashesFilter);
+        }
     }
 
     public static class P2PDataStorageBuildGetDataResponseTestUpdated extends P2PDataStorageBuildGetDataResponseTestBase {
@@ -480,5 +535,10 @@ public class P2PDataStorageBuildGetDataResponseTest {
         GetDataRequest buildGetDataRequest(int nonce, Set<byte[]> knownKeys) {
             return new GetUpdatedDataRequest(new NodeAddress("peer", 10), nonce, knownKeys);
         }
+
+        @Override
+        GetDataRequest buildGetDataRequest(int nonce, Set<byte[]> knownKeys, KnownHashesFilter knownHashesFilter) {
+            return new GetUpdatedDataRequest(new NodeAddress("peer", 10), nonce, knownKeys, knownHashesFilter);
+        }
     }
 }
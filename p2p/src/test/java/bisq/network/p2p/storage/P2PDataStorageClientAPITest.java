@@ -42,6 +42,9 @@ import static bisq.network.p2p.storage.TestState.SavedTestState;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -76,6 +79,18 @@ public class P2PDataStorageClientAPITest {
         this.testState.verifyProtectedStorageAdd(beforeState, protectedStorageEntry, true, true, true, true);
     }
 
+    // TESTCASE: Creating and adding an entry serializes the payload only once
+    @Test
+    public void getProtectedStorageEntry_SerializesPayloadOnce() throws NoSuchAlgorithmException, CryptoException {
+        KeyPair ownerKeys = TestUtils.generateKeyPair();
+
+        ProtectedStoragePayload protectedStoragePayload = spy(new ExpirableProtectedStoragePayloadStub(ownerKeys.getPublic()));
+        ProtectedStorageEntry protectedStorageEntry = this.testState.mockedStorage.getProtectedStorageEntry(protectedStoragePayload, ownerKeys);
+        assertTrue(this.testState.mockedStorage.addProtectedStorageEntry(protectedStorageEntry, TestState.getTestNodeAddress(), null));
+
+        verify(protectedStoragePayload, times(1)).toProtoMessage();
+    }
+
     // TESTCASE: Adding an entry from the getProtectedStorageEntry API of an existing item correctly updates the item
     @Test
     public void getProtectedStorageEntry() throws NoSuchAlgorithmException, CryptoException {
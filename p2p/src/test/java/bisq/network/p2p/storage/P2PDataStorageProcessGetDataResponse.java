@@ -30,15 +30,20 @@ import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
 import java.security.KeyPair;
 import java.security.NoSuchAlgorithmException;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.mockito.MockitoAnnotations;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -261,4 +266,25 @@ public class P2PDataStorageProcessGetDataResponse {
         this.testState.verifyProtectedStorageAdd(
                 beforeState, protectedStorageEntry, true, true, false, true);
     }
+
+    // TESTCASE: GetDataResponse w/ many PSEs is verified on the worker pool and all PSEs are added before the
+    // complete handler is called
+    @Test
+    public void processGetDataResponse_largeResponseAddsAllPSEs() throws NoSuchAlgorithmException, InterruptedException {
+        List<ProtectedStorageEntry> protectedStorageEntries = new ArrayList<>();
+        for (int i = 0; i < P2PDataStorage.MIN_ENTRIES_FOR_PARALLEL_PRE_VERIFICATION; i++) {
+            protectedStorageEntries.add(getProtectedStorageEntryForAdd());
+        }
+        GetDataResponse getDataResponse = buildGetDataResponse(protectedStorageEntries, Collections.emptyList());
+
+        CountDownLatch completeHandlerCalled = new CountDownLatch(1);
+        this.testState.mockedStorage.processGetDataResponse(getDataResponse,
+                this.peerNodeAddress,
+                completeHandlerCalled::countDown);
+
+        assertTrue(completeHandlerCalled.await(10, TimeUnit.SECONDS));
+        protectedStorageEntries.forEach(protectedStorageEntry -> assertEquals(protectedStorageEntry,
+                this.testState.mockedStorage.getMap().get(
+                        P2PDataStorage.get32ByteHashAsByteArray(protectedStorageEntry.getProtectedStoragePayload()))));
+    }
 }
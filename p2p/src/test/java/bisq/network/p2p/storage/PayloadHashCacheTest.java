@@ -0,0 +1,74 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.TestUtils;
+import bisq.network.p2p.storage.mocks.ProtectedStoragePayloadStub;
+import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
+
+import java.security.NoSuchAlgorithmException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class PayloadHashCacheTest {
+    private PayloadHashCache payloadHashCache;
+    private ProtectedStoragePayload protectedStoragePayload;
+
+    @BeforeEach
+    public void setUp() throws NoSuchAlgorithmException {
+        payloadHashCache = new PayloadHashCache();
+        protectedStoragePayload = new ProtectedStoragePayloadStub(TestUtils.generateKeyPair().getPublic());
+    }
+
+    @Test
+    public void testHashOfPayloadMatchesUncachedHash() {
+        P2PDataStorage.ByteArray hash = payloadHashCache.getHashOfPayload(protectedStoragePayload);
+        assertEquals(P2PDataStorage.get32ByteHashAsByteArray(protectedStoragePayload), hash);
+        assertSame(hash, payloadHashCache.getHashOfPayload(protectedStoragePayload));
+    }
+
+    @Test
+    public void testHashOfDataAndSeqNrMatchesUncachedHash() {
+        for (int sequenceNumber : new int[]{0, 1, 2, Integer.MAX_VALUE, -1}) {
+            assertArrayEquals(P2PDataStorage.get32ByteHash(
+                            new P2PDataStorage.DataAndSeqNrPair(protectedStoragePayload, sequenceNumber)),
+                    payloadHashCache.getHashOfDataAndSeqNr(protectedStoragePayload, sequenceNumber));
+        }
+    }
+
+    @Test
+    public void testPayloadIsSerializedOnce() {
+        ProtectedStoragePayload payload = spy(protectedStoragePayload);
+        P2PDataStorage.ByteArray hash = payloadHashCache.getHashOfPayload(payload);
+        byte[] hashOfDataAndSeqNr = payloadHashCache.getHashOfDataAndSeqNr(payload, 1);
+
+        assertEquals(P2PDataStorage.get32ByteHashAsByteArray(protectedStoragePayload), hash);
+        assertArrayEquals(P2PDataStorage.get32ByteHash(new P2PDataStorage.DataAndSeqNrPair(protectedStoragePayload, 1)),
+                hashOfDataAndSeqNr);
+        payloadHashCache.getHashOfDataAndSeqNr(payload, 2);
+        verify(payload, times(1)).toProtoMessage();
+    }
+}
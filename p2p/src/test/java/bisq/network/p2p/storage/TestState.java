@@ -90,6 +90,7 @@ public class TestState {
                 this.protectedDataStoreService, mock(ResourceDataStoreService.class),
                 this.mockSeqNrPersistenceManager,
                 removedPayloadsService,
+                new PayloadHashCache(),
                 this.clockFake,
                 MAX_SEQUENCE_NUMBER_MAP_SIZE_BEFORE_PURGE);
 
@@ -147,6 +148,7 @@ public class TestState {
                 mock(ResourceDataStoreService.class),
                 sequenceNrMapPersistenceManager,
                 removedPayloadsService,
+                new PayloadHashCache(),
                 clock,
                 MAX_SEQUENCE_NUMBER_MAP_SIZE_BEFORE_PURGE);
 
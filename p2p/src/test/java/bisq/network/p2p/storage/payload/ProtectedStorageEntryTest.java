@@ -33,13 +33,18 @@ import java.security.PublicKey;
 import java.time.Clock;
 import java.time.Duration;
 
+import org.mockito.MockedStatic;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
 public class ProtectedStorageEntryTest {
@@ -277,4 +282,37 @@ public class ProtectedStorageEntryTest {
 
         assertTrue(protectedStorageEntry.getCreationTimeStamp() <= baseClock.millis());
     }
+
+    // TESTCASE: The result of a completed signature verification is cached
+    @Test
+    public void isSignatureValid_resultIsCached() throws NoSuchAlgorithmException, CryptoException {
+        KeyPair ownerKeys = TestUtils.generateKeyPair();
+        ProtectedStorageEntry protectedStorageEntry = buildProtectedStorageEntry(ownerKeys, ownerKeys, 1);
+
+        try (MockedStatic<Sig> sig = mockStatic(Sig.class)) {
+            sig.when(() -> Sig.verify(any(PublicKey.class), any(byte[].class), any(byte[].class))).thenReturn(false);
+
+            assertFalse(protectedStorageEntry.isSignatureValid());
+            assertFalse(protectedStorageEntry.isSignatureValid());
+            sig.verify(() -> Sig.verify(any(PublicKey.class), any(byte[].class), any(byte[].class)), times(1));
+        }
+    }
+
+    // TESTCASE: A signature verification which threw is not cached and repeated at the next call
+    @Test
+    public void isSignatureValid_exceptionIsNotCached() throws NoSuchAlgorithmException, CryptoException {
+        KeyPair ownerKeys = TestUtils.generateKeyPair();
+        ProtectedStorageEntry protectedStorageEntry = buildProtectedStorageEntry(ownerKeys, ownerKeys, 1);
+
+        try (MockedStatic<Sig> sig = mockStatic(Sig.class)) {
+            sig.when(() -> Sig.verify(any(PublicKey.class), any(byte[].class), any(byte[].class)))
+                    .thenThrow(new CryptoException("Signature verification failed"))
+                    .thenReturn(true);
+
+            assertFalse(protectedStorageEntry.isSignatureValid());
+            assertTrue(protectedStorageEntry.isSignatureValid());
+            assertTrue(protectedStorageEntry.isSignatureValid());
+            sig.verify(() -> Sig.verify(any(PublicKey.class), any(byte[].class), any(byte[].class)), times(2));
+        }
+    }
 }
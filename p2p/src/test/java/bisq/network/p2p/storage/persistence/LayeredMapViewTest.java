@@ -0,0 +1,66 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LayeredMapViewTest {
+    @Test
+    public void testViewOverLayers() {
+        Map<String, Integer> live = new HashMap<>(Map.of("a", 1));
+        Map<String, Integer> historical = Map.of("b", 2, "c", 3);
+        LayeredMapView<String, Integer> view = new LayeredMapView<>(List.of(live, Map.of(), historical));
+
+        assertEquals(3, view.size());
+        assertEquals(Map.of("a", 1, "b", 2, "c", 3), new HashMap<>(view));
+        assertEquals(2, view.get("b"));
+        assertNull(view.get("d"));
+        assertTrue(view.containsKey("c"));
+        assertTrue(view.keySet().contains("a"));
+        assertFalse(view.containsKey("d"));
+
+        // Changes of the layers are visible in the view
+        live.put("d", 4);
+        assertEquals(4, view.size());
+        assertEquals(4, view.get("d"));
+    }
+
+    @Test
+    public void testViewIsReadOnly() {
+        Map<String, Integer> live = new HashMap<>(Map.of("a", 1));
+        LayeredMapView<String, Integer> view = new LayeredMapView<>(List.of(live));
+
+        assertThrows(UnsupportedOperationException.class, () -> view.put("b", 2));
+        assertThrows(UnsupportedOperationException.class, () -> {
+            var iterator = view.entrySet().iterator();
+            iterator.next();
+            iterator.remove();
+        });
+        assertEquals(1, live.size());
+    }
+}